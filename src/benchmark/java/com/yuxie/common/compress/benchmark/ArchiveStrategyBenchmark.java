@@ -0,0 +1,101 @@
+package com.yuxie.common.compress.benchmark;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.strategy.UnzipStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 归档格式解压策略基准测试
+ * <p>
+ * 对每种归档格式的解压策略，分别测试小、中、大三种总大小与少量、大量条目组合下的解压吞吐量，
+ * 输出每秒解压的压缩包数和每秒读取的解压后数据量（MB/s）。复合格式（.tar.gz 等）由对应的纯压缩格式策略
+ * 识别出TAR后解压。RAR与7Z使用相同的7-Zip解压流程，由于没有RAR的压缩实现，不单独测试。
+ * </p>
+ * <p>
+ * 只测试顺序解压，并行解压的效果见 {@link Bzip2ParallelBenchmark}。加上 {@code -prof gc} 可以同时得到每次操作的分配量。
+ * </p>
+ * <p>
+ * 运行方式：{@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="ArchiveStrategyBenchmark -prof gc"}
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ArchiveStrategyBenchmark {
+
+    /**
+     * 压缩格式
+     */
+    @Param({"zip", "tar", "7z", "tar.gz", "tar.bz2", "tar.xz"})
+    private String format;
+
+    /**
+     * 解压后的总大小
+     */
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private String size;
+
+    /**
+     * 条目数量
+     */
+    @Param({"FEW", "MANY"})
+    private String entries;
+
+    private byte[] archive;
+
+    private UnzipStrategy strategy;
+
+    private byte[] buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        int entryCount = BenchmarkArchives.EntryCount.valueOf(entries).count;
+        archive = BenchmarkArchives.archive(format, entryCount, BenchmarkArchives.ArchiveSize.valueOf(size).bytes / entryCount);
+        strategy = BenchmarkArchives.strategy(format, UnzipConfig.builder()
+            .enableFileTypeCheck(false)
+            .enableConcurrentUnzip(false)
+            .maxFileCount(entryCount)
+            .build());
+        buffer = new byte[8192];
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        strategy.close();
+    }
+
+    /**
+     * 解压并读取全部条目
+     */
+    @Benchmark
+    public void unzip(DecompressedBytes counters, Blackhole blackhole) {
+        strategy.unzip(archive, null, null, (fileInfo, inputStream) -> {
+            int n;
+            while ((n = inputStream.read(buffer)) != -1) {
+                counters.add(n);
+            }
+            blackhole.consume(fileInfo);
+        });
+    }
+}
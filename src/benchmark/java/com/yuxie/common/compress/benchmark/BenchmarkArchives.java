@@ -0,0 +1,164 @@
+package com.yuxie.common.compress.benchmark;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.corpus.ArchiveCorpus;
+import com.yuxie.common.compress.corpus.CorpusSpec;
+import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.strategy.UnzipStrategy;
+import com.yuxie.common.compress.strategy.impl.Bzip2UnzipStrategy;
+import com.yuxie.common.compress.strategy.impl.GzipUnzipStrategy;
+import com.yuxie.common.compress.strategy.impl.Lz4UnzipStrategy;
+import com.yuxie.common.compress.strategy.impl.LzmaUnzipStrategy;
+import com.yuxie.common.compress.strategy.impl.SevenZipUnzipStrategy;
+import com.yuxie.common.compress.strategy.impl.SnappyUnzipStrategy;
+import com.yuxie.common.compress.strategy.impl.TarUnzipStrategy;
+import com.yuxie.common.compress.strategy.impl.XzUnzipStrategy;
+import com.yuxie.common.compress.strategy.impl.ZipUnzipStrategy;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * 基准测试数据
+ * <p>
+ * 通过 {@link ArchiveCorpus} 生成各格式的测试压缩包并创建对应的解压策略。生成的文件缓存在
+ * {@code benchmark.corpus.dir} 系统属性指定的目录中，默认为临时目录下的 {@code file-unzip-benchmark-corpus}，
+ * 再次运行时直接读取。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+final class BenchmarkArchives {
+
+    /**
+     * 生成测试数据使用的随机种子
+     */
+    private static final long SEED = 42;
+
+    /**
+     * 压缩包的解压后总大小
+     */
+    enum ArchiveSize {
+        SMALL(64 * 1024),
+        MEDIUM(4 * 1024 * 1024),
+        LARGE(32 * 1024 * 1024);
+
+        final int bytes;
+
+        ArchiveSize(int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * 压缩包中的条目数量
+     */
+    enum EntryCount {
+        FEW(4),
+        MANY(1000);
+
+        final int count;
+
+        EntryCount(int count) {
+            this.count = count;
+        }
+    }
+
+    private BenchmarkArchives() {
+    }
+
+    /**
+     * 生成测试压缩包
+     *
+     * @param format 格式：zip、tar、7z、tar.gz、tar.bz2、tar.xz，或纯压缩格式gzip、bzip2、xz、lzma、snappy、lz4
+     * @param entryCount 条目数量，纯压缩格式为1时直接压缩条目内容
+     * @param entrySize 每个条目的大小（字节）
+     * @return 压缩包数据
+     * @throws IOException 生成失败时抛出
+     */
+    static byte[] archive(String format, int entryCount, int entrySize) throws IOException {
+        return generate(CorpusSpec.builder()
+            .format(corpusFormat(format))
+            .entryCount(entryCount)
+            .entrySize(entrySize)
+            .tar(format.startsWith("tar."))
+            .build());
+    }
+
+    /**
+     * 按规格生成测试压缩包
+     *
+     * @param spec 压缩包规格
+     * @return 压缩包数据
+     * @throws IOException 生成失败时抛出
+     */
+    static byte[] generate(CorpusSpec spec) throws IOException {
+        String directory = System.getProperty("benchmark.corpus.dir",
+            Paths.get(System.getProperty("java.io.tmpdir"), "file-unzip-benchmark-corpus").toString());
+        return new ArchiveCorpus(SEED, Paths.get(directory)).generateBytes(spec);
+    }
+
+    private static CompressionFormat corpusFormat(String format) {
+        switch (format) {
+            case "zip":
+                return CompressionFormat.ZIP;
+            case "tar":
+                return CompressionFormat.TAR;
+            case "7z":
+                return CompressionFormat.SEVEN_ZIP;
+            case "tar.gz":
+            case "gzip":
+                return CompressionFormat.GZIP;
+            case "tar.bz2":
+            case "bzip2":
+                return CompressionFormat.BZIP2;
+            case "tar.xz":
+            case "xz":
+                return CompressionFormat.XZ;
+            case "lzma":
+                return CompressionFormat.LZMA;
+            case "snappy":
+                return CompressionFormat.SNAPPY;
+            case "lz4":
+                return CompressionFormat.LZ4;
+            default:
+                throw new IllegalArgumentException("不支持的格式: " + format);
+        }
+    }
+
+    /**
+     * 创建格式对应的解压策略
+     *
+     * @param format {@link #archive(String, int, int)} 支持的格式
+     * @param config 解压配置
+     * @return 解压策略
+     */
+    static UnzipStrategy strategy(String format, UnzipConfig config) {
+        switch (format) {
+            case "zip":
+                return new ZipUnzipStrategy(config);
+            case "tar":
+                return new TarUnzipStrategy(config);
+            case "7z":
+                return new SevenZipUnzipStrategy(config);
+            case "tar.gz":
+            case "gzip":
+                return new GzipUnzipStrategy(config);
+            case "tar.bz2":
+            case "bzip2":
+                return new Bzip2UnzipStrategy(config);
+            case "tar.xz":
+            case "xz":
+                return new XzUnzipStrategy(config);
+            case "lzma":
+                return new LzmaUnzipStrategy(config);
+            case "snappy":
+                return new SnappyUnzipStrategy(config);
+            case "lz4":
+                return new Lz4UnzipStrategy(config);
+            default:
+                throw new IllegalArgumentException("不支持的格式: " + format);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.yuxie.common.compress.benchmark;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.strategy.impl.Bzip2UnzipStrategy;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BZIP2按块并行解压基准测试
+ * <p>
+ * 对比 {@link Bzip2UnzipStrategy} 在顺序解压（并发线程数为1）与按块并行解压下解压大文件的耗时。
+ * 测试数据为可压缩的文本，按900KB的块压缩。
+ * </p>
+ * <p>
+ * 运行方式：{@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="Bzip2ParallelBenchmark"}
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class Bzip2ParallelBenchmark {
+
+    /**
+     * 解压后的数据大小（MB）
+     */
+    @Param({"128"})
+    private int sizeMb;
+
+    /**
+     * 并发线程数，为1时按顺序解压
+     */
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private byte[] compressed;
+
+    private Bzip2UnzipStrategy strategy;
+
+    @Setup
+    public void setUp() throws Exception {
+        strategy = new Bzip2UnzipStrategy(UnzipConfig.builder()
+            .maxFileSize((long) sizeMb * 1024 * 1024 * 2)
+            .enableCompoundFormatDetection(false)
+            .concurrentThreads(threads)
+            .build());
+
+        // 生成可压缩的文本数据
+        String[] words = {"alpha", "beta", "gamma", "delta", "epsilon", "zeta", "eta", "theta", "\n"};
+        Random random = new Random(42);
+        long size = (long) sizeMb * 1024 * 1024;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (BZip2CompressorOutputStream output = new BZip2CompressorOutputStream(buffer, 9)) {
+            StringBuilder line = new StringBuilder();
+            for (long written = 0; written < size; ) {
+                line.setLength(0);
+                for (int i = 0; i < 16; i++) {
+                    line.append(words[random.nextInt(words.length)]).append(' ').append(random.nextInt(100000)).append(' ');
+                }
+                byte[] bytes = line.toString().getBytes(StandardCharsets.US_ASCII);
+                output.write(bytes);
+                written += bytes.length;
+            }
+        }
+        compressed = buffer.toByteArray();
+    }
+
+    /**
+     * 解压并读取全部数据
+     */
+    @Benchmark
+    public void decompress(Blackhole blackhole) {
+        strategy.unzip(compressed, null, null, (fileInfo, inputStream) -> {
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = inputStream.read(buffer)) != -1) {
+                blackhole.consume(n);
+            }
+        });
+    }
+}
@@ -0,0 +1,119 @@
+package com.yuxie.common.compress.benchmark;
+
+import com.yuxie.common.compress.util.CompressionCompositeInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 复合输入流读取基准测试
+ * <p>
+ * 以不同的单次读取长度读完约4MB的TAR包，对比 {@link CompressionCompositeInputStream}、
+ * 其通道视图 {@link CompressionCompositeInputStream#asChannel()} 与 {@link BufferedInputStream} 的吞吐量（MB/s），
+ * 读取长度不小于缓冲区大小时复合输入流不经过内部缓冲区。
+ * </p>
+ * <p>
+ * 运行方式：{@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="CompositeStreamBenchmark -prof gc"}
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class CompositeStreamBenchmark {
+
+    /**
+     * 缓冲区大小（字节）
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * 单次读取的长度（字节）
+     */
+    @Param({"1", "512", "8192", "65536"})
+    private int readSize;
+
+    private byte[] data;
+
+    private byte[] target;
+
+    private ByteBuffer targetBuffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        data = BenchmarkArchives.archive("tar", 1, 4 * 1024 * 1024);
+        target = new byte[readSize];
+        targetBuffer = ByteBuffer.allocate(readSize);
+    }
+
+    /**
+     * 通过复合输入流读取
+     */
+    @Benchmark
+    public long composite(DecompressedBytes counters) throws IOException {
+        try (CompressionCompositeInputStream inputStream = new CompressionCompositeInputStream(new ByteArrayInputStream(data), BUFFER_SIZE)) {
+            return drain(inputStream, counters);
+        }
+    }
+
+    /**
+     * 通过复合输入流的通道视图读取
+     */
+    @Benchmark
+    public long channel(DecompressedBytes counters) throws IOException {
+        try (CompressionCompositeInputStream inputStream = new CompressionCompositeInputStream(new ByteArrayInputStream(data), BUFFER_SIZE)) {
+            ReadableByteChannel channel = inputStream.asChannel();
+            long total = 0;
+            int n;
+            while ((n = channel.read(targetBuffer)) != -1) {
+                // 以Buffer调用，编译结果在Java 8上也能运行
+                ((Buffer) targetBuffer).clear();
+                total += n;
+            }
+            counters.add(total);
+            return total;
+        }
+    }
+
+    /**
+     * 通过 {@link BufferedInputStream} 读取，作为对照
+     */
+    @Benchmark
+    public long buffered(DecompressedBytes counters) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(new ByteArrayInputStream(data), BUFFER_SIZE)) {
+            return drain(inputStream, counters);
+        }
+    }
+
+    private long drain(InputStream inputStream, DecompressedBytes counters) throws IOException {
+        long total = 0;
+        int n;
+        while ((n = inputStream.read(target, 0, readSize)) != -1) {
+            total += n;
+        }
+        counters.add(total);
+        return total;
+    }
+}
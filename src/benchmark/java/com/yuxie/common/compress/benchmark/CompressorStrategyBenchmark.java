@@ -0,0 +1,92 @@
+package com.yuxie.common.compress.benchmark;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.strategy.UnzipStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 纯压缩格式解压策略基准测试
+ * <p>
+ * 对每种纯压缩格式的解压策略，分别测试小、中、大三种数据大小下的解压吞吐量，
+ * 输出每秒解压次数和每秒读取的解压后数据量（MB/s）。关闭了复合格式检测，只测量解压缩本身。
+ * </p>
+ * <p>
+ * 只测试顺序解压，并行解压的效果见 {@link Bzip2ParallelBenchmark}。加上 {@code -prof gc} 可以同时得到每次操作的分配量。
+ * </p>
+ * <p>
+ * 运行方式：{@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="CompressorStrategyBenchmark -prof gc"}
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class CompressorStrategyBenchmark {
+
+    /**
+     * 压缩格式
+     */
+    @Param({"gzip", "bzip2", "xz", "lzma", "snappy", "lz4"})
+    private String format;
+
+    /**
+     * 解压后的数据大小
+     */
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private String size;
+
+    private byte[] compressed;
+
+    private UnzipStrategy strategy;
+
+    private byte[] buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        compressed = BenchmarkArchives.archive(format, 1, BenchmarkArchives.ArchiveSize.valueOf(size).bytes);
+        strategy = BenchmarkArchives.strategy(format, UnzipConfig.builder()
+            .enableConcurrentUnzip(false)
+            .enableCompoundFormatDetection(false)
+            .build());
+        buffer = new byte[8192];
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        strategy.close();
+    }
+
+    /**
+     * 解压并读取全部数据
+     */
+    @Benchmark
+    public void decompress(DecompressedBytes counters, Blackhole blackhole) {
+        strategy.unzip(compressed, null, null, (fileInfo, inputStream) -> {
+            int n;
+            while ((n = inputStream.read(buffer)) != -1) {
+                counters.add(n);
+            }
+            blackhole.consume(fileInfo);
+        });
+    }
+}
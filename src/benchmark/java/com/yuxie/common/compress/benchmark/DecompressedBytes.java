@@ -0,0 +1,46 @@
+package com.yuxie.common.compress.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 解压数据量计数器
+ * <p>
+ * 作为JMH辅助计数器与每秒操作数一起输出，{@code megabytes} 一行即每秒读取的解压后数据量（MB/s）。
+ * 每轮迭代开始时清零。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class DecompressedBytes {
+
+    /**
+     * 每MB的字节数
+     */
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    /**
+     * 本轮迭代读取的解压后数据量（MB）
+     */
+    public double megabytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        megabytes = 0;
+    }
+
+    /**
+     * 累计读取的字节数
+     *
+     * @param bytes 读取的字节数
+     */
+    void add(long bytes) {
+        megabytes += bytes / BYTES_PER_MEGABYTE;
+    }
+}
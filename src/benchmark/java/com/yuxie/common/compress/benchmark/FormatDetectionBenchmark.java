@@ -0,0 +1,130 @@
+package com.yuxie.common.compress.benchmark;
+
+import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.format.CompressionFormatDetector;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.tika.Tika;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 压缩格式检测基准测试
+ * <p>
+ * 对比 {@link CompressionFormatDetector} 的魔数跳转表检测与Tika检测每秒能完成的检测次数。
+ * 测试数据为只有一个小条目的ZIP、TAR、GZIP、BZIP2、XZ和7Z文件。
+ * </p>
+ * <p>
+ * 运行方式：{@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="FormatDetectionBenchmark -prof gc"}
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class FormatDetectionBenchmark {
+
+    /**
+     * 被检测的格式
+     */
+    @Param({"zip", "tar", "gzip", "bzip2", "xz", "7z"})
+    private String format;
+
+    private byte[] data;
+
+    private Tika tika;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] content = "format detection benchmark".getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        switch (format) {
+            case "zip":
+                try (ZipArchiveOutputStream output = new ZipArchiveOutputStream(buffer)) {
+                    output.putArchiveEntry(new ZipArchiveEntry("entry.txt"));
+                    output.write(content);
+                    output.closeArchiveEntry();
+                }
+                break;
+            case "tar":
+                try (TarArchiveOutputStream output = new TarArchiveOutputStream(buffer)) {
+                    TarArchiveEntry entry = new TarArchiveEntry("entry.txt");
+                    entry.setSize(content.length);
+                    output.putArchiveEntry(entry);
+                    output.write(content);
+                    output.closeArchiveEntry();
+                }
+                break;
+            case "gzip":
+                try (GzipCompressorOutputStream output = new GzipCompressorOutputStream(buffer)) {
+                    output.write(content);
+                }
+                break;
+            case "bzip2":
+            case "xz":
+            case "7z":
+                buffer.write(BenchmarkArchives.archive(format, 1, content.length));
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的格式: " + format);
+        }
+        data = buffer.toByteArray();
+        tika = new Tika();
+    }
+
+    /**
+     * 在字节数组上按魔数检测
+     */
+    @Benchmark
+    public CompressionFormat magic() {
+        return CompressionFormatDetector.detectByMagic(data, 0, data.length);
+    }
+
+    /**
+     * 在字节数组上检测，包含复合格式检测
+     */
+    @Benchmark
+    public CompressionFormat bytes() {
+        return CompressionFormatDetector.detectFormat(data);
+    }
+
+    /**
+     * 在输入流上检测，包含mark/reset读取文件头的开销
+     */
+    @Benchmark
+    public CompressionFormat stream() throws Exception {
+        return CompressionFormatDetector.detectFormat(new BufferedInputStream(new ByteArrayInputStream(data)));
+    }
+
+    /**
+     * 使用Tika检测MIME类型，作为对照
+     */
+    @Benchmark
+    public String tika() throws IOException {
+        return tika.detect(new ByteArrayInputStream(data));
+    }
+}
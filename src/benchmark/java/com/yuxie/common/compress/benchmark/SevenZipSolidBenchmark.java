@@ -0,0 +1,121 @@
+package com.yuxie.common.compress.benchmark;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.corpus.CorpusSpec;
+import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.strategy.impl.ByteBufferInStream;
+import com.yuxie.common.compress.strategy.impl.SevenZipUnzipStrategy;
+import net.sf.sevenzipjbinding.ExtractOperationResult;
+import net.sf.sevenzipjbinding.IInArchive;
+import net.sf.sevenzipjbinding.SevenZip;
+import net.sf.sevenzipjbinding.simple.ISimpleInArchiveItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 固实7Z压缩包解压基准测试
+ * <p>
+ * 对比逐个条目调用 {@code extractSlow}（每个条目都从固实块开头重新解码）
+ * 与 {@link SevenZipUnzipStrategy} 的批量提取（固实块只解码一遍）在大量小文件下的耗时，
+ * 非固实压缩包作为对照。
+ * </p>
+ * <p>
+ * 运行方式：{@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="SevenZipSolidBenchmark"}
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SevenZipSolidBenchmark {
+
+    /**
+     * 压缩包中的文件数量
+     */
+    @Param({"1000", "4000"})
+    private int fileCount;
+
+    /**
+     * 每个文件的大小（字节）
+     */
+    @Param({"512"})
+    private int fileSize;
+
+    /**
+     * 是否为固实压缩包
+     */
+    @Param({"true", "false"})
+    private boolean solid;
+
+    private byte[] archive;
+
+    private SevenZipUnzipStrategy strategy;
+
+    @Setup
+    public void setUp() throws Exception {
+        SevenZip.initSevenZipFromPlatformJAR();
+        strategy = new SevenZipUnzipStrategy(UnzipConfig.builder()
+            .enableFileTypeCheck(false)
+            .maxFileCount(fileCount)
+            .build());
+        // commons-compress为每个条目单独压缩，固实压缩包由测试数据生成器通过7-Zip-JBinding生成
+        archive = BenchmarkArchives.generate(CorpusSpec.builder()
+            .format(CompressionFormat.SEVEN_ZIP)
+            .entryCount(fileCount)
+            .entrySize(fileSize)
+            .solid(solid)
+            .build());
+    }
+
+    /**
+     * 逐个条目调用extractSlow
+     */
+    @Benchmark
+    public void extractSlowPerItem(Blackhole blackhole) throws Exception {
+        try (IInArchive inArchive = SevenZip.openInArchive(null, new ByteBufferInStream(archive))) {
+            for (ISimpleInArchiveItem item : inArchive.getSimpleInterface().getArchiveItems()) {
+                // 与策略读取相同的条目属性
+                blackhole.consume(item.getPath());
+                blackhole.consume(item.isFolder());
+                blackhole.consume(item.getSize());
+                blackhole.consume(item.getLastWriteTime());
+                ExtractOperationResult result = item.extractSlow(data -> {
+                    blackhole.consume(data);
+                    return data.length;
+                });
+                blackhole.consume(result);
+            }
+        }
+    }
+
+    /**
+     * 策略的批量提取
+     */
+    @Benchmark
+    public void bulkExtract(Blackhole blackhole) {
+        strategy.unzip(archive, null, null, (fileInfo, inputStream) -> {
+            byte[] buffer = new byte[fileSize];
+            int n;
+            while ((n = inputStream.read(buffer)) != -1) {
+                blackhole.consume(n);
+            }
+        });
+    }
+}
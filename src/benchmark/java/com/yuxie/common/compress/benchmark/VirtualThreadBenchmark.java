@@ -0,0 +1,151 @@
+package com.yuxie.common.compress.benchmark;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.monitor.StripedUnzipMetrics;
+import com.yuxie.common.compress.service.UnzipService;
+import com.yuxie.common.compress.util.VirtualThreads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 虚拟线程与平台线程异步解压基准测试
+ * <p>
+ * 同时提交 {@code requests} 个异步解压请求并等待全部完成，每个请求从一个读取时有固定延迟的输入流
+ * 解压一个小ZIP包，模拟从网络或慢速磁盘读取的I/O密集场景。平台线程模式使用固定大小的线程池，
+ * 虚拟线程模式每个请求一个虚拟线程，对比完成全部请求的耗时（ms/op）。
+ * </p>
+ * <p>
+ * 虚拟线程模式需要在JDK 21及以上运行，并且类路径中使用打包后的多版本JAR：
+ * {@code mvn -Pbenchmarks -DskipTests package exec:exec -Djmh.args="VirtualThreadBenchmark"}
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    /**
+     * 平台线程模式的线程数
+     */
+    private static final int PLATFORM_THREADS = 200;
+
+    /**
+     * 线程类型：platform 或 virtual
+     */
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    /**
+     * 同时提交的请求数量
+     */
+    @Param({"10000"})
+    private int requests;
+
+    /**
+     * 每个请求读取输入流时的延迟（毫秒）
+     */
+    @Param({"1"})
+    private int latencyMillis;
+
+    private byte[] data;
+
+    private UnzipService unzipService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && !VirtualThreads.isSupported()) {
+            throw new IllegalStateException("虚拟线程需要JDK 21及以上版本，并使用打包后的多版本JAR运行");
+        }
+        data = BenchmarkArchives.archive("zip", 4, 1024);
+        UnzipConfig unzipConfig = UnzipConfig.builder()
+            .enableVirtualThreads(virtual)
+            .asyncThreads(virtual ? requests : PLATFORM_THREADS)
+            .asyncQueueCapacity(requests)
+            .build();
+        unzipService = new UnzipService(unzipConfig, new StripedUnzipMetrics());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        unzipService.close();
+    }
+
+    /**
+     * 同时提交全部请求并等待完成
+     */
+    @Benchmark
+    public int unzipConcurrently() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            futures[i] = unzipService.unzipAsync(new DelayedInputStream(data, latencyMillis), null, null);
+        }
+        CompletableFuture.allOf(futures).join();
+        return futures.length;
+    }
+
+    /**
+     * 第一次读取前等待固定时间的输入流，模拟I/O延迟
+     */
+    private static final class DelayedInputStream extends FilterInputStream {
+
+        private final long delayMillis;
+
+        private boolean delayed;
+
+        DelayedInputStream(byte[] data, long delayMillis) {
+            super(new ByteArrayInputStream(data));
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public int read() throws IOException {
+            delay();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            delay();
+            return super.read(b, off, len);
+        }
+
+        private void delay() throws IOException {
+            if (delayed) {
+                return;
+            }
+            delayed = true;
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("读取被中断");
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.yuxie.common.compress.benchmark;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.strategy.impl.ZipUnzipStrategy;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ZIP打开和文件名解码基准测试
+ * <p>
+ * 测量 {@link ZipUnzipStrategy} 解压条目内容之前的开销：
+ * <ul>
+ *   <li>{@code createArchiveInputStream}：只创建流式解压使用的归档输入流</li>
+ *   <li>{@code streamEntries}：创建归档输入流并依次读取所有条目头、解码条目名称，不读取条目内容</li>
+ *   <li>{@code centralDirectory}：通过中央目录列出所有条目，不读取条目内容</li>
+ * </ul>
+ * 条目名称为中文，{@code GBK} 时没有UTF-8标志位，需要检测文件名编码。
+ * </p>
+ * <p>
+ * 运行方式：{@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="ZipOpenBenchmark -prof gc"}
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ZipOpenBenchmark {
+
+    /**
+     * 条目数量
+     */
+    @Param({"10", "1000"})
+    private int entryCount;
+
+    /**
+     * 条目名称的编码
+     */
+    @Param({"UTF-8", "GBK"})
+    private String nameEncoding;
+
+    private byte[] archive;
+
+    private OpenableZipStrategy strategy;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] content = "zip open benchmark".getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream output = new ZipArchiveOutputStream(buffer)) {
+            output.setEncoding(nameEncoding);
+            output.setUseLanguageEncodingFlag(StandardCharsets.UTF_8.name().equals(nameEncoding));
+            for (int i = 0; i < entryCount; i++) {
+                output.putArchiveEntry(new ZipArchiveEntry("目录" + (i % 16) + "/文件" + i + ".txt"));
+                output.write(content);
+                output.closeArchiveEntry();
+            }
+        }
+        archive = buffer.toByteArray();
+        strategy = new OpenableZipStrategy(UnzipConfig.builder()
+            .enableFileTypeCheck(false)
+            .enableConcurrentUnzip(false)
+            .maxFileCount(entryCount)
+            .build());
+    }
+
+    /**
+     * 只创建归档输入流
+     */
+    @Benchmark
+    public ArchiveInputStream createArchiveInputStream() throws Exception {
+        return strategy.open(new ByteArrayInputStream(archive));
+    }
+
+    /**
+     * 流式读取所有条目头并解码条目名称
+     */
+    @Benchmark
+    public void streamEntries(Blackhole blackhole) throws Exception {
+        ArchiveInputStream archiveInputStream = strategy.open(new ByteArrayInputStream(archive));
+        ArchiveEntry entry;
+        while ((entry = archiveInputStream.getNextEntry()) != null) {
+            blackhole.consume(strategy.name(archiveInputStream, entry));
+        }
+    }
+
+    /**
+     * 通过中央目录列出所有条目
+     */
+    @Benchmark
+    public void centralDirectory(Blackhole blackhole) {
+        strategy.unzip(archive, null, null, (fileInfo, inputStream) -> blackhole.consume(fileInfo.getPath()));
+    }
+
+    /**
+     * 公开归档输入流创建方法的ZIP解压策略
+     */
+    private static final class OpenableZipStrategy extends ZipUnzipStrategy {
+
+        OpenableZipStrategy(UnzipConfig unzipConfig) {
+            super(unzipConfig);
+        }
+
+        ArchiveInputStream open(InputStream inputStream) throws Exception {
+            return createArchiveInputStream(inputStream);
+        }
+
+        String name(ArchiveInputStream archiveInputStream, ArchiveEntry entry) {
+            return resolveEntryName(archiveInputStream, entry);
+        }
+    }
+}
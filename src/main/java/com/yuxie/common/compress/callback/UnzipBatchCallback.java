@@ -0,0 +1,26 @@
+package com.yuxie.common.compress.callback;
+
+import com.yuxie.common.compress.model.UnzipBatchResult;
+
+/**
+ * 批量解压结果回调接口
+ * <p>
+ * 批量解压中每个压缩包解压完成（无论成功与否）时立即调用，调用顺序为完成顺序，不是输入顺序。
+ * 回调在执行解压的工作线程中调用，多个压缩包的回调可能同时发生，实现必须是线程安全的。
+ * 回调抛出的异常只记录日志，不影响其他压缩包的解压。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see com.yuxie.common.compress.service.UnzipService#unzipBatch(java.util.Collection, UnzipBatchCallback)
+ */
+@FunctionalInterface
+public interface UnzipBatchCallback {
+
+    /**
+     * 单个压缩包解压完成
+     *
+     * @param result 解压结果
+     */
+    void onResult(UnzipBatchResult result);
+}
@@ -0,0 +1,30 @@
+package com.yuxie.common.compress.config;
+
+/**
+ * 解压到目录时的刷盘策略
+ * <p>
+ * 决定写入的文件何时通过 {@link java.nio.channels.FileChannel#force(boolean)} 刷到存储设备。
+ * 刷盘能保证断电后文件内容完整，但每次刷盘都要等待设备完成写入，大量小文件时开销明显。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see UnzipConfig#getFsyncPolicy()
+ */
+public enum FsyncPolicy {
+
+    /**
+     * 不主动刷盘，由操作系统决定何时写回
+     */
+    NONE,
+
+    /**
+     * 每个文件写完、关闭之前刷盘
+     */
+    PER_FILE,
+
+    /**
+     * 全部文件写完后统一刷盘，刷盘前操作系统已有机会在后台写回大部分数据
+     */
+    AT_END
+}
@@ -20,7 +20,7 @@ import java.util.HashSet;
  * <li>允许的文件类型：控制可解压的文件类型</li>
  * <li>最大文件数量：限制压缩包中的文件数量</li>
  * <li>安全检查配置：包括路径遍历、文件类型、大小等检查</li>
- * <li>性能配置：并发解压、超时设置等</li>
+ * <li>性能配置：并发解压、超时设置、7-Zip本地库预热、异步写盘等</li>
  * <li>进度回调：实时获取解压进度</li>
  * <li>校验和验证：确保文件完整性</li>
  * <li>病毒扫描：防止恶意文件</li>
@@ -163,7 +163,8 @@ public class UnzipConfig {
     /**
      * 并发线程数
      * <p>
-     * 用于并发解压的线程数量。
+     * 用于并发解压的线程数量，同时也是7Z/RAR后台提取线程池的线程数，
+     * 超出的7Z/RAR解压请求排队等待。
      * 默认为系统处理器核心数。
      * </p>
      */
@@ -173,7 +174,9 @@ public class UnzipConfig {
     /**
      * 解压超时时间
      * <p>
-     * 单个解压操作的最大执行时间（毫秒）。
+     * 单个解压操作的最大执行时间（毫秒）。解压过程在每个条目和每次读取条目内容时检查是否超时，
+     * 超时后抛出错误码为 {@link com.yuxie.common.compress.exception.UnzipErrorCode#TIMEOUT_ERROR} 的异常。
+     * 异步解压从提交时开始计时，包括在队列中等待的时间。
      * 默认值为60秒。
      * </p>
      */
@@ -240,6 +243,110 @@ public class UnzipConfig {
     @Builder.Default
     private int maxPathLength = 255;
     
+    /**
+     * 7-Zip本地库解压目录
+     * <p>
+     * 7-Zip-JBinding首次初始化时会把本地库解压到该目录后加载。
+     * 只在首次成功初始化时生效，之后指定其他目录会被忽略并记录警告日志；默认为null，表示使用7-Zip-JBinding的默认临时目录。
+     * </p>
+     */
+    private String sevenZipNativeLibDirectory;
+    
+    /**
+     * 是否启用7-Zip本地库预热
+     * <p>
+     * 启用后，UnzipService在构造时就完成7-Zip本地库的初始化，
+     * 避免首个7Z、RAR解压请求承担数百毫秒的初始化延迟。
+     * 默认禁用，在首次解压7Z、RAR文件时初始化。
+     * </p>
+     */
+    @Builder.Default
+    private boolean enableSevenZipWarmUp = false;
+    
+    /**
+     * 是否启用异步写盘
+     * <p>
+     * 解压到目录时，较小的条目读入内存后交给写盘线程写入，解压线程不必等待文件的打开、写入和关闭。
+     * 较大的条目仍由解压线程直接流式写入。禁用时所有条目都由解压线程写入。
+     * 默认启用。
+     * </p>
+     */
+    @Builder.Default
+    private boolean enableAsyncDiskWrite = true;
+    
+    /**
+     * 写盘线程数
+     * <p>
+     * 异步写盘使用的线程数量。写盘主要等待文件系统调用，线程数可以多于处理器核心数。
+     * 默认值为4。
+     * </p>
+     */
+    @Builder.Default
+    private int diskWriterThreads = 4;
+    
+    /**
+     * 写盘队列容量
+     * <p>
+     * 单次解压中已读入内存、等待写入的条目的最大数量，队列满时解压线程等待。
+     * 默认值为64。
+     * </p>
+     */
+    @Builder.Default
+    private int diskWriteQueueCapacity = 64;
+    
+    /**
+     * 是否按条目大小预分配文件
+     * <p>
+     * 启用后，条目大小已知时先通过 {@link java.io.RandomAccessFile#setLength(long)} 把文件设置为最终大小再写入，
+     * 写入大文件时减少文件系统的多次扩展。
+     * 默认禁用。
+     * </p>
+     */
+    @Builder.Default
+    private boolean enableFilePreallocation = false;
+    
+    /**
+     * 解压到目录时的刷盘策略
+     * <p>
+     * 默认为 {@link FsyncPolicy#NONE}，不主动刷盘。
+     * </p>
+     */
+    @Builder.Default
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.NONE;
+    
+    /**
+     * 异步解压线程数
+     * <p>
+     * {@code UnzipService} 的异步解压方法和批量解压使用的线程数量，线程在第一次使用时创建。
+     * 默认值为处理器核心数。
+     * </p>
+     */
+    @Builder.Default
+    private int asyncThreads = Runtime.getRuntime().availableProcessors();
+    
+    /**
+     * 异步解压队列容量
+     * <p>
+     * 等待执行的异步解压请求的最大数量，队列满时新的请求直接以失败结束。
+     * 默认值为256。
+     * </p>
+     */
+    @Builder.Default
+    private int asyncQueueCapacity = 256;
+    
+    /**
+     * 是否使用虚拟线程
+     * <p>
+     * 启用后异步解压的每个请求、解压到目录时的每个写盘任务都在各自的虚拟线程中执行，
+     * 适合从网络等阻塞数据源读取或写入大量小文件的场景。此时同时执行的异步解压请求不超过
+     * {@code asyncThreads + asyncQueueCapacity} 个，写盘任务仍受 {@code diskWriteQueueCapacity} 限制。
+     * 需要在JDK 21及以上运行多版本JAR，其他环境下该配置不生效，继续使用平台线程。
+     * 默认禁用。
+     * </p>
+     */
+    @Builder.Default
+    private boolean enableVirtualThreads = false;
+    
     /**
      * 验证配置参数的有效性
      * <p>
@@ -268,6 +375,21 @@ public class UnzipConfig {
         if (unzipTimeout <= 0) {
             throw new IllegalArgumentException("解压超时时间必须为正数");
         }
+        if (diskWriterThreads <= 0) {
+            throw new IllegalArgumentException("写盘线程数必须为正数");
+        }
+        if (diskWriteQueueCapacity <= 0) {
+            throw new IllegalArgumentException("写盘队列容量必须为正数");
+        }
+        if (fsyncPolicy == null) {
+            throw new IllegalArgumentException("刷盘策略不能为空");
+        }
+        if (asyncThreads <= 0) {
+            throw new IllegalArgumentException("异步解压线程数必须为正数");
+        }
+        if (asyncQueueCapacity <= 0) {
+            throw new IllegalArgumentException("异步解压队列容量必须为正数");
+        }
     }
     
     /**
@@ -1,19 +1,31 @@
 package com.yuxie.common.compress.format;
 
 import com.yuxie.common.compress.exception.UnzipException;
-import org.apache.commons.compress.archivers.ArchiveStreamFactory;
-import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.tika.Tika;
+import org.apache.tika.mime.MediaType;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 压缩格式检测器
- * 通过文件头魔数检测压缩格式
+ * <p>
+ * 通过数据开头最多 {@link #DETECT_HEADER_SIZE} 字节检测压缩格式，检测顺序：
+ * <ul>
+ *   <li>TAR头部：偏移量257处的 {@code ustar} 魔数（POSIX和GNU格式），或头部校验和（没有魔数的旧格式）</li>
+ *   <li>按第一个字节预先建立的跳转表匹配各格式的文件头魔数</li>
+ *   <li>以上都不匹配时才使用Tika检测，Tika在第一次需要时才初始化</li>
+ * </ul>
+ * 魔数检测不分配内存，从输入流检测时使用线程内复用的文件头缓冲区。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
  */
 public class CompressionFormatDetector {
-    
+
     private static final byte[] ZIP_MAGIC = {(byte)0x50, (byte)0x4B, 0x03, 0x04};
     private static final byte[] RAR_MAGIC = {0x52, 0x61, 0x72, 0x21, 0x1A, 0x07};
     private static final byte[] SEVEN_ZIP_MAGIC = {(byte)0x37, 0x7A, (byte)0xBC, (byte)0xAF, 0x27, 0x1C};
@@ -24,7 +36,51 @@ public class CompressionFormatDetector {
     private static final byte[] LZMA_MAGIC = {0x5D, 0x00, 0x00, (byte)0x80, 0x00};
     private static final byte[] SNAPPY_MAGIC = {0x28, (byte)0xB5, 0x2F, (byte)0xFD};
     private static final byte[] LZ4_MAGIC = {0x04, 0x22, 0x4D, 0x18};
-    
+
+    /**
+     * TAR头部块的大小
+     */
+    public static final int TAR_HEADER_SIZE = 512;
+
+    /**
+     * 检测格式时读取的文件头大小
+     */
+    public static final int DETECT_HEADER_SIZE = TAR_HEADER_SIZE;
+
+    /**
+     * TAR头部中ustar魔数的偏移量
+     */
+    private static final int TAR_MAGIC_OFFSET = 257;
+
+    /**
+     * TAR头部中校验和字段的偏移量
+     */
+    private static final int TAR_CHECKSUM_OFFSET = 148;
+
+    /**
+     * TAR头部中校验和字段的长度
+     */
+    private static final int TAR_CHECKSUM_LENGTH = 8;
+
+    /**
+     * 按第一个字节索引的魔数跳转表，没有以该字节开头的格式时为null
+     */
+    private static final Signature[][] SIGNATURES = buildSignatureTable(
+        new Signature(CompressionFormat.ZIP, ZIP_MAGIC),
+        new Signature(CompressionFormat.RAR, RAR_MAGIC),
+        new Signature(CompressionFormat.SEVEN_ZIP, SEVEN_ZIP_MAGIC),
+        new Signature(CompressionFormat.GZIP, GZIP_MAGIC),
+        new Signature(CompressionFormat.BZIP2, BZIP2_MAGIC),
+        new Signature(CompressionFormat.XZ, XZ_MAGIC),
+        new Signature(CompressionFormat.LZMA, LZMA_MAGIC),
+        new Signature(CompressionFormat.SNAPPY, SNAPPY_MAGIC),
+        new Signature(CompressionFormat.LZ4, LZ4_MAGIC));
+
+    /**
+     * 从输入流检测时复用的文件头缓冲区
+     */
+    private static final ThreadLocal<byte[]> HEADER_BUFFER = ThreadLocal.withInitial(() -> new byte[DETECT_HEADER_SIZE]);
+
     /**
      * 检测压缩格式
      */
@@ -32,28 +88,31 @@ public class CompressionFormatDetector {
         if (data == null || data.length == 0) {
             throw new UnzipException("压缩数据不能为空");
         }
+        return detectFormat(data, 0, data.length);
+    }
 
-        // 读取文件头
-        byte[] header = new byte[Math.min(8, data.length)];
-        System.arraycopy(data, 0, header, 0, header.length);
-
-        // 检测压缩格式
-        CompressionFormat format = detectByMagic(header);
+    /**
+     * 检测压缩格式，魔数检测失败时使用Tika检测
+     *
+     * @param data 数据
+     * @param offset 数据开始位置
+     * @param length 数据长度，只使用开头最多 {@link #DETECT_HEADER_SIZE} 字节
+     * @return 压缩格式，无法识别时返回 {@link CompressionFormat#UNKNOWN}
+     */
+    public static CompressionFormat detectFormat(byte[] data, int offset, int length) {
+        CompressionFormat format = detectByMagic(data, offset, length);
         if (format != CompressionFormat.UNKNOWN) {
             return format;
         }
-
-        // 尝试使用Commons Compress的工厂类检测
-        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(data)) {
-            format = detectByCommonsCompress(inputStream);
-            return format;
-        } catch (IOException e) {
-            throw new UnzipException("检测压缩格式失败", e);
-        }
+        return fromMediaType(TikaHolder.TIKA.detect(
+            toArray(data, offset, Math.min(length, DETECT_HEADER_SIZE))));
     }
 
     /**
      * 检测压缩格式（保留原有方法以兼容现有代码）
+     * <p>
+     * 输入流必须支持mark/reset，检测后输入流回到原来的位置。
+     * </p>
      */
     public static CompressionFormat detectFormat(InputStream inputStream) throws UnzipException {
         if (inputStream == null) {
@@ -66,98 +125,226 @@ public class CompressionFormatDetector {
         }
 
         try {
-            // 标记输入流位置
-            inputStream.mark(8);
-            
             // 读取文件头
-            byte[] header = new byte[8];
-            int bytesRead = inputStream.read(header);
-            if (bytesRead < 4) {
-                throw new UnzipException("文件头数据不足");
+            byte[] header = HEADER_BUFFER.get();
+            inputStream.mark(DETECT_HEADER_SIZE);
+            int length = 0;
+            try {
+                int n;
+                while (length < header.length && (n = inputStream.read(header, length, header.length - length)) != -1) {
+                    length += n;
+                }
+            } finally {
+                inputStream.reset();
             }
 
-            // 检测压缩格式
-            CompressionFormat format = detectByMagic(header);
+            CompressionFormat format = detectByMagic(header, 0, length);
             if (format != CompressionFormat.UNKNOWN) {
-                // 重置输入流位置
-                inputStream.reset();
                 return format;
             }
 
-            // 重置输入流位置
-            inputStream.reset();
-            
-            // 尝试使用Commons Compress的工厂类检测
-            format = detectByCommonsCompress(inputStream);
-            return format;
+            // Tika自行mark/reset输入流
+            return fromMediaType(TikaHolder.TIKA.detect(inputStream));
         } catch (IOException e) {
             throw new UnzipException("检测压缩格式失败", e);
         }
     }
-    
-    /**
-     * 通过魔数检测压缩格式
-     */
-    private static CompressionFormat detectByMagic(byte[] header) {
-        if (startsWith(header, ZIP_MAGIC)) {
-            return CompressionFormat.ZIP;
-        } else if (startsWith(header, RAR_MAGIC)) {
-            return CompressionFormat.RAR;
-        } else if (startsWith(header, SEVEN_ZIP_MAGIC)) {
-            return CompressionFormat.SEVEN_ZIP;
-        } else if (startsWith(header, TAR_MAGIC)) {
+
+    /**
+     * 通过魔数检测压缩格式，不分配内存
+     *
+     * @param data 数据
+     * @param offset 数据开始位置
+     * @param length 数据长度
+     * @return 压缩格式，无法识别时返回 {@link CompressionFormat#UNKNOWN}
+     */
+    public static CompressionFormat detectByMagic(byte[] data, int offset, int length) {
+        if (data == null || length <= 0) {
+            return CompressionFormat.UNKNOWN;
+        }
+        // TAR条目名可能以其他格式的魔数开头，先检查TAR头部；非TAR数据的校验和字段通常第一个字节就不是八进制数字
+        if (isTarHeader(data, offset, length)) {
             return CompressionFormat.TAR;
-        } else if (startsWith(header, GZIP_MAGIC)) {
-            return CompressionFormat.GZIP;
-        } else if (startsWith(header, BZIP2_MAGIC)) {
-            return CompressionFormat.BZIP2;
-        } else if (startsWith(header, XZ_MAGIC)) {
-            return CompressionFormat.XZ;
-        } else if (startsWith(header, LZMA_MAGIC)) {
-            return CompressionFormat.LZMA;
-        } else if (startsWith(header, SNAPPY_MAGIC)) {
-            return CompressionFormat.SNAPPY;
-        } else if (startsWith(header, LZ4_MAGIC)) {
-            return CompressionFormat.LZ4;
+        }
+        Signature[] candidates = SIGNATURES[data[offset] & 0xff];
+        if (candidates != null) {
+            for (Signature signature : candidates) {
+                if (matches(data, offset, length, 0, signature.magic)) {
+                    return signature.format;
+                }
+            }
         }
         return CompressionFormat.UNKNOWN;
     }
-    
+
     /**
-     * 通过Commons Compress检测压缩格式
+     * 检查数据是否以TAR头部块开头
+     * <p>
+     * POSIX和GNU格式在偏移量257处有 {@code ustar} 魔数；没有魔数的旧格式（V7）通过头部校验和判断。
+     * </p>
+     *
+     * @param header 数据的开头部分
+     * @param length 有效数据的长度
+     * @return 是TAR头部时返回true
      */
-    private static CompressionFormat detectByCommonsCompress(InputStream inputStream) {
-        try {
-            ArchiveStreamFactory archiveFactory = new ArchiveStreamFactory();
-            archiveFactory.createArchiveInputStream(inputStream);
-            return CompressionFormat.TAR;
-        } catch (Exception ignored) {
-            // 不是归档格式
+    public static boolean isTarHeader(byte[] header, int length) {
+        return header != null && isTarHeader(header, 0, length);
+    }
+
+    private static boolean isTarHeader(byte[] data, int offset, int length) {
+        if (length < TAR_HEADER_SIZE) {
+            return false;
         }
+        return matches(data, offset, length, TAR_MAGIC_OFFSET, TAR_MAGIC)
+            || data[offset] != 0 && verifyTarChecksum(data, offset);
+    }
 
-        try {
-            CompressorStreamFactory compressorFactory = new CompressorStreamFactory();
-            compressorFactory.createCompressorInputStream(inputStream);
-            return CompressionFormat.GZIP; // 默认返回GZIP
-        } catch (Exception ignored) {
-            // 不是压缩格式
+    /**
+     * 校验TAR头部的校验和
+     * <p>
+     * 校验和为头部全部字节之和（校验和字段按空格计算），兼容按有符号字节计算的旧实现。
+     * </p>
+     */
+    private static boolean verifyTarChecksum(byte[] data, int offset) {
+        long storedSum = parseOctal(data, offset + TAR_CHECKSUM_OFFSET, TAR_CHECKSUM_LENGTH);
+        if (storedSum < 0) {
+            return false;
         }
+        long unsignedSum = 0;
+        long signedSum = 0;
+        for (int i = 0; i < TAR_HEADER_SIZE; i++) {
+            byte b = data[offset + i];
+            if (i >= TAR_CHECKSUM_OFFSET && i < TAR_CHECKSUM_OFFSET + TAR_CHECKSUM_LENGTH) {
+                b = ' ';
+            }
+            unsignedSum += b & 0xff;
+            signedSum += b;
+        }
+        return storedSum == unsignedSum || storedSum == signedSum;
+    }
 
-        return CompressionFormat.UNKNOWN;
+    /**
+     * 解析以空格或NUL结尾的八进制数字段
+     *
+     * @return 解析结果，字段不是合法的八进制数时返回-1
+     */
+    private static long parseOctal(byte[] data, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && data[start] == ' ') {
+            start++;
+        }
+        while (end > start && (data[end - 1] == 0 || data[end - 1] == ' ')) {
+            end--;
+        }
+        if (start == end) {
+            return -1;
+        }
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            byte b = data[i];
+            if (b < '0' || b > '7') {
+                return -1;
+            }
+            result = (result << 3) + (b - '0');
+        }
+        return result;
     }
-    
+
     /**
-     * 检查字节数组是否以指定前缀开头
+     * 检查数据在指定位置是否为指定魔数
      */
-    private static boolean startsWith(byte[] array, byte[] prefix) {
-        if (array.length < prefix.length) {
+    private static boolean matches(byte[] data, int offset, int length, int position, byte[] magic) {
+        if (length < position + magic.length) {
             return false;
         }
-        for (int i = 0; i < prefix.length; i++) {
-            if (array[i] != prefix[i]) {
+        for (int i = 0; i < magic.length; i++) {
+            if (data[offset + position + i] != magic[i]) {
                 return false;
             }
         }
         return true;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 把Tika检测出的MIME类型转换为压缩格式
+     */
+    private static CompressionFormat fromMediaType(String type) {
+        String mimeType = MediaType.parse(type).getBaseType().toString();
+        switch (mimeType) {
+            case "application/zip":
+                return CompressionFormat.ZIP;
+            case "application/x-tar":
+                return CompressionFormat.TAR;
+            case "application/gzip":
+            case "application/x-gzip":
+                return CompressionFormat.GZIP;
+            case "application/x-bzip2":
+                return CompressionFormat.BZIP2;
+            case "application/x-xz":
+                return CompressionFormat.XZ;
+            case "application/x-rar-compressed":
+                return CompressionFormat.RAR;
+            case "application/x-7z-compressed":
+                return CompressionFormat.SEVEN_ZIP;
+            default:
+                return CompressionFormat.UNKNOWN;
+        }
+    }
+
+    private static byte[] toArray(byte[] data, int offset, int length) {
+        if (offset == 0 && length == data.length) {
+            return data;
+        }
+        byte[] copy = new byte[length];
+        System.arraycopy(data, offset, copy, 0, length);
+        return copy;
+    }
+
+    private static Signature[][] buildSignatureTable(Signature... signatures) {
+        List<List<Signature>> buckets = new ArrayList<>(256);
+        for (int i = 0; i < 256; i++) {
+            buckets.add(null);
+        }
+        for (Signature signature : signatures) {
+            int first = signature.magic[0] & 0xff;
+            if (buckets.get(first) == null) {
+                buckets.set(first, new ArrayList<>());
+            }
+            buckets.get(first).add(signature);
+        }
+        Signature[][] table = new Signature[256][];
+        for (int i = 0; i < 256; i++) {
+            List<Signature> bucket = buckets.get(i);
+            if (bucket != null) {
+                // 同一首字节下先匹配较长的魔数
+                bucket.sort((a, b) -> b.magic.length - a.magic.length);
+                table[i] = bucket.toArray(new Signature[0]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 格式的文件头魔数
+     */
+    private static final class Signature {
+
+        private final CompressionFormat format;
+
+        private final byte[] magic;
+
+        Signature(CompressionFormat format, byte[] magic) {
+            this.format = format;
+            this.magic = magic;
+        }
+    }
+
+    /**
+     * 延迟初始化Tika，魔数检测成功时不加载Tika的MIME类型库
+     */
+    private static final class TikaHolder {
+
+        private static final Tika TIKA = new Tika();
+    }
+}
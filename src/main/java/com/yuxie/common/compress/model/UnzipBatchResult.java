@@ -0,0 +1,44 @@
+package com.yuxie.common.compress.model;
+
+import com.yuxie.common.compress.exception.UnzipException;
+
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 批量解压中单个压缩包的结果，成功时包含解压后的文件，失败时包含异常
+ */
+@Data
+@Builder
+public class UnzipBatchResult {
+    /**
+     * 压缩包在批量输入中的位置（从0开始）
+     */
+    private int index;
+
+    /**
+     * 解压后的文件信息及其内容，失败时为null
+     */
+    private Map<FileInfo, byte[]> files;
+
+    /**
+     * 解压结果摘要，失败时为null
+     */
+    private UnzipSummary summary;
+
+    /**
+     * 失败原因，成功时为null
+     */
+    private UnzipException error;
+
+    /**
+     * 是否解压成功
+     *
+     * @return 成功时返回true
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
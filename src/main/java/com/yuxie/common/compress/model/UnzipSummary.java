@@ -0,0 +1,59 @@
+package com.yuxie.common.compress.model;
+
+import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.monitor.UnzipPhase;
+
+import java.util.Collections;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 单次解压请求的结果摘要，包括数据量和各处理阶段的耗时
+ */
+@Data
+@Builder
+public class UnzipSummary {
+    /**
+     * 压缩格式
+     */
+    private CompressionFormat format;
+
+    /**
+     * 访问的条目数量
+     */
+    private int fileCount;
+
+    /**
+     * 压缩数据大小（字节），以输入流解压时为从输入流读取的字节数
+     */
+    private long compressedSize;
+
+    /**
+     * 解压后数据大小（字节），即访问器读取的条目内容的字节数
+     */
+    private long uncompressedSize;
+
+    /**
+     * 请求总耗时（纳秒）
+     */
+    private long totalNanos;
+
+    /**
+     * 各处理阶段的耗时（纳秒），各阶段互不重叠，之和等于总耗时
+     */
+    @Builder.Default
+    private Map<UnzipPhase, Long> phaseNanos = Collections.emptyMap();
+
+    /**
+     * 获取处理阶段的耗时
+     *
+     * @param phase 处理阶段
+     * @return 该阶段的耗时（纳秒），没有记录时为0
+     */
+    public long getPhaseNanos(UnzipPhase phase) {
+        Long nanos = phaseNanos.get(phase);
+        return nanos != null ? nanos : 0;
+    }
+}
@@ -1,6 +1,7 @@
 package com.yuxie.common.compress.monitor;
 
 import com.yuxie.common.compress.exception.UnzipErrorCode;
+import com.yuxie.common.compress.util.BufferPool;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.concurrent.atomic.AtomicLong;
@@ -18,6 +19,9 @@ import java.util.HashMap;
  * 5. 解压速度计算
  * 6. 并发任务统计
  * 7. 安全验证统计
+ * 8. 缓冲区池命中统计，包括共享缓冲区池 {@link BufferPool#shared()} 自行统计的次数
+ * 9. 最近一分钟的耗时（包括各处理阶段的耗时）、数据大小和吞吐量直方图
+ * 所有线程更新同一组原子计数器；高并发场景或需要按压缩格式、错误码分类统计时使用 {@link StripedUnzipMetrics}
  */
 @Slf4j
 public class DefaultUnzipMetrics implements UnzipMetrics {
@@ -54,6 +58,21 @@ public class DefaultUnzipMetrics implements UnzipMetrics {
     /** 病毒扫描通过次数 */
     private final AtomicInteger virusScanCount = new AtomicInteger(0);
     
+    /** 缓冲区池命中次数 */
+    private final AtomicLong bufferPoolHits = new AtomicLong(0);
+    
+    /** 缓冲区池未命中（新分配）次数 */
+    private final AtomicLong bufferPoolMisses = new AtomicLong(0);
+    
+    /** 共享缓冲区池在创建或重置监控实例时的命中次数，快照只包含之后的次数 */
+    private volatile long bufferPoolHitsBase = BufferPool.shared().getHitCount();
+    
+    /** 共享缓冲区池在创建或重置监控实例时的未命中次数 */
+    private volatile long bufferPoolMissesBase = BufferPool.shared().getMissCount();
+    
+    /** 耗时、数据大小和吞吐量的直方图 */
+    private final UnzipHistograms histograms = new UnzipHistograms();
+    
     @Override
     public void recordUnzipTime(long milliseconds) {
         totalUnzipTime.addAndGet(milliseconds);
@@ -127,9 +146,35 @@ public class DefaultUnzipMetrics implements UnzipMetrics {
         }
     }
     
+    @Override
+    public void recordBufferPoolAccess(boolean hit) {
+        if (hit) {
+            bufferPoolHits.incrementAndGet();
+        } else {
+            bufferPoolMisses.incrementAndGet();
+        }
+    }
+    
+    @Override
+    public void recordRequest(long durationNanos, long compressedBytes, long uncompressedBytes) {
+        histograms.recordRequest(durationNanos, compressedBytes, uncompressedBytes);
+    }
+    
+    @Override
+    public void recordEntryLatency(long durationNanos) {
+        histograms.recordEntry(durationNanos);
+    }
+
+    @Override
+    public void recordPhase(UnzipPhase phase, long durationNanos) {
+        if (phase != null) {
+            histograms.recordPhase(phase, durationNanos);
+        }
+    }
+    
     @Override
     public UnzipMetricsSnapshot getSnapshot() {
-        return UnzipMetricsSnapshot.builder()
+        return histograms.fill(UnzipMetricsSnapshot.builder())
             .totalUnzipTime(totalUnzipTime.get())
             .totalUnzipSize(totalUnzipSize.get())
             .totalFiles(totalFiles.get())
@@ -140,6 +185,8 @@ public class DefaultUnzipMetrics implements UnzipMetrics {
             .maxConcurrentTasks(maxConcurrentTasks.get())
             .checksumValidationCount(checksumValidationCount.get())
             .virusScanCount(virusScanCount.get())
+            .bufferPoolHits(bufferPoolHits.get() + BufferPool.shared().getHitCount() - bufferPoolHitsBase)
+            .bufferPoolMisses(bufferPoolMisses.get() + BufferPool.shared().getMissCount() - bufferPoolMissesBase)
             .timestamp(System.currentTimeMillis())
             .build();
     }
@@ -163,6 +210,11 @@ public class DefaultUnzipMetrics implements UnzipMetrics {
         maxConcurrentTasks.set(0);
         checksumValidationCount.set(0);
         virusScanCount.set(0);
+        bufferPoolHits.set(0);
+        bufferPoolMisses.set(0);
+        bufferPoolHitsBase = BufferPool.shared().getHitCount();
+        bufferPoolMissesBase = BufferPool.shared().getMissCount();
+        histograms.reset();
     }
     
     @Override
@@ -198,6 +250,9 @@ public class DefaultUnzipMetrics implements UnzipMetrics {
         metrics.put("peakMemoryUsage", snapshot.getPeakMemoryUsage());
         metrics.put("averageUnzipSpeed", snapshot.getAverageUnzipSpeed());
         metrics.put("maxConcurrentTasks", snapshot.getMaxConcurrentTasks());
+        metrics.put("bufferPoolHits", snapshot.getBufferPoolHits());
+        metrics.put("bufferPoolMisses", snapshot.getBufferPoolMisses());
+        UnzipHistograms.putAll(snapshot, metrics);
         return metrics;
     }
 } 
\ No newline at end of file
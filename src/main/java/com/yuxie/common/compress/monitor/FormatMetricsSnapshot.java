@@ -0,0 +1,34 @@
+package com.yuxie.common.compress.monitor;
+
+import com.yuxie.common.compress.format.CompressionFormat;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 单个压缩格式的监控数据快照
+ * 用于比较各压缩格式占用的解压时间和数据量，包括：
+ * 1. 成功和失败次数
+ * 2. 解压时间和大小
+ * 3. 文件数量
+ */
+@Data
+@Builder
+public class FormatMetricsSnapshot {
+    /** 压缩格式 */
+    private CompressionFormat format;
+    
+    /** 成功次数 */
+    private long successCount;
+    
+    /** 失败次数 */
+    private long errorCount;
+    
+    /** 总解压时间（毫秒） */
+    private long totalUnzipTime;
+    
+    /** 总解压大小（字节） */
+    private long totalUnzipSize;
+    
+    /** 总文件数量 */
+    private long totalFiles;
+}
@@ -0,0 +1,211 @@
+package com.yuxie.common.compress.monitor;
+
+/**
+ * 直方图快照
+ * 记录值按对数-线性方式分桶：小于 {@value #SUB_BUCKET_COUNT} 的值每个值一个桶，
+ * 更大的值每个2的幂区间再等分为 {@value #SUB_BUCKET_COUNT} 个桶，
+ * 因此百分位数的相对误差不超过 1/{@value #SUB_BUCKET_COUNT}，与值的大小无关。
+ * 快照不可变，多个快照（如多个时间片、多个实例）可以通过 {@link #merge(HistogramSnapshot)} 合并。
+ */
+public final class HistogramSnapshot {
+    /** 每个2的幂区间内的桶数量的位数 */
+    static final int SUB_BUCKET_BITS = 4;
+
+    /** 每个2的幂区间内的桶数量 */
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /** 能区分的最大位数，不小于 2^MAX_BITS 的值记入最后一个桶 */
+    private static final int MAX_BITS = 48;
+
+    /** 桶的总数 */
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    /** 空快照 */
+    public static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[BUCKET_COUNT], 0, 0, 0, 0);
+
+    /** 每个桶的记录次数 */
+    private final long[] counts;
+
+    /** 记录次数 */
+    private final long count;
+
+    /** 记录值之和 */
+    private final long sum;
+
+    /** 最小值 */
+    private final long min;
+
+    /** 最大值 */
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long min, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.min = count > 0 ? min : 0;
+        this.max = count > 0 ? max : 0;
+    }
+
+    /**
+     * 计算值所在的桶
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) Math.max(value, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_BITS) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * 计算桶中的最大值
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * 获取记录次数
+     *
+     * @return 记录次数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * 获取记录值之和
+     *
+     * @return 记录值之和
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * 获取最小值
+     *
+     * @return 最小值，没有记录时为0
+     */
+    public long getMin() {
+        return min;
+    }
+
+    /**
+     * 获取最大值
+     *
+     * @return 最大值，没有记录时为0
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * 获取平均值
+     *
+     * @return 平均值，没有记录时为0
+     */
+    public double getMean() {
+        return count > 0 ? (double) sum / count : 0;
+    }
+
+    /**
+     * 获取百分位数
+     * <p>
+     * 返回不小于该比例记录值的最小桶的上界（不超过最大值），相对误差不超过 1/{@value #SUB_BUCKET_COUNT}。
+     * </p>
+     *
+     * @param percentile 百分比，取值范围 [0, 100]
+     * @return 百分位数，没有记录时为0
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        double ratio = Math.min(Math.max(percentile, 0), 100) / 100;
+        long target = Math.max(1, (long) Math.ceil(ratio * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                // 最后一个桶没有上界
+                long upperBound = i == BUCKET_COUNT - 1 ? max : bucketUpperBound(i);
+                return Math.max(Math.min(upperBound, max), min);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 获取中位数
+     *
+     * @return 第50百分位数
+     */
+    public long getP50() {
+        return getValueAtPercentile(50);
+    }
+
+    /**
+     * 获取第90百分位数
+     *
+     * @return 第90百分位数
+     */
+    public long getP90() {
+        return getValueAtPercentile(90);
+    }
+
+    /**
+     * 获取第99百分位数
+     *
+     * @return 第99百分位数
+     */
+    public long getP99() {
+        return getValueAtPercentile(99);
+    }
+
+    /**
+     * 获取第99.9百分位数
+     *
+     * @return 第99.9百分位数
+     */
+    public long getP999() {
+        return getValueAtPercentile(99.9);
+    }
+
+    /**
+     * 合并两个快照
+     *
+     * @param other 另一个快照，可以为null
+     * @return 包含两个快照全部记录的新快照
+     */
+    public HistogramSnapshot merge(HistogramSnapshot other) {
+        if (other == null || other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            return other;
+        }
+        long[] merged = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            merged[i] = counts[i] + other.counts[i];
+        }
+        return new HistogramSnapshot(merged, count + other.count, sum + other.sum,
+            Math.min(min, other.min), Math.max(max, other.max));
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot(count=" + count + ", min=" + min + ", p50=" + getP50() + ", p90=" + getP90()
+            + ", p99=" + getP99() + ", p999=" + getP999() + ", max=" + max + ")";
+    }
+}
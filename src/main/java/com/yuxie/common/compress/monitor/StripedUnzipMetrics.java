@@ -0,0 +1,363 @@
+package com.yuxie.common.compress.monitor;
+
+import com.yuxie.common.compress.exception.UnzipErrorCode;
+import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.util.BufferPool;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 分段计数的解压监控实现
+ * 与 {@link DefaultUnzipMetrics} 记录相同的指标，区别在于：
+ * 1. 计数器使用 {@link LongAdder}，最大值使用 {@link LongAccumulator}，
+ *    多个线程同时记录时各自更新不同的计数单元，不会争用同一个缓存行，适合高并发调用
+ * 2. 按压缩格式分别统计成功、失败次数及解压时间、大小和文件数量
+ * 3. 按错误码分别统计错误次数
+ * 4. 与 {@link DefaultUnzipMetrics} 相同的最近一分钟耗时（包括各处理阶段的耗时）、数据大小和吞吐量直方图
+ * 计数器在构造时全部创建，记录时不需要加锁或分配内存；读取快照时汇总各计数单元，
+ * 与并发的记录操作之间不保证原子性。
+ */
+@Slf4j
+public class StripedUnzipMetrics implements UnzipMetrics {
+    /** 总解压时间（毫秒） */
+    private final LongAdder totalUnzipTime = new LongAdder();
+
+    /** 总解压大小（字节） */
+    private final LongAdder totalUnzipSize = new LongAdder();
+
+    /** 总文件数量 */
+    private final LongAdder totalFiles = new LongAdder();
+
+    /** 错误计数 */
+    private final LongAdder errorCount = new LongAdder();
+
+    /** 成功计数 */
+    private final LongAdder successCount = new LongAdder();
+
+    /** 峰值内存使用量（字节） */
+    private final LongAccumulator peakMemoryUsage = new LongAccumulator(Math::max, 0);
+
+    /** 总解压速度（字节/秒） */
+    private final LongAdder totalUnzipSpeed = new LongAdder();
+
+    /** 速度采样次数 */
+    private final LongAdder speedCount = new LongAdder();
+
+    /** 最大并发任务数 */
+    private final LongAccumulator maxConcurrentTasks = new LongAccumulator(Math::max, 0);
+
+    /** 校验和验证成功次数 */
+    private final LongAdder checksumValidationCount = new LongAdder();
+
+    /** 病毒扫描通过次数 */
+    private final LongAdder virusScanCount = new LongAdder();
+
+    /** 缓冲区池命中次数 */
+    private final LongAdder bufferPoolHits = new LongAdder();
+
+    /** 缓冲区池未命中（新分配）次数 */
+    private final LongAdder bufferPoolMisses = new LongAdder();
+
+    /** 共享缓冲区池在创建或重置监控实例时的命中次数，快照只包含之后的次数 */
+    private volatile long bufferPoolHitsBase = BufferPool.shared().getHitCount();
+
+    /** 共享缓冲区池在创建或重置监控实例时的未命中次数 */
+    private volatile long bufferPoolMissesBase = BufferPool.shared().getMissCount();
+
+    /** 耗时、数据大小和吞吐量的直方图 */
+    private final UnzipHistograms histograms = new UnzipHistograms();
+
+    /** 按压缩格式分类的计数器，构造后不再修改 */
+    private final Map<CompressionFormat, FormatCounters> formatCounters = new EnumMap<>(CompressionFormat.class);
+
+    /** 按错误码分类的错误计数，构造后不再修改 */
+    private final Map<UnzipErrorCode, LongAdder> errorCounts = new EnumMap<>(UnzipErrorCode.class);
+
+    /**
+     * 创建监控实例，预先创建所有压缩格式和错误码的计数器
+     */
+    public StripedUnzipMetrics() {
+        for (CompressionFormat format : CompressionFormat.values()) {
+            formatCounters.put(format, new FormatCounters());
+        }
+        for (UnzipErrorCode errorCode : UnzipErrorCode.values()) {
+            errorCounts.put(errorCode, new LongAdder());
+        }
+    }
+
+    @Override
+    public void recordUnzipTime(long milliseconds) {
+        totalUnzipTime.add(milliseconds);
+    }
+
+    @Override
+    public void recordUnzipSize(long bytes) {
+        totalUnzipSize.add(bytes);
+    }
+
+    @Override
+    public void recordError(UnzipErrorCode errorCode) {
+        recordError(null, errorCode);
+    }
+
+    @Override
+    public void recordError(CompressionFormat format, UnzipErrorCode errorCode) {
+        errorCount.increment();
+        if (errorCode != null) {
+            errorCounts.get(errorCode).increment();
+        }
+        if (format != null) {
+            formatCounters.get(format).errorCount.increment();
+        }
+        log.error("解压错误: {}, 格式: {}", errorCode, format);
+    }
+
+    @Override
+    public void recordSuccess() {
+        successCount.increment();
+    }
+
+    @Override
+    public void recordSuccess(CompressionFormat format, long milliseconds, long bytes, int fileCount) {
+        totalUnzipTime.add(milliseconds);
+        totalUnzipSize.add(bytes);
+        totalFiles.add(fileCount);
+        successCount.increment();
+        if (format != null) {
+            FormatCounters counters = formatCounters.get(format);
+            counters.unzipTime.add(milliseconds);
+            counters.unzipSize.add(bytes);
+            counters.files.add(fileCount);
+            counters.successCount.increment();
+        }
+    }
+
+    @Override
+    public void recordMemoryUsage(long bytes) {
+        peakMemoryUsage.accumulate(bytes);
+    }
+
+    @Override
+    public void recordFileCount(int count) {
+        totalFiles.add(count);
+    }
+
+    @Override
+    public void recordUnzipSpeed(long bytesPerSecond) {
+        totalUnzipSpeed.add(bytesPerSecond);
+        speedCount.increment();
+    }
+
+    @Override
+    public void recordPeakMemoryUsage(long bytes) {
+        peakMemoryUsage.accumulate(bytes);
+    }
+
+    @Override
+    public void recordConcurrentTasks(int count) {
+        maxConcurrentTasks.accumulate(count);
+    }
+
+    @Override
+    public void recordChecksumValidation(boolean isValid) {
+        if (isValid) {
+            checksumValidationCount.increment();
+        }
+    }
+
+    @Override
+    public void recordVirusScan(boolean isClean) {
+        if (isClean) {
+            virusScanCount.increment();
+        }
+    }
+
+    @Override
+    public void recordBufferPoolAccess(boolean hit) {
+        if (hit) {
+            bufferPoolHits.increment();
+        } else {
+            bufferPoolMisses.increment();
+        }
+    }
+
+    @Override
+    public void recordRequest(long durationNanos, long compressedBytes, long uncompressedBytes) {
+        histograms.recordRequest(durationNanos, compressedBytes, uncompressedBytes);
+    }
+
+    @Override
+    public void recordEntryLatency(long durationNanos) {
+        histograms.recordEntry(durationNanos);
+    }
+
+    @Override
+    public void recordPhase(UnzipPhase phase, long durationNanos) {
+        if (phase != null) {
+            histograms.recordPhase(phase, durationNanos);
+        }
+    }
+
+    @Override
+    public UnzipMetricsSnapshot getSnapshot() {
+        long speedSamples = speedCount.sum();
+        return histograms.fill(UnzipMetricsSnapshot.builder())
+            .totalUnzipTime(totalUnzipTime.sum())
+            .totalUnzipSize(totalUnzipSize.sum())
+            .totalFiles(totalFiles.intValue())
+            .errorCount(errorCount.intValue())
+            .successCount(successCount.intValue())
+            .peakMemoryUsage(peakMemoryUsage.get())
+            .averageUnzipSpeed(speedSamples > 0 ? totalUnzipSpeed.sum() / speedSamples : 0)
+            .maxConcurrentTasks(maxConcurrentTasks.intValue())
+            .checksumValidationCount(checksumValidationCount.intValue())
+            .virusScanCount(virusScanCount.intValue())
+            .bufferPoolHits(bufferPoolHits.sum() + BufferPool.shared().getHitCount() - bufferPoolHitsBase)
+            .bufferPoolMisses(bufferPoolMisses.sum() + BufferPool.shared().getMissCount() - bufferPoolMissesBase)
+            .formatMetrics(snapshotFormats())
+            .errorCounts(snapshotErrors())
+            .timestamp(System.currentTimeMillis())
+            .build();
+    }
+
+    private Map<CompressionFormat, FormatMetricsSnapshot> snapshotFormats() {
+        Map<CompressionFormat, FormatMetricsSnapshot> result = new EnumMap<>(CompressionFormat.class);
+        for (Map.Entry<CompressionFormat, FormatCounters> entry : formatCounters.entrySet()) {
+            FormatCounters counters = entry.getValue();
+            long successes = counters.successCount.sum();
+            long errors = counters.errorCount.sum();
+            if (successes == 0 && errors == 0) {
+                continue;
+            }
+            result.put(entry.getKey(), FormatMetricsSnapshot.builder()
+                .format(entry.getKey())
+                .successCount(successes)
+                .errorCount(errors)
+                .totalUnzipTime(counters.unzipTime.sum())
+                .totalUnzipSize(counters.unzipSize.sum())
+                .totalFiles(counters.files.sum())
+                .build());
+        }
+        return result;
+    }
+
+    private Map<UnzipErrorCode, Long> snapshotErrors() {
+        Map<UnzipErrorCode, Long> result = new EnumMap<>(UnzipErrorCode.class);
+        for (Map.Entry<UnzipErrorCode, LongAdder> entry : errorCounts.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                result.put(entry.getKey(), count);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 以INFO级别输出当前的监控数据快照
+     * 该实现不写入外部存储，需要保存监控数据时由调用方定期获取 {@link #getSnapshot()} 的结果自行持久化
+     */
+    @Override
+    public void persist() {
+        log.info("监控数据快照: {}", getSnapshot());
+    }
+
+    @Override
+    public void reset() {
+        totalUnzipTime.reset();
+        totalUnzipSize.reset();
+        totalFiles.reset();
+        errorCount.reset();
+        successCount.reset();
+        peakMemoryUsage.reset();
+        totalUnzipSpeed.reset();
+        speedCount.reset();
+        maxConcurrentTasks.reset();
+        checksumValidationCount.reset();
+        virusScanCount.reset();
+        bufferPoolHits.reset();
+        bufferPoolMisses.reset();
+        bufferPoolHitsBase = BufferPool.shared().getHitCount();
+        bufferPoolMissesBase = BufferPool.shared().getMissCount();
+        histograms.reset();
+        for (FormatCounters counters : formatCounters.values()) {
+            counters.reset();
+        }
+        for (LongAdder count : errorCounts.values()) {
+            count.reset();
+        }
+    }
+
+    @Override
+    public void recordProcessingTime(long time) {
+        recordUnzipTime(time);
+    }
+
+    @Override
+    public void recordBytesProcessed(long bytes) {
+        recordUnzipSize(bytes);
+    }
+
+    @Override
+    public void recordFilesProcessed(int count) {
+        recordFileCount(count);
+    }
+
+    @Override
+    public void updatePeakMemoryUsage() {
+        Runtime runtime = Runtime.getRuntime();
+        recordPeakMemoryUsage(runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        UnzipMetricsSnapshot snapshot = getSnapshot();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("totalUnzipTime", snapshot.getTotalUnzipTime());
+        metrics.put("totalUnzipSize", snapshot.getTotalUnzipSize());
+        metrics.put("totalFiles", snapshot.getTotalFiles());
+        metrics.put("errorCount", snapshot.getErrorCount());
+        metrics.put("successCount", snapshot.getSuccessCount());
+        metrics.put("peakMemoryUsage", snapshot.getPeakMemoryUsage());
+        metrics.put("averageUnzipSpeed", snapshot.getAverageUnzipSpeed());
+        metrics.put("maxConcurrentTasks", snapshot.getMaxConcurrentTasks());
+        metrics.put("bufferPoolHits", snapshot.getBufferPoolHits());
+        metrics.put("bufferPoolMisses", snapshot.getBufferPoolMisses());
+        UnzipHistograms.putAll(snapshot, metrics);
+        metrics.put("formatMetrics", snapshot.getFormatMetrics());
+        metrics.put("errorCounts", snapshot.getErrorCounts());
+        return metrics;
+    }
+
+    /**
+     * 单个压缩格式的计数器
+     */
+    private static final class FormatCounters {
+        /** 成功次数 */
+        private final LongAdder successCount = new LongAdder();
+
+        /** 失败次数 */
+        private final LongAdder errorCount = new LongAdder();
+
+        /** 解压时间（毫秒） */
+        private final LongAdder unzipTime = new LongAdder();
+
+        /** 解压大小（字节） */
+        private final LongAdder unzipSize = new LongAdder();
+
+        /** 文件数量 */
+        private final LongAdder files = new LongAdder();
+
+        private void reset() {
+            successCount.reset();
+            errorCount.reset();
+            unzipTime.reset();
+            unzipSize.reset();
+            files.reset();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.yuxie.common.compress.monitor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 解压监控使用的直方图
+ * 按最近 {@value #WINDOW_SECONDS} 秒的滑动窗口统计，包括：
+ * 1. 单次解压请求耗时（纳秒）
+ * 2. 单个条目的处理耗时（纳秒），即访问器处理该条目的时间，流式格式中包含解压该条目的时间
+ * 3. 单次解压请求的压缩数据大小和解压后数据大小（字节）
+ * 4. 单次解压请求的吞吐量（解压后字节/秒）
+ * 5. 单次解压请求各处理阶段的耗时（纳秒）
+ */
+final class UnzipHistograms {
+    /** 滑动窗口长度（秒） */
+    static final long WINDOW_SECONDS = 60;
+
+    /** 滑动窗口的时间片数量 */
+    private static final int WINDOW_SLOTS = 6;
+
+    /** 请求耗时 */
+    private final WindowedHistogram requestLatency = newHistogram();
+
+    /** 条目处理耗时 */
+    private final WindowedHistogram entryLatency = newHistogram();
+
+    /** 压缩数据大小 */
+    private final WindowedHistogram compressedSize = newHistogram();
+
+    /** 解压后数据大小 */
+    private final WindowedHistogram uncompressedSize = newHistogram();
+
+    /** 吞吐量 */
+    private final WindowedHistogram throughput = newHistogram();
+
+    /** 各处理阶段的耗时，构造后不再修改 */
+    private final Map<UnzipPhase, WindowedHistogram> phaseLatency = new EnumMap<>(UnzipPhase.class);
+
+    UnzipHistograms() {
+        for (UnzipPhase phase : UnzipPhase.values()) {
+            phaseLatency.put(phase, newHistogram());
+        }
+    }
+
+    private static WindowedHistogram newHistogram() {
+        return new WindowedHistogram(WINDOW_SECONDS, TimeUnit.SECONDS, WINDOW_SLOTS);
+    }
+
+    void recordRequest(long durationNanos, long compressedBytes, long uncompressedBytes) {
+        requestLatency.record(durationNanos);
+        compressedSize.record(compressedBytes);
+        uncompressedSize.record(uncompressedBytes);
+        if (durationNanos > 0) {
+            throughput.record((long) (uncompressedBytes * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos));
+        }
+    }
+
+    void recordEntry(long durationNanos) {
+        entryLatency.record(durationNanos);
+    }
+
+    void recordPhase(UnzipPhase phase, long durationNanos) {
+        phaseLatency.get(phase).record(durationNanos);
+    }
+
+    /**
+     * 把直方图快照填入监控数据快照
+     */
+    UnzipMetricsSnapshot.UnzipMetricsSnapshotBuilder fill(UnzipMetricsSnapshot.UnzipMetricsSnapshotBuilder builder) {
+        return builder
+            .requestLatency(requestLatency.snapshot())
+            .entryLatency(entryLatency.snapshot())
+            .compressedSize(compressedSize.snapshot())
+            .uncompressedSize(uncompressedSize.snapshot())
+            .throughput(throughput.snapshot())
+            .phaseLatency(snapshotPhases());
+    }
+
+    private Map<UnzipPhase, HistogramSnapshot> snapshotPhases() {
+        Map<UnzipPhase, HistogramSnapshot> result = new EnumMap<>(UnzipPhase.class);
+        for (Map.Entry<UnzipPhase, WindowedHistogram> entry : phaseLatency.entrySet()) {
+            HistogramSnapshot snapshot = entry.getValue().snapshot();
+            if (snapshot.getCount() > 0) {
+                result.put(entry.getKey(), snapshot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 把直方图快照放入指标Map
+     */
+    static void putAll(UnzipMetricsSnapshot snapshot, Map<String, Object> metrics) {
+        metrics.put("requestLatency", snapshot.getRequestLatency());
+        metrics.put("entryLatency", snapshot.getEntryLatency());
+        metrics.put("compressedSize", snapshot.getCompressedSize());
+        metrics.put("uncompressedSize", snapshot.getUncompressedSize());
+        metrics.put("throughput", snapshot.getThroughput());
+        metrics.put("phaseLatency", snapshot.getPhaseLatency());
+    }
+
+    void reset() {
+        requestLatency.reset();
+        entryLatency.reset();
+        compressedSize.reset();
+        uncompressedSize.reset();
+        throughput.reset();
+        for (WindowedHistogram histogram : phaseLatency.values()) {
+            histogram.reset();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.yuxie.common.compress.monitor;
 
 import com.yuxie.common.compress.exception.UnzipErrorCode;
+import com.yuxie.common.compress.format.CompressionFormat;
 import java.util.Map;
 
 /**
@@ -12,6 +13,10 @@ import java.util.Map;
  * 4. 错误和成功记录
  * 5. 并发任务数
  * 6. 安全验证结果
+ * 7. 缓冲区池命中情况
+ * 8. 按压缩格式和错误码分类的统计（见 {@link StripedUnzipMetrics}）
+ * 9. 请求耗时、条目耗时、数据大小和吞吐量的滑动窗口直方图
+ * 10. 请求各处理阶段（见 {@link UnzipPhase}）耗时的滑动窗口直方图
  */
 public interface UnzipMetrics {
     /**
@@ -40,6 +45,65 @@ public interface UnzipMetrics {
      */
     void recordSuccess();
 
+    /**
+     * 记录一次成功的解压
+     * <p>
+     * 默认实现不区分格式，依次记录解压时间、大小、文件数量和成功次数。
+     * </p>
+     *
+     * @param format 压缩格式
+     * @param milliseconds 解压耗时（毫秒）
+     * @param bytes 压缩数据的字节数
+     * @param fileCount 解压的文件数量
+     */
+    default void recordSuccess(CompressionFormat format, long milliseconds, long bytes, int fileCount) {
+        recordUnzipTime(milliseconds);
+        recordUnzipSize(bytes);
+        recordFileCount(fileCount);
+        recordSuccess();
+    }
+
+    /**
+     * 记录一次失败的解压
+     * <p>
+     * 默认实现不区分格式，只记录错误码。
+     * </p>
+     *
+     * @param format 压缩格式，格式检测前失败时为null
+     * @param errorCode 错误码
+     */
+    default void recordError(CompressionFormat format, UnzipErrorCode errorCode) {
+        recordError(errorCode);
+    }
+
+    /**
+     * 记录一次解压请求的耗时和数据量，用于耗时、数据大小和吞吐量的分布统计
+     *
+     * @param durationNanos 请求耗时（纳秒）
+     * @param compressedBytes 压缩数据的字节数
+     * @param uncompressedBytes 解压后数据的字节数
+     */
+    default void recordRequest(long durationNanos, long compressedBytes, long uncompressedBytes) {
+    }
+
+    /**
+     * 记录单个条目的处理耗时，用于条目耗时的分布统计
+     *
+     * @param durationNanos 条目处理耗时（纳秒）
+     */
+    default void recordEntryLatency(long durationNanos) {
+    }
+
+    /**
+     * 记录一次解压请求在某个处理阶段的耗时，用于分阶段耗时的分布统计
+     *
+     * @param phase 处理阶段
+     * @param durationNanos 该阶段的累计耗时（纳秒）
+     * @see UnzipPhaseTimer
+     */
+    default void recordPhase(UnzipPhase phase, long durationNanos) {
+    }
+
     /**
      * 记录内存使用
      *
@@ -89,6 +153,17 @@ public interface UnzipMetrics {
      */
     void recordVirusScan(boolean isClean);
     
+    /**
+     * 记录一次从缓冲区池借出缓冲区
+     * <p>
+     * 共享缓冲区池 {@link com.yuxie.common.compress.util.BufferPool#shared()} 自行统计命中次数，
+     * 监控实现在快照中直接读取，不需要调用该方法；该方法用于报告其他缓冲区池的借出。
+     * </p>
+     *
+     * @param hit 是否复用了池中的缓冲区，为false时表示新分配
+     */
+    void recordBufferPoolAccess(boolean hit);
+    
     /**
      * 获取监控数据快照
      *
@@ -1,8 +1,13 @@
 package com.yuxie.common.compress.monitor;
 
+import com.yuxie.common.compress.exception.UnzipErrorCode;
+import com.yuxie.common.compress.format.CompressionFormat;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * 解压监控数据快照
  * 用于记录解压过程中的关键指标，包括：
@@ -13,6 +18,10 @@ import lombok.Data;
  * 5. 解压速度
  * 6. 并发任务数
  * 7. 安全验证统计
+ * 8. 缓冲区池命中统计
+ * 9. 按压缩格式和错误码分类的统计（只有分类统计的实现才会填充）
+ * 10. 最近一分钟的耗时、数据大小和吞吐量直方图，可获取p50/p90/p99/p999等百分位数
+ * 11. 最近一分钟各处理阶段的耗时直方图
  */
 @Data
 @Builder
@@ -47,6 +56,44 @@ public class UnzipMetricsSnapshot {
     /** 病毒扫描次数 */
     private int virusScanCount;
     
+    /** 缓冲区池命中次数 */
+    private long bufferPoolHits;
+    
+    /** 缓冲区池未命中（新分配）次数 */
+    private long bufferPoolMisses;
+    
+    /** 按压缩格式分类的统计，只包含有记录的格式 */
+    @Builder.Default
+    private Map<CompressionFormat, FormatMetricsSnapshot> formatMetrics = Collections.emptyMap();
+    
+    /** 按错误码分类的错误次数，只包含出现过的错误码 */
+    @Builder.Default
+    private Map<UnzipErrorCode, Long> errorCounts = Collections.emptyMap();
+    
+    /** 最近一分钟单次解压请求耗时的分布（纳秒） */
+    @Builder.Default
+    private HistogramSnapshot requestLatency = HistogramSnapshot.EMPTY;
+    
+    /** 最近一分钟单个条目处理耗时的分布（纳秒） */
+    @Builder.Default
+    private HistogramSnapshot entryLatency = HistogramSnapshot.EMPTY;
+    
+    /** 最近一分钟单次解压请求压缩数据大小的分布（字节） */
+    @Builder.Default
+    private HistogramSnapshot compressedSize = HistogramSnapshot.EMPTY;
+    
+    /** 最近一分钟单次解压请求解压后数据大小的分布（字节） */
+    @Builder.Default
+    private HistogramSnapshot uncompressedSize = HistogramSnapshot.EMPTY;
+    
+    /** 最近一分钟单次解压请求吞吐量的分布（解压后字节/秒） */
+    @Builder.Default
+    private HistogramSnapshot throughput = HistogramSnapshot.EMPTY;
+    
+    /** 最近一分钟单次解压请求各处理阶段耗时的分布（纳秒），只包含有记录的阶段 */
+    @Builder.Default
+    private Map<UnzipPhase, HistogramSnapshot> phaseLatency = Collections.emptyMap();
+    
     /** 快照创建时间戳（毫秒） */
     private long timestamp;
 } 
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.yuxie.common.compress.monitor;
+
+/**
+ * 解压请求的处理阶段
+ * 一次解压请求的耗时由 {@link UnzipPhaseTimer} 按以下阶段划分，各阶段互不重叠：
+ * 1. 格式检测：压缩格式的魔数或Tika检测，以及ZIP文件名编码的检测
+ * 2. 打开：获取解压策略、打开压缩包、解析中央目录或文件头、创建解压缩流
+ * 3. 解码：解压缩数据，包括访问器读取条目内容时等待解压的时间
+ * 4. 校验：压缩包大小、条目数量、路径和文件类型等安全检查
+ * 5. 写入：访问器处理条目内容的时间（不含读取条目内容），如写入内存或磁盘
+ * 6. 关闭：关闭压缩包和解压策略，释放本地资源
+ */
+public enum UnzipPhase {
+    /** 格式检测 */
+    DETECT,
+
+    /** 打开 */
+    OPEN,
+
+    /** 解码 */
+    DECODE,
+
+    /** 校验 */
+    VALIDATE,
+
+    /** 写入 */
+    SINK,
+
+    /** 关闭 */
+    CLOSE
+}
@@ -0,0 +1,174 @@
+package com.yuxie.common.compress.monitor;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 解压请求的分阶段计时器
+ * 计时器在任一时刻只处于一个 {@link UnzipPhase}，切换阶段时把经过的时间计入上一个阶段：
+ * 1. 各阶段的耗时互不重叠，之和等于请求的总耗时
+ * 2. 嵌套的阶段通过 {@link #enter(UnzipPhase)} 返回的上一个阶段恢复，
+ *    例如访问器在写入阶段读取条目内容时切换到解码阶段，读取返回后回到写入阶段
+ * 3. 计时器由 {@link #start(UnzipPhase)} 绑定到发起请求的线程，解压策略和条目输入流通过静态方法
+ *    {@link #enter(UnzipPhase)}、{@link #exit(UnzipPhase)} 切换当前线程的计时器，当前线程没有计时器时不做任何事情
+ * 计时器不是线程安全的，只能在发起请求的线程上使用。并行解压的工作线程不记录阶段，
+ * 它们的耗时体现为发起请求的线程等待解压结果的时间（解码阶段）。
+ */
+public final class UnzipPhaseTimer {
+    /** 当前线程的计时器 */
+    private static final ThreadLocal<UnzipPhaseTimer> CURRENT = new ThreadLocal<>();
+
+    /** 全部阶段 */
+    private static final UnzipPhase[] PHASES = UnzipPhase.values();
+
+    /** 各阶段的累计耗时（纳秒） */
+    private final long[] phaseNanos = new long[PHASES.length];
+
+    /** 开始时间 */
+    private final long startNanos;
+
+    /** 绑定之前当前线程上的计时器，嵌套请求结束后恢复 */
+    private final UnzipPhaseTimer outer;
+
+    /** 当前阶段 */
+    private UnzipPhase phase;
+
+    /** 当前阶段的开始时间 */
+    private long phaseStartNanos;
+
+    /** 总耗时（纳秒），未结束时为-1 */
+    private long totalNanos = -1;
+
+    private UnzipPhaseTimer(UnzipPhase phase, UnzipPhaseTimer outer) {
+        this.startNanos = System.nanoTime();
+        this.phaseStartNanos = startNanos;
+        this.phase = phase;
+        this.outer = outer;
+    }
+
+    /**
+     * 开始计时并绑定到当前线程
+     * <p>
+     * 当前线程已有计时器时（如访问器中又发起了解压请求），新的计时器在 {@link #stop()} 之后恢复原来的计时器，
+     * 原来的计时器继续把这段时间计入它的当前阶段。
+     * </p>
+     *
+     * @param phase 初始阶段
+     * @return 计时器
+     * @throws IllegalArgumentException 当阶段为null时抛出
+     */
+    public static UnzipPhaseTimer start(UnzipPhase phase) {
+        if (phase == null) {
+            throw new IllegalArgumentException("阶段不能为空");
+        }
+        UnzipPhaseTimer timer = new UnzipPhaseTimer(phase, CURRENT.get());
+        CURRENT.set(timer);
+        return timer;
+    }
+
+    /**
+     * 切换当前线程的计时器到指定阶段
+     *
+     * @param phase 新的阶段
+     * @return 切换之前的阶段，用于 {@link #exit(UnzipPhase)}；当前线程没有计时器时返回null
+     */
+    public static UnzipPhase enter(UnzipPhase phase) {
+        UnzipPhaseTimer timer = CURRENT.get();
+        return timer != null ? timer.switchTo(phase) : null;
+    }
+
+    /**
+     * 把当前线程的计时器恢复到 {@link #enter(UnzipPhase)} 之前的阶段
+     *
+     * @param previous {@link #enter(UnzipPhase)} 的返回值，为null时不做任何事情
+     */
+    public static void exit(UnzipPhase previous) {
+        if (previous == null) {
+            return;
+        }
+        UnzipPhaseTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.switchTo(previous);
+        }
+    }
+
+    /**
+     * 切换到指定阶段
+     *
+     * @param next 新的阶段
+     * @return 切换之前的阶段；计时已结束时返回null，阶段不会切换
+     * @throws IllegalArgumentException 当阶段为null时抛出
+     */
+    public UnzipPhase switchTo(UnzipPhase next) {
+        if (next == null) {
+            throw new IllegalArgumentException("阶段不能为空");
+        }
+        if (totalNanos >= 0) {
+            return null;
+        }
+        long now = System.nanoTime();
+        UnzipPhase previous = phase;
+        phaseNanos[previous.ordinal()] += now - phaseStartNanos;
+        phase = next;
+        phaseStartNanos = now;
+        return previous;
+    }
+
+    /**
+     * 结束计时并解除与当前线程的绑定
+     * <p>
+     * 必须在调用 {@link #start(UnzipPhase)} 的线程上调用，重复调用不会重新计时。
+     * </p>
+     *
+     * @return 总耗时（纳秒）
+     */
+    public long stop() {
+        if (totalNanos >= 0) {
+            return totalNanos;
+        }
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - phaseStartNanos;
+        totalNanos = now - startNanos;
+        if (CURRENT.get() == this) {
+            if (outer != null) {
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+        return totalNanos;
+    }
+
+    /**
+     * 获取总耗时
+     *
+     * @return 总耗时（纳秒），未结束时为到目前为止的耗时
+     */
+    public long getTotalNanos() {
+        return totalNanos >= 0 ? totalNanos : System.nanoTime() - startNanos;
+    }
+
+    /**
+     * 获取阶段的累计耗时
+     *
+     * @param phase 阶段
+     * @return 累计耗时（纳秒），不包括尚未结束的当前阶段
+     */
+    public long getPhaseNanos(UnzipPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * 获取各阶段的累计耗时
+     *
+     * @return 按阶段顺序排列的累计耗时（纳秒），包括耗时为0的阶段
+     */
+    public Map<UnzipPhase, Long> getPhaseNanos() {
+        Map<UnzipPhase, Long> result = new EnumMap<>(UnzipPhase.class);
+        for (UnzipPhase p : PHASES) {
+            result.put(p, phaseNanos[p.ordinal()]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,151 @@
+package com.yuxie.common.compress.monitor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 滑动时间窗口直方图
+ * 把时间窗口等分为若干时间片，每个时间片一个对数-线性直方图（分桶方式见 {@link HistogramSnapshot}）：
+ * 1. 记录时只更新当前时间片的原子计数器，不加锁；只有进入新的时间片、需要清空复用旧时间片时才短暂加锁
+ * 2. 快照合并窗口内所有时间片，反映最近一个窗口的数据，而不是进程启动以来的全部数据
+ * 窗口的粒度为一个时间片：快照覆盖的时间在（窗口长度 - 时间片长度，窗口长度]之间。
+ * 清空时间片与并发的记录之间不保证原子性，切换时间片时可能有个别记录计入相邻的时间片。
+ */
+public final class WindowedHistogram {
+    /** 时间片长度（纳秒） */
+    private final long slotNanos;
+
+    /** 时间片，按时间片编号循环使用 */
+    private final Slot[] slots;
+
+    /**
+     * 创建滑动时间窗口直方图
+     *
+     * @param window 窗口长度
+     * @param unit 窗口长度的单位
+     * @param slotCount 时间片数量，越多窗口越精确，占用内存越多
+     * @throws IllegalArgumentException 当窗口长度或时间片数量不是正数时抛出
+     */
+    public WindowedHistogram(long window, TimeUnit unit, int slotCount) {
+        if (window <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("窗口长度和时间片数量必须为正数");
+        }
+        this.slotNanos = Math.max(1, unit.toNanos(window) / slotCount);
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * 记录一个值
+     *
+     * @param value 记录值，负数按0记录
+     */
+    public void record(long value) {
+        long epoch = currentEpoch();
+        Slot slot = slots[(int) Math.floorMod(epoch, (long) slots.length)];
+        if (slot.epoch != epoch) {
+            slot.rotate(epoch);
+        }
+        long normalized = Math.max(value, 0);
+        slot.counts.incrementAndGet(HistogramSnapshot.bucketIndex(normalized));
+        slot.sum.add(normalized);
+        slot.min.accumulate(normalized);
+        slot.max.accumulate(normalized);
+    }
+
+    /**
+     * 获取最近一个窗口的快照
+     *
+     * @return 窗口内全部时间片合并后的快照
+     */
+    public HistogramSnapshot snapshot() {
+        long epoch = currentEpoch();
+        long[] counts = new long[HistogramSnapshot.BUCKET_COUNT];
+        long count = 0;
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (Slot slot : slots) {
+            long slotEpoch = slot.epoch;
+            if (slotEpoch > epoch || slotEpoch <= epoch - slots.length) {
+                continue;
+            }
+            long slotCount = 0;
+            for (int i = 0; i < counts.length; i++) {
+                long n = slot.counts.get(i);
+                counts[i] += n;
+                slotCount += n;
+            }
+            if (slotCount > 0) {
+                count += slotCount;
+                sum += slot.sum.sum();
+                min = Math.min(min, slot.min.get());
+                max = Math.max(max, slot.max.get());
+            }
+        }
+        return count == 0 ? HistogramSnapshot.EMPTY : new HistogramSnapshot(counts, count, sum, min, max);
+    }
+
+    /**
+     * 清空所有时间片
+     */
+    public void reset() {
+        for (Slot slot : slots) {
+            synchronized (slot) {
+                slot.clear();
+                slot.epoch = Long.MIN_VALUE;
+            }
+        }
+    }
+
+    private long currentEpoch() {
+        return Math.floorDiv(System.nanoTime(), slotNanos);
+    }
+
+    /**
+     * 一个时间片的直方图
+     */
+    private static final class Slot {
+        /** 时间片编号，尚未使用时为Long.MIN_VALUE */
+        private volatile long epoch = Long.MIN_VALUE;
+
+        /** 每个桶的记录次数 */
+        private final AtomicLongArray counts = new AtomicLongArray(HistogramSnapshot.BUCKET_COUNT);
+
+        /** 记录值之和 */
+        private final LongAdder sum = new LongAdder();
+
+        /** 最小值 */
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+        /** 最大值 */
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        /**
+         * 清空时间片并切换到新的时间片编号
+         * <p>
+         * 多个线程同时切换时只清空一次；只向后切换，计算编号后被延迟的线程不会清空较新的数据。
+         * </p>
+         */
+        private synchronized void rotate(long newEpoch) {
+            if (epoch >= newEpoch) {
+                return;
+            }
+            clear();
+            epoch = newEpoch;
+        }
+
+        private void clear() {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, 0);
+            }
+            sum.reset();
+            min.reset();
+            max.reset();
+        }
+    }
+}
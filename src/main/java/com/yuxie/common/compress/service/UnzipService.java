@@ -1,5 +1,6 @@
 package com.yuxie.common.compress.service;
 
+import com.yuxie.common.compress.callback.UnzipBatchCallback;
 import com.yuxie.common.compress.callback.UnzipProgressCallback;
 import com.yuxie.common.compress.config.UnzipConfig;
 import com.yuxie.common.compress.exception.UnzipErrorCode;
@@ -7,20 +8,53 @@ import com.yuxie.common.compress.exception.UnzipException;
 import com.yuxie.common.compress.format.CompressionFormat;
 import com.yuxie.common.compress.format.CompressionFormatDetector;
 import com.yuxie.common.compress.model.FileInfo;
+import com.yuxie.common.compress.model.UnzipBatchResult;
+import com.yuxie.common.compress.model.UnzipSummary;
 import com.yuxie.common.compress.monitor.UnzipMetrics;
+import com.yuxie.common.compress.monitor.UnzipPhase;
+import com.yuxie.common.compress.monitor.UnzipPhaseTimer;
 import com.yuxie.common.compress.strategy.UnzipStrategy;
 import com.yuxie.common.compress.strategy.UnzipStrategyFactory;
 import com.yuxie.common.compress.strategy.impl.DefaultUnzipStrategyFactory;
+import com.yuxie.common.compress.strategy.impl.SevenZipNativeInitializer;
+import com.yuxie.common.compress.util.BoundedEntryInputStream;
 import com.yuxie.common.compress.util.CompressionCompositeInputStream;
+import com.yuxie.common.compress.util.ParallelEntryExecutor;
+import com.yuxie.common.compress.util.UnzipDeadline;
+import com.yuxie.common.compress.util.VirtualThreads;
+import com.yuxie.common.compress.visitor.ArchiveEntryVisitor;
+import com.yuxie.common.compress.visitor.DirectoryExtractVisitor;
+import com.yuxie.common.compress.visitor.InMemoryEntryVisitor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.tika.Tika;
-import org.apache.tika.mime.MediaType;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntToLongFunction;
 
 /**
  * 文件解压服务类
@@ -39,29 +73,97 @@ import java.util.Map;
  * 11. LZMA (.lzma)
  * 12. SNAPPY (.snappy)
  * 13. LZ4 (.lz4)
+ * 每次解压都受 {@link UnzipConfig#getUnzipTimeout()} 限制，超时后以 {@link UnzipErrorCode#TIMEOUT_ERROR} 失败。
+ * 以 {@code Async} 结尾的方法在服务自己的有界线程池中执行解压，返回 {@link CompletableFuture}，
+ * 线程池在第一次异步解压时创建，由 {@link #close()} 关闭。
+ * 批量解压（{@link #unzipBatch(Collection, UnzipBatchCallback)}）在服务自己的 {@link ForkJoinPool} 中执行，
+ * 同一格式的小压缩包合并为一个任务，压缩包任务和条目级的并行任务共用这个线程池，通过工作窃取平衡负载。
  */
 @Slf4j
 public class UnzipService implements AutoCloseable {
 
+    /** 异步解压线程池保持空闲线程的时间（秒） */
+    private static final long ASYNC_KEEP_ALIVE_SECONDS = 60L;
+
+    /** 异步解压线程编号 */
+    private static final AtomicInteger ASYNC_THREAD_NUMBER = new AtomicInteger(1);
+
+    /** 批量解压时合并为一个任务的小压缩包的最大总大小（字节） */
+    private static final long BATCH_GROUP_SIZE = 256 * 1024;
+
+    /** 批量解压时合并为一个任务的小压缩包的最大数量 */
+    private static final int BATCH_GROUP_ITEMS = 64;
+
     private final UnzipStrategyFactory strategyFactory;
+
+    /** 服务自己创建的策略工厂，由 {@link #close()} 关闭；外部传入的工厂由调用方管理，此时为null */
+    private final DefaultUnzipStrategyFactory ownedStrategyFactory;
     private final UnzipConfig unzipConfig;
     private final UnzipMetrics metrics;
-    private final Tika tika;
+
+    /** 保护异步解压线程池的创建和关闭 */
+    private final Object asyncLock = new Object();
+
+    /** 异步解压线程池，第一次异步解压时创建；使用虚拟线程时每个请求一个虚拟线程 */
+    private ExecutorService asyncExecutor;
+
+    /** 使用虚拟线程时同时执行的异步解压请求的许可，使用平台线程时为null */
+    private Semaphore asyncPermits;
+
+    /** 异步解压超时后提前结束 {@link CompletableFuture} 的定时器 */
+    private ScheduledThreadPoolExecutor timeoutScheduler;
+
+    /** 批量解压的工作窃取线程池，第一次批量解压时创建 */
+    private ForkJoinPool batchPool;
+
+    /** 是否已关闭 */
+    private boolean closed;
 
     public UnzipService(UnzipConfig unzipConfig, UnzipMetrics metrics) {
-        this.strategyFactory = new DefaultUnzipStrategyFactory(unzipConfig);
+        this.ownedStrategyFactory = new DefaultUnzipStrategyFactory(unzipConfig, metrics);
+        this.strategyFactory = ownedStrategyFactory;
         this.unzipConfig = unzipConfig;
         this.metrics = metrics;
-        this.tika = new Tika();
+        warmUp();
+        checkVirtualThreads();
     }
 
     public UnzipService(UnzipStrategyFactory strategyFactory,
                         UnzipConfig unzipConfig,
                         UnzipMetrics metrics) {
         this.strategyFactory = strategyFactory;
+        this.ownedStrategyFactory = null;
         this.unzipConfig = unzipConfig;
         this.metrics = metrics;
-        this.tika = new Tika();
+        warmUp();
+        checkVirtualThreads();
+    }
+
+    /**
+     * 预热7-Zip本地库
+     * <p>
+     * 启用预热时在构造阶段完成7-Zip本地库的初始化；初始化失败只记录日志，
+     * 不影响其他格式的解压，7Z、RAR解压时会再次报告该错误。
+     * </p>
+     */
+    private void warmUp() {
+        if (unzipConfig == null || !unzipConfig.isEnableSevenZipWarmUp()) {
+            return;
+        }
+        try {
+            SevenZipNativeInitializer.ensureInitialized(unzipConfig.getSevenZipNativeLibDirectory());
+        } catch (UnzipException e) {
+            log.warn("7-Zip本地库预热失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 配置开启了虚拟线程但运行环境不支持时记录日志，继续使用平台线程
+     */
+    private void checkVirtualThreads() {
+        if (unzipConfig != null && unzipConfig.isEnableVirtualThreads() && !VirtualThreads.isSupported()) {
+            log.warn("当前运行环境不支持虚拟线程（需要JDK 21及以上并使用多版本JAR），继续使用平台线程");
+        }
     }
 
     /**
@@ -91,77 +193,435 @@ public class UnzipService implements AutoCloseable {
     }
 
     /**
-     * 内部解压方法，处理公共的解压逻辑
+     * 流式解压文件
+     * <p>
+     * 逐个条目地将文件信息和条目内容的输入流交给访问器处理，条目内容不会整体读入内存。
+     * </p>
+     *
+     * @param data 压缩文件数据
+     * @param callback 进度回调，可以为null
+     * @param visitor 条目访问器
+     * @return 本次解压的结果摘要，包括各处理阶段的耗时
+     * @throws UnzipException 解压异常
+     */
+    public UnzipSummary unzipWithVisitor(byte[] data, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        return unzipInternal(data, progressCallback(callback), visitor, null, true);
+    }
+
+    /**
+     * 解压到目录
+     * <p>
+     * 每个条目的内容边解压边写入目标目录下对应的文件，不在内存中保存条目内容，
+     * 每个父目录只创建一次，只返回文件信息。
+     * </p>
+     *
+     * @param data 压缩文件数据
+     * @param callback 进度回调，可以为null
+     * @param targetDirectory 目标目录，不存在时自动创建
+     * @return 写入的条目的文件信息，按条目在压缩包中的顺序排列
+     * @throws UnzipException 解压异常
+     * @see DirectoryExtractVisitor
+     */
+    public List<FileInfo> extractTo(byte[] data, UnzipProgressCallback callback, Path targetDirectory) throws UnzipException {
+        try (DirectoryExtractVisitor visitor = new DirectoryExtractVisitor(unzipConfig, targetDirectory)) {
+            // 等待写盘完成的时间计入本次请求的写入阶段
+            unzipInternal(data, progressCallback(callback), visitor, visitor::finish, true);
+            return visitor.finish();
+        }
+    }
+
+    /**
+     * 内部解压方法，将所有条目收集到内存中
      */
     private Map<FileInfo, byte[]> unzipInternal(byte[] data, UnzipProgressCallback callback) throws UnzipException {
+        InMemoryEntryVisitor visitor = new InMemoryEntryVisitor(unzipConfig);
+        unzipInternal(data, callback, visitor, null, true);
+        return visitor.getResult();
+    }
+
+    /**
+     * 内部解压方法，处理公共的解压逻辑
+     *
+     * @param completion 全部条目访问完毕后执行的收尾工作（如等待写盘完成），计入写入阶段，可以为null
+     * @param logRequest 是否为本次请求记录开始和完成日志，批量解压时为false
+     */
+    private UnzipSummary unzipInternal(byte[] data, UnzipProgressCallback callback, ArchiveEntryVisitor visitor,
+                                       Runnable completion, boolean logRequest) throws UnzipException {
+        return unzipInternal(data, null, null, callback, visitor, completion, logRequest);
+    }
+
+    /**
+     * 内部解压方法，使用预先检测的压缩格式和解压策略
+     *
+     * @param knownFormat 预先检测的压缩格式，为null时检测格式并从工厂获取解压策略
+     * @param knownStrategy 预先获取的解压策略，与knownFormat同时为null或同时不为null
+     * @param completion 全部条目访问完毕后执行的收尾工作（如等待写盘完成），计入写入阶段，可以为null
+     * @param logRequest 是否为本次请求记录开始和完成日志，批量解压时为false
+     */
+    private UnzipSummary unzipInternal(byte[] data, CompressionFormat knownFormat, UnzipStrategy knownStrategy,
+                                       UnzipProgressCallback callback, ArchiveEntryVisitor visitor,
+                                       Runnable completion, boolean logRequest) throws UnzipException {
         if (data == null || data.length == 0) {
             throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "压缩文件数据不能为空");
         }
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
+        }
 
-        // 安全检查
-        validateSecurity(data);
-
-        log.info("开始解压文件，数据大小: {} 字节", data.length);
-        long startTime = System.currentTimeMillis();
+        if (logRequest) {
+            log.info("开始解压文件，数据大小: {} 字节", data.length);
+        }
 
+        UnzipPhaseTimer timer = UnzipPhaseTimer.start(UnzipPhase.VALIDATE);
+        UnzipDeadline deadline = UnzipDeadline.start(unzipConfig.getUnzipTimeout());
         try {
-            // 检测压缩格式
-            CompressionFormat format = CompressionFormatDetector.detectFormat(data);
-            if (format == CompressionFormat.UNKNOWN) {
-                throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "无法识别的压缩格式");
+            // 安全检查
+            validateSecurity(data.length);
+
+            CompressionFormat format = knownFormat;
+            try {
+                UnzipStrategy strategy = knownStrategy;
+                if (strategy == null) {
+                    // 检测压缩格式
+                    timer.switchTo(UnzipPhase.DETECT);
+                    format = CompressionFormatDetector.detectFormat(data);
+
+                    // 获取对应的解压策略
+                    timer.switchTo(UnzipPhase.OPEN);
+                    strategy = resolveStrategy(format);
+                }
+
+                // 执行解压，统计访问的条目数量
+                // 直接交给策略处理内存数据，需要随机访问的格式（如7Z、RAR）无需再复制数据或创建临时文件
+                timer.switchTo(UnzipPhase.DECODE);
+                int[] fileCount = new int[1];
+                long[] uncompressedSize = new long[1];
+                strategy.unzip(data, null, callback, (fileInfo, entryInputStream) -> {
+                    fileCount[0]++;
+                    visitEntry(visitor, fileInfo, entryInputStream, uncompressedSize);
+                });
+                complete(timer, completion);
+
+                // 记录指标
+                UnzipSummary summary = recordMetrics(format, timer, data.length, uncompressedSize[0], fileCount[0]);
+
+                if (logRequest) {
+                    log.info("文件解压完成，共解压 {} 个文件", fileCount[0]);
+                }
+                return summary;
+            } catch (Exception e) {
+                UnzipException expired = handleError(format, e, deadline);
+                if (expired != null) {
+                    throw expired;
+                }
+                if (e instanceof UnzipException) {
+                    throw (UnzipException) e;
+                }
+                throw new UnzipException(UnzipErrorCode.IO_ERROR, "文件解压失败: " + e.getMessage(), e);
             }
+        } finally {
+            deadline.stop();
+            timer.stop();
+        }
+    }
 
-            // 获取对应的解压策略
-            UnzipStrategy strategy = strategyFactory.getStrategy(format);
-            if (strategy == null) {
-                throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "不支持的压缩格式: " + format);
+    /**
+     * 解压磁盘上的压缩文件
+     * <p>
+     * 通过 {@link FileChannel} 直接读取文件，7Z、RAR等需要随机访问的格式按需读取，
+     * 不会把整个压缩包读入内存，也不会创建临时文件。
+     * </p>
+     *
+     * @param file 压缩文件路径
+     * @return 解压后的文件信息及其内容
+     * @throws UnzipException 解压异常
+     */
+    public Map<FileInfo, byte[]> unzipFile(Path file) throws UnzipException {
+        return unzipInternal(file, null);
+    }
+
+    /**
+     * 带进度回调的解压磁盘上的压缩文件
+     *
+     * @param file 压缩文件路径
+     * @param callback 进度回调
+     * @return 解压后的文件信息及其内容
+     * @throws UnzipException 解压异常
+     */
+    public Map<FileInfo, byte[]> unzipFile(Path file, UnzipProgressCallback callback) throws UnzipException {
+        if (!unzipConfig.isEnableProgressCallback()) {
+            return unzipFile(file);
+        }
+        return unzipInternal(file, callback);
+    }
+
+    /**
+     * 流式解压磁盘上的压缩文件
+     *
+     * @param file 压缩文件路径
+     * @param callback 进度回调，可以为null
+     * @param visitor 条目访问器
+     * @return 本次解压的结果摘要，包括各处理阶段的耗时
+     * @throws UnzipException 解压异常
+     */
+    public UnzipSummary unzipFileWithVisitor(Path file, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        return unzipInternal(file, progressCallback(callback), visitor, null, true);
+    }
+
+    /**
+     * 解压磁盘上的压缩文件到目录
+     * <p>
+     * 压缩包通过 {@link FileChannel} 按需读取，条目内容边解压边写入目标目录，
+     * 内存占用与压缩包和条目的大小无关。
+     * </p>
+     *
+     * @param file 压缩文件路径
+     * @param callback 进度回调，可以为null
+     * @param targetDirectory 目标目录，不存在时自动创建
+     * @return 写入的条目的文件信息，按条目在压缩包中的顺序排列
+     * @throws UnzipException 解压异常
+     * @see DirectoryExtractVisitor
+     */
+    public List<FileInfo> extractFileTo(Path file, UnzipProgressCallback callback, Path targetDirectory) throws UnzipException {
+        try (DirectoryExtractVisitor visitor = new DirectoryExtractVisitor(unzipConfig, targetDirectory)) {
+            unzipInternal(file, progressCallback(callback), visitor, visitor::finish, true);
+            return visitor.finish();
+        }
+    }
+
+    /**
+     * 内部解压方法，将磁盘文件中的所有条目收集到内存中
+     */
+    private Map<FileInfo, byte[]> unzipInternal(Path file, UnzipProgressCallback callback) throws UnzipException {
+        InMemoryEntryVisitor visitor = new InMemoryEntryVisitor(unzipConfig);
+        unzipInternal(file, callback, visitor, null, true);
+        return visitor.getResult();
+    }
+
+    /**
+     * 内部解压方法，处理磁盘文件的解压逻辑
+     *
+     * @param completion 全部条目访问完毕后执行的收尾工作（如等待写盘完成），计入写入阶段，可以为null
+     * @param logRequest 是否为本次请求记录开始和完成日志，批量解压时为false
+     */
+    private UnzipSummary unzipInternal(Path file, UnzipProgressCallback callback, ArchiveEntryVisitor visitor,
+                                       Runnable completion, boolean logRequest) throws UnzipException {
+        return unzipInternal(file, null, null, callback, visitor, completion, logRequest);
+    }
+
+    /**
+     * 内部解压方法，使用预先检测的压缩格式和解压策略解压磁盘文件
+     *
+     * @param knownFormat 预先检测的压缩格式，为null时读取文件头检测格式并从工厂获取解压策略
+     * @param knownStrategy 预先获取的解压策略，与knownFormat同时为null或同时不为null
+     * @param completion 全部条目访问完毕后执行的收尾工作（如等待写盘完成），计入写入阶段，可以为null
+     * @param logRequest 是否为本次请求记录开始和完成日志，批量解压时为false
+     */
+    private UnzipSummary unzipInternal(Path file, CompressionFormat knownFormat, UnzipStrategy knownStrategy,
+                                       UnzipProgressCallback callback, ArchiveEntryVisitor visitor,
+                                       Runnable completion, boolean logRequest) throws UnzipException {
+        if (file == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "压缩文件路径不能为空");
+        }
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
+        }
+
+        UnzipPhaseTimer timer = UnzipPhaseTimer.start(UnzipPhase.OPEN);
+        UnzipDeadline deadline = UnzipDeadline.start(unzipConfig.getUnzipTimeout());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize == 0) {
+                throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "压缩文件数据不能为空");
+            }
+
+            if (logRequest) {
+                log.info("开始解压文件: {}，文件大小: {} 字节", file, fileSize);
             }
 
-            // 创建输入流并执行解压
-            try (ByteArrayInputStream inputStream = new ByteArrayInputStream(data);
-                 CompressionCompositeInputStream compositeInputStream = new CompressionCompositeInputStream(inputStream)) {
-                
-                // 执行解压，使用新的方法避免重复封装
-                Map<FileInfo, byte[]> result = callback != null ?
-                    strategy.unzipWithCompositeStream(compositeInputStream, callback) :
-                    strategy.unzipWithCompositeStream(compositeInputStream);
+            // 安全检查
+            timer.switchTo(UnzipPhase.VALIDATE);
+            validateSecurity(fileSize);
+
+            CompressionFormat format = knownFormat;
+            try {
+                UnzipStrategy strategy = knownStrategy;
+                if (strategy == null) {
+                    // 读取文件头检测压缩格式
+                    timer.switchTo(UnzipPhase.DETECT);
+                    format = detectFormat(channel, fileSize);
+
+                    // 获取对应的解压策略
+                    timer.switchTo(UnzipPhase.OPEN);
+                    strategy = resolveStrategy(format);
+                }
+
+                // 执行解压，统计访问的条目数量
+                timer.switchTo(UnzipPhase.DECODE);
+                int[] fileCount = new int[1];
+                long[] uncompressedSize = new long[1];
+                strategy.unzip(channel, null, callback, (fileInfo, entryInputStream) -> {
+                    fileCount[0]++;
+                    visitEntry(visitor, fileInfo, entryInputStream, uncompressedSize);
+                });
+                complete(timer, completion);
 
                 // 记录指标
-                recordMetrics(startTime, data.length, result.size());
+                UnzipSummary summary = recordMetrics(format, timer, fileSize, uncompressedSize[0], fileCount[0]);
 
-                log.info("文件解压完成，共解压 {} 个文件", result.size());
-                return result;
-            }
-        } catch (Exception e) {
-            handleError(e);
-            if (e instanceof UnzipException) {
-                throw (UnzipException) e;
+                if (logRequest) {
+                    log.info("文件解压完成，共解压 {} 个文件", fileCount[0]);
+                }
+                return summary;
+            } catch (Exception e) {
+                UnzipException expired = handleError(format, e, deadline);
+                if (expired != null) {
+                    throw expired;
+                }
+                if (e instanceof UnzipException) {
+                    throw (UnzipException) e;
+                }
+                throw new UnzipException(UnzipErrorCode.IO_ERROR, "文件解压失败: " + e.getMessage(), e);
             }
-            throw new UnzipException(UnzipErrorCode.IO_ERROR, "文件解压失败: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "读取压缩文件失败: " + file, e);
+        } finally {
+            deadline.stop();
+            timer.stop();
+        }
+    }
+
+    /**
+     * 读取文件头检测压缩格式
+     */
+    private static CompressionFormat detectFormat(FileChannel channel, long fileSize) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate((int) Math.min(CompressionFormatDetector.DETECT_HEADER_SIZE, fileSize));
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // 继续读取直到文件头读满
+        }
+        return CompressionFormatDetector.detectFormat(header.array(), 0, header.position());
+    }
+
+    /**
+     * 获取压缩格式对应的解压策略
+     *
+     * @throws UnzipException 当格式无法识别或不支持时抛出
+     */
+    private UnzipStrategy resolveStrategy(CompressionFormat format) throws UnzipException {
+        if (format == CompressionFormat.UNKNOWN) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "无法识别的压缩格式");
+        }
+        UnzipStrategy strategy = strategyFactory.getStrategy(format);
+        if (strategy == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "不支持的压缩格式: " + format);
+        }
+        return strategy;
+    }
+
+    /**
+     * 交给访问器处理一个条目，记录条目耗时并累计解压后的字节数
+     * <p>
+     * 访问器的处理时间计入写入阶段，其中读取条目内容的时间由条目输入流计入解码阶段。
+     * </p>
+     */
+    private void visitEntry(ArchiveEntryVisitor visitor, FileInfo fileInfo, InputStream entryInputStream,
+                            long[] uncompressedSize) throws IOException {
+        long entryStart = System.nanoTime();
+        UnzipPhase previous = UnzipPhaseTimer.enter(UnzipPhase.SINK);
+        try {
+            visitor.visitEntry(fileInfo, entryInputStream);
+        } finally {
+            UnzipPhaseTimer.exit(previous);
+        }
+        metrics.recordEntryLatency(System.nanoTime() - entryStart);
+        // 解压策略交给访问器的都是有界输入流，按访问器实际读取的字节数统计
+        uncompressedSize[0] += entryInputStream instanceof BoundedEntryInputStream
+            ? ((BoundedEntryInputStream) entryInputStream).getBytesRead()
+            : Math.max(fileInfo.getSize(), 0);
+    }
+
+    /**
+     * 执行访问完毕后的收尾工作，计入写入阶段
+     */
+    private static void complete(UnzipPhaseTimer timer, Runnable completion) {
+        if (completion != null) {
+            timer.switchTo(UnzipPhase.SINK);
+            completion.run();
+        }
+    }
+
+    /**
+     * 结束计时并记录指标
+     *
+     * @return 本次解压的结果摘要
+     */
+    private UnzipSummary recordMetrics(CompressionFormat format, UnzipPhaseTimer timer, long dataSize,
+                                       long uncompressedSize, int fileCount) {
+        long elapsed = timer.stop();
+        Map<UnzipPhase, Long> phaseNanos = timer.getPhaseNanos();
+        metrics.recordSuccess(format, TimeUnit.NANOSECONDS.toMillis(elapsed), dataSize, fileCount);
+        metrics.recordRequest(elapsed, dataSize, uncompressedSize);
+        for (Map.Entry<UnzipPhase, Long> entry : phaseNanos.entrySet()) {
+            metrics.recordPhase(entry.getKey(), entry.getValue());
         }
+        return UnzipSummary.builder()
+            .format(format)
+            .fileCount(fileCount)
+            .compressedSize(dataSize)
+            .uncompressedSize(uncompressedSize)
+            .totalNanos(elapsed)
+            .phaseNanos(phaseNanos)
+            .build();
     }
 
-    private void recordMetrics(long startTime, long dataSize, int fileCount) {
-        long endTime = System.currentTimeMillis();
-        metrics.recordUnzipTime(endTime - startTime);
-        metrics.recordUnzipSize(dataSize);
-        metrics.recordFileCount(fileCount);
-        metrics.recordSuccess();
+    /**
+     * 未启用进度回调时忽略传入的回调
+     */
+    private UnzipProgressCallback progressCallback(UnzipProgressCallback callback) {
+        return unzipConfig.isEnableProgressCallback() ? callback : null;
+    }
+
+    /**
+     * 记录解压失败，截止时间已到期时按超时或取消记录
+     * <p>
+     * 解压策略会把截止时间到期的异常包装为其他错误，这里根据截止时间还原错误码。
+     * </p>
+     *
+     * @return 截止时间已到期时返回对应的异常，否则返回null
+     */
+    private UnzipException handleError(CompressionFormat format, Exception e, UnzipDeadline deadline) {
+        UnzipException expired = deadline.toException(e);
+        handleError(format, expired != null ? expired : e);
+        return expired;
     }
 
-    private void handleError(Exception e) {
-        metrics.recordError(UnzipErrorCode.IO_ERROR);
+    private void handleError(CompressionFormat format, Exception e) {
+        metrics.recordError(format, errorCodeOf(e));
         log.error("文件解压失败", e);
     }
 
+    /**
+     * 获取异常对应的错误码，不是 {@link UnzipException} 的异常按IO错误处理
+     */
+    private static UnzipErrorCode errorCodeOf(Exception e) {
+        if (e instanceof UnzipException) {
+            try {
+                return UnzipErrorCode.valueOf(((UnzipException) e).getErrorCode());
+            } catch (IllegalArgumentException ignored) {
+                return UnzipErrorCode.UNZIP_ERROR;
+            }
+        }
+        return UnzipErrorCode.IO_ERROR;
+    }
+
     /**
      * 安全检查
      */
-    private void validateSecurity(byte[] data) throws UnzipException {
+    private void validateSecurity(long dataSize) throws UnzipException {
         // 文件大小检查
-        if (data.length > unzipConfig.getMaxFileSize()) {
+        if (dataSize > unzipConfig.getMaxFileSize()) {
             throw new UnzipException(UnzipErrorCode.FILE_TOO_LARGE,
-                String.format("文件大小超过限制: %d > %d", data.length, unzipConfig.getMaxFileSize()));
+                String.format("文件大小超过限制: %d > %d", dataSize, unzipConfig.getMaxFileSize()));
         }
     }
 
@@ -174,126 +634,809 @@ public class UnzipService implements AutoCloseable {
 
     /**
      * 解压文件到指定目录
+     * <p>
+     * 先把全部条目读入内存再写入磁盘，返回的Map中包含全部条目内容。
+     * 不需要条目内容时应使用 {@link #extractTo(InputStream, String, UnzipProgressCallback, Path)}。
+     * </p>
      */
     public Map<FileInfo, byte[]> unzip(InputStream inputStream, String password, UnzipProgressCallback callback, String targetPath) throws UnzipException {
         return unzipInternal(inputStream, password, callback, targetPath);
     }
 
+    /**
+     * 解压输入流到目录
+     * <p>
+     * 每个条目的内容边解压边写入目标目录下对应的文件，不在内存中保存条目内容，只返回文件信息。
+     * </p>
+     *
+     * @param inputStream 压缩文件输入流
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调，可以为null
+     * @param targetDirectory 目标目录，不存在时自动创建
+     * @return 写入的条目的文件信息，按条目在压缩包中的顺序排列
+     * @throws UnzipException 解压异常
+     * @see DirectoryExtractVisitor
+     */
+    public List<FileInfo> extractTo(InputStream inputStream, String password, UnzipProgressCallback callback, Path targetDirectory) throws UnzipException {
+        try (DirectoryExtractVisitor visitor = new DirectoryExtractVisitor(unzipConfig, targetDirectory)) {
+            unzipStreamInternal(inputStream, password, callback, visitor, visitor::finish);
+            return visitor.finish();
+        }
+    }
+
+    /**
+     * 流式解压输入流
+     * <p>
+     * 逐个条目地将文件信息和条目内容的输入流交给访问器处理，条目内容不会整体读入内存。
+     * </p>
+     *
+     * @param inputStream 压缩文件输入流
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调，可以为null
+     * @param visitor 条目访问器
+     * @return 本次解压的结果摘要，包括各处理阶段的耗时
+     * @throws UnzipException 解压异常
+     */
+    public UnzipSummary unzipWithVisitor(InputStream inputStream, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        return unzipStreamInternal(inputStream, password, callback, visitor, null);
+    }
+
     /**
      * 内部解压方法，处理共同的解压逻辑
      */
     private Map<FileInfo, byte[]> unzipInternal(InputStream inputStream, String password, UnzipProgressCallback callback, String targetPath) throws UnzipException {
+        InMemoryEntryVisitor visitor = new InMemoryEntryVisitor(unzipConfig);
+
+        // 如果指定了目标路径，将文件写入磁盘，写盘时间计入本次请求的写入阶段
+        Runnable completion = null;
+        if (targetPath != null && !targetPath.trim().isEmpty()) {
+            completion = () -> writeFilesToDisk(visitor.getResult(), targetPath);
+        }
+        unzipStreamInternal(inputStream, password, callback, visitor, completion);
+
+        return visitor.getResult();
+    }
+
+    /**
+     * 内部流式解压方法
+     *
+     * @param completion 全部条目访问完毕后执行的收尾工作（如写入磁盘），计入写入阶段，可以为null
+     */
+    private UnzipSummary unzipStreamInternal(InputStream inputStream, String password, UnzipProgressCallback callback,
+                                             ArchiveEntryVisitor visitor, Runnable completion) throws UnzipException {
         // 参数验证
         if (inputStream == null) {
             throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "输入流不能为空");
         }
-
-        // 使用复合输入流管理资源
-        CompressionCompositeInputStream compositeInputStream = new CompressionCompositeInputStream(inputStream);
-        
-        // 检测压缩格式
-        CompressionFormat format = detectFormat(compositeInputStream);
-        if (format == null) {
-            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "无法识别的压缩格式");
-        }
-
-        // 获取解压策略
-        UnzipStrategy strategy = strategyFactory.getStrategy(format);
-        if (strategy == null) {
-            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "不支持的压缩格式: " + format);
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
         }
 
+        UnzipPhaseTimer timer = UnzipPhaseTimer.start(UnzipPhase.DETECT);
+        UnzipDeadline deadline = UnzipDeadline.start(unzipConfig.getUnzipTimeout());
         try {
-            // 执行解压
-            Map<FileInfo, byte[]> result = strategy.unzip(compositeInputStream, password, callback);
+            // 使用复合输入流管理资源
+            CompressionCompositeInputStream compositeInputStream = new CompressionCompositeInputStream(inputStream, unzipConfig.getBufferSize());
 
-            // 如果指定了目标路径，将文件写入磁盘
-            if (targetPath != null && !targetPath.trim().isEmpty()) {
-                writeFilesToDisk(result, targetPath);
+            // 检测压缩格式，复合输入流在自身缓冲区中mark/reset，检测后回到开头
+            CompressionFormat format = CompressionFormatDetector.detectFormat(compositeInputStream);
+            if (format == CompressionFormat.UNKNOWN) {
+                throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "无法识别的压缩格式");
             }
 
-            return result;
-        } catch (Exception e) {
-            log.error("解压失败: {}", e.getMessage(), e);
-            if (callback != null) {
-                callback.onError(e.getMessage());
+            // 获取解压策略
+            timer.switchTo(UnzipPhase.OPEN);
+            UnzipStrategy strategy = strategyFactory.getStrategy(format);
+            if (strategy == null) {
+                throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "不支持的压缩格式: " + format);
             }
-            throw new UnzipException(UnzipErrorCode.IO_ERROR, "解压失败: " + e.getMessage(), e);
-        } finally {
+
+            int[] fileCount = new int[1];
+            long[] uncompressedSize = new long[1];
             try {
-                strategy.close();
-            } catch (IOException e) {
-                log.warn("关闭解压策略失败: {}", e.getMessage());
+                // 执行解压
+                timer.switchTo(UnzipPhase.DECODE);
+                strategy.unzip(compositeInputStream, password, callback, (fileInfo, entryInputStream) -> {
+                    fileCount[0]++;
+                    visitEntry(visitor, fileInfo, entryInputStream, uncompressedSize);
+                });
+                complete(timer, completion);
+            } catch (Exception e) {
+                UnzipException expired = handleError(format, e, deadline);
+                if (callback != null) {
+                    callback.onError(e.getMessage());
+                }
+                if (expired != null) {
+                    throw expired;
+                }
+                throw new UnzipException(UnzipErrorCode.IO_ERROR, "解压失败: " + e.getMessage(), e);
             }
+
+            // 记录指标，压缩数据大小为从输入流读取的字节数
+            return recordMetrics(format, timer, compositeInputStream.getDelegateBytesRead(), uncompressedSize[0], fileCount[0]);
+        } finally {
+            deadline.stop();
+            timer.stop();
         }
     }
 
     /**
      * 将解压后的文件写入磁盘
+     * <p>
+     * 通过 {@link DirectoryExtractVisitor} 写入，每个父目录只创建一次，较小的文件由写盘线程异步写入。
+     * </p>
      */
     private void writeFilesToDisk(Map<FileInfo, byte[]> files, String targetPath) throws UnzipException {
-        try {
-            // 创建目标目录
-            Path targetDir = Paths.get(targetPath);
-            Files.createDirectories(targetDir);
-
-            // 写入文件
+        try (DirectoryExtractVisitor visitor = new DirectoryExtractVisitor(unzipConfig, Paths.get(targetPath))) {
             for (Map.Entry<FileInfo, byte[]> entry : files.entrySet()) {
-                FileInfo fileInfo = entry.getKey();
-                byte[] content = entry.getValue();
+                visitor.visitEntry(entry.getKey(), new ByteArrayInputStream(entry.getValue()));
+            }
+            visitor.finish();
+        } catch (IOException e) {
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "写入文件失败: " + e.getMessage(), e);
+        }
+    }
 
-                // 构建目标文件路径
-                Path targetFile = targetDir.resolve(fileInfo.getPath());
+    /**
+     * 异步解压
+     *
+     * @param data 压缩文件数据
+     * @return 解压后的文件信息及其内容
+     * @see #unzip(byte[])
+     */
+    public CompletableFuture<Map<FileInfo, byte[]>> unzipAsync(byte[] data) {
+        return submit(() -> unzip(data));
+    }
 
-                // 创建父目录
-                Files.createDirectories(targetFile.getParent());
+    /**
+     * 带进度回调的异步解压
+     *
+     * @param data 压缩文件数据
+     * @param callback 进度回调，在执行解压的线程中调用
+     * @return 解压后的文件信息及其内容
+     * @see #unzip(byte[], UnzipProgressCallback)
+     */
+    public CompletableFuture<Map<FileInfo, byte[]>> unzipAsync(byte[] data, UnzipProgressCallback callback) {
+        return submit(() -> unzip(data, callback));
+    }
 
-                // 写入文件内容
-                try (FileOutputStream fos = new FileOutputStream(targetFile.toFile())) {
-                    fos.write(content);
+    /**
+     * 异步流式解压
+     *
+     * @param data 压缩文件数据
+     * @param callback 进度回调，可以为null
+     * @param visitor 条目访问器，在执行解压的线程中调用
+     * @return 本次解压的结果摘要
+     * @see #unzipWithVisitor(byte[], UnzipProgressCallback, ArchiveEntryVisitor)
+     */
+    public CompletableFuture<UnzipSummary> unzipWithVisitorAsync(byte[] data, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) {
+        return submit(() -> unzipWithVisitor(data, callback, visitor));
+    }
+
+    /**
+     * 异步解压磁盘上的压缩文件
+     *
+     * @param file 压缩文件路径
+     * @param callback 进度回调，可以为null
+     * @return 解压后的文件信息及其内容
+     * @see #unzipFile(Path, UnzipProgressCallback)
+     */
+    public CompletableFuture<Map<FileInfo, byte[]>> unzipFileAsync(Path file, UnzipProgressCallback callback) {
+        return submit(() -> unzipFile(file, callback));
+    }
+
+    /**
+     * 异步流式解压磁盘上的压缩文件
+     *
+     * @param file 压缩文件路径
+     * @param callback 进度回调，可以为null
+     * @param visitor 条目访问器，在执行解压的线程中调用
+     * @return 本次解压的结果摘要
+     * @see #unzipFileWithVisitor(Path, UnzipProgressCallback, ArchiveEntryVisitor)
+     */
+    public CompletableFuture<UnzipSummary> unzipFileWithVisitorAsync(Path file, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) {
+        return submit(() -> unzipFileWithVisitor(file, callback, visitor));
+    }
+
+    /**
+     * 异步解压磁盘上的压缩文件到目录
+     *
+     * @param file 压缩文件路径
+     * @param callback 进度回调，可以为null
+     * @param targetDirectory 目标目录，不存在时自动创建
+     * @return 写入的条目的文件信息
+     * @see #extractFileTo(Path, UnzipProgressCallback, Path)
+     */
+    public CompletableFuture<List<FileInfo>> extractFileToAsync(Path file, UnzipProgressCallback callback, Path targetDirectory) {
+        return submit(() -> extractFileTo(file, callback, targetDirectory));
+    }
+
+    /**
+     * 异步解压输入流
+     * <p>
+     * 输入流在执行解压的线程中读取，返回的 {@link CompletableFuture} 结束之前不能关闭输入流。
+     * </p>
+     *
+     * @param inputStream 压缩文件输入流
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调，可以为null
+     * @return 解压后的文件信息及其内容
+     * @see #unzip(InputStream, String, UnzipProgressCallback)
+     */
+    public CompletableFuture<Map<FileInfo, byte[]>> unzipAsync(InputStream inputStream, String password, UnzipProgressCallback callback) {
+        return submit(() -> unzip(inputStream, password, callback));
+    }
+
+    /**
+     * 批量解压
+     *
+     * @param archives 压缩文件数据
+     * @return 按输入顺序排列的各压缩包的结果
+     * @see #unzipBatch(Collection, UnzipBatchCallback)
+     */
+    public CompletableFuture<List<UnzipBatchResult>> unzipBatch(Collection<byte[]> archives) {
+        return unzipBatch(archives, null);
+    }
+
+    /**
+     * 批量解压，每个压缩包完成时通过回调报告结果
+     * <p>
+     * 适合在一次作业中解压大量小压缩包，与逐个调用 {@link #unzip(byte[])} 相比：
+     * 1. 开始解压前检测每个压缩包的格式并按格式分类，每种格式只从策略工厂获取一次解压策略，解压时不再重复检测
+     * 2. 同一格式的小压缩包（合计不超过256KB、最多64个）合并为一个任务，减少任务调度的开销
+     * 3. 任务在服务自己的 {@link ForkJoinPool} 中递归拆分，空闲线程从其他线程窃取任务，大小不一的压缩包之间自动平衡负载；
+     *    策略内部的条目级并行任务（见 {@link ParallelEntryExecutor}）也提交到这个线程池，与压缩包任务一起被窃取执行，
+     *    固实7Z的提取线程仍由7Z策略自己管理
+     * 4. 不为每个压缩包记录开始和完成日志，只在批量开始和结束时各记录一次；监控指标仍按压缩包记录
+     * 格式无法预先识别的压缩包（如数据为空或已损坏）按单个解压的流程处理，错误与 {@link #unzip(byte[])} 相同。
+     * 每个压缩包各自受 {@link UnzipConfig#getUnzipTimeout()} 限制，单个压缩包失败不影响其他压缩包，
+     * 失败原因记录在对应的 {@link UnzipBatchResult#getError()} 中。
+     * </p>
+     *
+     * @param archives 压缩文件数据
+     * @param callback 结果回调，按完成顺序调用，可以为null
+     * @return 按输入顺序排列的各压缩包的结果，取消后尚未开始的压缩包不再解压
+     * @throws IllegalArgumentException 当压缩包集合为null时抛出
+     */
+    public CompletableFuture<List<UnzipBatchResult>> unzipBatch(Collection<byte[]> archives, UnzipBatchCallback callback) {
+        if (archives == null) {
+            throw new IllegalArgumentException("压缩包集合不能为空");
+        }
+        byte[][] data = archives.toArray(new byte[0][]);
+        return submitBatch(data.length, index -> data[index] != null ? data[index].length : 0,
+            index -> data[index] != null && data[index].length > 0
+                ? CompressionFormatDetector.detectFormat(data[index]) : CompressionFormat.UNKNOWN,
+            (index, format, strategy, visitor) -> unzipInternal(data[index], format, strategy, null, visitor, null, false),
+            callback);
+    }
+
+    /**
+     * 批量解压磁盘上的压缩文件
+     * <p>
+     * 调度方式与 {@link #unzipBatch(Collection, UnzipBatchCallback)} 相同，按文件大小合并小文件，
+     * 分组时只读取各文件的文件头检测格式。
+     * </p>
+     *
+     * @param files 压缩文件路径
+     * @param callback 结果回调，按完成顺序调用，可以为null
+     * @return 按输入顺序排列的各压缩包的结果
+     * @throws IllegalArgumentException 当路径集合为null时抛出
+     */
+    public CompletableFuture<List<UnzipBatchResult>> unzipFileBatch(Collection<Path> files, UnzipBatchCallback callback) {
+        if (files == null) {
+            throw new IllegalArgumentException("压缩文件路径集合不能为空");
+        }
+        Path[] paths = files.toArray(new Path[0]);
+        return submitBatch(paths.length, index -> fileSize(paths[index]),
+            index -> paths[index] != null ? detectFormat(paths[index]) : CompressionFormat.UNKNOWN,
+            (index, format, strategy, visitor) -> unzipInternal(paths[index], format, strategy, null, visitor, null, false),
+            callback);
+    }
+
+    /**
+     * 读取文件头检测压缩格式
+     */
+    private static CompressionFormat detectFormat(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            return fileSize > 0 ? detectFormat(channel, fileSize) : CompressionFormat.UNKNOWN;
+        }
+    }
+
+    /**
+     * 获取文件大小用于合并小文件，无法获取时按大文件单独成组，错误在解压时报告
+     */
+    private static long fileSize(Path file) {
+        try {
+            return file != null ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 提交批量解压
+     *
+     * @param count 压缩包数量
+     * @param sizeOf 压缩包大小，用于合并小压缩包
+     * @param detector 检测压缩包的格式
+     * @param item 解压单个压缩包
+     * @param callback 结果回调，可以为null
+     */
+    private CompletableFuture<List<UnzipBatchResult>> submitBatch(int count, IntToLongFunction sizeOf, BatchDetector detector,
+                                                                  BatchItem item, UnzipBatchCallback callback) {
+        CompletableFuture<List<UnzipBatchResult>> future = new CompletableFuture<>();
+        if (count == 0) {
+            future.complete(Collections.emptyList());
+            return future;
+        }
+        synchronized (asyncLock) {
+            if (closed) {
+                future.completeExceptionally(new UnzipException(UnzipErrorCode.UNZIP_ERROR, "解压服务已关闭"));
+                return future;
+            }
+            if (batchPool == null) {
+                batchPool = new ForkJoinPool(unzipConfig.getAsyncThreads(), pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("unzip-batch-" + ASYNC_THREAD_NUMBER.getAndIncrement());
+                    return thread;
+                }, null, false);
+            }
+            BatchRun run = new BatchRun(count, sizeOf, detector, item, callback, future, batchPool);
+            batchPool.execute(run::start);
+        }
+        return future;
+    }
+
+    /**
+     * 把同一格式的小压缩包合并为组，超过 {@link #BATCH_GROUP_SIZE} 的压缩包单独成组
+     *
+     * @param order 按格式排列的压缩包位置
+     * @param formats 各压缩包的格式，null表示格式需要在解压时检测
+     * @param sizeOf 压缩包大小
+     * @return 各组在order中的起始位置，最后一个元素为压缩包数量
+     */
+    private static int[] groupBatch(int[] order, CompressionFormat[] formats, IntToLongFunction sizeOf) {
+        int count = order.length;
+        int[] starts = new int[count + 1];
+        int groups = 0;
+        int position = 0;
+        while (position < count) {
+            starts[groups++] = position;
+            CompressionFormat format = formats[order[position]];
+            long groupSize = sizeOf.applyAsLong(order[position++]);
+            int items = 1;
+            while (position < count && items < BATCH_GROUP_ITEMS && formats[order[position]] == format
+                && sizeOf.applyAsLong(order[position]) <= BATCH_GROUP_SIZE - groupSize) {
+                groupSize += sizeOf.applyAsLong(order[position++]);
+                items++;
+            }
+        }
+        starts[groups] = count;
+        return Arrays.copyOf(starts, groups + 1);
+    }
+
+    /**
+     * 提交异步解压任务
+     * <p>
+     * 超时时间从提交时开始计算，包括在队列中等待的时间：
+     * 1. 到期时返回的 {@link CompletableFuture} 立即以 {@link UnzipErrorCode#TIMEOUT_ERROR} 结束，不等待解压线程
+     * 2. 解压线程在下一次检查截止时间时结束解压，线程随即可以执行其他任务
+     * 3. 取消返回的 {@link CompletableFuture} 同样会结束正在执行的解压
+     * 队列已满或服务已关闭时返回的 {@link CompletableFuture} 直接以失败结束。
+     * </p>
+     */
+    private <T> CompletableFuture<T> submit(AsyncTask<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        UnzipDeadline deadline = UnzipDeadline.after(unzipConfig.getUnzipTimeout());
+        synchronized (asyncLock) {
+            if (closed) {
+                future.completeExceptionally(new UnzipException(UnzipErrorCode.UNZIP_ERROR, "解压服务已关闭"));
+                return future;
+            }
+            if (asyncExecutor == null) {
+                startAsyncExecutors();
+            }
+            if (asyncPermits != null && !asyncPermits.tryAcquire()) {
+                future.completeExceptionally(new UnzipException(UnzipErrorCode.UNZIP_ERROR, "异步解压队列已满"));
+                return future;
+            }
+            try {
+                asyncExecutor.execute(() -> {
+                    try {
+                        runAsync(task, deadline, future);
+                    } finally {
+                        if (asyncPermits != null) {
+                            asyncPermits.release();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                if (asyncPermits != null) {
+                    asyncPermits.release();
                 }
+                future.completeExceptionally(new UnzipException(UnzipErrorCode.UNZIP_ERROR, "异步解压队列已满", e));
+                return future;
             }
-        } catch (IOException e) {
-            throw new UnzipException(UnzipErrorCode.IO_ERROR, "写入文件失败: " + e.getMessage(), e);
+            ScheduledFuture<?> timeout = timeoutScheduler.schedule(() -> future.completeExceptionally(
+                new UnzipException(UnzipErrorCode.TIMEOUT_ERROR, "解压超时: 超过 " + deadline.getTimeoutMillis() + " 毫秒")),
+                deadline.getRemainingNanos(), TimeUnit.NANOSECONDS);
+            future.whenComplete((result, error) -> {
+                timeout.cancel(false);
+                if (future.isCancelled()) {
+                    deadline.cancel();
+                }
+            });
         }
+        return future;
     }
 
     /**
-     * 检测压缩格式
+     * 在异步解压线程中执行任务，截止时间绑定到当前线程
+     * <p>
+     * 任务开始前已经到期或被取消时不再解压，只记录错误。
+     * </p>
      */
-    private CompressionFormat detectFormat(InputStream inputStream) throws UnzipException {
+    private <T> void runAsync(AsyncTask<T> task, UnzipDeadline deadline, CompletableFuture<T> future) {
+        UnzipException expired = deadline.toException(null);
+        if (expired != null) {
+            handleError(null, expired);
+            future.completeExceptionally(expired);
+            return;
+        }
+        deadline.bind();
         try {
-            // 使用Tika检测MIME类型
-            MediaType mediaType = MediaType.parse(tika.detect(inputStream));
-            String mimeType = mediaType.getBaseType().toString();
-            
-            // 根据MIME类型判断压缩格式
-            switch (mimeType) {
-                case "application/zip":
-                    return CompressionFormat.ZIP;
-                case "application/x-tar":
-                    return CompressionFormat.TAR;
-                case "application/gzip":
-                case "application/x-gzip":
-                    return CompressionFormat.GZIP;
-                case "application/x-bzip2":
-                    return CompressionFormat.BZIP2;
-                case "application/x-xz":
-                    return CompressionFormat.XZ;
-                case "application/x-rar-compressed":
-                    return CompressionFormat.RAR;
-                case "application/x-7z-compressed":
-                    return CompressionFormat.SEVEN_ZIP;
-                default:
-                    return CompressionFormat.UNKNOWN;
-            }
-        } catch (IOException e) {
-            throw new UnzipException(UnzipErrorCode.IO_ERROR, "检测压缩格式失败", e);
+            future.complete(task.call());
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        } finally {
+            deadline.stop();
+        }
+    }
+
+    /**
+     * 创建异步解压线程池和超时定时器，调用方持有 {@link #asyncLock}
+     * <p>
+     * 使用虚拟线程时每个请求在自己的虚拟线程中执行，同时执行的请求数量与平台线程池能够接受的数量
+     * （线程数加队列容量）相同，超过时同样直接以失败结束。
+     * </p>
+     */
+    private void startAsyncExecutors() {
+        if (VirtualThreads.isEnabled(unzipConfig)) {
+            asyncExecutor = VirtualThreads.newThreadPerTaskExecutor("unzip-async-virtual-");
+            asyncPermits = new Semaphore(unzipConfig.getAsyncThreads() + unzipConfig.getAsyncQueueCapacity());
+        } else {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(unzipConfig.getAsyncThreads(), unzipConfig.getAsyncThreads(),
+                ASYNC_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(unzipConfig.getAsyncQueueCapacity()), runnable -> {
+                    Thread thread = new Thread(runnable, "unzip-async-" + ASYNC_THREAD_NUMBER.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            pool.allowCoreThreadTimeOut(true);
+            asyncExecutor = pool;
         }
+        timeoutScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "unzip-async-timeout-" + ASYNC_THREAD_NUMBER.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        timeoutScheduler.setRemoveOnCancelPolicy(true);
     }
 
+    /**
+     * 关闭服务
+     * <p>
+     * 不再接受新的异步解压和批量解压，已提交的解压继续执行直到完成或超时。
+     * 服务自己创建的解压策略（如7Z/RAR的后台提取线程池）在已提交的解压全部结束后关闭。
+     * </p>
+     */
     @Override
     public void close() throws IOException {
-        // 不需要额外清理资源
+        List<ExecutorService> running = new ArrayList<>();
+        synchronized (asyncLock) {
+            closed = true;
+            if (asyncExecutor != null) {
+                asyncExecutor.shutdown();
+                // 已安排的超时仍会触发，已提交的异步解压照常超时
+                timeoutScheduler.shutdown();
+                running.add(asyncExecutor);
+            }
+            if (batchPool != null) {
+                batchPool.shutdown();
+                running.add(batchPool);
+            }
+        }
+        if (ownedStrategyFactory == null) {
+            return;
+        }
+        if (running.isEmpty()) {
+            ownedStrategyFactory.close();
+            return;
+        }
+        Thread closer = new Thread(() -> {
+            for (ExecutorService executor : running) {
+                awaitTermination(executor);
+            }
+            ownedStrategyFactory.close();
+        }, "unzip-service-close");
+        closer.setDaemon(true);
+        closer.start();
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(ASYNC_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS)) {
+                log.debug("等待已提交的解压结束");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 异步解压任务
+     */
+    @FunctionalInterface
+    private interface AsyncTask<T> {
+
+        /**
+         * 执行解压
+         *
+         * @return 解压结果
+         * @throws UnzipException 解压异常
+         */
+        T call() throws UnzipException;
+    }
+
+    /**
+     * 批量解压中单个压缩包的格式检测
+     */
+    @FunctionalInterface
+    private interface BatchDetector {
+
+        /**
+         * 检测指定位置的压缩包的格式
+         *
+         * @param index 压缩包在批量输入中的位置
+         * @return 压缩格式，无法识别时返回 {@link CompressionFormat#UNKNOWN}
+         * @throws Exception 检测失败时抛出，该压缩包在解压时重新检测并报告错误
+         */
+        CompressionFormat detect(int index) throws Exception;
+    }
+
+    /**
+     * 批量解压中的单个压缩包
+     */
+    @FunctionalInterface
+    private interface BatchItem {
+
+        /**
+         * 解压指定位置的压缩包
+         *
+         * @param index 压缩包在批量输入中的位置
+         * @param format 预先检测的压缩格式，为null时解压时检测
+         * @param strategy 该格式的解压策略，为null时解压时从工厂获取
+         * @param visitor 收集条目内容的访问器
+         * @return 解压结果摘要
+         * @throws UnzipException 解压异常
+         */
+        UnzipSummary unzip(int index, CompressionFormat format, UnzipStrategy strategy, ArchiveEntryVisitor visitor)
+            throws UnzipException;
+    }
+
+    /**
+     * 一次批量解压的共享状态
+     */
+    private final class BatchRun {
+
+        private final IntToLongFunction sizeOf;
+
+        private final BatchDetector detector;
+
+        /** 按输入顺序存放的结果 */
+        private final UnzipBatchResult[] results;
+
+        private final BatchItem item;
+
+        private final UnzipBatchCallback callback;
+
+        private final CompletableFuture<List<UnzipBatchResult>> future;
+
+        /** 批量解压的线程池，条目级的并行任务也提交到这里 */
+        private final ForkJoinPool pool;
+
+        /** 各压缩包预先检测的格式，null表示解压时检测，由 {@link #plan()} 填充 */
+        private final CompressionFormat[] formats;
+
+        /** 各格式的解压策略，由 {@link #plan()} 填充，之后只读 */
+        private final Map<CompressionFormat, UnzipStrategy> strategies = new EnumMap<>(CompressionFormat.class);
+
+        /** 按格式排列的压缩包位置，由 {@link #plan()} 填充 */
+        private int[] order;
+
+        /** 各组在order中的起始位置，最后一个元素为压缩包数量，由 {@link #plan()} 填充 */
+        private int[] groupStarts;
+
+        /** 失败的压缩包数量 */
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private final long startNanos = System.nanoTime();
+
+        private BatchRun(int count, IntToLongFunction sizeOf, BatchDetector detector, BatchItem item,
+                         UnzipBatchCallback callback, CompletableFuture<List<UnzipBatchResult>> future, ForkJoinPool pool) {
+            this.sizeOf = sizeOf;
+            this.detector = detector;
+            this.results = new UnzipBatchResult[count];
+            this.item = item;
+            this.callback = callback;
+            this.future = future;
+            this.pool = pool;
+            this.formats = new CompressionFormat[count];
+        }
+
+        private int groupCount() {
+            return groupStarts.length - 1;
+        }
+
+        /**
+         * 在批量解压的线程池中分组，然后开始解压
+         */
+        private void start() {
+            try {
+                plan();
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            log.info("开始批量解压，共 {} 个压缩包，{} 种格式，合并为 {} 个任务", results.length, strategies.size(), groupCount());
+            new BatchTask(null, this, 0, groupCount()).fork();
+        }
+
+        /**
+         * 检测各压缩包的格式，按格式排列后把同一格式的小压缩包合并为组
+         * <p>
+         * 每种格式只从策略工厂获取一次解压策略。格式无法识别、检测失败或没有对应策略的压缩包归为一类，
+         * 解压时按单个解压的流程重新检测并报告错误。
+         * </p>
+         */
+        private void plan() {
+            // 按格式计数排序，0号位置留给解压时检测的压缩包，同一格式内保持输入顺序
+            CompressionFormat[] values = CompressionFormat.values();
+            int[] bucketStarts = new int[values.length + 2];
+            for (int index = 0; index < formats.length; index++) {
+                formats[index] = detect(index);
+                bucketStarts[(formats[index] != null ? formats[index].ordinal() + 1 : 0) + 1]++;
+            }
+            for (int bucket = 1; bucket < bucketStarts.length; bucket++) {
+                bucketStarts[bucket] += bucketStarts[bucket - 1];
+            }
+            order = new int[formats.length];
+            for (int index = 0; index < formats.length; index++) {
+                order[bucketStarts[formats[index] != null ? formats[index].ordinal() + 1 : 0]++] = index;
+            }
+            groupStarts = groupBatch(order, formats, sizeOf);
+        }
+
+        /**
+         * 检测一个压缩包的格式并获取解压策略
+         *
+         * @return 压缩格式，需要在解压时检测时返回null
+         */
+        private CompressionFormat detect(int index) {
+            CompressionFormat format;
+            try {
+                format = detector.detect(index);
+                if (format != CompressionFormat.UNKNOWN && !strategies.containsKey(format)) {
+                    strategies.put(format, strategyFactory.getStrategy(format));
+                }
+            } catch (Exception e) {
+                return null;
+            }
+            return format != CompressionFormat.UNKNOWN && strategies.get(format) != null ? format : null;
+        }
+
+        /**
+         * 依次解压一组压缩包，批量解压被取消后不再开始新的压缩包
+         * <p>
+         * 同一组的压缩包格式相同，共用预先获取的解压策略。
+         * 解压期间策略发起的条目级并行任务提交到批量解压的线程池。
+         * </p>
+         */
+        private void runGroup(int group) {
+            CompressionFormat format = formats[order[groupStarts[group]]];
+            UnzipStrategy strategy = format != null ? strategies.get(format) : null;
+            try (ParallelEntryExecutor.Binding ignored = ParallelEntryExecutor.bind(pool)) {
+                for (int position = groupStarts[group]; position < groupStarts[group + 1]; position++) {
+                    int index = order[position];
+                    UnzipBatchResult result = future.isCancelled()
+                        ? UnzipBatchResult.builder().index(index)
+                            .error(new UnzipException(UnzipErrorCode.INTERRUPTED_ERROR, "批量解压已取消")).build()
+                        : unzipOne(index, format, strategy);
+                    results[index] = result;
+                    if (!result.isSuccess()) {
+                        failures.incrementAndGet();
+                    }
+                    if (callback != null) {
+                        try {
+                            callback.onResult(result);
+                        } catch (RuntimeException e) {
+                            log.warn("批量解压结果回调失败: {}", e.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+
+        private UnzipBatchResult unzipOne(int index, CompressionFormat format, UnzipStrategy strategy) {
+            InMemoryEntryVisitor visitor = new InMemoryEntryVisitor(unzipConfig);
+            try {
+                UnzipSummary summary = item.unzip(index, format, strategy, visitor);
+                return UnzipBatchResult.builder().index(index).files(visitor.getResult()).summary(summary).build();
+            } catch (UnzipException e) {
+                return UnzipBatchResult.builder().index(index).error(e).build();
+            } catch (RuntimeException e) {
+                return UnzipBatchResult.builder().index(index)
+                    .error(new UnzipException(UnzipErrorCode.UNZIP_ERROR, "解压失败: " + e.getMessage(), e)).build();
+            }
+        }
+
+        private void finish() {
+            log.info("批量解压完成，共 {} 个压缩包，失败 {} 个，耗时 {} 毫秒", results.length, failures.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            future.complete(Collections.unmodifiableList(Arrays.asList(results)));
+        }
+    }
+
+    /**
+     * 批量解压任务
+     * <p>
+     * 负责一段连续的组：组数大于1时把后一半拆分为子任务交给线程池（可被空闲线程窃取），自己继续处理前一半，
+     * 最后只剩一组时在当前线程中解压。所有任务结束后由根任务完成批量解压的结果。
+     * </p>
+     */
+    private final class BatchTask extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BatchRun run;
+
+        /** 负责的第一组 */
+        private final int from;
+
+        /** 负责的最后一组之后的位置 */
+        private final int to;
+
+        private BatchTask(CountedCompleter<?> parent, BatchRun run, int from, int to) {
+            super(parent);
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public void compute() {
+            int end = to;
+            while (end - from > 1) {
+                int middle = (from + end) >>> 1;
+                addToPendingCount(1);
+                new BatchTask(this, run, middle, end).fork();
+                end = middle;
+            }
+            run.runGroup(from);
+            tryComplete();
+        }
+
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (getCompleter() == null) {
+                run.finish();
+            }
+        }
+
+        @Override
+        public boolean onExceptionalCompletion(Throwable ex, CountedCompleter<?> caller) {
+            run.future.completeExceptionally(ex);
+            return true;
+        }
     }
-} 
\ No newline at end of file
+}
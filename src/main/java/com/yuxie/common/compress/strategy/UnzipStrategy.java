@@ -1,13 +1,23 @@
 package com.yuxie.common.compress.strategy;
 
 import com.yuxie.common.compress.callback.UnzipProgressCallback;
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.exception.UnzipErrorCode;
 import com.yuxie.common.compress.exception.UnzipException;
 import com.yuxie.common.compress.format.CompressionFormat;
 import com.yuxie.common.compress.model.FileInfo;
 import com.yuxie.common.compress.util.CompressionCompositeInputStream;
+import com.yuxie.common.compress.visitor.ArchiveEntryVisitor;
+import com.yuxie.common.compress.visitor.DirectoryExtractVisitor;
+import org.apache.commons.io.input.CloseShieldInputStream;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,6 +31,8 @@ import java.util.Map;
  * <ul>
  *   <li>支持多种解压方式：普通解压、带密码解压、带进度回调解压</li>
  *   <li>支持复合输入流：可以处理已封装的复合输入流</li>
+ *   <li>支持流式解压：通过 {@link ArchiveEntryVisitor} 逐个处理条目，内存占用与压缩包大小无关</li>
+ *   <li>支持解压到目录：条目内容直接写入目标目录下的文件，只返回文件信息</li>
  *   <li>格式支持检查：可以检查是否支持特定的压缩格式</li>
  *   <li>资源管理：实现了AutoCloseable接口，支持资源的自动关闭</li>
  * </ul>
@@ -45,6 +57,7 @@ import java.util.Map;
  * @see FileInfo
  * @see UnzipProgressCallback
  * @see CompressionCompositeInputStream
+ * @see ArchiveEntryVisitor
  */
 public interface UnzipStrategy extends AutoCloseable {
     /**
@@ -157,6 +170,147 @@ public interface UnzipStrategy extends AutoCloseable {
      */
     Map<FileInfo, byte[]> unzipWithCompositeStream(CompressionCompositeInputStream compositeInputStream, String password, UnzipProgressCallback callback) throws UnzipException;
 
+    /**
+     * 流式解压文件（带密码和进度回调）
+     * <p>
+     * 逐个条目地将文件信息和条目内容的输入流交给访问器处理，条目内容不会被预先读入内存。
+     * 返回Map的解压方法都是基于该方法的适配。
+     * </p>
+     *
+     * @param inputStream 输入流，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws UnzipException 当解压过程中发生错误时抛出异常
+     */
+    void unzip(InputStream inputStream, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException;
+
+    /**
+     * 流式解压文件（使用已封装的复合输入流，带密码和进度回调）
+     * <p>
+     * 使用已封装的复合输入流进行流式解压，逐个条目地交给访问器处理。
+     * </p>
+     *
+     * @param compositeInputStream 已封装的复合输入流，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws UnzipException 当解压过程中发生错误时抛出异常
+     */
+    void unzipWithCompositeStream(CompressionCompositeInputStream compositeInputStream, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException;
+
+    /**
+     * 流式解压内存中的压缩包（带密码和进度回调）
+     * <p>
+     * 对于支持随机访问的格式，实现类可以直接读取字节数组，避免复制和临时文件。
+     * 默认实现将字节数组包装为输入流进行解压。
+     * </p>
+     *
+     * @param data 压缩文件数据，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws UnzipException 当解压过程中发生错误时抛出异常
+     */
+    default void unzip(byte[] data, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        if (data == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "压缩文件数据不能为空");
+        }
+        unzip(new ByteArrayInputStream(data), password, callback, visitor);
+    }
+
+    /**
+     * 流式解压通道中的压缩包（带密码和进度回调）
+     * <p>
+     * 对于支持随机访问的格式，实现类可以按需读取通道（如 {@link java.nio.channels.FileChannel}），
+     * 无需把整个压缩包读入内存。默认实现将通道包装为输入流进行解压。
+     * 通道从位置0开始为压缩包内容，由调用方负责关闭。
+     * </p>
+     *
+     * @param channel 压缩包所在的通道，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws UnzipException 当解压过程中发生错误时抛出异常
+     */
+    default void unzip(SeekableByteChannel channel, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        if (channel == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "通道不能为空");
+        }
+        try {
+            channel.position(0);
+        } catch (IOException e) {
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "定位通道失败", e);
+        }
+        unzip(CloseShieldInputStream.wrap(Channels.newInputStream(channel)), password, callback, visitor);
+    }
+
+    /**
+     * 解压到目录（带密码和进度回调）
+     * <p>
+     * 每个条目的内容边解压边写入目标目录下对应的文件，不在内存中保存条目内容，
+     * 内存占用只有一个读写缓冲区。基于 {@link DirectoryExtractVisitor} 实现。
+     * </p>
+     *
+     * @param inputStream 输入流，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param unzipConfig 解压配置，不能为null
+     * @param targetDirectory 目标目录，不存在时自动创建，不能为null
+     * @return 写入的条目的文件信息，按条目在压缩包中的顺序排列
+     * @throws UnzipException 当解压或写入过程中发生错误时抛出异常
+     */
+    default List<FileInfo> extractTo(InputStream inputStream, String password, UnzipProgressCallback callback,
+                                     UnzipConfig unzipConfig, Path targetDirectory) throws UnzipException {
+        try (DirectoryExtractVisitor visitor = new DirectoryExtractVisitor(unzipConfig, targetDirectory)) {
+            unzip(inputStream, password, callback, visitor);
+            return visitor.finish();
+        }
+    }
+
+    /**
+     * 解压内存中的压缩包到目录（带密码和进度回调）
+     *
+     * @param data 压缩文件数据，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param unzipConfig 解压配置，不能为null
+     * @param targetDirectory 目标目录，不存在时自动创建，不能为null
+     * @return 写入的条目的文件信息，按条目在压缩包中的顺序排列
+     * @throws UnzipException 当解压或写入过程中发生错误时抛出异常
+     * @see #extractTo(InputStream, String, UnzipProgressCallback, UnzipConfig, Path)
+     */
+    default List<FileInfo> extractTo(byte[] data, String password, UnzipProgressCallback callback,
+                                     UnzipConfig unzipConfig, Path targetDirectory) throws UnzipException {
+        try (DirectoryExtractVisitor visitor = new DirectoryExtractVisitor(unzipConfig, targetDirectory)) {
+            unzip(data, password, callback, visitor);
+            return visitor.finish();
+        }
+    }
+
+    /**
+     * 解压通道中的压缩包到目录（带密码和进度回调）
+     * <p>
+     * 通道从位置0开始为压缩包内容，由调用方负责关闭。
+     * </p>
+     *
+     * @param channel 压缩包所在的通道，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param unzipConfig 解压配置，不能为null
+     * @param targetDirectory 目标目录，不存在时自动创建，不能为null
+     * @return 写入的条目的文件信息，按条目在压缩包中的顺序排列
+     * @throws UnzipException 当解压或写入过程中发生错误时抛出异常
+     * @see #extractTo(InputStream, String, UnzipProgressCallback, UnzipConfig, Path)
+     */
+    default List<FileInfo> extractTo(SeekableByteChannel channel, String password, UnzipProgressCallback callback,
+                                     UnzipConfig unzipConfig, Path targetDirectory) throws UnzipException {
+        try (DirectoryExtractVisitor visitor = new DirectoryExtractVisitor(unzipConfig, targetDirectory)) {
+            unzip(channel, password, callback, visitor);
+            return visitor.finish();
+        }
+    }
+
     /**
      * 检查是否支持指定的压缩格式
      * <p>
@@ -183,6 +337,7 @@ public interface UnzipStrategy extends AutoCloseable {
      * <p>
      * 释放策略使用的所有资源。
      * 在不再使用策略时应该调用此方法。
+     * 由 {@link UnzipStrategyFactory} 管理的策略被所有请求共享，只在关闭工厂时关闭，单次解压结束后不能关闭。
      * </p>
      *
      * @throws IOException 当关闭资源时发生IO错误
@@ -6,9 +6,16 @@ import com.yuxie.common.compress.exception.UnzipErrorCode;
 import com.yuxie.common.compress.exception.UnzipException;
 import com.yuxie.common.compress.format.CompressionFormat;
 import com.yuxie.common.compress.model.FileInfo;
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+import com.yuxie.common.compress.monitor.UnzipPhase;
+import com.yuxie.common.compress.monitor.UnzipPhaseTimer;
 import com.yuxie.common.compress.strategy.UnzipStrategy;
+import com.yuxie.common.compress.util.BoundedEntryInputStream;
 import com.yuxie.common.compress.util.CompressionCompositeInputStream;
+import com.yuxie.common.compress.util.UnzipDeadline;
 import com.yuxie.common.compress.util.UnzipUtils;
+import com.yuxie.common.compress.visitor.ArchiveEntryVisitor;
+import com.yuxie.common.compress.visitor.InMemoryEntryVisitor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
@@ -26,6 +33,7 @@ import java.util.*;
  * 主要功能：
  * <ul>
  *   <li>统一的解压流程：处理输入流、创建归档输入流、提取文件内容</li>
+ *   <li>流式解压：通过 {@link ArchiveEntryVisitor} 逐个处理条目，返回Map的方法是其上的适配</li>
  *   <li>进度回调支持：通过 {@link UnzipProgressCallback} 报告解压进度</li>
  *   <li>资源管理：自动关闭输入流和输出流</li>
  *   <li>配置管理：通过 {@link UnzipConfig} 统一管理解压配置</li>
@@ -55,6 +63,11 @@ public abstract class AbstractCommonsCompressStrategy implements UnzipStrategy {
      */
     protected final UnzipConfig unzipConfig;
     
+    /**
+     * 监控指标，可以为null
+     */
+    protected final UnzipMetrics unzipMetrics;
+    
     /**
      * 构造函数
      * <p>
@@ -65,10 +78,25 @@ public abstract class AbstractCommonsCompressStrategy implements UnzipStrategy {
      * @throws IllegalArgumentException 当unzipConfig为null时抛出
      */
     protected AbstractCommonsCompressStrategy(UnzipConfig unzipConfig) {
+        this(unzipConfig, null);
+    }
+    
+    /**
+     * 构造函数
+     * <p>
+     * 初始化解压策略，设置解压配置和监控指标。
+     * </p>
+     *
+     * @param unzipConfig 解压配置，不能为null
+     * @param unzipMetrics 监控指标，可以为null，用于记录并行解压的并发任务数等指标
+     * @throws IllegalArgumentException 当unzipConfig为null时抛出
+     */
+    protected AbstractCommonsCompressStrategy(UnzipConfig unzipConfig, UnzipMetrics unzipMetrics) {
         if (unzipConfig == null) {
             throw new IllegalArgumentException("解压配置不能为空");
         }
         this.unzipConfig = unzipConfig;
+        this.unzipMetrics = unzipMetrics;
     }
     
     /**
@@ -110,6 +138,20 @@ public abstract class AbstractCommonsCompressStrategy implements UnzipStrategy {
      */
     protected abstract ArchiveInputStream createArchiveInputStream(InputStream inputStream) throws Exception;
     
+    /**
+     * 获取条目名称
+     * <p>
+     * 默认返回归档输入流解析出的名称，需要自行解码文件名的格式（如ZIP）可以重写此方法。
+     * </p>
+     *
+     * @param archiveInputStream 由 {@link #createArchiveInputStream(InputStream)} 创建的归档输入流
+     * @param entry 当前条目
+     * @return 条目名称
+     */
+    protected String resolveEntryName(ArchiveInputStream archiveInputStream, ArchiveEntry entry) {
+        return entry.getName();
+    }
+    
     /**
      * 解压文件（基本版本）
      * <p>
@@ -175,7 +217,7 @@ public abstract class AbstractCommonsCompressStrategy implements UnzipStrategy {
             throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "输入流不能为空");
         }
 
-        try (CompressionCompositeInputStream compositeInputStream = new CompressionCompositeInputStream(inputStream)) {
+        try (CompressionCompositeInputStream compositeInputStream = new CompressionCompositeInputStream(inputStream, unzipConfig.getBufferSize())) {
             return unzipWithCompositeStream(compositeInputStream, password, callback);
         } catch (Exception e) {
             if (callback != null) {
@@ -186,26 +228,31 @@ public abstract class AbstractCommonsCompressStrategy implements UnzipStrategy {
     }
 
     /**
-     * 提取压缩包中的条目内容
+     * 流式解压文件
      * <p>
-     * 从归档输入流中读取指定条目的内容。
+     * 逐个条目地交给访问器处理，条目内容直接从归档输入流中读取，不会预先读入内存。
      * </p>
      *
-     * @param archiveInputStream 归档输入流，不能为null
-     * @param entry 归档条目，不能为null
-     * @return 条目内容的字节数组
-     * @throws IOException 当读取过程中发生IO错误时抛出
+     * @param inputStream 输入流，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws UnzipException 当解压过程中发生错误时抛出
      */
-    private byte[] extractEntry(ArchiveInputStream archiveInputStream, ArchiveEntry entry) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        byte[] buffer = new byte[unzipConfig.getBufferSize()];
-        int bytesRead;
-        
-        while ((bytesRead = archiveInputStream.read(buffer)) != -1) {
-            outputStream.write(buffer, 0, bytesRead);
+    @Override
+    public void unzip(InputStream inputStream, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        if (inputStream == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "输入流不能为空");
+        }
+
+        try (CompressionCompositeInputStream compositeInputStream = new CompressionCompositeInputStream(inputStream, unzipConfig.getBufferSize())) {
+            unzipWithCompositeStream(compositeInputStream, password, callback, visitor);
+        } catch (Exception e) {
+            if (callback != null) {
+                callback.onError(e.getMessage());
+            }
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "解压失败: " + e.getMessage(), e);
         }
-        
-        return outputStream.toByteArray();
     }
 
     /**
@@ -272,7 +319,7 @@ public abstract class AbstractCommonsCompressStrategy implements UnzipStrategy {
      * 解压文件（使用复合输入流，完整版本）
      * <p>
      * 使用已封装的复合输入流、密码进行解压，并通过回调接口报告进度。
-     * 这是最完整的复合流解压方法，支持所有功能。
+     * 基于流式解压方法实现，使用 {@link InMemoryEntryVisitor} 将所有条目收集到内存中。
      * </p>
      *
      * @param compositeInputStream 已封装的复合输入流，不能为null
@@ -283,76 +330,108 @@ public abstract class AbstractCommonsCompressStrategy implements UnzipStrategy {
      */
     @Override
     public Map<FileInfo, byte[]> unzipWithCompositeStream(CompressionCompositeInputStream compositeInputStream, String password, UnzipProgressCallback callback) throws UnzipException {
+        InMemoryEntryVisitor visitor = new InMemoryEntryVisitor(unzipConfig);
+        unzipWithCompositeStream(compositeInputStream, password, callback, visitor);
+        return visitor.getResult();
+    }
+
+    /**
+     * 流式解压文件（使用复合输入流）
+     * <p>
+     * 依次读取归档输入流中的条目，将条目信息和仅覆盖该条目内容的输入流交给访问器处理。
+     * 内存占用只与缓冲区大小有关，与压缩包大小无关。
+     * </p>
+     *
+     * @param compositeInputStream 已封装的复合输入流，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws UnzipException 当解压过程中发生错误时抛出
+     */
+    @Override
+    public void unzipWithCompositeStream(CompressionCompositeInputStream compositeInputStream, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
         if (compositeInputStream == null) {
             throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "输入流不能为空");
         }
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
+        }
 
         try {
-            // 创建归档输入流
-            ArchiveInputStream archiveInputStream = createArchiveInputStream(compositeInputStream);
-            if (archiveInputStream == null) {
-                throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "不支持的压缩格式");
-            }
-
-            Map<FileInfo, byte[]> result = new HashMap<>();
-            ArchiveEntry entry;
-            int totalEntries = 0;
-            int processedEntries = 0;
-
-            // 通知开始解压
+            visitArchiveEntries(compositeInputStream, compositeInputStream.available(), callback, visitor);
+        } catch (Exception e) {
             if (callback != null) {
-                callback.onStart(compositeInputStream.available(), 1);
+                callback.onError(e.getMessage());
             }
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "解压失败: " + e.getMessage(), e);
+        }
+    }
 
-            while ((entry = archiveInputStream.getNextEntry()) != null) {
-                totalEntries++;
-                String entryName = entry.getName();
-                
-                // 检查文件大小限制
-                if (unzipConfig.isEnableFileSizeCheck() && entry.getSize() > unzipConfig.getMaxFileSize()) {
-                    throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "文件大小超过限制: " + entryName);
-                }
-
-                // 读取文件内容
-                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-                byte[] buffer = new byte[unzipConfig.getBufferSize()];
-                int bytesRead;
-                long totalBytesRead = 0;
+    /**
+     * 依次把归档输入流中的条目交给访问器
+     * <p>
+     * 输入流只被顺序读取一遍，可以直接使用解压缩流（如 .tar.gz 中GZIP解压后的数据），无需先读入内存。
+     * 每个条目之前检查当前线程的 {@link UnzipDeadline}，条目内容的读取由 {@link BoundedEntryInputStream} 检查。
+     * </p>
+     *
+     * @param inputStream 归档数据的输入流，不能为null
+     * @param totalSize 输入数据的大小，用于进度回调
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws Exception 当解压过程中发生错误时抛出
+     */
+    protected void visitArchiveEntries(InputStream inputStream, long totalSize, UnzipProgressCallback callback,
+                                       ArchiveEntryVisitor visitor) throws Exception {
+        // 创建归档输入流
+        ArchiveInputStream archiveInputStream;
+        UnzipPhase previous = UnzipPhaseTimer.enter(UnzipPhase.OPEN);
+        try {
+            archiveInputStream = createArchiveInputStream(inputStream);
+        } finally {
+            UnzipPhaseTimer.exit(previous);
+        }
+        if (archiveInputStream == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "不支持的压缩格式");
+        }
 
-                while ((bytesRead = archiveInputStream.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, bytesRead);
-                    totalBytesRead += bytesRead;
+        ArchiveEntry entry;
+        int totalEntries = 0;
+        long maxFileSize = unzipConfig.isEnableFileSizeCheck() ? unzipConfig.getMaxFileSize() : -1;
 
-                    // 通知进度
-                    if (callback != null) {
-                        callback.onProgress(entryName, totalBytesRead, entry.getSize(), processedEntries + 1, totalEntries);
-                    }
-                }
+        // 通知开始解压
+        if (callback != null) {
+            callback.onStart(totalSize, 1);
+        }
 
-                // 创建文件信息
-                FileInfo fileInfo = FileInfo.builder()
-                    .fileName(entryName)
-                    .path(entryName)
-                    .size(totalBytesRead)
-                    .lastModified(entry.getLastModifiedDate().getTime())
-                    .build();
+        while ((entry = archiveInputStream.getNextEntry()) != null) {
+            // 跳过上一个条目剩余内容的解码时间也计入截止时间
+            UnzipDeadline.check();
+            totalEntries++;
+            String entryName = resolveEntryName(archiveInputStream, entry);
 
-                result.put(fileInfo, outputStream.toByteArray());
-                processedEntries++;
+            // 检查文件大小限制
+            if (unzipConfig.isEnableFileSizeCheck() && entry.getSize() > unzipConfig.getMaxFileSize()) {
+                throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "文件大小超过限制: " + entryName);
             }
 
-            // 通知完成
-            if (callback != null) {
-                callback.onComplete();
-            }
+            // 创建文件信息
+            FileInfo fileInfo = FileInfo.builder()
+                .fileName(entryName)
+                .path(entryName)
+                .size(entry.getSize())
+                .lastModified(entry.getLastModifiedDate().getTime())
+                .build();
 
-            return result;
+            // 交给访问器处理，未读完的内容由getNextEntry跳过
+            BoundedEntryInputStream entryInputStream = new BoundedEntryInputStream(archiveInputStream,
+                entryName, entry.getSize(), maxFileSize, callback, totalEntries, totalEntries);
+            visitor.visitEntry(fileInfo, entryInputStream);
+            entryInputStream.close();
+        }
 
-        } catch (Exception e) {
-            if (callback != null) {
-                callback.onError(e.getMessage());
-            }
-            throw new UnzipException(UnzipErrorCode.IO_ERROR, "解压失败: " + e.getMessage(), e);
+        // 通知完成
+        if (callback != null) {
+            callback.onComplete();
         }
     }
-} 
\ No newline at end of file
+}
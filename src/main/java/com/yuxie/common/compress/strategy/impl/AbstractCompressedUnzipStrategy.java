@@ -7,17 +7,26 @@ import com.yuxie.common.compress.exception.UnzipException;
 import com.yuxie.common.compress.format.CompressionFormat;
 import com.yuxie.common.compress.format.CompressionFormatDetector;
 import com.yuxie.common.compress.model.FileInfo;
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+import com.yuxie.common.compress.monitor.UnzipPhase;
+import com.yuxie.common.compress.monitor.UnzipPhaseTimer;
+import com.yuxie.common.compress.util.BoundedEntryInputStream;
+import com.yuxie.common.compress.util.BufferPool;
 import com.yuxie.common.compress.util.CompressionCompositeInputStream;
+import com.yuxie.common.compress.util.ParallelEntryExecutor;
+import com.yuxie.common.compress.util.UnzipDeadline;
+import com.yuxie.common.compress.visitor.ArchiveEntryVisitor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.compressors.CompressorInputStream;
+import org.apache.commons.compress.utils.IOUtils;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Collections;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 
 /**
  * 压缩格式解压策略的抽象基类
@@ -30,7 +39,7 @@ import java.util.Map;
  * <ul>
  *   <li>单一文件处理：每次解压只处理一个文件</li>
  *   <li>格式检测：支持检测解压后的数据是否为TAR格式</li>
- *   <li>自动转换：如果解压后的数据是TAR格式，会自动使用TAR策略进行二次解压</li>
+ *   <li>自动转换：如果解压后的数据是TAR格式，会把解压流直接交给TAR策略处理，不在内存中缓存整个TAR包</li>
  *   <li>进度报告：支持通过回调接口报告解压进度</li>
  * </ul>
  * </p>
@@ -38,6 +47,8 @@ import java.util.Map;
  * 子类需要实现：
  * <ul>
  *   <li>{@link #createCompressorInputStream(InputStream)} 方法，创建特定格式的压缩输入流</li>
+ *   <li>可选：{@link #supportsParallelDecompression()} 和 {@link #createParallelInputStream(ByteBuffer, int)} 方法，
+ *       支持对字节数组和通道输入并行解压</li>
  * </ul>
  * </p>
  *
@@ -56,6 +67,21 @@ public abstract class AbstractCompressedUnzipStrategy extends AbstractCommonsCom
      */
     private final CompressionFormat supportedFormat;
     
+    /**
+     * 解压后的数据为TAR格式时使用的策略
+     */
+    private final TarUnzipStrategy tarStrategy;
+    
+    /**
+     * 可以映射到内存并行解压的最大文件大小（字节），与缓冲区按int寻址的上限一致
+     */
+    private static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE;
+    
+    /**
+     * 不能映射到内存的通道读入堆内存并行解压的最大大小（字节），超过时按顺序流式解压
+     */
+    private static final int MAX_IN_MEMORY_PARALLEL_SIZE = 32 * 1024 * 1024;
+    
     /**
      * 构造函数
      * <p>
@@ -67,8 +93,24 @@ public abstract class AbstractCompressedUnzipStrategy extends AbstractCommonsCom
      * @throws IllegalArgumentException 当unzipConfig或supportedFormat为null时抛出
      */
     protected AbstractCompressedUnzipStrategy(UnzipConfig unzipConfig, CompressionFormat supportedFormat) {
-        super(unzipConfig);
+        this(unzipConfig, null, supportedFormat);
+    }
+    
+    /**
+     * 构造函数
+     * <p>
+     * 初始化解压策略，设置解压配置、监控指标和支持的压缩格式。
+     * </p>
+     *
+     * @param unzipConfig 解压配置，不能为null
+     * @param unzipMetrics 监控指标，可以为null
+     * @param supportedFormat 支持的压缩格式，不能为null
+     * @throws IllegalArgumentException 当unzipConfig或supportedFormat为null时抛出
+     */
+    protected AbstractCompressedUnzipStrategy(UnzipConfig unzipConfig, UnzipMetrics unzipMetrics, CompressionFormat supportedFormat) {
+        super(unzipConfig, unzipMetrics);
         this.supportedFormat = supportedFormat;
+        this.tarStrategy = new TarUnzipStrategy(unzipConfig);
     }
     
     /**
@@ -115,84 +157,273 @@ public abstract class AbstractCompressedUnzipStrategy extends AbstractCommonsCom
     }
     
     /**
-     * 解压文件（使用复合输入流，完整版本）
+     * 流式解压文件（使用复合输入流）
      * <p>
-     * 使用已封装的复合输入流、密码进行解压，并通过回调接口报告进度。
-     * 如果解压后的数据是TAR格式，会自动使用TAR策略进行二次解压。
+     * 压缩格式只包含单个文件，解压后的数据作为一个条目交给访问器处理。
+     * 启用复合格式检测时，会预读解压后数据的第一个块检测是否为TAR格式，
+     * 如果是TAR格式，会把解压流直接交给TAR策略逐个条目处理；
+     * 解压后的数据始终以流的方式处理，不会读入内存。
      * </p>
      *
      * @param compositeInputStream 已封装的复合输入流，不能为null
      * @param password 解压密码，如果文件未加密可以为null
      * @param callback 进度回调接口，可以为null
-     * @return 解压后的文件信息及其内容
+     * @param visitor 条目访问器，不能为null
      * @throws UnzipException 当解压过程中发生错误时抛出
      */
     @Override
-    public Map<FileInfo, byte[]> unzipWithCompositeStream(CompressionCompositeInputStream compositeInputStream, String password, UnzipProgressCallback callback) throws UnzipException {
+    public void unzipWithCompositeStream(CompressionCompositeInputStream compositeInputStream, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
         if (compositeInputStream == null) {
             throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "输入流不能为空");
         }
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
+        }
         
         try {
             // 创建压缩输入流
-            CompressorInputStream compressorInputStream = createCompressorInputStream(compositeInputStream);
-            
-            // 读取解压后的数据
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            byte[] buffer = new byte[unzipConfig.getBufferSize()];
-            int bytesRead;
-            long totalBytesRead = 0;
-            
-            // 通知开始解压
-            if (callback != null) {
-                callback.onStart(compositeInputStream.available(), 1);
+            CompressorInputStream compressorInputStream;
+            UnzipPhase previous = UnzipPhaseTimer.enter(UnzipPhase.OPEN);
+            try {
+                compressorInputStream = createCompressorInputStream(compositeInputStream);
+            } finally {
+                UnzipPhaseTimer.exit(previous);
             }
-            
-            while ((bytesRead = compressorInputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
-                totalBytesRead += bytesRead;
-                
-                // 检查文件大小限制
-                if (unzipConfig.isEnableFileSizeCheck() && totalBytesRead > unzipConfig.getMaxFileSize()) {
-                    throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "解压后的文件大小超过限制");
-                }
-                
-                // 通知进度
-                if (callback != null) {
-                    callback.onProgress("decompressed", totalBytesRead, compositeInputStream.available(), 1, 1);
-                }
+            visitDecompressed(compressorInputStream, compositeInputStream.available(), password, callback, visitor);
+        } catch (Exception e) {
+            if (callback != null) {
+                callback.onError(e.getMessage());
             }
-            
-            byte[] decompressedData = outputStream.toByteArray();
-            
-            // 检查是否为TAR格式
-            CompressionFormat innerFormat = CompressionFormatDetector.detectFormat(decompressedData);
-            if (innerFormat == CompressionFormat.TAR) {
-                TarUnzipStrategy tarStrategy = new TarUnzipStrategy(unzipConfig);
-                return tarStrategy.unzipWithCompositeStream(new CompressionCompositeInputStream(new ByteArrayInputStream(decompressedData)), password, callback);
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "解压失败: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 流式解压内存中的压缩文件
+     * <p>
+     * 子类支持并行解压（{@link #supportsParallelDecompression()}）且启用了并发解压时并行解压，否则按顺序解压。
+     * </p>
+     *
+     * @param data 压缩文件数据，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws UnzipException 当解压过程中发生错误时抛出
+     */
+    @Override
+    public void unzip(byte[] data, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        if (data == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "压缩文件数据不能为空");
+        }
+        if (!isParallelDecompressionEnabled()) {
+            super.unzip(data, password, callback, visitor);
+            return;
+        }
+        unzipInParallel(ByteBuffer.wrap(data), password, callback, visitor);
+    }
+    
+    /**
+     * 流式解压通道中的压缩文件
+     * <p>
+     * 子类支持并行解压且启用了并发解压时：
+     * <ul>
+     *   <li>文件通道映射到内存后并行解压，解压线程按需读取文件内容，不占用堆内存</li>
+     *   <li>其他通道不超过 {@link #MAX_IN_MEMORY_PARALLEL_SIZE} 字节时读入堆内存后并行解压</li>
+     * </ul>
+     * 其余情况（包括文件无法映射时）按顺序流式解压。
+     * </p>
+     *
+     * @param channel 压缩包所在的通道，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws UnzipException 当解压过程中发生错误时抛出
+     */
+    @Override
+    public void unzip(SeekableByteChannel channel, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        if (channel == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "通道不能为空");
+        }
+        ByteBuffer data = null;
+        try {
+            if (isParallelDecompressionEnabled()) {
+                data = mapOrRead(channel);
             }
-            
-            // 如果不是TAR格式，返回当前解压结果
-            FileInfo fileInfo = FileInfo.builder()
-                .fileName("decompressed")
-                .path("decompressed")
-                .size(totalBytesRead)
-                .lastModified(System.currentTimeMillis())
-                .build();
-
-            // 通知完成
-            if (callback != null) {
-                callback.onComplete();
+        } catch (IOException e) {
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "读取通道失败: " + e.getMessage(), e);
+        }
+        if (data == null) {
+            super.unzip(channel, password, callback, visitor);
+            return;
+        }
+        unzipInParallel(data, password, callback, visitor);
+    }
+    
+    /**
+     * 获取并行解压使用的通道内容
+     *
+     * @param channel 通道
+     * @return 映射到内存或读入堆内存的通道内容，需要按顺序流式解压时返回null
+     * @throws IOException 读取通道失败时抛出
+     */
+    private static ByteBuffer mapOrRead(SeekableByteChannel channel) throws IOException {
+        long size = channel.size();
+        if (channel instanceof FileChannel && size <= MAX_MAPPED_SIZE) {
+            try {
+                return ((FileChannel) channel).map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } catch (IOException | UnsupportedOperationException e) {
+                // 地址空间不足或通道不支持映射
+                log.debug("通道无法映射到内存: {}", e.getMessage());
             }
-
-            return Collections.singletonMap(fileInfo, decompressedData);
-
+        }
+        if (size > MAX_IN_MEMORY_PARALLEL_SIZE) {
+            return null;
+        }
+        return ByteBuffer.wrap(readFully(channel, (int) size));
+    }
+    
+    /**
+     * 子类是否支持并行解压
+     * <p>
+     * 返回true的子类需要实现 {@link #createParallelInputStream(ByteBuffer, int)}。
+     * </p>
+     *
+     * @return 支持并行解压时返回true，默认返回false
+     */
+    protected boolean supportsParallelDecompression() {
+        return false;
+    }
+    
+    /**
+     * 创建并行解压的输入流
+     * <p>
+     * 只有 {@link #supportsParallelDecompression()} 返回true时才会被调用。
+     * </p>
+     *
+     * @param data 压缩数据，可以是映射到内存的文件，只能按绝对位置或在副本上读取
+     * @param parallelism 并行度
+     * @return 解压后的数据流
+     * @throws IOException 当创建输入流失败时抛出
+     */
+    protected InputStream createParallelInputStream(ByteBuffer data, int parallelism) throws IOException {
+        throw new UnsupportedOperationException("不支持并行解压: " + supportedFormat);
+    }
+    
+    private boolean isParallelDecompressionEnabled() {
+        return supportsParallelDecompression() && ParallelEntryExecutor.isEnabled(unzipConfig);
+    }
+    
+    private void unzipInParallel(ByteBuffer data, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
+        }
+        UnzipPhase previous = UnzipPhaseTimer.enter(UnzipPhase.OPEN);
+        try (InputStream decompressed = createParallelInputStream(data, unzipConfig.getConcurrentThreads())) {
+            UnzipPhaseTimer.exit(previous);
+            visitDecompressed(decompressed, data.remaining(), password, callback, visitor);
+            UnzipPhaseTimer.enter(UnzipPhase.CLOSE);
         } catch (Exception e) {
             if (callback != null) {
                 callback.onError(e.getMessage());
             }
             throw new UnzipException(UnzipErrorCode.IO_ERROR, "解压失败: " + e.getMessage(), e);
+        } finally {
+            UnzipPhaseTimer.exit(previous);
+        }
+    }
+    
+    private static byte[] readFully(SeekableByteChannel channel, int size) throws IOException {
+        byte[] data = new byte[size];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        channel.position(0);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("通道内容少于声明的大小");
+            }
+        }
+        return data;
+    }
+    
+    /**
+     * 把解压后的数据交给访问器
+     * <p>
+     * 启用复合格式检测时预读解压后数据的第一个块（{@value CompressionFormatDetector#TAR_HEADER_SIZE} 字节）检测是否为TAR格式，
+     * 是则把解压流直接交给TAR策略逐个条目处理（如 .tar.gz、.tar.bz2、.tar.xz）；否则作为单个条目交给访问器。
+     * 两种情况都是边解压边处理，内存占用与解压后的数据大小无关。子类可以用其他方式解压（如并行解压）后调用该方法。
+     * </p>
+     *
+     * @param decompressed 解压后的数据
+     * @param compressedSize 压缩数据的大小，用于进度回调
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws Exception 当解压过程中发生错误时抛出
+     */
+    protected void visitDecompressed(InputStream decompressed, long compressedSize, String password,
+                                     UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws Exception {
+        UnzipDeadline.check();
+        if (!unzipConfig.isEnableCompoundFormatDetection()) {
+            visitSingleEntry(decompressed, compressedSize, callback, visitor);
+            return;
         }
+        
+        // 预读第一个块检测TAR格式，之后从头开始读取；缓冲区从缓冲区池借出，关闭时归还
+        try (CompressionCompositeInputStream buffered = new CompressionCompositeInputStream(decompressed,
+                Math.max(unzipConfig.getBufferSize(), CompressionFormatDetector.TAR_HEADER_SIZE))) {
+            byte[] header = BufferPool.shared().acquire(CompressionFormatDetector.TAR_HEADER_SIZE);
+            boolean tar;
+            try {
+                buffered.mark(CompressionFormatDetector.TAR_HEADER_SIZE);
+                int headerLength = IOUtils.readFully(buffered, header, 0, CompressionFormatDetector.TAR_HEADER_SIZE);
+                buffered.reset();
+                tar = CompressionFormatDetector.isTarHeader(header, headerLength);
+            } finally {
+                BufferPool.shared().release(header);
+            }
+            
+            if (tar) {
+                tarStrategy.visitArchiveEntries(buffered, compressedSize, callback, visitor);
+            } else {
+                visitSingleEntry(buffered, compressedSize, callback, visitor);
+            }
+        }
+    }
+    
+    /**
+     * 把解压后的数据作为单个条目交给访问器
+     */
+    private void visitSingleEntry(InputStream entryData, long compressedSize,
+                                  UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws Exception {
+        // 通知开始解压
+        if (callback != null) {
+            callback.onStart(compressedSize, 1);
+        }
+        
+        // 将解压结果作为单个条目以流的方式交给访问器
+        long maxFileSize = unzipConfig.isEnableFileSizeCheck() ? unzipConfig.getMaxFileSize() : -1;
+        BoundedEntryInputStream entryInputStream = new BoundedEntryInputStream(entryData,
+            "decompressed", -1, maxFileSize, callback, 1, 1);
+        visitor.visitEntry(createFileInfo(), entryInputStream);
+        entryInputStream.close();
+        
+        // 通知完成
+        if (callback != null) {
+            callback.onComplete();
+        }
+    }
+    
+    /**
+     * 创建解压结果的文件信息
+     *
+     * @return 文件信息，大小未知，为-1
+     */
+    private FileInfo createFileInfo() {
+        return FileInfo.builder()
+            .fileName("decompressed")
+            .path("decompressed")
+            .size(-1)
+            .lastModified(System.currentTimeMillis())
+            .build();
     }
     
     /**
@@ -6,17 +6,36 @@ import com.yuxie.common.compress.exception.UnzipErrorCode;
 import com.yuxie.common.compress.exception.UnzipException;
 import com.yuxie.common.compress.format.CompressionFormat;
 import com.yuxie.common.compress.model.FileInfo;
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+import com.yuxie.common.compress.monitor.UnzipPhase;
+import com.yuxie.common.compress.monitor.UnzipPhaseTimer;
 import com.yuxie.common.compress.strategy.UnzipStrategy;
+import com.yuxie.common.compress.util.BoundedEntryInputStream;
+import com.yuxie.common.compress.util.ChunkPipeInputStream;
 import com.yuxie.common.compress.util.CompressionCompositeInputStream;
+import com.yuxie.common.compress.util.ParallelEntryExecutor;
+import com.yuxie.common.compress.util.SizedByteArrayOutputStream;
+import com.yuxie.common.compress.util.UnzipDeadline;
 import com.yuxie.common.compress.util.UnzipUtils;
+import com.yuxie.common.compress.visitor.ArchiveEntryVisitor;
+import com.yuxie.common.compress.visitor.InMemoryEntryVisitor;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.sevenzipjbinding.*;
-import net.sf.sevenzipjbinding.impl.RandomAccessFileInStream;
 import net.sf.sevenzipjbinding.simple.ISimpleInArchive;
 import net.sf.sevenzipjbinding.simple.ISimpleInArchiveItem;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 基于7-Zip-JBinding的压缩文件解压抽象基类
@@ -32,11 +51,51 @@ import java.util.*;
 @Slf4j
 public abstract class AbstractSevenZipStrategy implements UnzipStrategy {
     
+    /**
+     * 条目管道中最多缓存的数据块数量
+     */
+    private static final int PIPE_CAPACITY = 4;
+    
+    /**
+     * 并行解压时一组条目的最大总大小（字节）
+     */
+    private static final long PARALLEL_GROUP_SIZE = 256 * 1024;
+    
+    /**
+     * 并行解压时一组条目的最大数量
+     */
+    private static final int PARALLEL_GROUP_ITEMS = 32;
+    
+    /**
+     * 提取线程的空闲存活时间（秒）
+     */
+    private static final long EXTRACT_KEEP_ALIVE_SECONDS = 60;
+    
+    /**
+     * 提取线程编号
+     */
+    private static final AtomicInteger EXTRACT_THREAD_NUMBER = new AtomicInteger(1);
+    
     /**
      * 解压配置
      */
     protected final UnzipConfig unzipConfig;
     
+    /**
+     * 监控指标，可以为null
+     */
+    protected final UnzipMetrics unzipMetrics;
+    
+    /**
+     * 执行7-Zip-JBinding提取操作的后台线程池，第一次提取时创建，关闭策略时关闭
+     */
+    private ThreadPoolExecutor extractExecutor;
+    
+    /**
+     * 策略是否已关闭
+     */
+    private boolean closed;
+    
     /**
      * 构造函数
      *
@@ -44,10 +103,22 @@ public abstract class AbstractSevenZipStrategy implements UnzipStrategy {
      * @throws IllegalArgumentException 当unzipConfig为null时抛出
      */
     protected AbstractSevenZipStrategy(UnzipConfig unzipConfig) {
+        this(unzipConfig, null);
+    }
+    
+    /**
+     * 构造函数
+     *
+     * @param unzipConfig 解压配置，不能为空
+     * @param unzipMetrics 监控指标，可以为null，用于记录并行解压的并发任务数等指标
+     * @throws IllegalArgumentException 当unzipConfig为null时抛出
+     */
+    protected AbstractSevenZipStrategy(UnzipConfig unzipConfig, UnzipMetrics unzipMetrics) {
         if (unzipConfig == null) {
             throw new IllegalArgumentException("解压配置不能为空");
         }
         this.unzipConfig = unzipConfig;
+        this.unzipMetrics = unzipMetrics;
     }
     
     /**
@@ -115,12 +186,31 @@ public abstract class AbstractSevenZipStrategy implements UnzipStrategy {
      */
     @Override
     public Map<FileInfo, byte[]> unzip(InputStream inputStream, String password, UnzipProgressCallback callback) throws UnzipException {
+        InMemoryEntryVisitor visitor = new InMemoryEntryVisitor(unzipConfig);
+        unzip(inputStream, password, callback, visitor);
+        return visitor.getResult();
+    }
+
+    /**
+     * 流式解压文件（带密码和进度回调）
+     *
+     * @param inputStream 输入流
+     * @param password 密码
+     * @param callback 进度回调
+     * @param visitor 条目访问器
+     * @throws UnzipException 解压异常
+     */
+    @Override
+    public void unzip(InputStream inputStream, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
         if (inputStream == null) {
             throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "输入流不能为空");
         }
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
+        }
 
         // 直接调用内部解压方法，不再创建额外的CompressionCompositeInputStream
-        return unzipInternal(inputStream, password, callback);
+        unzipInternal(inputStream, password, callback, visitor);
     }
 
     /**
@@ -172,193 +262,587 @@ public abstract class AbstractSevenZipStrategy implements UnzipStrategy {
      */
     @Override
     public Map<FileInfo, byte[]> unzipWithCompositeStream(CompressionCompositeInputStream compositeInputStream, String password, UnzipProgressCallback callback) throws UnzipException {
+        InMemoryEntryVisitor visitor = new InMemoryEntryVisitor(unzipConfig);
+        unzipWithCompositeStream(compositeInputStream, password, callback, visitor);
+        return visitor.getResult();
+    }
+
+    /**
+     * 流式解压文件（使用已封装的复合输入流，带密码和进度回调）
+     *
+     * @param compositeInputStream 已封装的复合输入流
+     * @param password 密码
+     * @param callback 进度回调
+     * @param visitor 条目访问器
+     * @throws UnzipException 解压异常
+     */
+    @Override
+    public void unzipWithCompositeStream(CompressionCompositeInputStream compositeInputStream, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
         if (compositeInputStream == null) {
             throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "输入流不能为空");
         }
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
+        }
 
         // 直接调用内部解压方法
-        return unzipInternal(compositeInputStream, password, callback);
+        unzipInternal(compositeInputStream, password, callback, visitor);
     }
     
     /**
-     * 内部解压方法，处理实际的解压逻辑
+     * 流式解压内存中的压缩包
      * <p>
-     * 该方法实现了使用7-Zip-JBinding库解压文件的核心逻辑，包括：
-     * 1. 读取输入流数据
-     * 2. 创建临时文件
-     * 3. 初始化7-Zip-JBinding
-     * 4. 打开压缩包
-     * 5. 提取文件内容
-     * 6. 处理进度回调
-     * 7. 资源清理
+     * 直接以内存缓冲区作为7-Zip输入流，不复制数据，也不创建临时文件。
+     * </p>
+     *
+     * @param data 压缩文件数据
+     * @param password 密码
+     * @param callback 进度回调
+     * @param visitor 条目访问器
+     * @throws UnzipException 解压异常
+     */
+    @Override
+    public void unzip(byte[] data, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        if (data == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "压缩文件数据不能为空");
+        }
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
+        }
+        unzipInternal(new ByteBufferInStream(data), () -> new ByteBufferInStream(data), data.length, password, callback, visitor);
+    }
+
+    /**
+     * 流式解压通道中的压缩包
+     * <p>
+     * 直接以通道作为7-Zip输入流，按需读取，不会把整个压缩包读入内存，也不创建临时文件。
+     * 只有 {@link FileChannel} 支持不移动通道位置的读取，因此只有文件通道可以并行解压。
+     * </p>
+     *
+     * @param channel 压缩包所在的通道
+     * @param password 密码
+     * @param callback 进度回调
+     * @param visitor 条目访问器
+     * @throws UnzipException 解压异常
+     */
+    @Override
+    public void unzip(SeekableByteChannel channel, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        if (channel == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "通道不能为空");
+        }
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
+        }
+        SeekableChannelInStream inStream;
+        try {
+            inStream = new SeekableChannelInStream(channel);
+        } catch (IOException e) {
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "读取通道失败", e);
+        }
+        InStreamFactory viewFactory = channel instanceof FileChannel ? () -> new SeekableChannelInStream(channel) : null;
+        unzipInternal(inStream, viewFactory, inStream.size(), password, callback, visitor);
+    }
+
+    /**
+     * 内部解压方法，处理输入流
+     * <p>
+     * 7-Zip格式需要随机访问，输入流的数据只读入内存一次，随后直接作为7-Zip输入流使用。
      * </p>
      *
      * @param inputStream 输入流
      * @param password 密码
      * @param callback 进度回调
-     * @return 解压后的文件信息及其内容
+     * @param visitor 条目访问器
      * @throws UnzipException 解压异常
      */
-    private Map<FileInfo, byte[]> unzipInternal(InputStream inputStream, String password, UnzipProgressCallback callback) throws UnzipException {
+    private void unzipInternal(InputStream inputStream, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
         // 读取输入流数据
         byte[] data;
+        UnzipPhase previous = UnzipPhaseTimer.enter(UnzipPhase.OPEN);
         try {
             data = readInputStream(inputStream);
         } catch (IOException e) {
             throw new UnzipException(UnzipErrorCode.IO_ERROR, "读取输入流失败", e);
+        } finally {
+            UnzipPhaseTimer.exit(previous);
         }
+        unzipInternal(new ByteBufferInStream(data), () -> new ByteBufferInStream(data), data.length, password, callback, visitor);
+    }
 
-        // 创建临时文件
-        File tempFile = null;
+    /**
+     * 内部解压方法，处理实际的解压逻辑
+     * <p>
+     * 该方法实现了使用7-Zip-JBinding库解压文件的核心逻辑，包括：
+     * 1. 初始化7-Zip-JBinding
+     * 2. 打开压缩包
+     * 3. 校验条目元数据
+     * 4. 批量提取条目并交给访问器处理
+     * 5. 处理进度回调
+     * 6. 资源清理
+     * </p>
+     * <p>
+     * 7-Zip-JBinding以推送方式输出条目内容，因此提取过程在后台线程中执行，
+     * 大条目通过有界的 {@link ChunkPipeInputStream} 交给访问器读取，单个大条目的内容不会整体驻留内存。
+     * </p>
+     * <p>
+     * 非固实的压缩包中每个条目可以独立解码。此时如果启用了并发解压并且可以为压缩包创建独立的输入流，
+     * 条目由 {@link ParallelEntryExecutor} 分组后在多个线程中同时提取，访问器仍在当前线程中按条目顺序收到条目。
+     * 固实压缩包仍然一次提取，固实块只解码一遍。
+     * </p>
+     *
+     * @param inStream 压缩包的7-Zip输入流
+     * @param viewFactory 为并行解压创建压缩包独立输入流的工厂，不支持并行读取时为null
+     * @param archiveSize 压缩包大小
+     * @param password 密码
+     * @param callback 进度回调
+     * @param visitor 条目访问器
+     * @throws UnzipException 解压异常
+     */
+    private void unzipInternal(IInStream inStream, InStreamFactory viewFactory, long archiveSize, String password,
+                               UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        IInArchive archive = null;
+        UnzipPhase previous = UnzipPhaseTimer.enter(UnzipPhase.OPEN);
         try {
-            tempFile = createTempFile(data);
-            
-            // 初始化7-Zip-JBinding
-            SevenZip.initSevenZipFromPlatformJAR();
-            
+            // 确保7-Zip-JBinding已初始化，只有首次调用会真正加载本地库
+            SevenZipNativeInitializer.ensureInitialized(unzipConfig.getSevenZipNativeLibDirectory());
+
             // 打开压缩包
-            RandomAccessFile randomAccessFile = new RandomAccessFile(tempFile, "r");
-            IInArchive archive = SevenZip.openInArchive(null, 
-                new RandomAccessFileInStream(randomAccessFile));
-            
-            try {
-                // 获取所有条目
-                int itemCount = archive.getNumberOfItems();
-                
-                // 检查文件数量限制
-                if (unzipConfig.isEnableFileCountCheck() && itemCount > unzipConfig.getMaxFileCount()) {
-                    throw new UnzipException(UnzipErrorCode.INVALID_FORMAT,
-                        String.format("文件数量超过限制: %d > %d", itemCount, unzipConfig.getMaxFileCount()));
-                }
-                
-                // 通知开始解压
-                if (callback != null) {
-                    callback.onStart(data.length, itemCount);
-                }
-                
-                // 解压文件
-                Map<FileInfo, byte[]> result = new HashMap<>();
-                int currentFile = 0;
-                long totalBytesRead = 0;
-                
-                // 使用Simple接口简化操作
-                ISimpleInArchive simpleArchive = archive.getSimpleInterface();
-                
-                for (ISimpleInArchiveItem item : simpleArchive.getArchiveItems()) {
-                    String path = item.getPath();
-                    
-                    if (path == null || path.trim().isEmpty() || item.isFolder()) {
-                        continue;
-                    }
-                    
-                    // 安全检查
-                    UnzipUtils.validatePath(path, unzipConfig);
-                    UnzipUtils.validateFileType(path, unzipConfig);
-                    
-                    // 提取文件内容
-                    byte[] content = extractItem(item, password);
-                    if (content == null) {
-                        continue;
-                    }
-                    
-                    // 检查文件大小
-                    UnzipUtils.validateFileSize(content.length, unzipConfig);
-                    
-                    // 创建文件信息
-                    FileInfo fileInfo = FileInfo.builder()
-                        .fileName(new File(path).getName())
-                        .path(path)
-                        .size(content.length)
-                        .lastModified(item.getLastWriteTime() != null ? item.getLastWriteTime().getTime() : new Date().getTime())
-                        .build();
-                    
-                    // 添加到结果集
-                    result.put(fileInfo, content);
-                    
-                    // 更新进度
-                    currentFile++;
-                    totalBytesRead += content.length;
-                    if (callback != null) {
-                        callback.onProgress(fileInfo.getFileName(), totalBytesRead, data.length, currentFile, itemCount);
-                    }
+            archive = SevenZip.openInArchive(null, inStream);
+
+            // 获取所有条目
+            int itemCount = archive.getNumberOfItems();
+
+            // 检查文件数量限制
+            UnzipPhaseTimer.enter(UnzipPhase.VALIDATE);
+            if (unzipConfig.isEnableFileCountCheck() && itemCount > unzipConfig.getMaxFileCount()) {
+                throw new UnzipException(UnzipErrorCode.INVALID_FORMAT,
+                    String.format("文件数量超过限制: %d > %d", itemCount, unzipConfig.getMaxFileCount()));
+            }
+
+            // 通知开始解压
+            if (callback != null) {
+                callback.onStart(archiveSize, itemCount);
+            }
+
+            // 先读取并校验所有条目的元数据，确定需要提取的条目
+            ISimpleInArchive simpleArchive = archive.getSimpleInterface();
+            FileInfo[] fileInfos = new FileInfo[itemCount];
+            int[] indices = new int[itemCount];
+            int fileCount = 0;
+
+            for (ISimpleInArchiveItem item : simpleArchive.getArchiveItems()) {
+                String path = item.getPath();
+
+                if (path == null || path.trim().isEmpty() || item.isFolder()) {
+                    continue;
                 }
-                
-                // 通知解压完成
-                if (callback != null) {
-                    callback.onComplete();
+
+                // 安全检查
+                UnzipUtils.validatePath(path, unzipConfig);
+                UnzipUtils.validateFileType(path, unzipConfig);
+
+                // 检查声明的文件大小
+                Long declaredSize = item.getSize();
+                if (declaredSize != null && unzipConfig.isEnableFileSizeCheck()) {
+                    UnzipUtils.validateFileSize(declaredSize, unzipConfig);
                 }
-                
-                return result;
-                
-            } finally {
-                archive.close();
-                randomAccessFile.close();
+
+                // 创建文件信息
+                fileInfos[item.getItemIndex()] = FileInfo.builder()
+                    .fileName(new File(path).getName())
+                    .path(path)
+                    .size(declaredSize != null ? declaredSize : -1)
+                    .lastModified(item.getLastWriteTime() != null ? item.getLastWriteTime().getTime() : new Date().getTime())
+                    .build();
+                indices[fileCount++] = item.getItemIndex();
             }
-            
+            UnzipPhaseTimer.exit(previous);
+            UnzipDeadline.check();
+
+            // 提取条目并交给访问器
+            int[] selected = Arrays.copyOf(indices, fileCount);
+            ExtractionProgress progress = new ExtractionProgress(fileCount);
+            if (viewFactory != null && ParallelEntryExecutor.isEnabled(unzipConfig) && fileCount > 1 && !isSolid(archive)) {
+                extractItemsInParallel(archive, viewFactory, selected, fileInfos, password, archiveSize, callback, visitor, progress);
+            } else {
+                extractItems(archive, selected, fileInfos, password, archiveSize, callback, visitor, progress);
+            }
+
+            // 通知解压完成
+            if (callback != null) {
+                callback.onComplete();
+            }
+
         } catch (Exception e) {
             if (callback != null) {
                 callback.onError(e.getMessage());
             }
             throw new UnzipException(UnzipErrorCode.IO_ERROR, "解压失败: " + e.getMessage(), e);
         } finally {
-            // 删除临时文件
-            if (tempFile != null && tempFile.exists()) {
-                tempFile.delete();
+            if (archive != null) {
+                UnzipPhaseTimer.enter(UnzipPhase.CLOSE);
+                try {
+                    archive.close();
+                } catch (SevenZipException e) {
+                    log.warn("关闭压缩包失败: {}", e.getMessage());
+                }
             }
+            UnzipPhaseTimer.exit(previous);
         }
     }
     
     /**
-     * 创建临时文件
+     * 批量提取压缩包中的条目内容
      * <p>
-     * 将输入流数据写入临时文件，用于7-Zip-JBinding库处理
+     * 在后台线程中调用 {@link IInArchive#extract(int[], boolean, IArchiveExtractCallback)} 一次性提取所有条目，
+     * 固实块只解码一遍；条目内容由 {@link SevenZipExtractCallback} 按批次交给当前线程。
+     * 当前线程依次把条目输入流交给访问器，访问器返回后读完剩余内容再处理下一个条目。
      * </p>
      *
-     * @param data 要写入的数据
-     * @return 创建的临时文件
-     * @throws IOException 创建或写入文件失败时抛出
+     * @param archive 已打开的压缩包
+     * @param indices 需要提取的条目索引
+     * @param fileInfos 按条目索引存放的文件信息
+     * @param password 密码
+     * @param archiveSize 压缩包大小
+     * @param callback 进度回调
+     * @param visitor 条目访问器
+     * @param progress 解压进度
+     * @throws Exception 提取失败时抛出
      */
-    private File createTempFile(byte[] data) throws IOException {
-        File tempFile = File.createTempFile("unzip_", ".tmp");
-        try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-            fos.write(data);
+    private void extractItems(IInArchive archive, int[] indices, FileInfo[] fileInfos, String password, long archiveSize,
+                              UnzipProgressCallback callback, ArchiveEntryVisitor visitor, ExtractionProgress progress) throws Exception {
+        long[] declaredSizes = new long[fileInfos.length];
+        for (int index : indices) {
+            declaredSizes[index] = fileInfos[index].getSize();
+        }
+        SevenZipExtractCallback extractCallback = new SevenZipExtractCallback(declaredSizes, password, PIPE_CAPACITY, UnzipDeadline.current());
+        // 提取任务和当前线程谁先占用谁决定任务是否执行：任务已经开始时必须等它结束，尚未开始时不再执行
+        AtomicBoolean claimed = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(1);
+        Future<?> extraction = getExtractExecutor().submit(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            Throwable failure = null;
+            try {
+                archive.extract(indices, false, extractCallback);
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                extractCallback.finish(failure);
+                finished.countDown();
+            }
+            return null;
+        });
+
+        try {
+            SevenZipExtractCallback.ItemStream itemStream;
+            while ((itemStream = extractCallback.next()) != null) {
+                try {
+                    visitItem(fileInfos[itemStream.getIndex()], itemStream.getInputStream(), archiveSize, callback, visitor, progress);
+                } finally {
+                    itemStream.close();
+                }
+            }
+        } finally {
+            // 确保后台提取结束后才能继续操作压缩包，尚未开始的提取直接取消；
+            // 正在执行的任务也能被 cancel 标记为已取消，因此不能根据 cancel 的结果判断是否需要等待
+            extractCallback.abort();
+            if (claimed.compareAndSet(false, true)) {
+                extraction.cancel(false);
+            } else {
+                awaitUninterruptibly(finished);
+            }
         }
-        return tempFile;
     }
     
     /**
-     * 提取压缩包中的条目内容
+     * 并行提取非固实压缩包中的条目内容
      * <p>
-     * 使用7-Zip-JBinding库的Simple接口提取压缩包中的条目内容
+     * 条目按索引顺序分组：声明大小已知且不超过 {@link ParallelEntryExecutor#MAX_BUFFERED_ENTRY_SIZE} 的条目
+     * 合并为不超过 {@link #PARALLEL_GROUP_SIZE} 的组，由工作线程在各自打开的压缩包实例上提取到内存；
+     * 其他条目单独成组，轮到时由当前线程在原压缩包上流式提取。
+     * 7-Zip-JBinding的压缩包实例不能被多个线程同时使用，每个工作线程从 {@link ArchivePool} 中借用独立的实例。
      * </p>
      *
-     * @param item 压缩包中的条目
+     * @param archive 当前线程使用的压缩包
+     * @param viewFactory 为工作线程创建压缩包独立输入流的工厂
+     * @param indices 需要提取的条目索引
+     * @param fileInfos 按条目索引存放的文件信息
+     * @param password 密码
+     * @param archiveSize 压缩包大小
+     * @param callback 进度回调
+     * @param visitor 条目访问器
+     * @param progress 解压进度
+     * @throws Exception 提取失败时抛出
+     */
+    private void extractItemsInParallel(IInArchive archive, InStreamFactory viewFactory, int[] indices, FileInfo[] fileInfos,
+                                        String password, long archiveSize, UnzipProgressCallback callback,
+                                        ArchiveEntryVisitor visitor, ExtractionProgress progress) throws Exception {
+        int[] nextPosition = new int[1];
+        UnzipDeadline deadline = UnzipDeadline.current();
+        try (ArchivePool pool = new ArchivePool(viewFactory, archive.getArchiveFormat())) {
+            ParallelEntryExecutor.execute(unzipConfig.getConcurrentThreads(), () -> {
+                if (nextPosition[0] >= indices.length) {
+                    return null;
+                }
+                UnzipDeadline.check();
+                int[] group = nextGroup(indices, nextPosition[0], fileInfos);
+                nextPosition[0] += group.length;
+                if (!isBufferable(fileInfos[group[0]])) {
+                    return () -> new ExtractedGroup(group, null);
+                }
+                return () -> new ExtractedGroup(group, extractGroup(pool, group, fileInfos, password, deadline));
+            }, extracted -> {
+                if (extracted.contents == null) {
+                    extractItems(archive, extracted.indices, fileInfos, password, archiveSize, callback, visitor, progress);
+                    return;
+                }
+                for (int i = 0; i < extracted.indices.length; i++) {
+                    FileInfo fileInfo = fileInfos[extracted.indices[i]];
+                    visitItem(fileInfo, new ByteArrayInputStream(extracted.contents.getContent(i)), archiveSize, callback, visitor, progress);
+                }
+            }, unzipMetrics);
+        }
+    }
+    
+    /**
+     * 从指定位置开始取出一组条目
+     *
+     * @param indices 需要提取的条目索引
+     * @param start 起始位置
+     * @param fileInfos 按条目索引存放的文件信息
+     * @return 一组条目的索引，不可缓冲的条目单独成组
+     */
+    private static int[] nextGroup(int[] indices, int start, FileInfo[] fileInfos) {
+        if (!isBufferable(fileInfos[indices[start]])) {
+            return new int[]{indices[start]};
+        }
+        int end = start;
+        long groupSize = 0;
+        while (end < indices.length && end - start < PARALLEL_GROUP_ITEMS) {
+            FileInfo fileInfo = fileInfos[indices[end]];
+            if (!isBufferable(fileInfo) || (end > start && groupSize + fileInfo.getSize() > PARALLEL_GROUP_SIZE)) {
+                break;
+            }
+            groupSize += fileInfo.getSize();
+            end++;
+        }
+        return Arrays.copyOfRange(indices, start, end);
+    }
+    
+    private static boolean isBufferable(FileInfo fileInfo) {
+        return fileInfo.getSize() >= 0 && fileInfo.getSize() <= ParallelEntryExecutor.MAX_BUFFERED_ENTRY_SIZE;
+    }
+    
+    /**
+     * 在工作线程中把一组条目提取到内存
+     *
+     * @param pool 压缩包实例池
+     * @param group 一组条目的索引
+     * @param fileInfos 按条目索引存放的文件信息
      * @param password 密码
-     * @return 提取的内容
+     * @param deadline 发起请求的线程的截止时间，可以为null
+     * @return 提取结果
      * @throws Exception 提取失败时抛出
      */
-    private byte[] extractItem(ISimpleInArchiveItem item, String password) throws Exception {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    private static SevenZipBufferingCallback extractGroup(ArchivePool pool, int[] group, FileInfo[] fileInfos,
+                                                          String password, UnzipDeadline deadline) throws Exception {
+        long[] declaredSizes = new long[group.length];
+        for (int i = 0; i < group.length; i++) {
+            declaredSizes[i] = fileInfos[group[i]].getSize();
+        }
+        SevenZipBufferingCallback bufferingCallback = new SevenZipBufferingCallback(group, declaredSizes, password, deadline);
+        IInArchive view = pool.borrow();
+        boolean succeeded = false;
+        try {
+            view.extract(group, false, bufferingCallback);
+            succeeded = true;
+        } finally {
+            pool.giveBack(view, succeeded);
+        }
+        return bufferingCallback;
+    }
+    
+    /**
+     * 把单个条目交给访问器并更新进度
+     *
+     * @param fileInfo 文件信息
+     * @param content 条目内容的输入流
+     * @param archiveSize 压缩包大小
+     * @param callback 进度回调
+     * @param visitor 条目访问器
+     * @param progress 解压进度
+     * @throws IOException 访问器处理失败时抛出
+     */
+    private void visitItem(FileInfo fileInfo, InputStream content, long archiveSize, UnzipProgressCallback callback,
+                           ArchiveEntryVisitor visitor, ExtractionProgress progress) throws IOException {
+        long maxFileSize = unzipConfig.isEnableFileSizeCheck() ? unzipConfig.getMaxFileSize() : -1;
+        BoundedEntryInputStream entryInputStream = new BoundedEntryInputStream(content, fileInfo.getPath(),
+            fileInfo.getSize(), maxFileSize, null, 0, 0);
+        visitor.visitEntry(fileInfo, entryInputStream);
+        entryInputStream.drain();
+
+        // 更新进度
+        progress.currentFile++;
+        progress.totalBytesRead += entryInputStream.getBytesRead();
+        if (callback != null) {
+            callback.onProgress(fileInfo.getFileName(), progress.totalBytesRead, archiveSize, progress.currentFile, progress.totalFiles);
+        }
+    }
+    
+    /**
+     * 压缩包是否为固实压缩包，无法确定时按固实处理
+     *
+     * @param archive 已打开的压缩包
+     * @return 固实或无法确定时返回true
+     * @throws SevenZipException 读取压缩包属性失败时抛出
+     */
+    private static boolean isSolid(IInArchive archive) throws SevenZipException {
+        return !Boolean.FALSE.equals(archive.getArchiveProperty(PropID.SOLID));
+    }
+    
+    /**
+     * 等待后台任务结束
+     * <p>
+     * 7-Zip-JBinding的本地代码仍在使用压缩包时不能关闭压缩包，因此即使当前线程被中断也要等待任务结束。
+     * 任务本身的异常已经通过管道传递给读取方，这里不再处理。
+     * </p>
+     *
+     * @param finished 任务结束时计数归零的闩锁
+     */
+    private static void awaitUninterruptibly(CountDownLatch finished) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                finished.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * 压缩包输入流工厂
+     */
+    @FunctionalInterface
+    private interface InStreamFactory {
         
-        item.extractSlow(new ISequentialOutStream() {
-            @Override
-            public int write(byte[] data) throws SevenZipException {
-                try {
-                    outputStream.write(data);
-                    return data.length;
-                } catch (IOException e) {
-                    throw new SevenZipException("写入数据失败", e);
+        /**
+         * 创建一个独立的压缩包输入流，各输入流的读取位置互不影响
+         *
+         * @return 压缩包输入流
+         * @throws IOException 创建失败时抛出
+         */
+        IInStream open() throws IOException;
+    }
+    
+    /**
+     * 解压进度，只在当前线程中访问
+     */
+    private static final class ExtractionProgress {
+        
+        private final int totalFiles;
+        
+        private int currentFile;
+        
+        private long totalBytesRead;
+        
+        ExtractionProgress(int totalFiles) {
+            this.totalFiles = totalFiles;
+        }
+    }
+    
+    /**
+     * 工作线程提取出的一组条目
+     */
+    private static final class ExtractedGroup {
+        
+        private final int[] indices;
+        
+        /**
+         * 提取结果，为null时由当前线程流式提取
+         */
+        private final SevenZipBufferingCallback contents;
+        
+        ExtractedGroup(int[] indices, SevenZipBufferingCallback contents) {
+            this.indices = indices;
+            this.contents = contents;
+        }
+    }
+    
+    /**
+     * 并行解压时工作线程使用的压缩包实例池
+     * <p>
+     * 每个实例基于独立的输入流打开，同一时刻只被一个工作线程使用；实例数量不超过同时运行的工作线程数。
+     * </p>
+     */
+    private static final class ArchivePool implements Closeable {
+        
+        private final InStreamFactory viewFactory;
+        
+        private final ArchiveFormat format;
+        
+        private final BlockingQueue<IInArchive> idle = new LinkedBlockingQueue<>();
+        
+        private final List<IInArchive> opened = new ArrayList<>();
+        
+        ArchivePool(InStreamFactory viewFactory, ArchiveFormat format) {
+            this.viewFactory = viewFactory;
+            this.format = format;
+        }
+        
+        IInArchive borrow() throws IOException {
+            IInArchive archive = idle.poll();
+            if (archive != null) {
+                return archive;
+            }
+            archive = SevenZip.openInArchive(format, viewFactory.open());
+            synchronized (opened) {
+                opened.add(archive);
+            }
+            return archive;
+        }
+        
+        void giveBack(IInArchive archive, boolean reusable) {
+            if (reusable) {
+                idle.offer(archive);
+                return;
+            }
+            synchronized (opened) {
+                opened.remove(archive);
+            }
+            closeQuietly(archive);
+        }
+        
+        @Override
+        public void close() {
+            synchronized (opened) {
+                for (IInArchive archive : opened) {
+                    closeQuietly(archive);
                 }
+                opened.clear();
             }
-        }, password);
+            idle.clear();
+        }
         
-        return outputStream.toByteArray();
+        private static void closeQuietly(IInArchive archive) {
+            try {
+                archive.close();
+            } catch (SevenZipException e) {
+                log.warn("关闭压缩包失败: {}", e.getMessage());
+            }
+        }
     }
     
     /**
      * 读取输入流数据
      * <p>
-     * 将输入流中的数据读取到字节数组中
+     * 将输入流中的数据直接读入按块增长的数组，不经过中间缓冲区，也不会成倍扩容复制
      * </p>
      *
      * @param inputStream 输入流
@@ -366,27 +850,51 @@ public abstract class AbstractSevenZipStrategy implements UnzipStrategy {
      * @throws IOException 读取失败时抛出
      */
     protected byte[] readInputStream(InputStream inputStream) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        byte[] buffer = new byte[unzipConfig.getBufferSize()];
-        int bytesRead;
-        
-        while ((bytesRead = inputStream.read(buffer)) != -1) {
-            outputStream.write(buffer, 0, bytesRead);
-        }
-        
+        SizedByteArrayOutputStream outputStream = new SizedByteArrayOutputStream(-1, 0);
+        outputStream.readFrom(inputStream);
         return outputStream.toByteArray();
     }
     
+    /**
+     * 获取后台提取线程池
+     * <p>
+     * 每次批量提取占用一个提取线程直到读取方处理完所有条目，线程数为 {@code concurrentThreads}，
+     * 超出的提取请求在队列中等待，读取方按截止时间停止等待。线程空闲一段时间后自动回收。
+     * </p>
+     *
+     * @return 提取线程池
+     * @throws IllegalStateException 策略已关闭时抛出
+     */
+    private synchronized ThreadPoolExecutor getExtractExecutor() {
+        if (closed) {
+            throw new IllegalStateException("解压策略已关闭");
+        }
+        if (extractExecutor == null) {
+            int threads = unzipConfig.getConcurrentThreads();
+            extractExecutor = new ThreadPoolExecutor(threads, threads, EXTRACT_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "sevenzip-extract-" + EXTRACT_THREAD_NUMBER.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            extractExecutor.allowCoreThreadTimeOut(true);
+        }
+        return extractExecutor;
+    }
+    
     /**
      * 关闭资源
      * <p>
-     * 该方法不需要额外清理资源，因为所有资源都在使用后立即关闭
+     * 关闭后台提取线程池，正在进行的提取照常完成，之后的解压请求失败。
      * </p>
      *
      * @throws IOException 关闭资源时可能发生的异常
      */
     @Override
-    public void close() throws IOException {
-        // 不需要额外清理资源
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (extractExecutor != null) {
+            extractExecutor.shutdown();
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.yuxie.common.compress.strategy.impl;
+
+import net.sf.sevenzipjbinding.IInStream;
+import net.sf.sevenzipjbinding.SevenZipException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 基于内存缓冲区的7-Zip输入流
+ * <p>
+ * 将 {@link ByteBuffer}（或通过 {@link ByteBuffer#wrap(byte[])} 包装的字节数组）直接适配为7-Zip-JBinding的 {@link IInStream}，
+ * 解压内存中的压缩包时无需再写入临时文件，也不会复制数据。
+ * </p>
+ * <p>
+ * 该类不会修改传入缓冲区的position和limit，关闭时也不会释放缓冲区。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see SeekableChannelInStream
+ */
+public class ByteBufferInStream implements IInStream {
+
+    /**
+     * 缓冲区视图，从0到limit为压缩包内容
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * 当前读取位置
+     */
+    private long position;
+
+    /**
+     * 创建输入流
+     *
+     * @param buffer 压缩包内容，从position到limit之间的数据有效
+     */
+    public ByteBufferInStream(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+    }
+
+    /**
+     * 创建输入流
+     *
+     * @param data 压缩包内容
+     */
+    public ByteBufferInStream(byte[] data) {
+        this(ByteBuffer.wrap(data));
+    }
+
+    @Override
+    public int read(byte[] data) throws SevenZipException {
+        int limit = buffer.limit();
+        if (position >= limit) {
+            return 0;
+        }
+        int length = (int) Math.min(data.length, limit - position);
+        buffer.position((int) position);
+        buffer.get(data, 0, length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public long seek(long offset, int seekOrigin) throws SevenZipException {
+        long newPosition;
+        switch (seekOrigin) {
+            case SEEK_SET:
+                newPosition = offset;
+                break;
+            case SEEK_CUR:
+                newPosition = position + offset;
+                break;
+            case SEEK_END:
+                newPosition = buffer.limit() + offset;
+                break;
+            default:
+                throw new SevenZipException("无效的seek起点: " + seekOrigin);
+        }
+        if (newPosition < 0) {
+            throw new SevenZipException("无效的seek位置: " + newPosition);
+        }
+        position = newPosition;
+        return position;
+    }
+
+    /**
+     * 关闭输入流
+     * <p>
+     * 缓冲区由调用方管理，这里不需要额外清理资源。
+     * </p>
+     */
+    @Override
+    public void close() {
+        // 不需要额外清理资源
+    }
+}
@@ -2,12 +2,17 @@ package com.yuxie.common.compress.strategy.impl;
 
 import com.yuxie.common.compress.config.UnzipConfig;
 import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.monitor.UnzipMetrics;
 import com.yuxie.common.compress.strategy.UnzipStrategy;
 import com.yuxie.common.compress.strategy.UnzipStrategyFactory;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 默认解压策略工厂实现
@@ -52,8 +57,22 @@ public class DefaultUnzipStrategyFactory implements UnzipStrategyFactory {
      * @throws IllegalArgumentException 当unzipConfig为null时抛出
      */
     public DefaultUnzipStrategyFactory(UnzipConfig unzipConfig) {
+        this(unzipConfig, null);
+    }
+    
+    /**
+     * 构造函数
+     * <p>
+     * 初始化工厂并注册所有支持的解压策略，支持并行解压的策略会把实际并发任务数记录到监控指标中。
+     * </p>
+     *
+     * @param unzipConfig 解压配置，不能为null
+     * @param unzipMetrics 监控指标，可以为null
+     * @throws IllegalArgumentException 当unzipConfig为null时抛出
+     */
+    public DefaultUnzipStrategyFactory(UnzipConfig unzipConfig, UnzipMetrics unzipMetrics) {
         this.strategyMap = new HashMap<>();
-        registerStrategies(unzipConfig);
+        registerStrategies(unzipConfig, unzipMetrics);
     }
     
     /**
@@ -63,24 +82,25 @@ public class DefaultUnzipStrategyFactory implements UnzipStrategyFactory {
      * </p>
      *
      * @param unzipConfig 解压配置，不能为null
+     * @param unzipMetrics 监控指标，可以为null
      */
-    private void registerStrategies(UnzipConfig unzipConfig) {
+    private void registerStrategies(UnzipConfig unzipConfig, UnzipMetrics unzipMetrics) {
         // 注册ZIP格式策略
-        strategyMap.put(CompressionFormat.ZIP, new ZipUnzipStrategy(unzipConfig));
+        strategyMap.put(CompressionFormat.ZIP, new ZipUnzipStrategy(unzipConfig, unzipMetrics));
         
         // 注册TAR格式策略
         strategyMap.put(CompressionFormat.TAR, new TarUnzipStrategy(unzipConfig));
         
         // 注册RAR格式策略
-        strategyMap.put(CompressionFormat.RAR, new RarUnzipStrategy(unzipConfig));
+        strategyMap.put(CompressionFormat.RAR, new RarUnzipStrategy(unzipConfig, unzipMetrics));
         
         // 注册7Z格式策略
-        strategyMap.put(CompressionFormat.SEVEN_ZIP, new SevenZipUnzipStrategy(unzipConfig));
+        strategyMap.put(CompressionFormat.SEVEN_ZIP, new SevenZipUnzipStrategy(unzipConfig, unzipMetrics));
         
         // 注册压缩格式策略
-        strategyMap.put(CompressionFormat.GZIP, new GzipUnzipStrategy(unzipConfig));
-        strategyMap.put(CompressionFormat.BZIP2, new Bzip2UnzipStrategy(unzipConfig));
-        strategyMap.put(CompressionFormat.XZ, new XzUnzipStrategy(unzipConfig));
+        strategyMap.put(CompressionFormat.GZIP, new GzipUnzipStrategy(unzipConfig, unzipMetrics));
+        strategyMap.put(CompressionFormat.BZIP2, new Bzip2UnzipStrategy(unzipConfig, unzipMetrics));
+        strategyMap.put(CompressionFormat.XZ, new XzUnzipStrategy(unzipConfig, unzipMetrics));
         strategyMap.put(CompressionFormat.LZMA, new LzmaUnzipStrategy(unzipConfig));
         strategyMap.put(CompressionFormat.SNAPPY, new SnappyUnzipStrategy(unzipConfig));
         strategyMap.put(CompressionFormat.LZ4, new Lz4UnzipStrategy(unzipConfig));
@@ -159,4 +179,22 @@ public class DefaultUnzipStrategyFactory implements UnzipStrategyFactory {
         }
         strategyMap.put(format, strategy);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 关闭所有已注册的解压策略
+     * <p>
+     * 同一个策略注册到多个格式时只关闭一次，单个策略关闭失败只记录日志。
+     * </p>
+     */
+    public void close() {
+        Set<UnzipStrategy> strategies = Collections.newSetFromMap(new IdentityHashMap<>());
+        strategies.addAll(strategyMap.values());
+        for (UnzipStrategy strategy : strategies) {
+            try {
+                strategy.close();
+            } catch (IOException e) {
+                log.warn("关闭解压策略失败: {} - {}", strategy.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
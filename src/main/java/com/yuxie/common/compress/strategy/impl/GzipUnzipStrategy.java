@@ -2,12 +2,15 @@ package com.yuxie.common.compress.strategy.impl;
 
 import com.yuxie.common.compress.config.UnzipConfig;
 import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+import com.yuxie.common.compress.util.ParallelGzipInputStream;
 import org.apache.commons.compress.compressors.CompressorInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * GZIP格式解压策略实现
@@ -23,9 +26,15 @@ import java.io.InputStream;
  *   <li>支持进度回调：可以报告解压进度</li>
  *   <li>资源自动管理：自动关闭输入流和输出流</li>
  *   <li>支持TAR检测：自动检测解压后的数据是否为TAR格式</li>
+ *   <li>支持多成员GZIP：依次解压拼接在一起的所有GZIP成员</li>
  * </ul>
  * </p>
  * <p>
+ * 启用并发解压（{@link UnzipConfig#isEnableConcurrentUnzip()}）且并发线程数大于1时，
+ * 字节数组和通道输入由 {@link ParallelGzipInputStream} 在多个线程中同时解压各个GZIP成员，
+ * 对BGZF格式和多个成员拼接而成的文件（包括 .tar.gz）有明显的加速效果。输入流输入仍按顺序解压。
+ * </p>
+ * <p>
  * 注意：GZIP格式通常用于压缩单个文件，如果解压后的数据是TAR格式，
  * 会自动切换到TAR解压策略进行处理。
  * </p>
@@ -49,7 +58,46 @@ public class GzipUnzipStrategy extends AbstractCompressedUnzipStrategy {
      * @throws IllegalArgumentException 当unzipConfig为null时抛出
      */
     public GzipUnzipStrategy(UnzipConfig unzipConfig) {
-        super(unzipConfig, CompressionFormat.GZIP);
+        this(unzipConfig, null);
+    }
+    
+    /**
+     * 构造函数
+     * <p>
+     * 初始化解压策略，设置解压配置、监控指标和压缩格式。
+     * </p>
+     *
+     * @param unzipConfig 解压配置，不能为null
+     * @param unzipMetrics 监控指标，可以为null；并行解压时记录实际达到的最大并发任务数
+     * @throws IllegalArgumentException 当unzipConfig为null时抛出
+     */
+    public GzipUnzipStrategy(UnzipConfig unzipConfig, UnzipMetrics unzipMetrics) {
+        super(unzipConfig, unzipMetrics, CompressionFormat.GZIP);
+    }
+    
+    /**
+     * GZIP格式支持按成员并行解压
+     *
+     * @return 总是返回true
+     */
+    @Override
+    protected boolean supportsParallelDecompression() {
+        return true;
+    }
+    
+    /**
+     * 创建并行解压的输入流
+     * <p>
+     * 使用 {@link ParallelGzipInputStream} 在多个线程中同时解压各个GZIP成员。
+     * </p>
+     *
+     * @param data GZIP数据
+     * @param parallelism 并行度
+     * @return 解压后的数据流
+     */
+    @Override
+    protected InputStream createParallelInputStream(ByteBuffer data, int parallelism) {
+        return new ParallelGzipInputStream(data, parallelism, unzipMetrics);
     }
     
     /**
@@ -64,6 +112,7 @@ public class GzipUnzipStrategy extends AbstractCompressedUnzipStrategy {
      */
     @Override
     protected CompressorInputStream createCompressorInputStream(InputStream inputStream) throws IOException {
-        return new GzipCompressorInputStream(inputStream);
+        // 解压拼接在一起的所有成员，而不是只解压第一个成员
+        return new GzipCompressorInputStream(inputStream, true);
     }
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.yuxie.common.compress.strategy.impl;
 
 import com.yuxie.common.compress.config.UnzipConfig;
 import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.monitor.UnzipMetrics;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -46,6 +47,20 @@ public class RarUnzipStrategy extends AbstractSevenZipStrategy {
         super(unzipConfig);
     }
     
+    /**
+     * 构造函数
+     * <p>
+     * 初始化解压策略，设置解压配置和监控指标。
+     * </p>
+     *
+     * @param unzipConfig 解压配置，不能为null
+     * @param unzipMetrics 监控指标，可以为null
+     * @throws IllegalArgumentException 当unzipConfig为null时抛出
+     */
+    public RarUnzipStrategy(UnzipConfig unzipConfig, UnzipMetrics unzipMetrics) {
+        super(unzipConfig, unzipMetrics);
+    }
+    
     /**
      * 检查是否支持指定的压缩格式
      * <p>
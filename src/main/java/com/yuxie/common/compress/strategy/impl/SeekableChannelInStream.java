@@ -0,0 +1,125 @@
+package com.yuxie.common.compress.strategy.impl;
+
+import net.sf.sevenzipjbinding.IInStream;
+import net.sf.sevenzipjbinding.SevenZipException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * 基于通道的7-Zip输入流
+ * <p>
+ * 将 {@link SeekableByteChannel}（通常是 {@link FileChannel}）直接适配为7-Zip-JBinding的 {@link IInStream}，
+ * 解压磁盘上的压缩包时按需读取，不会把整个压缩包读入内存，也不需要临时文件。
+ * </p>
+ * <p>
+ * 对于 {@link FileChannel} 使用按位置读取，不会改变通道自身的position；
+ * 通道由调用方管理，关闭该输入流时不会关闭通道。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see ByteBufferInStream
+ */
+public class SeekableChannelInStream implements IInStream {
+
+    /**
+     * 压缩包所在的通道
+     */
+    private final SeekableByteChannel channel;
+
+    /**
+     * 压缩包在通道中的大小
+     */
+    private final long size;
+
+    /**
+     * 当前读取位置
+     */
+    private long position;
+
+    /**
+     * 创建输入流
+     *
+     * @param channel 压缩包所在的通道，从0开始为压缩包内容
+     * @throws IOException 获取通道大小失败时抛出
+     */
+    public SeekableChannelInStream(SeekableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    /**
+     * 获取压缩包大小
+     *
+     * @return 创建输入流时通道的大小
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int read(byte[] data) throws SevenZipException {
+        if (position >= size || data.length == 0) {
+            return 0;
+        }
+        ByteBuffer target = ByteBuffer.wrap(data, 0, (int) Math.min(data.length, size - position));
+        try {
+            int n;
+            do {
+                n = readAt(target);
+            } while (n == 0 && target.hasRemaining());
+            if (n < 0) {
+                return 0;
+            }
+            position += n;
+            return n;
+        } catch (IOException e) {
+            throw new SevenZipException("读取压缩包失败", e);
+        }
+    }
+
+    private int readAt(ByteBuffer target) throws IOException {
+        if (channel instanceof FileChannel) {
+            return ((FileChannel) channel).read(target, position);
+        }
+        channel.position(position);
+        return channel.read(target);
+    }
+
+    @Override
+    public long seek(long offset, int seekOrigin) throws SevenZipException {
+        long newPosition;
+        switch (seekOrigin) {
+            case SEEK_SET:
+                newPosition = offset;
+                break;
+            case SEEK_CUR:
+                newPosition = position + offset;
+                break;
+            case SEEK_END:
+                newPosition = size + offset;
+                break;
+            default:
+                throw new SevenZipException("无效的seek起点: " + seekOrigin);
+        }
+        if (newPosition < 0) {
+            throw new SevenZipException("无效的seek位置: " + newPosition);
+        }
+        position = newPosition;
+        return position;
+    }
+
+    /**
+     * 关闭输入流
+     * <p>
+     * 通道由调用方管理，这里不需要额外清理资源。
+     * </p>
+     */
+    @Override
+    public void close() {
+        // 不需要额外清理资源
+    }
+}
@@ -0,0 +1,138 @@
+package com.yuxie.common.compress.strategy.impl;
+
+import com.yuxie.common.compress.util.UnzipDeadline;
+import net.sf.sevenzipjbinding.ExtractAskMode;
+import net.sf.sevenzipjbinding.ExtractOperationResult;
+import net.sf.sevenzipjbinding.IArchiveExtractCallback;
+import net.sf.sevenzipjbinding.ICryptoGetTextPassword;
+import net.sf.sevenzipjbinding.ISequentialOutStream;
+import net.sf.sevenzipjbinding.SevenZipException;
+
+import java.util.Arrays;
+
+/**
+ * 7-Zip缓冲提取回调
+ * <p>
+ * 并行解压时在工作线程中使用：把一组声明大小已知的条目完整提取到内存中，
+ * 提取完成后由读取方按组内顺序取出各条目的内容。与 {@link SevenZipExtractCallback} 不同，
+ * 该回调不与读取方交接，提取过程结束时所有条目都已就绪。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see AbstractSevenZipStrategy
+ */
+class SevenZipBufferingCallback implements IArchiveExtractCallback, ICryptoGetTextPassword {
+
+    /**
+     * 需要提取的条目索引，按提取顺序排列
+     */
+    private final int[] indices;
+
+    /**
+     * 按组内位置存放的条目内容
+     */
+    private final byte[][] contents;
+
+    /**
+     * 按组内位置存放的已写入字节数
+     */
+    private final int[] lengths;
+
+    /**
+     * 密码，可以为null
+     */
+    private final String password;
+
+    /**
+     * 发起请求的线程的截止时间，可以为null
+     */
+    private final UnzipDeadline deadline;
+
+    /**
+     * 正在输出的条目的组内位置，没有时为-1
+     */
+    private int current = -1;
+
+    /**
+     * 创建缓冲提取回调
+     *
+     * @param indices 需要提取的条目索引，按升序排列
+     * @param declaredSizes 按组内位置存放的声明大小
+     * @param password 密码，可以为null
+     * @param deadline 发起请求的线程的截止时间，可以为null
+     */
+    SevenZipBufferingCallback(int[] indices, long[] declaredSizes, String password, UnzipDeadline deadline) {
+        this.indices = indices;
+        this.contents = new byte[indices.length][];
+        this.lengths = new int[indices.length];
+        this.password = password;
+        this.deadline = deadline;
+        for (int i = 0; i < indices.length; i++) {
+            contents[i] = new byte[(int) declaredSizes[i]];
+        }
+    }
+
+    @Override
+    public ISequentialOutStream getStream(int index, ExtractAskMode extractAskMode) throws SevenZipException {
+        if (extractAskMode != ExtractAskMode.EXTRACT) {
+            return null;
+        }
+        SevenZipExtractCallback.checkDeadline(deadline);
+        int position = Arrays.binarySearch(indices, index);
+        if (position < 0) {
+            throw new SevenZipException("未请求的条目: " + index);
+        }
+        current = position;
+        byte[] content = contents[position];
+        return data -> {
+            SevenZipExtractCallback.checkDeadline(deadline);
+            if (lengths[position] + data.length > content.length) {
+                throw new SevenZipException("条目大小与声明不符: " + index);
+            }
+            System.arraycopy(data, 0, content, lengths[position], data.length);
+            lengths[position] += data.length;
+            return data.length;
+        };
+    }
+
+    @Override
+    public void prepareOperation(ExtractAskMode extractAskMode) {
+        // 不需要额外准备
+    }
+
+    @Override
+    public void setOperationResult(ExtractOperationResult extractOperationResult) throws SevenZipException {
+        if (current >= 0 && extractOperationResult != ExtractOperationResult.OK) {
+            throw new SevenZipException("条目解压失败: " + extractOperationResult);
+        }
+        current = -1;
+    }
+
+    @Override
+    public void setTotal(long total) {
+        // 进度由读取方按条目报告
+    }
+
+    @Override
+    public void setCompleted(long complete) throws SevenZipException {
+        // 进度由读取方按条目报告；7-Zip在解码过程中定期调用该方法，到期时在这里中止整个提取过程
+        SevenZipExtractCallback.checkDeadline(deadline);
+    }
+
+    @Override
+    public String cryptoGetTextPassword() {
+        return password != null ? password : "";
+    }
+
+    /**
+     * 获取条目内容
+     *
+     * @param position 条目的组内位置
+     * @return 条目内容，实际大小小于声明大小时按实际大小截断
+     */
+    byte[] getContent(int position) {
+        byte[] content = contents[position];
+        return lengths[position] == content.length ? content : Arrays.copyOf(content, lengths[position]);
+    }
+}
@@ -0,0 +1,413 @@
+package com.yuxie.common.compress.strategy.impl;
+
+import com.yuxie.common.compress.util.ChunkPipeInputStream;
+import com.yuxie.common.compress.util.UnzipDeadline;
+import net.sf.sevenzipjbinding.ExtractAskMode;
+import net.sf.sevenzipjbinding.ExtractOperationResult;
+import net.sf.sevenzipjbinding.IArchiveExtractCallback;
+import net.sf.sevenzipjbinding.ICryptoGetTextPassword;
+import net.sf.sevenzipjbinding.ISequentialOutStream;
+import net.sf.sevenzipjbinding.SevenZipException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 7-Zip批量提取回调
+ * <p>
+ * 配合 {@link net.sf.sevenzipjbinding.IInArchive#extract(int[], boolean, IArchiveExtractCallback)} 使用，
+ * 一次提取过程依次输出所有条目。对于固实压缩包，固实块只需要解码一遍，
+ * 不会因为逐个条目调用 {@code extractSlow} 而重复定位和解码。
+ * </p>
+ * <p>
+ * 提取过程在后台线程中执行，条目按批次通过交接队列交给读取方，读取方通过 {@link #next()} 依次取得条目：
+ * <ul>
+ *   <li>小条目：声明大小不超过 {@link #SMALL_ITEM_SIZE} 的条目先在提取线程中完整缓存，
+ *       多个条目合并为一批交接，避免每个条目都在线程之间切换</li>
+ *   <li>大条目：大小未知或较大的条目单独交接，内容通过有界的 {@link ChunkPipeInputStream} 边解压边读取</li>
+ * </ul>
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see AbstractSevenZipStrategy
+ */
+class SevenZipExtractCallback implements IArchiveExtractCallback, ICryptoGetTextPassword {
+
+    /**
+     * 完整缓存的小条目的最大声明大小（字节）
+     */
+    static final long SMALL_ITEM_SIZE = 64 * 1024;
+
+    /**
+     * 一批小条目的最大总大小（字节）
+     */
+    private static final long BATCH_SIZE = 1024 * 1024;
+
+    /**
+     * 一批小条目的最大数量
+     */
+    private static final int BATCH_ITEMS = 256;
+
+    /**
+     * 提取结束标记
+     */
+    private static final List<ItemStream> END = new ArrayList<>();
+
+    /**
+     * 提取线程等待交接队列空间时检查中止状态的间隔（毫秒）
+     */
+    private static final long OFFER_INTERVAL_MILLIS = 100L;
+
+    /**
+     * 条目批次的交接队列
+     */
+    private final BlockingQueue<List<ItemStream>> handoff = new ArrayBlockingQueue<>(2);
+
+    /**
+     * 按条目索引存放的声明大小，未知时为-1
+     */
+    private final long[] declaredSizes;
+
+    /**
+     * 密码，可以为null
+     */
+    private final String password;
+
+    /**
+     * 每个条目管道中最多缓存的数据块数量
+     */
+    private final int pipeCapacity;
+
+    /**
+     * 正在组装的小条目批次，只在提取线程中访问
+     */
+    private List<ItemStream> batch = new ArrayList<>();
+
+    /**
+     * 当前批次中小条目的总大小，只在提取线程中访问
+     */
+    private long batchBytes;
+
+    /**
+     * 正在输出的条目，只在提取线程中访问
+     */
+    private ItemStream current;
+
+    /**
+     * 读取方正在处理的批次，只在读取线程中访问
+     */
+    private Iterator<ItemStream> pending;
+
+    /**
+     * 发起请求的线程的截止时间，可以为null
+     */
+    private final UnzipDeadline deadline;
+
+    /**
+     * 读取方是否已中止
+     */
+    private volatile boolean aborted;
+
+    /**
+     * 提取过程的失败原因
+     */
+    private volatile Throwable failure;
+
+    /**
+     * 创建批量提取回调
+     *
+     * @param declaredSizes 按条目索引存放的声明大小，未知时为-1
+     * @param password 密码，可以为null
+     * @param pipeCapacity 每个条目管道中最多缓存的数据块数量
+     * @param deadline 发起请求的线程的截止时间，到期后提取线程的写入失败，可以为null
+     */
+    SevenZipExtractCallback(long[] declaredSizes, String password, int pipeCapacity, UnzipDeadline deadline) {
+        this.declaredSizes = declaredSizes;
+        this.password = password;
+        this.pipeCapacity = pipeCapacity;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public ISequentialOutStream getStream(int index, ExtractAskMode extractAskMode) throws SevenZipException {
+        if (extractAskMode != ExtractAskMode.EXTRACT) {
+            return null;
+        }
+        checkDeadline(deadline);
+        long declaredSize = declaredSizes[index];
+        if (declaredSize >= 0 && declaredSize <= SMALL_ITEM_SIZE) {
+            ItemStream item = new ItemStream(index, new byte[(int) declaredSize]);
+            current = item;
+            return data -> {
+                checkDeadline(deadline);
+                if (item.length + data.length > item.content.length) {
+                    throw new SevenZipException("条目大小与声明不符: " + index);
+                }
+                System.arraycopy(data, 0, item.content, item.length, data.length);
+                item.length += data.length;
+                return data.length;
+            };
+        }
+
+        // 大条目单独交接，交接前先交出已缓存的小条目以保持顺序
+        ChunkPipeInputStream pipe = new ChunkPipeInputStream(pipeCapacity);
+        ItemStream item = new ItemStream(index, pipe);
+        current = item;
+        flushBatch();
+        List<ItemStream> single = new ArrayList<>(1);
+        single.add(item);
+        handOff(single);
+        return data -> {
+            checkDeadline(deadline);
+            try {
+                pipe.write(data);
+                return data.length;
+            } catch (IOException e) {
+                throw new SevenZipException("写入数据失败", e);
+            }
+        };
+    }
+
+    @Override
+    public void prepareOperation(ExtractAskMode extractAskMode) {
+        // 不需要额外准备
+    }
+
+    @Override
+    public void setOperationResult(ExtractOperationResult extractOperationResult) throws SevenZipException {
+        ItemStream item = current;
+        current = null;
+        if (item == null) {
+            return;
+        }
+        if (item.pipe == null) {
+            // 小条目解压失败时直接中止提取，读取方在读完之前的条目后收到异常
+            if (extractOperationResult != ExtractOperationResult.OK) {
+                throw new SevenZipException("条目解压失败: " + extractOperationResult);
+            }
+            batch.add(item);
+            batchBytes += item.length;
+            if (batchBytes >= BATCH_SIZE || batch.size() >= BATCH_ITEMS) {
+                flushBatch();
+            }
+            return;
+        }
+        if (extractOperationResult != ExtractOperationResult.OK) {
+            item.pipe.fail(new SevenZipException("条目解压失败: " + extractOperationResult));
+            return;
+        }
+        try {
+            item.pipe.finish();
+        } catch (IOException e) {
+            throw new SevenZipException("写入数据失败", e);
+        }
+    }
+
+    @Override
+    public void setTotal(long total) {
+        // 进度由读取方按条目报告
+    }
+
+    @Override
+    public void setCompleted(long complete) throws SevenZipException {
+        // 进度由读取方按条目报告；7-Zip在解码过程中定期调用该方法，到期时在这里中止整个提取过程
+        checkDeadline(deadline);
+    }
+
+    @Override
+    public String cryptoGetTextPassword() {
+        return password != null ? password : "";
+    }
+
+    /**
+     * 标记提取结束（提取线程调用）
+     * <p>
+     * 无论提取成功与否都必须调用，否则读取方会一直等待下一个条目。
+     * </p>
+     *
+     * @param cause 失败原因，提取成功时为null
+     */
+    void finish(Throwable cause) {
+        if (current != null && current.pipe != null) {
+            current.pipe.fail(cause != null ? cause : new SevenZipException("条目提取未完成"));
+        }
+        current = null;
+        this.failure = cause;
+        try {
+            flushBatch();
+            handOff(END);
+        } catch (SevenZipException ignored) {
+            // 读取方已中止，无需通知
+        }
+    }
+
+    /**
+     * 获取下一个条目（读取方调用）
+     * <p>
+     * 提取任务可能还在线程池队列中等待，等待期间定期检查截止时间，到期后不再等待。
+     * </p>
+     *
+     * @return 下一个条目，所有条目提取完成时返回null
+     * @throws IOException 提取失败或线程被中断时抛出
+     * @throws com.yuxie.common.compress.exception.UnzipException 截止时间到期时抛出
+     */
+    ItemStream next() throws IOException {
+        while (pending == null || !pending.hasNext()) {
+            List<ItemStream> items;
+            try {
+                while ((items = handoff.poll(OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                    if (deadline != null) {
+                        deadline.ensureNotExpired();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待条目时被中断");
+            }
+            if (items == END) {
+                handoff.offer(END);
+                if (failure != null) {
+                    throw new IOException("提取失败: " + failure.getMessage(), failure);
+                }
+                return null;
+            }
+            pending = items.iterator();
+        }
+        return pending.next();
+    }
+
+    /**
+     * 中止提取（读取方调用）
+     * <p>
+     * 关闭尚未交给读取方的条目管道，之后提取线程的写入和交接都会失败，提取过程随之结束。
+     * </p>
+     */
+    void abort() {
+        aborted = true;
+        List<List<ItemStream>> remaining = new ArrayList<>();
+        handoff.drainTo(remaining);
+        for (List<ItemStream> items : remaining) {
+            closeAll(items);
+        }
+    }
+
+    /**
+     * 截止时间到期时中止提取
+     * <p>
+     * 7-Zip本地代码只能通过回调抛出的 {@link SevenZipException} 中止，读取方随后收到提取失败，
+     * 解压服务根据截止时间把错误码还原为超时或取消。
+     * </p>
+     *
+     * @param deadline 截止时间，为null时不检查
+     * @throws SevenZipException 当截止时间已到期时抛出
+     */
+    static void checkDeadline(UnzipDeadline deadline) throws SevenZipException {
+        if (deadline != null && deadline.isExpired()) {
+            throw new SevenZipException("解压已到期", deadline.toException(null));
+        }
+    }
+
+    private void flushBatch() throws SevenZipException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<ItemStream> items = batch;
+        batch = new ArrayList<>();
+        batchBytes = 0;
+        handOff(items);
+    }
+
+    private void handOff(List<ItemStream> items) throws SevenZipException {
+        try {
+            while (!handoff.offer(items, OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (aborted) {
+                    closeAll(items);
+                    throw new SevenZipException("解压已中止");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SevenZipException("交接条目时被中断", e);
+        }
+        // 入队后读取方可能已中止并清空了队列，此时由提取线程关闭管道
+        if (aborted) {
+            closeAll(items);
+            throw new SevenZipException("解压已中止");
+        }
+    }
+
+    private static void closeAll(List<ItemStream> items) {
+        for (ItemStream item : items) {
+            item.close();
+        }
+    }
+
+    /**
+     * 提取出的条目
+     */
+    static final class ItemStream {
+
+        /**
+         * 条目在压缩包中的索引
+         */
+        private final int index;
+
+        /**
+         * 大条目内容的管道，小条目为null
+         */
+        private final ChunkPipeInputStream pipe;
+
+        /**
+         * 小条目的完整内容，大条目为null
+         */
+        private final byte[] content;
+
+        /**
+         * 小条目已写入的字节数
+         */
+        private int length;
+
+        ItemStream(int index, ChunkPipeInputStream pipe) {
+            this.index = index;
+            this.pipe = pipe;
+            this.content = null;
+        }
+
+        ItemStream(int index, byte[] content) {
+            this.index = index;
+            this.pipe = null;
+            this.content = content;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        /**
+         * 获取条目内容的输入流
+         *
+         * @return 条目内容的输入流
+         */
+        InputStream getInputStream() {
+            return pipe != null ? pipe : new ByteArrayInputStream(content, 0, length);
+        }
+
+        /**
+         * 释放条目，大条目会关闭管道使提取线程不再阻塞
+         */
+        void close() {
+            if (pipe != null) {
+                pipe.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.yuxie.common.compress.strategy.impl;
+
+import com.yuxie.common.compress.exception.UnzipErrorCode;
+import com.yuxie.common.compress.exception.UnzipException;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.sevenzipjbinding.SevenZip;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 7-Zip-JBinding本地库初始化器
+ * <p>
+ * 7-Zip-JBinding首次初始化时需要把本地库从JAR中解压到磁盘并加载，耗时可达数百毫秒，
+ * 之后每次调用 {@link SevenZip#initSevenZipFromPlatformJAR()} 仍然需要获取库内部的锁。
+ * 该类在成功初始化后设置一个volatile标志，之后的调用只读取该标志，没有任何同步开销；
+ * 尚未初始化时由同步的初始化方法保证同一时刻只有一个线程执行初始化。
+ * 初始化失败不会被缓存，下一次调用重新尝试，临时目录已满或不可写等临时错误排除后即可恢复。
+ * </p>
+ * <p>
+ * 使用方式：
+ * <ul>
+ *   <li>按需初始化：解压7Z、RAR等格式前调用 {@link #ensureInitialized(String)}</li>
+ *   <li>预热：启用 {@link com.yuxie.common.compress.config.UnzipConfig#isEnableSevenZipWarmUp()} 后，
+ *       {@link com.yuxie.common.compress.service.UnzipService} 在构造时提前完成初始化，首个请求不再承担初始化延迟</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：本地库在一个JVM中只能加载一次，只有成功初始化时使用的解压目录生效，
+ * 之后再指定其他目录会被忽略，并对每个被忽略的目录记录一次警告日志。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+@Slf4j
+public final class SevenZipNativeInitializer {
+
+    /**
+     * 使用7-Zip-JBinding默认临时目录时记录的目录名称
+     */
+    private static final String DEFAULT_DIRECTORY = "<默认临时目录>";
+
+    /**
+     * 是否已成功初始化
+     */
+    private static volatile boolean initialized;
+
+    /**
+     * 成功初始化时使用的本地库解压目录，由类锁保护写入
+     */
+    private static volatile String initializedDirectory;
+
+    /**
+     * 已记录过警告的被忽略的目录
+     */
+    private static final Set<String> IGNORED_DIRECTORIES = ConcurrentHashMap.newKeySet();
+
+    private SevenZipNativeInitializer() {
+    }
+
+    /**
+     * 确保本地库已初始化，使用默认的本地库解压目录
+     *
+     * @throws UnzipException 初始化失败时抛出
+     */
+    public static void ensureInitialized() throws UnzipException {
+        ensureInitialized(null);
+    }
+
+    /**
+     * 确保本地库已初始化
+     *
+     * @param directory 本地库解压目录，为null时使用7-Zip-JBinding的默认临时目录
+     * @throws UnzipException 初始化失败时抛出，之后的调用会重新尝试初始化
+     */
+    public static void ensureInitialized(String directory) throws UnzipException {
+        if (!initialized) {
+            initialize(directory);
+        }
+        if (directory != null && !directory.equals(initializedDirectory) && IGNORED_DIRECTORIES.add(directory)) {
+            log.warn("7-Zip本地库已从 {} 加载，忽略指定的解压目录: {}", initializedDirectory, directory);
+        }
+    }
+
+    /**
+     * 本地库是否已成功初始化
+     *
+     * @return 已成功初始化时返回true
+     */
+    public static boolean isInitialized() {
+        return SevenZip.isInitializedSuccessfully();
+    }
+
+    /**
+     * 执行初始化，同一时刻只有一个线程执行，失败时不记录状态
+     *
+     * @param directory 本地库解压目录，为null时使用默认临时目录
+     * @throws UnzipException 初始化失败时抛出
+     */
+    private static synchronized void initialize(String directory) throws UnzipException {
+        if (initialized) {
+            return;
+        }
+        if (SevenZip.isInitializedSuccessfully()) {
+            // 已由其他代码直接初始化，无法得知使用的目录
+            initializedDirectory = DEFAULT_DIRECTORY;
+            initialized = true;
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            if (directory != null) {
+                SevenZip.initSevenZipFromPlatformJAR(new File(directory));
+            } else {
+                SevenZip.initSevenZipFromPlatformJAR();
+            }
+        } catch (Throwable t) {
+            log.error("7-Zip本地库初始化失败，下次使用时重试", t);
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "7-Zip本地库初始化失败: " + t.getMessage(), t);
+        }
+        initializedDirectory = directory != null ? directory : DEFAULT_DIRECTORY;
+        initialized = true;
+        log.info("7-Zip本地库初始化完成，平台: {}，耗时: {} ms",
+            SevenZip.getUsedPlatform(), System.currentTimeMillis() - startTime);
+    }
+}
@@ -2,12 +2,15 @@ package com.yuxie.common.compress.strategy.impl;
 
 import com.yuxie.common.compress.config.UnzipConfig;
 import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+import com.yuxie.common.compress.util.ParallelXzInputStream;
 import org.apache.commons.compress.compressors.CompressorInputStream;
 import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * XZ格式解压策略实现
@@ -26,6 +29,11 @@ import java.io.InputStream;
  * </ul>
  * </p>
  * <p>
+ * 启用并发解压（{@link UnzipConfig#isEnableConcurrentUnzip()}）且并发线程数大于1时，
+ * 字节数组和通道输入由 {@link ParallelXzInputStream} 根据流索引按块并行解压（适用于 {@code xz -T0} 等多线程压缩的输出），
+ * 只有一个块的文件和输入流输入仍按顺序解压。
+ * </p>
+ * <p>
  * 注意：XZ格式通常用于压缩单个文件，如果解压后的数据是TAR格式，
  * 会自动切换到TAR解压策略进行处理。
  * </p>
@@ -49,7 +57,47 @@ public class XzUnzipStrategy extends AbstractCompressedUnzipStrategy {
      * @throws IllegalArgumentException 当unzipConfig为null时抛出
      */
     public XzUnzipStrategy(UnzipConfig unzipConfig) {
-        super(unzipConfig, CompressionFormat.XZ);
+        this(unzipConfig, null);
+    }
+    
+    /**
+     * 构造函数
+     * <p>
+     * 初始化解压策略，设置解压配置、监控指标和压缩格式。
+     * </p>
+     *
+     * @param unzipConfig 解压配置，不能为null
+     * @param unzipMetrics 监控指标，可以为null；并行解压时记录实际达到的最大并发任务数
+     * @throws IllegalArgumentException 当unzipConfig为null时抛出
+     */
+    public XzUnzipStrategy(UnzipConfig unzipConfig, UnzipMetrics unzipMetrics) {
+        super(unzipConfig, unzipMetrics, CompressionFormat.XZ);
+    }
+    
+    /**
+     * XZ格式支持按块索引并行解压
+     *
+     * @return 总是返回true
+     */
+    @Override
+    protected boolean supportsParallelDecompression() {
+        return true;
+    }
+    
+    /**
+     * 创建并行解压的输入流
+     * <p>
+     * 使用 {@link ParallelXzInputStream} 读取流索引，在多个线程中同时解压各个块；只有一个块时按顺序流式解压。
+     * </p>
+     *
+     * @param data XZ数据
+     * @param parallelism 并行度
+     * @return 解压后的数据流
+     * @throws IOException 当数据不是XZ格式或索引损坏时抛出
+     */
+    @Override
+    protected InputStream createParallelInputStream(ByteBuffer data, int parallelism) throws IOException {
+        return new ParallelXzInputStream(data, parallelism, unzipMetrics);
     }
     
     /**
@@ -1,23 +1,55 @@
 package com.yuxie.common.compress.strategy.impl;
 
+import com.yuxie.common.compress.callback.UnzipProgressCallback;
 import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.exception.UnzipErrorCode;
+import com.yuxie.common.compress.exception.UnzipException;
 import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.model.FileInfo;
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+import com.yuxie.common.compress.monitor.UnzipPhase;
+import com.yuxie.common.compress.monitor.UnzipPhaseTimer;
+import com.yuxie.common.compress.util.BoundedEntryInputStream;
+import com.yuxie.common.compress.util.ByteArrayFileChannel;
+import com.yuxie.common.compress.util.CloseShieldFileChannel;
+import com.yuxie.common.compress.util.CloseShieldSeekableByteChannel;
+import com.yuxie.common.compress.util.ParallelEntryExecutor;
+import com.yuxie.common.compress.util.UnzipDeadline;
+import com.yuxie.common.compress.util.ZipCharsetDetector;
+import com.yuxie.common.compress.visitor.ArchiveEntryVisitor;
+import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
-import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.IOUtils;
 
-import java.io.File;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.BufferedInputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * ZIP格式解压策略实现
  * <p>
  * 该类继承自 {@link AbstractCommonsCompressStrategy}，专门用于处理ZIP格式的压缩文件解压。
- * 使用Apache Commons Compress库的 {@link ArchiveStreamFactory} 创建ZIP格式的归档输入流。
+ * 使用Apache Commons Compress库的 {@link ZipArchiveInputStream} 读取ZIP格式的归档输入流。
+ * </p>
+ * <p>
+ * 没有UTF-8标志位的条目名称以逐字节无损的编码读取，再由 {@link ZipCharsetDetector} 根据原始字节检测真实编码，
+ * 压缩包只需要打开和读取一遍。
+ * </p>
+ * <p>
+ * 对于字节数组和 {@link SeekableByteChannel} 输入，使用基于中央目录的 {@link ZipFile} 随机访问：
+ * 中央目录只读取一次，条目大小直接取自中央目录，访问器未读取的条目无需解压即可跳过，
+ * 并且可以通过 {@link #findEntry(SeekableByteChannel, String, ArchiveEntryVisitor)} 按名称直接定位条目。
  * </p>
  * <p>
  * 主要特点：
@@ -33,7 +65,7 @@ import java.nio.charset.Charset;
  * @since 1.0.0
  * @see AbstractCommonsCompressStrategy
  * @see UnzipConfig
- * @see ArchiveStreamFactory
+ * @see ZipCharsetDetector
  */
 public class ZipUnzipStrategy extends AbstractCommonsCompressStrategy {
     
@@ -50,6 +82,20 @@ public class ZipUnzipStrategy extends AbstractCommonsCompressStrategy {
         super(unzipConfig);
     }
     
+    /**
+     * 构造函数
+     * <p>
+     * 初始化解压策略，设置解压配置和监控指标。
+     * </p>
+     *
+     * @param unzipConfig 解压配置，不能为null
+     * @param unzipMetrics 监控指标，可以为null
+     * @throws IllegalArgumentException 当unzipConfig为null时抛出
+     */
+    public ZipUnzipStrategy(UnzipConfig unzipConfig, UnzipMetrics unzipMetrics) {
+        super(unzipConfig, unzipMetrics);
+    }
+    
     /**
      * 检查是否支持指定的压缩格式
      * <p>
@@ -78,103 +124,400 @@ public class ZipUnzipStrategy extends AbstractCommonsCompressStrategy {
     }
     
     /**
-     * 创建归档输入流
+     * 流式解压内存中的ZIP文件
      * <p>
-     * 使用Apache Commons Compress库创建ZIP格式的归档输入流。
+     * 通过 {@link ByteArrayFileChannel} 直接随机访问字节数组，不复制数据，并行解压时各工作线程按位置同时读取。
      * </p>
      *
-     * @param inputStream 输入流，不能为null
-     * @return ZIP格式的归档输入流
-     * @throws Exception 当创建输入流失败时抛出
+     * @param data 压缩文件数据，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws UnzipException 当解压过程中发生错误时抛出
      */
     @Override
-    protected ArchiveInputStream createArchiveInputStream(InputStream inputStream) throws Exception {
-        // 定义可能的编码列表，按优先级排序
-        String[] encodings = new String[]{
-            "UTF-8",      // 现代ZIP文件的标准编码
-            "GBK",        // 中文Windows系统
-            "CP437",      // ZIP默认编码，英文Windows系统
-            "GB2312",     // 较旧的中文系统
-            "BIG5",       // 繁体中文系统
-            "SHIFT-JIS",  // 日文系统
-            "EUC-KR",     // 韩文系统
-            "ISO-8859-1", // 西欧语言
-            "ISO-8859-2", // 中欧语言
-            "ISO-8859-5"  // 西里尔字母
-        };
-        
-        // 确保输入流支持mark/reset
-        BufferedInputStream bufferedInputStream = new BufferedInputStream(inputStream);
+    public void unzip(byte[] data, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        if (data == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "压缩文件数据不能为空");
+        }
+        unzip(new ByteArrayFileChannel(data), password, callback, visitor);
+    }
+    
+    /**
+     * 流式解压通道中的ZIP文件
+     * <p>
+     * 使用 {@link ZipFile} 读取一次中央目录，然后按条目在文件中的物理顺序依次交给访问器，
+     * 顺序与流式解压一致。每个条目的输入流直接定位到条目数据，访问器未读取的内容不会被解压。
+     * </p>
+     * <p>
+     * 启用并发解压（{@link UnzipConfig#isEnableConcurrentUnzip()}）且并发线程数大于1时，
+     * 条目由 {@link ParallelEntryExecutor} 在多个线程中同时解压，访问器仍在当前线程中按物理顺序收到条目。
+     * </p>
+     *
+     * @param channel 压缩包所在的通道，不能为null
+     * @param password 解压密码，如果文件未加密可以为null
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器，不能为null
+     * @throws UnzipException 当解压过程中发生错误时抛出
+     */
+    @Override
+    public void unzip(SeekableByteChannel channel, String password, UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws UnzipException {
+        if (channel == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "通道不能为空");
+        }
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
+        }
         
-        // 尝试不同的编码
-        for (String encoding : encodings) {
-            try {
-                bufferedInputStream.mark(8192); // 标记流的开始位置
-                ZipArchiveInputStream zipInputStream = new ZipArchiveInputStream(bufferedInputStream, encoding, true, true);
-                
-                // 检查第一个条目的文件名是否正常
-                ZipArchiveEntry entry = zipInputStream.getNextZipEntry();
-                if (entry != null) {
-                    String entryName = entry.getName();
-                    if (!isGarbled(entryName)) {
-                        // 如果文件名正常，说明编码正确
-                        return zipInputStream;
-                    }
+        boolean concurrent = ParallelEntryExecutor.isEnabled(unzipConfig);
+        UnzipPhase previous = UnzipPhaseTimer.enter(UnzipPhase.OPEN);
+        try (ZipFile zipFile = openZipFile(channel, concurrent)) {
+            List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntriesInPhysicalOrder());
+            int totalEntries = entries.size();
+            UnzipPhaseTimer.enter(UnzipPhase.DETECT);
+            Charset charset = detectCharset(entries);
+            
+            // 检查文件数量限制
+            UnzipPhaseTimer.enter(UnzipPhase.VALIDATE);
+            if (unzipConfig.isEnableFileCountCheck() && totalEntries > unzipConfig.getMaxFileCount()) {
+                throw new UnzipException(UnzipErrorCode.INVALID_FORMAT,
+                    String.format("文件数量超过限制: %d > %d", totalEntries, unzipConfig.getMaxFileCount()));
+            }
+            UnzipPhaseTimer.exit(previous);
+            
+            // 通知开始解压
+            if (callback != null) {
+                callback.onStart(channel.size(), totalEntries);
+            }
+            
+            if (concurrent && totalEntries > 1) {
+                visitEntriesInParallel(zipFile, entries, charset, callback, visitor);
+            } else {
+                int currentFile = 0;
+                for (ZipArchiveEntry entry : entries) {
+                    // 访问器不读取条目内容时条目输入流不会检查截止时间，因此在每个条目之前检查
+                    UnzipDeadline.check();
+                    currentFile++;
+                    visitZipEntry(zipFile, entry, charset, callback, currentFile, totalEntries, visitor);
                 }
-                
-                // 如果出现乱码，重置流并尝试下一个编码
-                bufferedInputStream.reset();
-            } catch (Exception e) {
-                // 如果当前编码失败，重置流并继续尝试下一个
-                bufferedInputStream.reset();
-                continue;
             }
+            
+            // 通知完成
+            if (callback != null) {
+                callback.onComplete();
+            }
+            UnzipPhaseTimer.enter(UnzipPhase.CLOSE);
+        } catch (Exception e) {
+            if (callback != null) {
+                callback.onError(e.getMessage());
+            }
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "解压失败: " + e.getMessage(), e);
+        } finally {
+            UnzipPhaseTimer.exit(previous);
         }
-        
-        // 如果所有编码都失败，默认使用GBK（因为中文Windows最常见）
-        return new ZipArchiveInputStream(bufferedInputStream, "GBK", true, true);
     }
     
     /**
-     * 检查字符串是否出现乱码
+     * 按名称查找并访问单个条目
      * <p>
-     * 通过检查字符串中是否包含无法解码的字符来判断是否出现乱码。
-     * 乱码通常表现为：
-     * 1. 包含替换字符或无效的Unicode字符
-     * 2. 包含不完整的UTF-8序列
-     * 3. 包含连续的问号字符（通常表示编码转换失败）
+     * 通过中央目录直接定位条目，不需要解压或遍历其他条目。
      * </p>
      *
-     * @param str 要检查的字符串
-     * @return 如果出现乱码则返回true，否则返回false
+     * @param channel 压缩包所在的通道，不能为null
+     * @param entryName 条目名称（压缩包中的完整路径）
+     * @param visitor 条目访问器，不能为null
+     * @return 找到并访问了条目时返回true，条目不存在时返回false
+     * @throws UnzipException 当解压过程中发生错误时抛出
      */
-    private boolean isGarbled(String str) {
-        // 空值检查
-        if (str == null) {
-            return true;  // null值视为异常情况
+    public boolean findEntry(SeekableByteChannel channel, String entryName, ArchiveEntryVisitor visitor) throws UnzipException {
+        if (channel == null) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "通道不能为空");
         }
-        if (str.isEmpty()) {
-            return false; // 空字符串不是乱码
+        if (visitor == null) {
+            throw new IllegalArgumentException("条目访问器不能为空");
         }
         
-        // 检查是否包含替换字符或无效的Unicode字符
-        if (str.matches(".*[\uFFFD\uFFFE\uFFFF].*")) {
+        try (ZipFile zipFile = openZipFile(channel, false)) {
+            // 名称来自UTF-8标志位、Unicode扩展字段或为纯ASCII时可以直接查找
+            ZipArchiveEntry entry = zipFile.getEntry(entryName);
+            Charset charset = ZipCharsetDetector.DEFAULT_CHARSET;
+            if (entry == null) {
+                // 否则按检测出的编码还原条目在压缩包中的名称再查找
+                charset = detectCharset(Collections.list(zipFile.getEntries()));
+                entry = zipFile.getEntry(ZipCharsetDetector.toArchiveName(entryName, charset));
+            }
+            if (entry == null) {
+                return false;
+            }
+            visitZipEntry(zipFile, entry, charset, null, 1, 1, visitor);
             return true;
+        } catch (Exception e) {
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "解压失败: " + e.getMessage(), e);
         }
+    }
+    
+    /**
+     * 把单个ZIP条目交给访问器
+     *
+     * @param zipFile 已打开的ZIP文件
+     * @param entry 条目
+     * @param charset 文件名编码
+     * @param callback 进度回调接口，可以为null
+     * @param currentFile 当前条目序号
+     * @param totalEntries 条目总数
+     * @param visitor 条目访问器
+     * @throws IOException 读取条目失败时抛出
+     */
+    private void visitZipEntry(ZipFile zipFile, ZipArchiveEntry entry, Charset charset, UnzipProgressCallback callback,
+                               int currentFile, int totalEntries, ArchiveEntryVisitor visitor) throws IOException {
+        String entryName = ZipCharsetDetector.decodeName(entry, charset);
+        checkEntrySize(entry, entryName);
+        try (InputStream rawInputStream = zipFile.getInputStream(entry)) {
+            visitEntryContent(entry, entryName, rawInputStream, callback, currentFile, totalEntries, visitor);
+        }
+    }
+    
+    /**
+     * 把条目内容交给访问器
+     *
+     * @param entry 条目
+     * @param entryName 条目的真实名称
+     * @param content 条目内容的输入流
+     * @param callback 进度回调接口，可以为null
+     * @param currentFile 当前条目序号
+     * @param totalEntries 条目总数
+     * @param visitor 条目访问器
+     * @throws IOException 读取条目失败时抛出
+     */
+    private void visitEntryContent(ZipArchiveEntry entry, String entryName, InputStream content, UnzipProgressCallback callback,
+                                   int currentFile, int totalEntries, ArchiveEntryVisitor visitor) throws IOException {
+        // 创建文件信息
+        FileInfo fileInfo = FileInfo.builder()
+            .fileName(entryName)
+            .path(entryName)
+            .size(entry.getSize())
+            .lastModified(entry.getLastModifiedDate().getTime())
+            .build();
         
-        // 检查是否包含不完整的UTF-8序列
-        if (str.matches(".*[\\uD800-\\uDBFF](?!\\uDC00-\\uDFFF).*")) {
-            return true;
+        long maxFileSize = unzipConfig.isEnableFileSizeCheck() ? unzipConfig.getMaxFileSize() : -1;
+        BoundedEntryInputStream entryInputStream = new BoundedEntryInputStream(content,
+            entryName, entry.getSize(), maxFileSize, callback, currentFile, totalEntries);
+        visitor.visitEntry(fileInfo, entryInputStream);
+        entryInputStream.close();
+    }
+    
+    /**
+     * 检查条目大小，中央目录中的大小是准确的
+     *
+     * @param entry 条目
+     * @param entryName 条目的真实名称
+     * @throws UnzipException 当条目大小超过限制时抛出
+     */
+    private void checkEntrySize(ZipArchiveEntry entry, String entryName) throws UnzipException {
+        if (unzipConfig.isEnableFileSizeCheck() && entry.getSize() > unzipConfig.getMaxFileSize()) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "文件大小超过限制: " + entryName);
         }
-        if (str.matches(".*(?<![\\uD800-\\uDBFF])[\\uDC00-\\uDFFF].*")) {
-            return true;
+    }
+    
+    /**
+     * 并行解压所有条目
+     * <p>
+     * 大小不超过 {@link ParallelEntryExecutor#MAX_BUFFERED_ENTRY_SIZE} 的条目在工作线程中完整解压到内存，
+     * 更大的条目轮到时由当前线程流式读取，其间工作线程继续解压后面的条目。
+     * 所有条目都按物理顺序在当前线程中交给访问器，进度回调也在当前线程中报告。
+     * </p>
+     * <p>
+     * 各工作线程通过各自的条目输入流读取。通道为 {@link FileChannel} 时（文件和字节数组输入），
+     * 条目输入流按位置读取，读取和解压（Inflate）都在各工作线程中同时进行；
+     * 其他通道的定位和读取由 {@link ZipFile} 在通道上同步，只有解压同时进行。
+     * </p>
+     *
+     * @param zipFile 已打开并解析了所有本地文件头的ZIP文件
+     * @param entries 按物理顺序排列的条目
+     * @param charset 文件名编码
+     * @param callback 进度回调接口，可以为null
+     * @param visitor 条目访问器
+     * @throws Exception 解压失败时抛出
+     */
+    private void visitEntriesInParallel(ZipFile zipFile, List<ZipArchiveEntry> entries, Charset charset,
+                                        UnzipProgressCallback callback, ArchiveEntryVisitor visitor) throws Exception {
+        int totalEntries = entries.size();
+        Iterator<ZipArchiveEntry> iterator = entries.iterator();
+        int[] currentFile = new int[1];
+        
+        ParallelEntryExecutor.execute(unzipConfig.getConcurrentThreads(), () -> {
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            ZipArchiveEntry entry = iterator.next();
+            String entryName = ZipCharsetDetector.decodeName(entry, charset);
+            checkEntrySize(entry, entryName);
+            if (entry.getSize() < 0 || entry.getSize() > ParallelEntryExecutor.MAX_BUFFERED_ENTRY_SIZE) {
+                return () -> new ExtractedEntry(entry, entryName, null);
+            }
+            return () -> new ExtractedEntry(entry, entryName, readEntry(zipFile, entry, entryName));
+        }, extracted -> {
+            UnzipDeadline.check();
+            currentFile[0]++;
+            if (extracted.content == null) {
+                visitZipEntry(zipFile, extracted.entry, charset, callback, currentFile[0], totalEntries, visitor);
+            } else {
+                visitEntryContent(extracted.entry, extracted.entryName, new ByteArrayInputStream(extracted.content),
+                    callback, currentFile[0], totalEntries, visitor);
+            }
+        }, unzipMetrics);
+    }
+    
+    /**
+     * 完整解压单个条目（在工作线程中调用）
+     *
+     * @param zipFile 已打开的ZIP文件
+     * @param entry 条目，大小已知
+     * @param entryName 条目的真实名称
+     * @return 条目内容
+     * @throws IOException 读取条目失败或实际内容比声明的大时抛出
+     */
+    private static byte[] readEntry(ZipFile zipFile, ZipArchiveEntry entry, String entryName) throws IOException {
+        byte[] content = new byte[(int) entry.getSize()];
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            int length = IOUtils.read(inputStream, content);
+            if (length < content.length) {
+                return Arrays.copyOf(content, length);
+            }
+            if (inputStream.read() != -1) {
+                throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "文件大小与声明不符: " + entryName);
+            }
+        }
+        return content;
+    }
+    
+    /**
+     * 打开ZIP文件
+     * <p>
+     * 以逐字节无损的 {@link ZipCharsetDetector#ARCHIVE_ENCODING} 打开，只解析一次中央目录，
+     * 条目的真实名称随后由 {@link ZipCharsetDetector} 根据原始字节确定。
+     * </p>
+     * <p>
+     * 并行读取条目时需要在打开时解析所有本地文件头：否则条目数据的偏移量在首次读取时才计算，
+     * 计算过程会在不加锁的情况下移动共享通道的位置。
+     * </p>
+     * <p>
+     * {@link FileChannel} 用 {@link CloseShieldFileChannel} 隔离关闭，保留通道类型，
+     * {@link ZipFile} 因此对条目数据使用按位置读取，不在通道上同步。
+     * </p>
+     *
+     * @param channel 压缩包所在的通道
+     * @param concurrent 是否会在多个线程中同时读取条目
+     * @return 打开的ZIP文件，由调用方负责关闭，关闭时不会关闭通道
+     * @throws IOException 当通道中不是有效的ZIP文件时抛出
+     */
+    private ZipFile openZipFile(SeekableByteChannel channel, boolean concurrent) throws IOException {
+        // 关闭ZipFile时不关闭调用方的通道
+        SeekableByteChannel shielded = channel instanceof FileChannel
+            ? new CloseShieldFileChannel((FileChannel) channel)
+            : new CloseShieldSeekableByteChannel(channel);
+        return new ZipFile(shielded, "unknown archive", ZipCharsetDetector.ARCHIVE_ENCODING, true, !concurrent);
+    }
+    
+    /**
+     * 根据所有需要检测的条目名称确定文件名编码
+     *
+     * @param entries 压缩包中的条目
+     * @return 文件名编码
+     */
+    private Charset detectCharset(List<ZipArchiveEntry> entries) {
+        List<byte[]> rawNames = new ArrayList<>();
+        for (ZipArchiveEntry entry : entries) {
+            if (ZipCharsetDetector.needsDetection(entry)) {
+                rawNames.add(entry.getRawName());
+            }
+        }
+        return ZipCharsetDetector.detect(rawNames);
+    }
+    
+    /**
+     * 创建归档输入流
+     * <p>
+     * 以逐字节无损的 {@link ZipCharsetDetector#ARCHIVE_ENCODING} 创建ZIP格式的归档输入流，压缩包只读取一遍。
+     * 遇到第一个需要检测编码的条目名称时确定文件名编码，之后的条目沿用该编码，
+     * 条目的真实名称由 {@link #resolveEntryName(ArchiveInputStream, ArchiveEntry)} 给出。
+     * </p>
+     *
+     * @param inputStream 输入流，不能为null
+     * @return ZIP格式的归档输入流
+     * @throws Exception 当创建输入流失败时抛出
+     */
+    @Override
+    protected ArchiveInputStream createArchiveInputStream(InputStream inputStream) throws Exception {
+        return new NameDecodingZipInputStream(inputStream);
+    }
+    
+    /**
+     * 获取条目的真实名称
+     *
+     * @param archiveInputStream 归档输入流
+     * @param entry 当前条目
+     * @return 按检测出的编码解码后的条目名称
+     */
+    @Override
+    protected String resolveEntryName(ArchiveInputStream archiveInputStream, ArchiveEntry entry) {
+        if (archiveInputStream instanceof NameDecodingZipInputStream && entry instanceof ZipArchiveEntry) {
+            return ((NameDecodingZipInputStream) archiveInputStream).resolveName((ZipArchiveEntry) entry);
+        }
+        return entry.getName();
+    }
+    
+    /**
+     * 工作线程解压出的条目
+     */
+    private static final class ExtractedEntry {
+        
+        private final ZipArchiveEntry entry;
+        
+        private final String entryName;
+        
+        /**
+         * 条目内容，为null时由当前线程流式读取
+         */
+        private final byte[] content;
+        
+        ExtractedEntry(ZipArchiveEntry entry, String entryName, byte[] content) {
+            this.entry = entry;
+            this.entryName = entryName;
+            this.content = content;
         }
+    }
+    
+    /**
+     * 在读取过程中检测文件名编码的ZIP归档输入流
+     * <p>
+     * 编码状态属于单次解压，保存在流中，策略本身仍然是无状态的。
+     * </p>
+     */
+    private static final class NameDecodingZipInputStream extends ZipArchiveInputStream {
         
-        // 检查是否包含连续的问号字符（通常表示编码转换失败）
-        if (str.matches(".*\\?{2,}.*")) {
-            return true;
+        /**
+         * 检测出的文件名编码，遇到第一个需要检测的条目名称前为null
+         */
+        private Charset charset;
+        
+        NameDecodingZipInputStream(InputStream inputStream) {
+            super(inputStream, ZipCharsetDetector.ARCHIVE_ENCODING, true, true);
         }
         
-        return false;
+        String resolveName(ZipArchiveEntry entry) {
+            if (!ZipCharsetDetector.needsDetection(entry)) {
+                return entry.getName();
+            }
+            if (charset == null) {
+                UnzipPhase previous = UnzipPhaseTimer.enter(UnzipPhase.DETECT);
+                try {
+                    charset = ZipCharsetDetector.detect(entry.getRawName());
+                } finally {
+                    UnzipPhaseTimer.exit(previous);
+                }
+            }
+            return ZipCharsetDetector.decodeName(entry, charset);
+        }
     }
-} 
\ No newline at end of file
+}
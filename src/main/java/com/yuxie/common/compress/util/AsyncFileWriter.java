@@ -0,0 +1,336 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.config.FsyncPolicy;
+import com.yuxie.common.compress.config.UnzipConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 异步文件写入器
+ * <p>
+ * 解压到目录时，大量小文件的耗时主要在打开、写入、关闭文件的系统调用上，而不是解压本身。
+ * 该写入器把不超过 {@value #MAX_QUEUED_FILE_SIZE} 字节的文件内容读入内存后交给写盘线程写入，
+ * 解压线程可以继续解压下一个条目：
+ * <ul>
+ *   <li>有界队列：每个写入器最多有 {@link UnzipConfig#getDiskWriteQueueCapacity()} 个文件等待写入，
+ *       队列满时提交线程等待，等待写入的数据量有上限</li>
+ *   <li>较大的文件由提交线程直接流式写入，不会整体读入内存</li>
+ *   <li>同一路径再次写入前先等待之前的写入全部完成，保证后写入的内容覆盖先写入的内容</li>
+ *   <li>可选按大小预分配文件（{@link RandomAccessFile#setLength(long)}）和按 {@link FsyncPolicy} 刷盘</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 写盘线程池按线程数共享，线程为守护线程，空闲一段时间后自动回收。
+ * 启用虚拟线程（{@link UnzipConfig#isEnableVirtualThreads()}）且运行环境支持时，每个写盘任务在各自的虚拟线程中执行，
+ * 同时写入的文件数量由队列容量限制。
+ * 写入器本身只能在一个线程中使用，写入完毕后调用 {@link #finish()} 等待写入完成并检查结果，最后关闭写入器。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see com.yuxie.common.compress.visitor.DirectoryExtractVisitor
+ */
+public final class AsyncFileWriter implements AutoCloseable {
+
+    /**
+     * 交给写盘线程写入的文件的最大大小（字节），更大的文件由提交线程直接写入
+     */
+    public static final int MAX_QUEUED_FILE_SIZE = 256 * 1024;
+
+    /**
+     * 写盘线程的空闲回收时间（秒）
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    /**
+     * 按线程数共享的写盘线程池
+     */
+    private static final Map<Integer, ThreadPoolExecutor> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * 线程编号
+     */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger(1);
+
+    /**
+     * 写盘执行器，同步写入时为null
+     */
+    private final ExecutorService executor;
+
+    /**
+     * 队列中剩余的位置
+     */
+    private final Semaphore slots;
+
+    private final int queueCapacity;
+
+    private final int bufferSize;
+
+    private final boolean preallocate;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    /**
+     * 已提交的文件路径，用于检查重复路径和统一刷盘
+     */
+    private final Set<Path> submittedPaths = new HashSet<>();
+
+    /**
+     * 写盘线程中第一次写入失败的异常
+     */
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    private boolean closed;
+
+    /**
+     * 按配置创建写入器
+     *
+     * @param unzipConfig 解压配置，不能为null
+     * @throws IllegalArgumentException 当unzipConfig为null时抛出
+     */
+    public AsyncFileWriter(UnzipConfig unzipConfig) {
+        if (unzipConfig == null) {
+            throw new IllegalArgumentException("解压配置不能为空");
+        }
+        if (!unzipConfig.isEnableAsyncDiskWrite()) {
+            this.executor = null;
+        } else if (VirtualThreads.isEnabled(unzipConfig)) {
+            this.executor = VirtualPoolHolder.POOL;
+        } else {
+            this.executor = getPool(unzipConfig.getDiskWriterThreads());
+        }
+        this.queueCapacity = unzipConfig.getDiskWriteQueueCapacity();
+        this.slots = new Semaphore(queueCapacity);
+        this.bufferSize = unzipConfig.getBufferSize();
+        this.preallocate = unzipConfig.isEnableFilePreallocation();
+        this.fsyncPolicy = unzipConfig.getFsyncPolicy();
+    }
+
+    private static ThreadPoolExecutor getPool(int threads) {
+        return POOLS.computeIfAbsent(threads, n -> {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(n, n, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "unzip-writer-" + THREAD_NUMBER.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        });
+    }
+
+    /**
+     * 虚拟线程写盘执行器，第一次使用时创建
+     */
+    private static final class VirtualPoolHolder {
+        private static final ExecutorService POOL = VirtualThreads.newThreadPerTaskExecutor("unzip-writer-virtual-");
+    }
+
+    /**
+     * 把输入流的内容写入文件
+     * <p>
+     * 文件的父目录必须已经存在，文件已存在时被覆盖。
+     * 异步写入时方法返回后文件可能尚未写完，写入失败在之后的 {@link #write} 或 {@link #finish()} 中抛出。
+     * </p>
+     *
+     * @param target 目标文件
+     * @param content 文件内容，在方法返回前读完，由调用方关闭
+     * @param declaredSize 声明的大小，用于预分配文件，未知时为-1
+     * @return 写入的字节数
+     * @throws IOException 读取内容或写入文件失败、之前的异步写入失败时抛出
+     */
+    public long write(Path target, InputStream content, long declaredSize) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("写入器已关闭");
+        }
+        checkFailure();
+        if (!submittedPaths.add(target)) {
+            awaitPending();
+            checkFailure();
+        }
+
+        if (executor == null || declaredSize > MAX_QUEUED_FILE_SIZE) {
+            return writeFile(target, null, content, declaredSize);
+        }
+
+        SizedByteArrayOutputStream head = new SizedByteArrayOutputStream(declaredSize, MAX_QUEUED_FILE_SIZE);
+        long read = head.readFrom(content, MAX_QUEUED_FILE_SIZE + 1L);
+        if (read > MAX_QUEUED_FILE_SIZE) {
+            // 实际内容比声明的大，已读入的部分和剩余部分一起由当前线程写入
+            return writeFile(target, head.toByteArray(), content, declaredSize);
+        }
+        submit(target, head.toByteArray());
+        return read;
+    }
+
+    private void submit(Path target, byte[] data) throws IOException {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待写盘队列时被中断");
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    writeFile(target, data, null, data.length);
+                } catch (IOException e) {
+                    failure.compareAndSet(null, e);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, new IOException("写入文件失败: " + target, e));
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw new IOException("提交写盘任务失败", e);
+        }
+    }
+
+    /**
+     * 写入一个文件
+     *
+     * @param head 已读入内存的开头部分，可以为null
+     * @param rest 剩余部分，可以为null
+     * @param expectedSize 预计的文件大小，未知时为-1
+     * @return 写入的字节数
+     */
+    private long writeFile(Path target, byte[] head, InputStream rest, long expectedSize) throws IOException {
+        boolean preallocated = preallocate && expectedSize > 0;
+        try (FileChannel channel = open(target, preallocated ? expectedSize : -1)) {
+            long written = 0;
+            if (head != null) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(head);
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+                written = head.length;
+            }
+            if (rest != null) {
+                written += copy(rest, channel);
+            }
+            if (preallocated && written < expectedSize) {
+                channel.truncate(written);
+            }
+            if (fsyncPolicy == FsyncPolicy.PER_FILE) {
+                channel.force(true);
+            }
+            return written;
+        }
+    }
+
+    private FileChannel open(Path target, long preallocatedSize) throws IOException {
+        if (preallocatedSize < 0) {
+            return FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+        RandomAccessFile file = new RandomAccessFile(target.toFile(), "rw");
+        try {
+            file.setLength(preallocatedSize);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        // 关闭通道时同时关闭文件
+        return file.getChannel();
+    }
+
+    private long copy(InputStream inputStream, FileChannel channel) throws IOException {
+        byte[] buffer = BufferPool.shared().acquire(bufferSize);
+        try {
+            long written = 0;
+            int n;
+            while ((n = inputStream.read(buffer)) != -1) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, n);
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+                written += n;
+            }
+            return written;
+        } finally {
+            BufferPool.shared().release(buffer);
+        }
+    }
+
+    /**
+     * 等待全部写入完成，按 {@link FsyncPolicy#AT_END} 刷盘
+     *
+     * @throws IOException 有文件写入或刷盘失败时抛出
+     */
+    public void finish() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("写入器已关闭");
+        }
+        awaitPending();
+        checkFailure();
+        if (fsyncPolicy == FsyncPolicy.AT_END) {
+            for (Path file : submittedPaths) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * 等待已提交的写入全部完成
+     */
+    private void awaitPending() throws IOException {
+        if (executor == null) {
+            return;
+        }
+        try {
+            slots.acquire(queueCapacity);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待写盘完成时被中断");
+        }
+        slots.release(queueCapacity);
+    }
+
+    private void checkFailure() throws IOException {
+        IOException e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    /**
+     * 等待已提交的写入结束，不检查写入结果
+     * <p>
+     * 关闭后写盘线程不再访问写入器使用的文件，调用方可以安全地删除或移动目标目录。
+     * </p>
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (executor != null) {
+            slots.acquireUninterruptibly(queueCapacity);
+            slots.release(queueCapacity);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.callback.UnzipProgressCallback;
+import com.yuxie.common.compress.exception.UnzipErrorCode;
+import com.yuxie.common.compress.exception.UnzipException;
+import com.yuxie.common.compress.monitor.UnzipPhase;
+import com.yuxie.common.compress.monitor.UnzipPhaseTimer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 条目输入流包装器
+ * <p>
+ * 交给 {@link com.yuxie.common.compress.visitor.ArchiveEntryVisitor} 的单个条目输入流。
+ * 在委托流之上增加了以下约束：
+ * <ul>
+ *   <li>大小限制：读取的字节数超过限制时抛出异常，防止解压炸弹</li>
+ *   <li>进度回调：每次读取后通过 {@link UnzipProgressCallback} 报告进度</li>
+ *   <li>关闭隔离：关闭该流不会关闭委托流，关闭后的读取直接返回-1</li>
+ *   <li>阶段计时：批量读取期间当前线程的 {@link UnzipPhaseTimer} 处于解码阶段，访问器的处理时间不包含解压时间</li>
+ *   <li>截止时间：每次批量读取之前检查创建该流的线程上的 {@link UnzipDeadline}，超时或取消时抛出异常</li>
+ * </ul>
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see com.yuxie.common.compress.visitor.ArchiveEntryVisitor
+ */
+public class BoundedEntryInputStream extends InputStream {
+
+    /**
+     * 委托的输入流，读取到条目末尾时返回-1
+     */
+    private final InputStream delegate;
+
+    /**
+     * 条目名称，用于进度回调和错误信息
+     */
+    private final String entryName;
+
+    /**
+     * 条目声明的大小，未知时为-1
+     */
+    private final long declaredSize;
+
+    /**
+     * 允许读取的最大字节数
+     */
+    private final long maxSize;
+
+    /**
+     * 进度回调，可以为null
+     */
+    private final UnzipProgressCallback callback;
+
+    /**
+     * 当前条目序号（从1开始）
+     */
+    private final int currentFile;
+
+    /**
+     * 条目总数
+     */
+    private final int totalFiles;
+
+    /**
+     * 创建时当前线程的截止时间，可以为null
+     */
+    private final UnzipDeadline deadline;
+
+    /**
+     * 已读取的字节数
+     */
+    private long bytesRead;
+
+    /**
+     * 是否已关闭
+     */
+    private boolean closed;
+
+    /**
+     * 创建条目输入流
+     *
+     * @param delegate 委托的输入流，不能为null
+     * @param entryName 条目名称
+     * @param declaredSize 条目声明的大小，未知时为-1
+     * @param maxSize 允许读取的最大字节数，小于等于0表示不限制
+     * @param callback 进度回调，可以为null
+     * @param currentFile 当前条目序号
+     * @param totalFiles 条目总数
+     */
+    public BoundedEntryInputStream(InputStream delegate, String entryName, long declaredSize, long maxSize,
+                                   UnzipProgressCallback callback, int currentFile, int totalFiles) {
+        this.delegate = delegate;
+        this.entryName = entryName;
+        this.declaredSize = declaredSize;
+        this.maxSize = maxSize > 0 ? maxSize : Long.MAX_VALUE;
+        this.callback = callback;
+        this.currentFile = currentFile;
+        this.totalFiles = totalFiles;
+        this.deadline = UnzipDeadline.current();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (closed) {
+            return -1;
+        }
+        int b = delegate.read();
+        if (b != -1) {
+            onBytesRead(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            return -1;
+        }
+        checkDeadline();
+        int n;
+        UnzipPhase previous = UnzipPhaseTimer.enter(UnzipPhase.DECODE);
+        try {
+            n = delegate.read(b, off, len);
+        } finally {
+            UnzipPhaseTimer.exit(previous);
+        }
+        if (n > 0) {
+            onBytesRead(n);
+        }
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return closed ? 0 : delegate.available();
+    }
+
+    /**
+     * 关闭条目输入流
+     * <p>
+     * 只标记当前条目流为已关闭，不会关闭委托流。
+     * </p>
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * 读取并丢弃条目中剩余的内容
+     * <p>
+     * 对于推送式的数据源（如7-Zip管道），必须把条目读完才能继续处理下一个条目。
+     * 丢弃的内容同样受大小限制约束。
+     * </p>
+     *
+     * @throws IOException 读取过程中发生IO错误时抛出
+     */
+    public void drain() throws IOException {
+        byte[] skipBuffer = BufferPool.shared().acquire(8192);
+        UnzipPhase previous = UnzipPhaseTimer.enter(UnzipPhase.DECODE);
+        try {
+            int n;
+            while ((n = delegate.read(skipBuffer, 0, skipBuffer.length)) != -1) {
+                onBytesRead(n);
+                checkDeadline();
+            }
+        } finally {
+            UnzipPhaseTimer.exit(previous);
+            BufferPool.shared().release(skipBuffer);
+        }
+    }
+
+    /**
+     * 获取已读取的字节数
+     *
+     * @return 已读取的字节数
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    private void checkDeadline() {
+        if (deadline != null) {
+            deadline.ensureNotExpired();
+        }
+    }
+
+    private void onBytesRead(int n) {
+        bytesRead += n;
+        if (bytesRead > maxSize) {
+            throw new UnzipException(UnzipErrorCode.INVALID_FORMAT, "文件大小超过限制: " + entryName);
+        }
+        if (callback != null) {
+            callback.onProgress(entryName, bytesRead, declaredSize, currentFile, totalFiles);
+        }
+    }
+}
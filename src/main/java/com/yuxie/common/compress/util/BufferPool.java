@@ -0,0 +1,179 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 读写缓冲区池
+ * <p>
+ * 解压过程中用于复制数据的临时缓冲区（读取条目内容、跳过数据、写入文件等）在每个条目、每次调用中都会重新分配，
+ * 大量解压小压缩包时成为主要的GC来源。该池按2的幂划分大小级别（{@value #MIN_BUFFER_SIZE} 字节到
+ * {@value #MAX_BUFFER_SIZE} 字节），复用这些缓冲区：
+ * <ul>
+ *   <li>线程本地缓存：每个线程每个级别缓存一个缓冲区（每个线程最多约2MB），同一线程反复借还时不需要同步</li>
+ *   <li>全局池：线程本地缓存已满时归还到有界的全局队列，每个级别最多保留 {@value #MAX_POOLED_BYTES_PER_CLASS} 字节，超出的直接丢弃</li>
+ * </ul>
+ * 超过最大级别的请求直接分配，不会被缓存。
+ * </p>
+ * <p>
+ * 池本身统计每次借出是否命中（{@link #getHitCount()}、{@link #getMissCount()}），所有调用方借出的缓冲区都会被计入，
+ * {@link UnzipMetrics} 的实现在快照中读取共享池的计数。
+ * </p>
+ * <p>
+ * 借出的缓冲区长度不小于请求的大小，内容不会被清零；归还后不能继续使用。
+ * 不是从池中借出的数组也可以归还，长度不是级别大小的数组会被忽略。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public final class BufferPool {
+
+    /**
+     * 最小级别的缓冲区大小
+     */
+    public static final int MIN_BUFFER_SIZE = 512;
+
+    /**
+     * 最大级别的缓冲区大小
+     */
+    public static final int MAX_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * 全局池中每个级别最多保留的字节数
+     */
+    static final int MAX_POOLED_BYTES_PER_CLASS = 4 * 1024 * 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+
+    private static final int CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_BUFFER_SIZE) - MIN_SHIFT + 1;
+
+    private static final BufferPool SHARED = new BufferPool();
+
+    /**
+     * 每个线程每个级别缓存的缓冲区
+     */
+    private final ThreadLocal<byte[][]> localBuffers = ThreadLocal.withInitial(() -> new byte[CLASS_COUNT][]);
+
+    /**
+     * 每个级别的全局池
+     */
+    private final ArrayBlockingQueue<byte[]>[] globalBuffers;
+
+    /**
+     * 复用池中缓冲区的次数
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * 新分配缓冲区的次数
+     */
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private BufferPool() {
+        globalBuffers = new ArrayBlockingQueue[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            int size = MIN_BUFFER_SIZE << i;
+            globalBuffers[i] = new ArrayBlockingQueue<>(Math.max(2, MAX_POOLED_BYTES_PER_CLASS / size));
+        }
+    }
+
+    /**
+     * 获取共享的缓冲区池
+     *
+     * @return 所有解压策略共用的缓冲区池
+     */
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * 借出缓冲区
+     *
+     * @param minSize 需要的最小大小
+     * @return 长度不小于 minSize 的缓冲区
+     */
+    public byte[] acquire(int minSize) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("缓冲区大小不能为负数: " + minSize);
+        }
+        int sizeClass = sizeClassOf(minSize);
+        if (sizeClass < 0) {
+            misses.increment();
+            return new byte[minSize];
+        }
+
+        byte[][] local = localBuffers.get();
+        byte[] buffer = local[sizeClass];
+        if (buffer != null) {
+            local[sizeClass] = null;
+            hits.increment();
+            return buffer;
+        }
+        buffer = globalBuffers[sizeClass].poll();
+        if (buffer != null) {
+            hits.increment();
+            return buffer;
+        }
+        misses.increment();
+        return new byte[MIN_BUFFER_SIZE << sizeClass];
+    }
+
+    /**
+     * 获取命中次数
+     *
+     * @return 创建以来复用池中缓冲区的次数
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     *
+     * @return 创建以来新分配缓冲区的次数，包括超过最大级别直接分配的请求
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 归还缓冲区
+     *
+     * @param buffer 缓冲区，可以为null
+     */
+    public void release(byte[] buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int length = buffer.length;
+        if (length < MIN_BUFFER_SIZE || length > MAX_BUFFER_SIZE || Integer.bitCount(length) != 1) {
+            return;
+        }
+        int sizeClass = Integer.numberOfTrailingZeros(length) - MIN_SHIFT;
+        byte[][] local = localBuffers.get();
+        if (local[sizeClass] == null) {
+            local[sizeClass] = buffer;
+            return;
+        }
+        globalBuffers[sizeClass].offer(buffer);
+    }
+
+    /**
+     * 计算能容纳指定大小的最小级别
+     *
+     * @return 级别编号，超过最大级别时返回-1
+     */
+    private static int sizeClassOf(int size) {
+        if (size <= MIN_BUFFER_SIZE) {
+            return 0;
+        }
+        if (size > MAX_BUFFER_SIZE) {
+            return -1;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,178 @@
+package com.yuxie.common.compress.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 字节数组上的只读文件通道
+ * <p>
+ * 以 {@link FileChannel} 的形式读取内存中的压缩包，使 {@link org.apache.commons.compress.archivers.zip.ZipFile}
+ * 等组件对内存数据也使用按位置读取 {@link #read(ByteBuffer, long)}：按位置读取直接从不可变的字节数组复制，
+ * 不改变通道位置也不加锁，多个线程可以同时读取。按当前位置读取和定位只在单个线程中使用，通过同步保证可见性。
+ * </p>
+ * <p>
+ * 写入、截断、内存映射和文件锁均不支持。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public class ByteArrayFileChannel extends FileChannel {
+
+    /**
+     * 通道中的数据
+     */
+    private final byte[] data;
+
+    /**
+     * 当前位置
+     */
+    private long position;
+
+    /**
+     * 创建字节数组上的只读文件通道
+     *
+     * @param data 数据，不复制，读取期间不能修改
+     * @throws IllegalArgumentException 当data为null时抛出
+     */
+    public ByteArrayFileChannel(byte[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("数据不能为空");
+        }
+        this.data = data;
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer dst) throws IOException {
+        int n = read(dst, position);
+        if (n > 0) {
+            position += n;
+        }
+        return n;
+    }
+
+    @Override
+    public synchronized long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int n = read(dsts[i]);
+            if (n < 0) {
+                return total > 0 ? total : -1;
+            }
+            total += n;
+            if (dsts[i].hasRemaining()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+        if (position < 0) {
+            throw new IllegalArgumentException("读取位置不能为负数");
+        }
+        ensureOpen();
+        if (position >= data.length) {
+            return -1;
+        }
+        int n = (int) Math.min(dst.remaining(), data.length - position);
+        dst.put(data, (int) position, n);
+        return n;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public synchronized FileChannel position(long newPosition) throws IOException {
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("通道位置不能为负数");
+        }
+        ensureOpen();
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return data.length;
+    }
+
+    @Override
+    public FileChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public void force(boolean metaData) {
+        // 内存数据无需刷盘
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        ensureOpen();
+        if (position >= data.length) {
+            return 0;
+        }
+        int length = (int) Math.min(count, data.length - position);
+        return target.write(ByteBuffer.wrap(data, (int) position, length));
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) {
+        throw new UnsupportedOperationException("内存数据不支持映射");
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) {
+        throw new UnsupportedOperationException("内存数据不支持文件锁");
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) {
+        throw new UnsupportedOperationException("内存数据不支持文件锁");
+    }
+
+    @Override
+    protected void implCloseChannel() {
+        // 没有需要释放的资源
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+}
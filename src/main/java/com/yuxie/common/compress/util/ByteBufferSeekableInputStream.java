@@ -0,0 +1,81 @@
+package com.yuxie.common.compress.util;
+
+import org.tukaani.xz.SeekableInputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 缓冲区上的随机访问输入流
+ * <p>
+ * 读取堆内存中的字节数组或映射到内存的文件，只使用缓冲区的副本，不改变原缓冲区的位置，
+ * 因此多个线程可以在同一个缓冲区上各自创建输入流同时读取。单个输入流只能在一个线程中使用。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see ParallelXzInputStream
+ * @see ParallelBzip2InputStream
+ */
+class ByteBufferSeekableInputStream extends SeekableInputStream {
+
+    private final ByteBuffer data;
+
+    /**
+     * 创建输入流
+     *
+     * @param data 数据，从位置0读取到容量上限
+     */
+    ByteBufferSeekableInputStream(ByteBuffer data) {
+        this.data = data.duplicate();
+        this.data.clear();
+    }
+
+    @Override
+    public int read() {
+        return data.hasRemaining() ? data.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!data.hasRemaining()) {
+            return -1;
+        }
+        int n = Math.min(length, data.remaining());
+        data.get(buffer, offset, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.max(0, Math.min(n, data.remaining()));
+        data.position(data.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return data.remaining();
+    }
+
+    @Override
+    public long length() {
+        return data.capacity();
+    }
+
+    @Override
+    public long position() {
+        return data.position();
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+        if (pos < 0) {
+            throw new IOException("位置不能为负数: " + pos);
+        }
+        data.position((int) Math.min(pos, data.capacity()));
+    }
+}
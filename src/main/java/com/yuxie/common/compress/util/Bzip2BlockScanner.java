@@ -0,0 +1,187 @@
+package com.yuxie.common.compress.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * BZIP2块边界扫描器
+ * <p>
+ * BZIP2流由若干个压缩块组成，每个块以48位的块魔数 {@code 0x314159265359} 开头，
+ * 流以48位的结束魔数 {@code 0x177245385090} 和32位的合并CRC结尾。块之间没有字节对齐，
+ * 因此需要按位扫描魔数才能找到块边界。该扫描器在内存中（或映射到内存）的BZIP2数据上按位查找魔数，
+ * 并可以把单个块重新封装为只包含该块的完整BZIP2流，以便独立解压。
+ * </p>
+ * <p>
+ * 压缩数据中也可能偶然出现与魔数相同的位序列，扫描出的边界需要通过解压（块CRC校验）验证。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see ParallelBzip2InputStream
+ */
+class Bzip2BlockScanner {
+
+    /**
+     * 块魔数（圆周率的BCD编码）
+     */
+    static final long BLOCK_MAGIC = 0x314159265359L;
+
+    /**
+     * 流结束魔数（根号圆周率的BCD编码）
+     */
+    static final long END_OF_STREAM_MAGIC = 0x177245385090L;
+
+    /**
+     * 魔数的位数
+     */
+    static final int MAGIC_BITS = 48;
+
+    /**
+     * CRC的位数
+     */
+    static final int CRC_BITS = 32;
+
+    /**
+     * 流头部长度："BZh" 加块大小级别
+     */
+    static final int STREAM_HEADER_SIZE = 4;
+
+    private static final long MAGIC_MASK = (1L << MAGIC_BITS) - 1;
+
+    private final ByteBuffer data;
+
+    private final int limit;
+
+    /**
+     * 上一次 {@link #findMarker(long)} 找到的是否为流结束魔数
+     */
+    private boolean endOfStream;
+
+    /**
+     * 创建扫描器
+     *
+     * @param data BZIP2数据，按绝对位置读取，不改变缓冲区的位置
+     * @param limit 数据末尾位置
+     */
+    Bzip2BlockScanner(ByteBuffer data, int limit) {
+        this.data = data;
+        this.limit = limit;
+    }
+
+    /**
+     * 指定位置是否为BZIP2流的头部
+     *
+     * @param p 字节位置
+     * @return 是流头部时返回true
+     */
+    boolean isStreamHeader(int p) {
+        return limit - p >= STREAM_HEADER_SIZE && data.get(p) == 'B' && data.get(p + 1) == 'Z' && data.get(p + 2) == 'h'
+            && data.get(p + 3) >= '1' && data.get(p + 3) <= '9';
+    }
+
+    /**
+     * 查找不早于指定位置的下一个块魔数或流结束魔数
+     *
+     * @param fromBit 起始位的位置
+     * @return 魔数第一位的位置，找不到时返回-1；找到的魔数类型通过 {@link #isEndOfStream()} 获取
+     */
+    long findMarker(long fromBit) {
+        int first = (int) (fromBit >>> 3);
+        long window = 0;
+        for (int i = first; i < limit; i++) {
+            window = window << 8 | (data.get(i) & 0xff);
+            // 魔数的最后一位落在第i个字节中，k为最后一位之后剩余的位数
+            for (int k = 7; k >= 0; k--) {
+                long start = ((long) i << 3) + 7 - k - (MAGIC_BITS - 1);
+                if (start < fromBit) {
+                    continue;
+                }
+                long value = (window >>> k) & MAGIC_MASK;
+                if (value == BLOCK_MAGIC || value == END_OF_STREAM_MAGIC) {
+                    endOfStream = value == END_OF_STREAM_MAGIC;
+                    return start;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 上一次找到的魔数是否为流结束魔数
+     *
+     * @return 是流结束魔数时返回true
+     */
+    boolean isEndOfStream() {
+        return endOfStream;
+    }
+
+    /**
+     * 读取不超过32位的无符号整数
+     *
+     * @param bit 第一位的位置
+     * @param count 位数
+     * @return 读取的值，数据不足的部分按0处理
+     */
+    long readBits(long bit, int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            long p = bit + i;
+            int index = (int) (p >>> 3);
+            int b = index < limit ? (data.get(index) >>> (7 - (int) (p & 7))) & 1 : 0;
+            value = value << 1 | b;
+        }
+        return value;
+    }
+
+    /**
+     * 把单个块封装为独立的BZIP2流
+     * <p>
+     * 新的流由原流的头部、块的全部位、流结束魔数和合并CRC组成。只有一个块的流的合并CRC等于该块的CRC。
+     * </p>
+     *
+     * @param level 块大小级别字符（'1'到'9'）
+     * @param startBit 块魔数第一位的位置
+     * @param endBit 块结束后第一位的位置
+     * @return 只包含该块的BZIP2流
+     */
+    byte[] toSingleBlockStream(byte level, long startBit, long endBit) {
+        long blockBits = endBit - startBit;
+        long totalBits = blockBits + MAGIC_BITS + CRC_BITS;
+        byte[] stream = new byte[STREAM_HEADER_SIZE + (int) ((totalBits + 7) >>> 3)];
+        stream[0] = 'B';
+        stream[1] = 'Z';
+        stream[2] = 'h';
+        stream[3] = level;
+
+        // 按字节复制块的位，起始位不在字节边界上时拼接相邻的两个字节
+        int source = (int) (startBit >>> 3);
+        int shift = (int) (startBit & 7);
+        int blockBytes = (int) ((blockBits + 7) >>> 3);
+        for (int j = 0; j < blockBytes; j++) {
+            int high = source + j < limit ? data.get(source + j) & 0xff : 0;
+            int low = source + j + 1 < limit ? data.get(source + j + 1) & 0xff : 0;
+            stream[STREAM_HEADER_SIZE + j] = (byte) (high << shift | low >>> (8 - shift));
+        }
+        // 清除块最后一位之后的位
+        int tailBits = (int) (blockBits & 7);
+        if (tailBits != 0) {
+            stream[STREAM_HEADER_SIZE + blockBytes - 1] &= (byte) (0xff << (8 - tailBits));
+        }
+
+        long blockCrc = readBits(startBit + MAGIC_BITS, CRC_BITS);
+        long bit = (long) STREAM_HEADER_SIZE * 8 + blockBits;
+        bit = writeBits(stream, bit, END_OF_STREAM_MAGIC >>> 16, 32);
+        bit = writeBits(stream, bit, END_OF_STREAM_MAGIC & 0xffff, 16);
+        writeBits(stream, bit, blockCrc, CRC_BITS);
+        return stream;
+    }
+
+    private static long writeBits(byte[] target, long bit, long value, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (((value >>> i) & 1) != 0) {
+                target[(int) (bit >>> 3)] |= (byte) (0x80 >>> (int) (bit & 7));
+            }
+            bit++;
+        }
+        return bit;
+    }
+}
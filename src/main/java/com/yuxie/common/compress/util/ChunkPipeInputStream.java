@@ -0,0 +1,195 @@
+package com.yuxie.common.compress.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据块管道输入流
+ * <p>
+ * 用于把推送式的数据源（如7-Zip-JBinding的 {@code ISequentialOutStream}）转换为拉取式的输入流。
+ * 生产者线程通过 {@link #write(byte[])} 写入数据块，消费者线程通过输入流读取。
+ * </p>
+ * <p>
+ * 主要特点：
+ * <ul>
+ *   <li>有界队列：最多缓存指定数量的数据块，生产者在队列满时阻塞，内存占用有上限</li>
+ *   <li>零拷贝：写入的数据块直接入队，生产者写入后不能再修改该数组</li>
+ *   <li>异常传递：生产者失败时，消费者在读到末尾时收到异常</li>
+ *   <li>提前关闭：消费者关闭流后，生产者的写入会立即失败，不会永久阻塞</li>
+ * </ul>
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public class ChunkPipeInputStream extends InputStream {
+
+    /**
+     * 流结束标记
+     */
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    /**
+     * 生产者等待队列空间时检查关闭状态的间隔（毫秒）
+     */
+    private static final long OFFER_INTERVAL_MILLIS = 100L;
+
+    /**
+     * 数据块队列
+     */
+    private final BlockingQueue<byte[]> queue;
+
+    /**
+     * 当前正在读取的数据块
+     */
+    private byte[] current;
+
+    /**
+     * 当前数据块中的读取位置
+     */
+    private int position;
+
+    /**
+     * 是否已读到流末尾
+     */
+    private boolean finished;
+
+    /**
+     * 消费者是否已关闭流
+     */
+    private volatile boolean closed;
+
+    /**
+     * 生产者的失败原因
+     */
+    private volatile Throwable failure;
+
+    /**
+     * 创建管道输入流
+     *
+     * @param capacity 队列中最多缓存的数据块数量，必须为正数
+     */
+    public ChunkPipeInputStream(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * 写入一个数据块（生产者调用）
+     *
+     * @param chunk 数据块，入队后不能再修改
+     * @throws IOException 当管道已被消费者关闭或线程被中断时抛出
+     */
+    public void write(byte[] chunk) throws IOException {
+        if (chunk.length > 0) {
+            put(chunk);
+        }
+    }
+
+    /**
+     * 标记数据写入完成（生产者调用）
+     *
+     * @throws IOException 当管道已被消费者关闭或线程被中断时抛出
+     */
+    public void finish() throws IOException {
+        put(END_OF_STREAM);
+    }
+
+    /**
+     * 标记生产者失败（生产者调用）
+     * <p>
+     * 消费者读到末尾时会收到包装了失败原因的IOException。
+     * </p>
+     *
+     * @param cause 失败原因
+     */
+    public void fail(Throwable cause) {
+        this.failure = cause;
+        try {
+            put(END_OF_STREAM);
+        } catch (IOException ignored) {
+            // 消费者已关闭，无需通知
+        }
+    }
+
+    private void put(byte[] chunk) throws IOException {
+        try {
+            while (!queue.offer(chunk, OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    throw new IOException("管道已关闭");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("写入管道时被中断");
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureChunk()) {
+            return -1;
+        }
+        return current[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureChunk()) {
+            return -1;
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.length - position;
+    }
+
+    /**
+     * 关闭管道（消费者调用）
+     * <p>
+     * 丢弃已缓存的数据块，之后生产者的写入会失败。
+     * </p>
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    private boolean ensureChunk() throws IOException {
+        if (closed) {
+            throw new IOException("管道已关闭");
+        }
+        while (!finished && (current == null || position >= current.length)) {
+            byte[] chunk;
+            try {
+                chunk = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("读取管道时被中断");
+            }
+            if (chunk == END_OF_STREAM) {
+                finished = true;
+                current = null;
+            } else {
+                current = chunk;
+                position = 0;
+            }
+        }
+        if (finished && failure != null) {
+            throw new IOException("数据写入失败: " + failure.getMessage(), failure);
+        }
+        return !finished;
+    }
+}
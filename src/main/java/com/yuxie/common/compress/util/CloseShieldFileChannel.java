@@ -0,0 +1,157 @@
+package com.yuxie.common.compress.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 关闭隔离的文件通道
+ * <p>
+ * 与 {@link CloseShieldSeekableByteChannel} 相同，关闭该通道不会关闭委托的通道；不同的是它本身仍是
+ * {@link FileChannel}，组件（如 {@link org.apache.commons.compress.archivers.zip.ZipFile}）可以识别出来，
+ * 改用不移动通道位置的按位置读取 {@link #read(ByteBuffer, long)}，多个线程可以同时读取，不需要在通道上同步。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public class CloseShieldFileChannel extends FileChannel {
+
+    /**
+     * 委托的通道
+     */
+    private final FileChannel delegate;
+
+    /**
+     * 创建关闭隔离的文件通道
+     *
+     * @param delegate 委托的通道，不能为null
+     * @throws IllegalArgumentException 当delegate为null时抛出
+     */
+    public CloseShieldFileChannel(FileChannel delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("通道不能为空");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        return delegate.read(dst);
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+        ensureOpen();
+        return delegate.read(dsts, offset, length);
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+        ensureOpen();
+        return delegate.read(dst, position);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        ensureOpen();
+        return delegate.write(src);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+        ensureOpen();
+        return delegate.write(srcs, offset, length);
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position) throws IOException {
+        ensureOpen();
+        return delegate.write(src, position);
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return delegate.position();
+    }
+
+    @Override
+    public FileChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        delegate.position(newPosition);
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return delegate.size();
+    }
+
+    @Override
+    public FileChannel truncate(long size) throws IOException {
+        ensureOpen();
+        delegate.truncate(size);
+        return this;
+    }
+
+    @Override
+    public void force(boolean metaData) throws IOException {
+        ensureOpen();
+        delegate.force(metaData);
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        ensureOpen();
+        return delegate.transferTo(position, count, target);
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+        ensureOpen();
+        return delegate.transferFrom(src, position, count);
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+        ensureOpen();
+        return delegate.map(mode, position, size);
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) throws IOException {
+        ensureOpen();
+        return delegate.lock(position, size, shared);
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+        ensureOpen();
+        return delegate.tryLock(position, size, shared);
+    }
+
+    /**
+     * 关闭通道
+     * <p>
+     * 只标记当前通道为已关闭，不会关闭委托的通道。
+     * </p>
+     */
+    @Override
+    protected void implCloseChannel() {
+        // 委托的通道由调用方管理
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.yuxie.common.compress.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * 关闭隔离的可定位通道
+ * <p>
+ * 把调用方的通道交给会在关闭时一并关闭通道的组件（如 {@link org.apache.commons.compress.archivers.zip.ZipFile}）时使用。
+ * 关闭该通道只标记自身为已关闭，不会关闭委托的通道，通道的生命周期仍由调用方管理。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public class CloseShieldSeekableByteChannel implements SeekableByteChannel {
+
+    /**
+     * 委托的通道
+     */
+    private final SeekableByteChannel delegate;
+
+    /**
+     * 是否已关闭
+     */
+    private boolean closed;
+
+    /**
+     * 创建关闭隔离的通道
+     *
+     * @param delegate 委托的通道，不能为null
+     * @throws IllegalArgumentException 当delegate为null时抛出
+     */
+    public CloseShieldSeekableByteChannel(SeekableByteChannel delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("通道不能为空");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        return delegate.read(dst);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        ensureOpen();
+        return delegate.write(src);
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return delegate.position();
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        delegate.position(newPosition);
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return delegate.size();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) throws IOException {
+        ensureOpen();
+        delegate.truncate(size);
+        return this;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed && delegate.isOpen();
+    }
+
+    /**
+     * 关闭通道
+     * <p>
+     * 只标记当前通道为已关闭，不会关闭委托的通道。
+     * </p>
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+}
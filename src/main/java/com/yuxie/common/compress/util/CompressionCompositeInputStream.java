@@ -5,6 +5,9 @@ import com.yuxie.common.compress.exception.CompressionException;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,6 +23,9 @@ import java.util.List;
  *   <li>资源管理：统一管理多个需要关闭的资源</li>
  *   <li>自动关闭：在关闭输入流时自动关闭所有资源</li>
  *   <li>异常处理：确保所有资源都能被正确关闭</li>
+ *   <li>缓冲读取：小块读取经过内部缓冲区，不小于缓冲区大小的读取直接交给委托流，不经过缓冲区复制</li>
+ *   <li>标记重置：在内部缓冲区中记录标记，不依赖委托流是否支持mark/reset</li>
+ *   <li>NIO访问：通过 {@link #asChannel()} 以 {@link ReadableByteChannel} 的方式读取</li>
  * </ul>
  * </p>
  * <p>
@@ -62,9 +68,14 @@ public class CompressionCompositeInputStream extends InputStream {
     private final List<AutoCloseable> resources;
     
     /**
-     * 用于缓冲读取的字节数组
+     * 缓冲区大小，同时也是直接读取委托流的最小读取长度
      */
-    private final byte[] buffer;
+    private final int bufferSize;
+    
+    /**
+     * 用于缓冲读取的字节数组，第一次需要缓冲时从 {@link BufferPool} 借出，关闭时归还
+     */
+    private byte[] buffer;
     
     /**
      * 当前缓冲区中的读取位置
@@ -77,18 +88,53 @@ public class CompressionCompositeInputStream extends InputStream {
     private int count;
     
     /**
-     * 缓冲区大小，默认8KB
+     * 标记在缓冲区中的位置，没有标记或标记已失效时为-1
      */
-    private static final int BUFFER_SIZE = 8192;
+    private int markPosition = -1;
     
     /**
-     * 创建一个新的复合输入流
+     * 标记失效前可以读取的最大字节数
+     */
+    private int markLimit;
+    
+    private boolean closed;
+    
+    /**
+     * 从委托流读取或跳过的字节数
+     */
+    private long delegateBytes;
+    
+    /**
+     * 默认缓冲区大小，8KB
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    
+    /**
+     * 创建一个使用默认缓冲区大小的复合输入流
      *
      * @param delegate 主要的输入流，不能为null
      * @param resources 需要随输入流一起关闭的资源，可以为null
      */
     public CompressionCompositeInputStream(InputStream delegate, AutoCloseable... resources) {
+        this(delegate, DEFAULT_BUFFER_SIZE, resources);
+    }
+    
+    /**
+     * 创建一个新的复合输入流
+     *
+     * @param delegate 主要的输入流，不能为null
+     * @param bufferSize 缓冲区大小，通常取 {@code UnzipConfig.bufferSize}
+     * @param resources 需要随输入流一起关闭的资源，可以为null
+     */
+    public CompressionCompositeInputStream(InputStream delegate, int bufferSize, AutoCloseable... resources) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("委托输入流不能为空");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("缓冲区大小必须大于0");
+        }
         this.delegate = delegate;
+        this.bufferSize = bufferSize;
         this.resources = new ArrayList<>();
         if (resources != null) {
             for (AutoCloseable resource : resources) {
@@ -97,9 +143,6 @@ public class CompressionCompositeInputStream extends InputStream {
                 }
             }
         }
-        this.buffer = new byte[BUFFER_SIZE];
-        this.position = 0;
-        this.count = 0;
     }
     
     /**
@@ -125,7 +168,8 @@ public class CompressionCompositeInputStream extends InputStream {
     /**
      * 读取多个字节到指定的数组中
      * <p>
-     * 如果缓冲区中没有足够的数据，会尝试从委托流中读取新的数据。
+     * 先返回缓冲区中剩余的数据；缓冲区为空、读取长度不小于缓冲区大小且没有有效标记时，
+     * 直接从委托流读取到目标数组，否则先填充缓冲区再复制。
      * </p>
      *
      * @param b 目标字节数组
@@ -136,14 +180,26 @@ public class CompressionCompositeInputStream extends InputStream {
      */
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
         if (position >= count) {
+            if (len >= bufferSize && markPosition < 0) {
+                int n = delegate.read(b, off, len);
+                if (n > 0) {
+                    delegateBytes += n;
+                }
+                return n;
+            }
             fill();
             if (position >= count) {
                 return -1;
             }
         }
-        int available = count - position;
-        int toRead = Math.min(available, len);
+        int toRead = Math.min(count - position, len);
         System.arraycopy(buffer, position, b, off, toRead);
         position += toRead;
         return toRead;
@@ -151,16 +207,48 @@ public class CompressionCompositeInputStream extends InputStream {
     
     /**
      * 从委托流中填充缓冲区
+     * <p>
+     * 存在有效标记时保留标记之后的数据，必要时把数据移到缓冲区开头或扩大缓冲区（不超过标记的读取限制），
+     * 超过读取限制后标记失效。
+     * </p>
      *
      * @throws IOException 如果读取过程中发生IO错误
      */
     private void fill() throws IOException {
-        position = 0;
-        count = delegate.read(buffer);
+        if (buffer == null) {
+            buffer = BufferPool.shared().acquire(bufferSize);
+        }
+        if (markPosition < 0) {
+            position = 0;
+        } else if (position >= buffer.length) {
+            if (markPosition > 0) {
+                int kept = position - markPosition;
+                System.arraycopy(buffer, markPosition, buffer, 0, kept);
+                position = kept;
+                markPosition = 0;
+            } else if (buffer.length >= markLimit) {
+                markPosition = -1;
+                position = 0;
+            } else {
+                byte[] grown = BufferPool.shared().acquire((int) Math.min((long) buffer.length * 2, markLimit));
+                System.arraycopy(buffer, 0, grown, 0, position);
+                BufferPool.shared().release(buffer);
+                buffer = grown;
+            }
+        }
+        count = position;
+        int n = delegate.read(buffer, position, buffer.length - position);
+        if (n > 0) {
+            count = position + n;
+            delegateBytes += n;
+        }
     }
     
     /**
      * 跳过指定数量的字节
+     * <p>
+     * 先跳过缓冲区中的数据；缓冲区为空且没有有效标记时交给委托流跳过。
+     * </p>
      *
      * @param n 要跳过的字节数
      * @return 实际跳过的字节数
@@ -168,18 +256,50 @@ public class CompressionCompositeInputStream extends InputStream {
      */
     @Override
     public long skip(long n) throws IOException {
-        return delegate.skip(n);
+        if (n <= 0) {
+            return 0;
+        }
+        if (position >= count) {
+            if (markPosition < 0) {
+                long skipped = delegate.skip(n);
+                if (skipped > 0) {
+                    delegateBytes += skipped;
+                }
+                return skipped;
+            }
+            fill();
+            if (position >= count) {
+                return 0;
+            }
+        }
+        int skipped = (int) Math.min(count - position, n);
+        position += skipped;
+        return skipped;
     }
     
     /**
      * 获取可读取的字节数
      *
-     * @return 可读取的字节数
+     * @return 缓冲区中剩余的字节数与委托流可读取的字节数之和
      * @throws IOException 如果获取过程中发生IO错误
      */
     @Override
     public int available() throws IOException {
-        return delegate.available();
+        int buffered = count - position;
+        int delegateAvailable = delegate.available();
+        return buffered > Integer.MAX_VALUE - delegateAvailable ? Integer.MAX_VALUE : buffered + delegateAvailable;
+    }
+    
+    /**
+     * 获取从委托流读取的字节数
+     * <p>
+     * 包括已读入缓冲区但尚未被读取的数据和直接跳过的数据，可以作为压缩数据的大小。
+     * </p>
+     *
+     * @return 从委托流读取或跳过的字节数
+     */
+    public long getDelegateBytesRead() {
+        return delegateBytes;
     }
     
     /**
@@ -194,6 +314,15 @@ public class CompressionCompositeInputStream extends InputStream {
      */
     @Override
     public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        BufferPool.shared().release(buffer);
+        buffer = null;
+        position = 0;
+        count = 0;
+        markPosition = -1;
         List<Exception> exceptions = new ArrayList<>();
         
         // 关闭委托的输入流
@@ -226,39 +355,95 @@ public class CompressionCompositeInputStream extends InputStream {
     
     /**
      * 在当前位置设置标记
+     * <p>
+     * 标记记录在内部缓冲区中，与委托流是否支持标记无关。
+     * </p>
      *
      * @param readlimit 在标记失效前可以读取的最大字节数
      */
     @Override
     public void mark(int readlimit) {
-        delegate.mark(readlimit);
+        markLimit = readlimit;
+        markPosition = position;
     }
     
     /**
      * 重置输入流位置到标记的位置
-     * <p>
-     * 如果底层流不支持标记和重置操作，将抛出IOException。
-     * </p>
      *
-     * @throws IOException 如果重置操作失败或底层流不支持重置
+     * @throws IOException 如果没有设置标记或标记已失效
      */
+    @Override
     public void reset() throws IOException {
-        if (delegate.markSupported()) {
-            delegate.reset();
-        } else {
-            throw new IOException("输入流不支持重置操作");
+        if (markPosition < 0) {
+            throw new IOException("没有设置标记或标记已失效");
         }
-        position = 0;
-        count = 0;
+        position = markPosition;
     }
     
     /**
      * 检查输入流是否支持标记和重置操作
      *
-     * @return 如果支持标记和重置操作则返回true
+     * @return 总是返回true
      */
     @Override
     public boolean markSupported() {
-        return delegate.markSupported();
+        return true;
+    }
+    
+    /**
+     * 以通道的方式读取该输入流
+     * <p>
+     * 通道与输入流共享读取位置和缓冲区，读取到有底层数组的 {@link ByteBuffer} 时直接写入其数组，
+     * 关闭通道等同于关闭该输入流。
+     * </p>
+     *
+     * @return 可读字节通道
+     */
+    public ReadableByteChannel asChannel() {
+        return new ChannelView();
+    }
+    
+    /**
+     * 输入流的通道视图
+     */
+    private final class ChannelView implements ReadableByteChannel {
+        
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (closed) {
+                throw new ClosedChannelException();
+            }
+            int length = dst.remaining();
+            if (length == 0) {
+                return 0;
+            }
+            if (dst.hasArray()) {
+                int n = CompressionCompositeInputStream.this.read(dst.array(), dst.arrayOffset() + dst.position(), length);
+                if (n > 0) {
+                    dst.position(dst.position() + n);
+                }
+                return n;
+            }
+            if (position >= count) {
+                fill();
+                if (position >= count) {
+                    return -1;
+                }
+            }
+            int n = Math.min(count - position, length);
+            dst.put(buffer, position, n);
+            position += n;
+            return n;
+        }
+        
+        @Override
+        public boolean isOpen() {
+            return !closed;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            CompressionCompositeInputStream.this.close();
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,337 @@
+package com.yuxie.common.compress.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * GZIP成员解码器
+ * <p>
+ * 从内存中（或映射到内存）的GZIP数据的指定位置开始，依次解码连续的GZIP成员（RFC 1952），
+ * 直到下一个成员的起始位置到达停止位置或数据末尾。每个成员的CRC32和原始长度（ISIZE）都会被校验。
+ * </p>
+ * <p>
+ * 数据在堆内存中时直接把底层数组交给解压器；否则（如映射到内存的文件）每次复制 {@link #INPUT_WINDOW_SIZE}
+ * 字节交给解压器，只有实际解码的部分会被读入内存。
+ * </p>
+ * <p>
+ * 解码器可以在一个线程中开始解码，在另一个线程中继续解码，但同一时刻只能被一个线程使用。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see ParallelGzipInputStream
+ */
+class GzipMemberDecoder {
+
+    private static final int MAGIC_1 = 0x1f;
+
+    private static final int MAGIC_2 = 0x8b;
+
+    private static final int METHOD_DEFLATE = 8;
+
+    private static final int FLAG_HCRC = 0x02;
+
+    private static final int FLAG_EXTRA = 0x04;
+
+    private static final int FLAG_NAME = 0x08;
+
+    private static final int FLAG_COMMENT = 0x10;
+
+    private static final int FLAG_RESERVED = 0xe0;
+
+    /**
+     * 固定头部长度：魔数、压缩方法、标志、修改时间、额外标志、操作系统
+     */
+    private static final int HEADER_SIZE = 10;
+
+    /**
+     * 尾部长度：CRC32和ISIZE
+     */
+    private static final int TRAILER_SIZE = 8;
+
+    /**
+     * 数据不在堆内存中时每次交给解压器的字节数
+     */
+    static final int INPUT_WINDOW_SIZE = 64 * 1024;
+
+    private final ByteBuffer data;
+
+    /**
+     * 数据的底层数组，数据不在堆内存中时为null
+     */
+    private final byte[] array;
+
+    /**
+     * 数据不在堆内存中时交给解压器的输入窗口
+     */
+    private byte[] window;
+
+    /**
+     * 已交给解压器的数据的结束位置
+     */
+    private int inputEnd;
+
+    private final int limit;
+
+    private final int stop;
+
+    private final CRC32 crc = new CRC32();
+
+    private final Inflater inflater = new Inflater(true);
+
+    /**
+     * 下一个待读取的字节位置
+     */
+    private int position;
+
+    /**
+     * 当前成员正在解压时为true
+     */
+    private boolean inMember;
+
+    /**
+     * 当前成员已解压的字节数
+     */
+    private long memberSize;
+
+    private boolean ended;
+
+    /**
+     * 创建解码器
+     *
+     * @param data GZIP数据，按绝对位置读取，不改变缓冲区的位置
+     * @param start 第一个成员的起始位置
+     * @param stop 停止位置，起始位置不小于该位置的成员不再解码
+     * @param limit 数据末尾位置
+     */
+    GzipMemberDecoder(ByteBuffer data, int start, int stop, int limit) {
+        this.data = data;
+        this.array = data.hasArray() ? data.array() : null;
+        this.position = start;
+        this.stop = stop;
+        this.limit = limit;
+    }
+
+    /**
+     * 读取解压后的数据
+     *
+     * @param buffer 目标缓冲区
+     * @param offset 写入位置
+     * @param length 最多写入的字节数
+     * @return 写入的字节数，所有成员解码完成时返回-1
+     * @throws IOException 数据损坏或不完整时抛出
+     */
+    int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (true) {
+            if (!inMember) {
+                if (ended || position >= stop || position >= limit) {
+                    end();
+                    return -1;
+                }
+                readHeader();
+            }
+            int n;
+            try {
+                n = inflater.inflate(buffer, offset, length);
+            } catch (DataFormatException e) {
+                throw new IOException("GZIP数据损坏: " + e.getMessage(), e);
+            }
+            if (n > 0) {
+                crc.update(buffer, offset, n);
+                memberSize += n;
+                return n;
+            }
+            if (inflater.finished()) {
+                readTrailer();
+            } else if (inflater.needsInput()) {
+                if (inputEnd >= limit) {
+                    throw new EOFException("GZIP数据不完整");
+                }
+                setInput(inputEnd);
+            } else if (inflater.needsDictionary()) {
+                throw new IOException("GZIP数据损坏: 需要预设字典");
+            }
+        }
+    }
+
+    /**
+     * 获取已解码数据的结束位置
+     * <p>
+     * 所有成员解码完成后为最后一个成员尾部之后的位置。
+     * </p>
+     *
+     * @return 下一个待读取的字节位置
+     */
+    int position() {
+        return position;
+    }
+
+    /**
+     * 释放解压器占用的本地内存
+     */
+    void end() {
+        if (!ended) {
+            ended = true;
+            inflater.end();
+        }
+    }
+
+    private void readHeader() throws IOException {
+        int p = position;
+        require(p, HEADER_SIZE);
+        if ((data.get(p) & 0xff) != MAGIC_1 || (data.get(p + 1) & 0xff) != MAGIC_2) {
+            throw new IOException("GZIP数据后存在无效内容，位置: " + p);
+        }
+        if ((data.get(p + 2) & 0xff) != METHOD_DEFLATE) {
+            throw new IOException("不支持的GZIP压缩方法: " + (data.get(p + 2) & 0xff));
+        }
+        int flags = data.get(p + 3) & 0xff;
+        if ((flags & FLAG_RESERVED) != 0) {
+            throw new IOException("GZIP头部包含保留标志");
+        }
+        p += HEADER_SIZE;
+        if ((flags & FLAG_EXTRA) != 0) {
+            require(p, 2);
+            int extraLength = (data.get(p) & 0xff) | (data.get(p + 1) & 0xff) << 8;
+            p += 2;
+            require(p, extraLength);
+            p += extraLength;
+        }
+        if ((flags & FLAG_NAME) != 0) {
+            p = skipZeroTerminated(p);
+        }
+        if ((flags & FLAG_COMMENT) != 0) {
+            p = skipZeroTerminated(p);
+        }
+        if ((flags & FLAG_HCRC) != 0) {
+            require(p, 2);
+            p += 2;
+        }
+        position = p;
+        inflater.reset();
+        setInput(p);
+        crc.reset();
+        memberSize = 0;
+        inMember = true;
+    }
+
+    /**
+     * 从指定位置开始向解压器提供输入
+     *
+     * @param p 起始位置
+     */
+    private void setInput(int p) {
+        if (array != null) {
+            inflater.setInput(array, data.arrayOffset() + p, limit - p);
+            inputEnd = limit;
+            return;
+        }
+        if (window == null) {
+            window = new byte[INPUT_WINDOW_SIZE];
+        }
+        int n = Math.min(window.length, limit - p);
+        ByteBuffer source = data.duplicate();
+        source.position(p);
+        source.get(window, 0, n);
+        inflater.setInput(window, 0, n);
+        inputEnd = p + n;
+    }
+
+    private void readTrailer() throws IOException {
+        int p = inputEnd - inflater.getRemaining();
+        require(p, TRAILER_SIZE);
+        long expectedCrc = readInt(p) & 0xffffffffL;
+        long expectedSize = readInt(p + 4) & 0xffffffffL;
+        if (expectedCrc != crc.getValue()) {
+            throw new IOException("GZIP数据CRC校验失败");
+        }
+        if (expectedSize != (memberSize & 0xffffffffL)) {
+            throw new IOException("GZIP数据长度校验失败");
+        }
+        position = p + TRAILER_SIZE;
+        inMember = false;
+    }
+
+    private int skipZeroTerminated(int p) throws IOException {
+        while (p < limit && data.get(p) != 0) {
+            p++;
+        }
+        require(p, 1);
+        return p + 1;
+    }
+
+    private void require(int p, int length) throws EOFException {
+        if (length > limit - p) {
+            throw new EOFException("GZIP数据不完整");
+        }
+    }
+
+    private int readInt(int p) {
+        return (data.get(p) & 0xff) | (data.get(p + 1) & 0xff) << 8 | (data.get(p + 2) & 0xff) << 16 | (data.get(p + 3) & 0xff) << 24;
+    }
+
+    /**
+     * 指定位置是否可能是GZIP成员的起始位置
+     * <p>
+     * 检查魔数、压缩方法、保留标志位、额外标志和操作系统字段，用于在压缩数据中推测成员边界。
+     * 压缩数据中也可能偶然出现相同的字节序列，推测出的位置需要通过解码验证。
+     * </p>
+     *
+     * @param data GZIP数据
+     * @param p 位置
+     * @param limit 数据末尾位置
+     * @return 可能是成员起始位置时返回true
+     */
+    static boolean isMemberStart(ByteBuffer data, int p, int limit) {
+        if (limit - p < HEADER_SIZE) {
+            return false;
+        }
+        if ((data.get(p) & 0xff) != MAGIC_1 || (data.get(p + 1) & 0xff) != MAGIC_2 || (data.get(p + 2) & 0xff) != METHOD_DEFLATE) {
+            return false;
+        }
+        int flags = data.get(p + 3) & 0xff;
+        int extraFlags = data.get(p + 8) & 0xff;
+        int os = data.get(p + 9) & 0xff;
+        return (flags & FLAG_RESERVED) == 0 && (extraFlags == 0 || extraFlags == 2 || extraFlags == 4)
+            && (os <= 13 || os == 255);
+    }
+
+    /**
+     * 读取BGZF块的总长度
+     * <p>
+     * BGZF（Blocked GNU Zip Format）的每个成员在额外字段中以子字段 {@code BC} 记录整个块的长度，
+     * 据此可以不解压就得到所有成员的准确边界。
+     * </p>
+     *
+     * @param data GZIP数据
+     * @param p 成员起始位置
+     * @param limit 数据末尾位置
+     * @return 块的总长度，不是BGZF块时返回-1
+     */
+    static int bgzfBlockSize(ByteBuffer data, int p, int limit) {
+        if (!isMemberStart(data, p, limit) || ((data.get(p + 3) & 0xff) & FLAG_EXTRA) == 0 || limit - p < HEADER_SIZE + 2) {
+            return -1;
+        }
+        int extraLength = (data.get(p + 10) & 0xff) | (data.get(p + 11) & 0xff) << 8;
+        int q = p + HEADER_SIZE + 2;
+        int extraEnd = q + extraLength;
+        if (extraEnd > limit) {
+            return -1;
+        }
+        while (extraEnd - q >= 4) {
+            int subfieldLength = (data.get(q + 2) & 0xff) | (data.get(q + 3) & 0xff) << 8;
+            if (data.get(q) == 'B' && data.get(q + 1) == 'C' && subfieldLength == 2 && extraEnd - q >= 6) {
+                return ((data.get(q + 4) & 0xff) | (data.get(q + 5) & 0xff) << 8) + 1;
+            }
+            q += 4 + subfieldLength;
+        }
+        return -1;
+    }
+}
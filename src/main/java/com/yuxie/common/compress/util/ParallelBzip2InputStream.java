@@ -0,0 +1,324 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.utils.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+/**
+ * 并行BZIP2解压输入流
+ * <p>
+ * BZIP2把数据划分为最大900KB的块分别压缩，各块可以独立解压。该输入流在读取线程中按位扫描块魔数确定块边界，
+ * 把每个块封装为只包含该块的BZIP2流，通过 {@link ParallelEntryExecutor} 在多个线程中同时解压，
+ * 再按原始顺序输出解压后的数据。支持多个BZIP2流拼接而成的文件（如pbzip2的输出）。
+ * </p>
+ * <p>
+ * 校验方式：
+ * <ul>
+ *   <li>每个块解压时校验块CRC</li>
+ *   <li>每个流结束时用各块头部记录的CRC计算合并CRC，与流尾部记录的合并CRC比较</li>
+ * </ul>
+ * 压缩数据中偶然出现的魔数会导致块边界错误，此时块解压失败。任何块解压失败时，
+ * 该输入流放弃并行解压，从该块所在流的开头按顺序重新解压并跳过已输出的数据，
+ * 因此推测错误不影响结果的正确性，真正的数据损坏由顺序解压报告。
+ * </p>
+ * <p>
+ * 该输入流只能在一个线程中读取。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see Bzip2BlockScanner
+ */
+public class ParallelBzip2InputStream extends InputStream {
+
+    private final ByteBuffer data;
+
+    private final int limit;
+
+    private final ParallelEntryExecutor.OrderedResults<Block> blocks;
+
+    /**
+     * 正在输出的块
+     */
+    private Block current;
+
+    private int outputPosition;
+
+    /**
+     * 当前块所在流的起始位置
+     */
+    private int streamStart = -1;
+
+    /**
+     * 当前流已输出的字节数
+     */
+    private long streamOutput;
+
+    /**
+     * 放弃并行解压后使用的顺序解压流
+     */
+    private InputStream fallback;
+
+    private final byte[] singleByte = new byte[1];
+
+    private boolean closed;
+
+    /**
+     * 创建并行BZIP2解压输入流
+     *
+     * @param data BZIP2数据，从当前位置读取到上限，可以是映射到内存的文件；读取期间不能修改
+     * @param parallelism 并行度
+     * @param metrics 监控指标，可以为null
+     * @throws IOException 数据不是BZIP2格式时抛出
+     */
+    public ParallelBzip2InputStream(ByteBuffer data, int parallelism, UnzipMetrics metrics) throws IOException {
+        if (data == null) {
+            throw new IllegalArgumentException("BZIP2数据不能为空");
+        }
+        this.data = data.slice();
+        this.limit = this.data.capacity();
+        BlockSource source = new BlockSource();
+        if (!source.scanner.isStreamHeader(0)) {
+            throw new IOException("不是BZIP2格式的数据");
+        }
+        this.blocks = ParallelEntryExecutor.open(parallelism, source, metrics);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int n;
+        do {
+            n = read(singleByte, 0, 1);
+        } while (n == 0);
+        return n == -1 ? -1 : singleByte[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("输入流已关闭");
+        }
+        if (length == 0) {
+            return 0;
+        }
+        while (true) {
+            if (fallback != null) {
+                return fallback.read(buffer, offset, length);
+            }
+            if (current != null && outputPosition < current.outputLength) {
+                int n = Math.min(length, current.outputLength - outputPosition);
+                System.arraycopy(current.output, outputPosition, buffer, offset, n);
+                outputPosition += n;
+                streamOutput += n;
+                return n;
+            }
+            if (!advance()) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 取出下一个块
+     *
+     * @return 没有更多数据时返回false
+     * @throws IOException 读取失败时抛出
+     */
+    private boolean advance() throws IOException {
+        Block block = nextBlock();
+        current = null;
+        if (block == null) {
+            return false;
+        }
+        if (block.streamStart != streamStart) {
+            streamStart = block.streamStart;
+            streamOutput = 0;
+        }
+        if (block.failure != null) {
+            startFallback();
+            return true;
+        }
+        current = block;
+        outputPosition = 0;
+        return true;
+    }
+
+    private Block nextBlock() throws IOException {
+        try {
+            return blocks.next();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("并行解压BZIP2数据失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 放弃并行解压，从当前流的开头按顺序解压并跳过已输出的数据
+     *
+     * @throws IOException 顺序解压失败时抛出
+     */
+    private void startFallback() throws IOException {
+        blocks.close();
+        ByteBufferSeekableInputStream in = new ByteBufferSeekableInputStream(data);
+        in.seek(streamStart);
+        fallback = new BZip2CompressorInputStream(in, true);
+        if (IOUtils.skip(fallback, streamOutput) < streamOutput) {
+            throw new EOFException("BZIP2数据不完整");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        blocks.close();
+        current = null;
+        if (fallback != null) {
+            fallback.close();
+        }
+    }
+
+    /**
+     * 按顺序扫描块边界并创建解压任务，在读取线程中调用
+     */
+    private final class BlockSource implements ParallelEntryExecutor.TaskSource<Block> {
+
+        private final Bzip2BlockScanner scanner = new Bzip2BlockScanner(data, limit);
+
+        /**
+         * 当前流的起始位置，没有正在扫描的流时为-1
+         */
+        private int currentStream = -1;
+
+        /**
+         * 下一个流的起始位置
+         */
+        private int nextStream;
+
+        /**
+         * 当前流的块大小级别
+         */
+        private byte level;
+
+        /**
+         * 下一个魔数的位置，-1表示数据已结束
+         */
+        private long marker;
+
+        /**
+         * 按各块头部记录的CRC计算的合并CRC
+         */
+        private long combinedCrc;
+
+        @Override
+        public Callable<Block> next() {
+            if (currentStream < 0) {
+                if (!scanner.isStreamHeader(nextStream)) {
+                    // 没有更多的流，与顺序解压一样忽略末尾的其他数据
+                    return null;
+                }
+                currentStream = nextStream;
+                level = data.get(currentStream + 3);
+                combinedCrc = 0;
+                long headerEnd = (long) (currentStream + Bzip2BlockScanner.STREAM_HEADER_SIZE) * 8;
+                marker = scanner.findMarker(headerEnd);
+                if (marker != headerEnd) {
+                    return failure(currentStream, "BZIP2流头部之后没有块");
+                }
+            }
+            int stream = currentStream;
+            if (marker < 0) {
+                return failure(stream, "BZIP2数据不完整");
+            }
+            if (scanner.isEndOfStream()) {
+                long storedCrc = scanner.readBits(marker + Bzip2BlockScanner.MAGIC_BITS, Bzip2BlockScanner.CRC_BITS);
+                long streamEnd = marker + Bzip2BlockScanner.MAGIC_BITS + Bzip2BlockScanner.CRC_BITS;
+                currentStream = -1;
+                nextStream = (int) ((streamEnd + 7) >>> 3);
+                if (storedCrc != combinedCrc) {
+                    return failure(stream, "BZIP2流CRC校验失败");
+                }
+                return next();
+            }
+            long start = marker;
+            long blockCrc = scanner.readBits(start + Bzip2BlockScanner.MAGIC_BITS, Bzip2BlockScanner.CRC_BITS);
+            combinedCrc = ((combinedCrc << 1 | combinedCrc >>> 31) ^ blockCrc) & 0xffffffffL;
+            marker = scanner.findMarker(start + Bzip2BlockScanner.MAGIC_BITS + Bzip2BlockScanner.CRC_BITS);
+            long end = marker < 0 ? (long) limit * 8 : marker;
+            byte blockLevel = level;
+            return () -> decode(stream, blockLevel, start, end);
+        }
+
+        private Callable<Block> failure(int stream, String message) {
+            IOException failure = new IOException(message);
+            // 之后不再扫描，由顺序解压处理剩余数据
+            nextStream = limit;
+            currentStream = -1;
+            return () -> new Block(stream, null, 0, failure);
+        }
+
+        /**
+         * 在工作线程中解压一个块
+         */
+        private Block decode(int stream, byte blockLevel, long startBit, long endBit) {
+            byte[] blockStream = scanner.toSingleBlockStream(blockLevel, startBit, endBit);
+            try (InputStream in = new BZip2CompressorInputStream(new ByteArrayInputStream(blockStream))) {
+                byte[] output = new byte[(blockLevel - '0') * 100_000];
+                int length = 0;
+                while (true) {
+                    if (length == output.length) {
+                        output = Arrays.copyOf(output, output.length * 2);
+                    }
+                    int n = in.read(output, length, output.length - length);
+                    if (n == -1) {
+                        return new Block(stream, output, length, null);
+                    }
+                    length += n;
+                }
+            } catch (IOException e) {
+                return new Block(stream, null, 0, e);
+            } catch (RuntimeException e) {
+                // 块边界错误时解码器可能因数据不合法而抛出运行时异常
+                return new Block(stream, null, 0, new IOException("BZIP2数据损坏: " + e.getMessage(), e));
+            }
+        }
+    }
+
+    /**
+     * 一个块的解压结果
+     */
+    private static final class Block {
+
+        /**
+         * 块所在流的起始位置
+         */
+        private final int streamStart;
+
+        private final byte[] output;
+
+        private final int outputLength;
+
+        /**
+         * 解压失败的原因，块边界是偶然出现的魔数时不一定是真正的错误
+         */
+        private final IOException failure;
+
+        Block(int streamStart, byte[] output, int outputLength, IOException failure) {
+            this.streamStart = streamStart;
+            this.output = output;
+            this.outputLength = outputLength;
+            this.failure = failure;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 条目并行解压执行器
+ * <p>
+ * 支持随机访问的格式（通过中央目录访问的ZIP、非固实的7Z等）中，各条目可以独立解压。
+ * 该执行器把条目的解压任务分配到大小为 {@link UnzipConfig#getConcurrentThreads()} 的共享 {@link ForkJoinPool} 中执行，
+ * 结果按任务的提交顺序交回调用线程处理：
+ * <ul>
+ *   <li>顺序确定：无论任务以什么顺序完成，结果处理器总是按提交顺序、在调用线程中依次收到结果，
+ *       访问器无需线程安全，结果顺序与顺序解压一致</li>
+ *   <li>有界窗口：同时提交的任务最多为并行度的两倍，处理完最早的结果后才提交下一个任务，
+ *       已解压但尚未处理的数据量有上限</li>
+ *   <li>可取消：结果处理器抛出异常或调用线程被中断时，尚未开始的任务被取消，
+ *       执行器等待正在运行的任务结束后才返回，调用方可以安全地关闭任务使用的资源</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 线程池按并行度共享，线程为守护线程，空闲时由 {@link ForkJoinPool} 自动回收。
+ * 调用方本身运行在 {@link ForkJoinPool} 中时（如批量解压），可以通过 {@link #bind(ForkJoinPool)} 让任务进入调用方的线程池，
+ * 调用线程是该线程池的工作线程时任务压入它自己的队列，由空闲的工作线程窃取执行，等待结果期间调用线程也会执行尚未被窃取的任务。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public final class ParallelEntryExecutor {
+
+    /**
+     * 单个条目在并行解压时允许预先读入内存的最大大小（字节），更大的条目由调用线程按顺序流式处理
+     */
+    public static final long MAX_BUFFERED_ENTRY_SIZE = 16L * 1024 * 1024;
+
+    /**
+     * 按并行度共享的线程池
+     */
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * 线程编号
+     */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger(1);
+
+    /**
+     * 当前线程绑定的线程池，为null时使用按并行度共享的线程池
+     */
+    private static final ThreadLocal<ForkJoinPool> BOUND_POOL = new ThreadLocal<>();
+
+    private ParallelEntryExecutor() {
+    }
+
+    /**
+     * 配置是否允许并行解压
+     *
+     * @param unzipConfig 解压配置
+     * @return 启用了并发解压且并发线程数大于1时返回true
+     */
+    public static boolean isEnabled(UnzipConfig unzipConfig) {
+        return unzipConfig.isEnableConcurrentUnzip() && unzipConfig.getConcurrentThreads() > 1;
+    }
+
+    /**
+     * 并行执行任务并按提交顺序处理结果
+     *
+     * @param parallelism 并行度
+     * @param source 任务来源，在调用线程中按顺序取出任务
+     * @param handler 结果处理器，在调用线程中按任务的提交顺序调用
+     * @param metrics 监控指标，可以为null；执行结束后记录实际达到的最大并发任务数
+     * @param <T> 任务结果类型
+     * @throws Exception 任务、任务来源或结果处理器抛出的异常，调用线程被中断时抛出 {@link InterruptedIOException}
+     */
+    public static <T> void execute(int parallelism, TaskSource<T> source, ResultHandler<T> handler,
+                                   UnzipMetrics metrics) throws Exception {
+        try (OrderedResults<T> results = open(parallelism, source, metrics)) {
+            T result;
+            while ((result = results.next()) != null) {
+                handler.handle(result);
+            }
+        }
+    }
+
+    /**
+     * 并行执行任务，由调用方按提交顺序逐个取出结果
+     * <p>
+     * 适用于结果需要以拉取方式消费的场景（如实现 {@link java.io.InputStream}）。
+     * 返回的结果序列只能在一个线程中使用，使用完毕后必须关闭。任务的结果不能为null。
+     * </p>
+     *
+     * @param parallelism 并行度
+     * @param source 任务来源，在取结果的线程中按顺序取出任务
+     * @param metrics 监控指标，可以为null；关闭时记录实际达到的最大并发任务数
+     * @param <T> 任务结果类型
+     * @return 按提交顺序排列的结果序列
+     */
+    public static <T> OrderedResults<T> open(int parallelism, TaskSource<T> source, UnzipMetrics metrics) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并行度必须为正数");
+        }
+        ForkJoinPool bound = BOUND_POOL.get();
+        return new OrderedResults<>(bound != null ? bound : getPool(parallelism), parallelism * 2, source, metrics);
+    }
+
+    /**
+     * 让当前线程之后发起的并行任务在指定的线程池中执行
+     * <p>
+     * 并行度仍然决定同时提交的任务数，线程数由指定的线程池决定。
+     * 必须在同一个线程上关闭返回的绑定，关闭后恢复绑定之前的线程池，绑定可以嵌套。
+     * </p>
+     *
+     * @param pool 执行任务的线程池
+     * @return 绑定，使用完毕后关闭
+     * @throws IllegalArgumentException 当线程池为null时抛出
+     */
+    public static Binding bind(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("线程池不能为空");
+        }
+        Binding binding = new Binding(BOUND_POOL.get());
+        BOUND_POOL.set(pool);
+        return binding;
+    }
+
+    private static ForkJoinPool getPool(int parallelism) {
+        return POOLS.computeIfAbsent(parallelism, p -> new ForkJoinPool(p, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("unzip-parallel-" + THREAD_NUMBER.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false));
+    }
+
+    /**
+     * 线程池与当前线程的绑定
+     */
+    public static final class Binding implements AutoCloseable {
+
+        /** 绑定之前的线程池，为null时没有绑定 */
+        private final ForkJoinPool outer;
+
+        private Binding(ForkJoinPool outer) {
+            this.outer = outer;
+        }
+
+        /**
+         * 恢复绑定之前的线程池
+         */
+        @Override
+        public void close() {
+            if (outer != null) {
+                BOUND_POOL.set(outer);
+            } else {
+                BOUND_POOL.remove();
+            }
+        }
+    }
+
+    /**
+     * 任务来源
+     *
+     * @param <T> 任务结果类型
+     */
+    @FunctionalInterface
+    public interface TaskSource<T> {
+
+        /**
+         * 取出下一个任务
+         *
+         * @return 下一个任务，没有更多任务时返回null
+         * @throws Exception 创建任务失败时抛出
+         */
+        Callable<T> next() throws Exception;
+    }
+
+    /**
+     * 结果处理器
+     *
+     * @param <T> 任务结果类型
+     */
+    @FunctionalInterface
+    public interface ResultHandler<T> {
+
+        /**
+         * 处理一个任务结果
+         *
+         * @param result 任务结果
+         * @throws Exception 处理失败时抛出，之后的任务会被取消
+         */
+        void handle(T result) throws Exception;
+    }
+
+    /**
+     * 按提交顺序排列的任务结果序列
+     * <p>
+     * 每取出一个结果就补充提交新的任务，使同时提交的任务数保持在窗口大小以内。
+     * 关闭时取消尚未开始的任务，并等待正在运行的任务结束。
+     * </p>
+     *
+     * @param <T> 任务结果类型
+     */
+    public static final class OrderedResults<T> implements AutoCloseable {
+
+        private final ForkJoinPool pool;
+
+        private final int window;
+
+        private final TaskSource<T> source;
+
+        private final UnzipMetrics metrics;
+
+        private boolean exhausted;
+
+        private boolean closed;
+
+        private final Deque<Future<Outcome<T>>> pending = new ArrayDeque<>();
+
+        private final Object lock = new Object();
+
+        /**
+         * 是否已取消，取消后尚未开始的任务直接返回
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * 正在运行的任务数，由lock保护
+         */
+        private int running;
+
+        /**
+         * 达到过的最大并发任务数，由lock保护
+         */
+        private int peakRunning;
+
+        OrderedResults(ForkJoinPool pool, int window, TaskSource<T> source, UnzipMetrics metrics) {
+            this.pool = pool;
+            this.window = window;
+            this.source = source;
+            this.metrics = metrics;
+        }
+
+        /**
+         * 取出下一个结果，必要时等待任务完成
+         *
+         * @return 下一个结果，所有任务的结果都已取出时返回null
+         * @throws Exception 任务或任务来源抛出的异常，当前线程被中断时抛出 {@link InterruptedIOException}
+         */
+        public T next() throws Exception {
+            if (closed) {
+                throw new IllegalStateException("结果序列已关闭");
+            }
+            while (!exhausted && pending.size() < window) {
+                Callable<T> task = source.next();
+                if (task == null) {
+                    exhausted = true;
+                } else {
+                    pending.addLast(submit(task));
+                }
+            }
+            Future<Outcome<T>> next = pending.pollFirst();
+            if (next == null) {
+                return null;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("并行解压被中断");
+            }
+            return await(next);
+        }
+
+        /**
+         * 提交任务，当前线程是线程池的工作线程时压入它自己的队列
+         */
+        private Future<Outcome<T>> submit(Callable<T> task) {
+            if (ForkJoinTask.getPool() == pool) {
+                return ForkJoinTask.adapt(() -> runTask(task)).fork();
+            }
+            return pool.submit(() -> runTask(task));
+        }
+
+        /**
+         * 执行任务并记录结果
+         * <p>
+         * 任务的异常记录在结果中而不是抛出：{@link ForkJoinPool} 会把受检异常包装为 {@link RuntimeException}，
+         * 跨线程获取时还可能再包装一层，直接抛出会使调用方收到的异常类型与顺序执行时不同。
+         * </p>
+         */
+        private Outcome<T> runTask(Callable<T> task) {
+            synchronized (lock) {
+                if (cancelled) {
+                    return null;
+                }
+                running++;
+                peakRunning = Math.max(peakRunning, running);
+            }
+            try {
+                return new Outcome<>(task.call(), null);
+            } catch (Exception e) {
+                return new Outcome<>(null, e);
+            } finally {
+                synchronized (lock) {
+                    running--;
+                    lock.notifyAll();
+                }
+            }
+        }
+
+        private T await(Future<Outcome<T>> future) throws Exception {
+            Outcome<T> outcome;
+            try {
+                outcome = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待并行解压结果时被中断");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+            if (outcome.failure != null) {
+                throw outcome.failure;
+            }
+            return outcome.result;
+        }
+
+        /**
+         * 取消尚未开始的任务，并等待正在运行的任务结束
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            boolean interrupted = false;
+            synchronized (lock) {
+                cancelled = true;
+                while (running > 0) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            for (Future<Outcome<T>> future : pending) {
+                future.cancel(false);
+            }
+            pending.clear();
+            if (metrics != null && peakRunning > 0) {
+                metrics.recordConcurrentTasks(peakRunning);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 任务的执行结果
+     *
+     * @param <T> 任务结果类型
+     */
+    private static final class Outcome<T> {
+
+        private final T result;
+
+        private final Exception failure;
+
+        Outcome(T result, Exception failure) {
+            this.result = result;
+            this.failure = failure;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+/**
+ * 并行GZIP解压输入流
+ * <p>
+ * 很多生成方（bgzip、多个 .gz 文件直接拼接、按块输出的并行压缩工具等）输出的是由多个GZIP成员拼接而成的文件，
+ * 各成员可以独立解压。该输入流把内存中（或映射到内存）的GZIP数据按 {@link #CHUNK_SIZE} 划分为若干段，
+ * 通过 {@link ParallelEntryExecutor} 在多个线程中同时解压各段，再按原始顺序输出解压后的数据。
+ * </p>
+ * <p>
+ * 段的起始位置按以下方式确定：
+ * <ul>
+ *   <li>BGZF格式：根据每个块额外字段中记录的块长度（{@code BC}子字段）逐块跳转，得到准确的成员边界，无需解压</li>
+ *   <li>其他格式：从段的名义起始位置向后查找第一个形似GZIP头部的位置作为推测的成员边界。
+ *       推测的边界只有在前一段恰好解码到该位置时才被采用，否则丢弃该段的结果，由当前线程从正确位置继续解码，
+ *       因此推测错误只浪费计算，不影响结果的正确性</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 单个工作线程最多预先解压 {@link #TASK_OUTPUT_LIMIT} 字节，超出部分（如只有一个成员的普通GZIP文件）
+ * 由读取线程接着流式解压，内存占用有上限。该输入流只能在一个线程中读取。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see GzipMemberDecoder
+ */
+public class ParallelGzipInputStream extends InputStream {
+
+    /**
+     * 每个并行任务负责的压缩数据的名义长度（字节）
+     */
+    static final int CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * 单个并行任务最多预先解压的字节数
+     */
+    static final int TASK_OUTPUT_LIMIT = 16 * 1024 * 1024;
+
+    private final ByteBuffer data;
+
+    private final int limit;
+
+    private final ParallelEntryExecutor.OrderedResults<Segment> segments;
+
+    /**
+     * 已确认解码到的位置，下一段必须从该位置开始
+     */
+    private int expectedStart;
+
+    /**
+     * 因起始位置之前还有数据未解码而暂缓处理的段
+     */
+    private Segment deferred;
+
+    /**
+     * 正在输出的预先解压数据
+     */
+    private byte[] output;
+
+    private int outputPosition;
+
+    private int outputLength;
+
+    /**
+     * 在读取线程中继续解码的解码器
+     */
+    private GzipMemberDecoder current;
+
+    private final byte[] singleByte = new byte[1];
+
+    private boolean closed;
+
+    /**
+     * 创建并行GZIP解压输入流
+     *
+     * @param data GZIP数据，从当前位置读取到上限，可以是映射到内存的文件；读取期间不能修改
+     * @param parallelism 并行度
+     * @param metrics 监控指标，可以为null
+     */
+    public ParallelGzipInputStream(ByteBuffer data, int parallelism, UnzipMetrics metrics) {
+        if (data == null) {
+            throw new IllegalArgumentException("GZIP数据不能为空");
+        }
+        this.data = data.slice();
+        this.limit = this.data.capacity();
+        this.segments = ParallelEntryExecutor.open(parallelism, new SegmentSource(), metrics);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int n;
+        do {
+            n = read(singleByte, 0, 1);
+        } while (n == 0);
+        return n == -1 ? -1 : singleByte[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("输入流已关闭");
+        }
+        if (length == 0) {
+            return 0;
+        }
+        while (true) {
+            if (outputPosition < outputLength) {
+                int n = Math.min(length, outputLength - outputPosition);
+                System.arraycopy(output, outputPosition, buffer, offset, n);
+                outputPosition += n;
+                return n;
+            }
+            if (current != null) {
+                int n = current.read(buffer, offset, length);
+                if (n != -1) {
+                    return n;
+                }
+                expectedStart = current.position();
+                current = null;
+            }
+            if (!advance()) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 取出下一段已确认的数据
+     *
+     * @return 没有更多数据时返回false
+     * @throws IOException 解码失败时抛出
+     */
+    private boolean advance() throws IOException {
+        while (true) {
+            Segment segment = deferred != null ? deferred : nextSegment();
+            deferred = null;
+            if (segment == null) {
+                if (expectedStart < limit) {
+                    // 最后推测的段都被丢弃，剩余数据由读取线程解码
+                    current = new GzipMemberDecoder(data, expectedStart, limit, limit);
+                    return true;
+                }
+                return false;
+            }
+            if (segment.start < expectedStart) {
+                // 推测的边界位于已解码的成员内部
+                segment.discard();
+                continue;
+            }
+            if (segment.start > expectedStart) {
+                // 前一段被丢弃，中间的数据由读取线程解码
+                current = new GzipMemberDecoder(data, expectedStart, segment.start, limit);
+                deferred = segment;
+                return true;
+            }
+            if (segment.failure != null) {
+                segment.discard();
+                throw segment.failure;
+            }
+            output = segment.output;
+            outputPosition = 0;
+            outputLength = segment.outputLength;
+            if (segment.complete) {
+                expectedStart = segment.decoder.position();
+            } else {
+                current = segment.decoder;
+            }
+            return true;
+        }
+    }
+
+    private Segment nextSegment() throws IOException {
+        try {
+            return segments.next();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("并行解压GZIP数据失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segments.close();
+        if (current != null) {
+            current.end();
+        }
+        if (deferred != null) {
+            deferred.discard();
+        }
+        output = null;
+    }
+
+    /**
+     * 按顺序划分段并创建解码任务，在读取线程中调用
+     */
+    private final class SegmentSource implements ParallelEntryExecutor.TaskSource<Segment> {
+
+        /**
+         * 下一段的起始位置
+         */
+        private int nextStart;
+
+        /**
+         * 是否按BGZF块长度确定边界
+         */
+        private final boolean bgzf = GzipMemberDecoder.bgzfBlockSize(data, 0, limit) > 0;
+
+        @Override
+        public Callable<Segment> next() {
+            if (nextStart >= limit) {
+                return null;
+            }
+            int start = nextStart;
+            int stop = findBoundary((int) Math.min((long) start + CHUNK_SIZE, limit), start);
+            nextStart = stop;
+            return () -> decode(start, stop);
+        }
+
+        /**
+         * 查找不早于指定位置的成员边界
+         *
+         * @param from 名义起始位置
+         * @param start 当前段的起始位置
+         * @return 成员边界，找不到时返回数据末尾位置
+         */
+        private int findBoundary(int from, int start) {
+            if (bgzf) {
+                int p = start;
+                while (p < from) {
+                    int blockSize = GzipMemberDecoder.bgzfBlockSize(data, p, limit);
+                    if (blockSize <= 0) {
+                        // 不是连续的BGZF块，改为推测边界
+                        return scan(from);
+                    }
+                    p += blockSize;
+                }
+                return Math.min(p, limit);
+            }
+            return scan(from);
+        }
+
+        private int scan(int from) {
+            for (int p = from; p < limit; p++) {
+                if (GzipMemberDecoder.isMemberStart(data, p, limit)) {
+                    return p;
+                }
+            }
+            return limit;
+        }
+    }
+
+    /**
+     * 在工作线程中解码一段
+     *
+     * @param start 段的起始位置
+     * @param stop 段的停止位置
+     * @return 解码结果，解码失败时记录失败原因
+     */
+    private Segment decode(int start, int stop) {
+        GzipMemberDecoder decoder = new GzipMemberDecoder(data, start, stop, limit);
+        byte[] buffer = new byte[Math.min(TASK_OUTPUT_LIMIT, Math.max(8192, (stop - start) * 4))];
+        int length = 0;
+        try {
+            while (true) {
+                if (length == buffer.length) {
+                    if (buffer.length >= TASK_OUTPUT_LIMIT) {
+                        return new Segment(start, decoder, buffer, length, false, null);
+                    }
+                    buffer = Arrays.copyOf(buffer, Math.min(TASK_OUTPUT_LIMIT, buffer.length * 2));
+                }
+                int n = decoder.read(buffer, length, buffer.length - length);
+                if (n == -1) {
+                    return new Segment(start, decoder, buffer, length, true, null);
+                }
+                length += n;
+            }
+        } catch (IOException e) {
+            decoder.end();
+            return new Segment(start, decoder, null, 0, true, e);
+        }
+    }
+
+    /**
+     * 一段的解码结果
+     */
+    private static final class Segment {
+
+        private final int start;
+
+        private final GzipMemberDecoder decoder;
+
+        private final byte[] output;
+
+        private final int outputLength;
+
+        /**
+         * 是否已解码到停止位置，为false时由读取线程继续解码
+         */
+        private final boolean complete;
+
+        /**
+         * 解码失败的原因，起始位置是推测的边界时不一定是真正的错误
+         */
+        private final IOException failure;
+
+        Segment(int start, GzipMemberDecoder decoder, byte[] output, int outputLength, boolean complete, IOException failure) {
+            this.start = start;
+            this.decoder = decoder;
+            this.output = output;
+            this.outputLength = outputLength;
+            this.complete = complete;
+            this.failure = failure;
+        }
+
+        void discard() {
+            decoder.end();
+        }
+    }
+}
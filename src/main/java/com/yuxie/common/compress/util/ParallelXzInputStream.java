@@ -0,0 +1,214 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+import org.tukaani.xz.ArrayCache;
+import org.tukaani.xz.BasicArrayCache;
+import org.tukaani.xz.SeekableXZInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+
+/**
+ * 并行XZ解压输入流
+ * <p>
+ * 多线程压缩（如 {@code xz -T0}）生成的XZ文件由多个可以独立解压的块组成，
+ * 每个块的位置和解压后的大小都记录在文件末尾的流索引中。该输入流先读取索引，
+ * 再按索引把相邻的块合并为大约 {@link #GROUP_SIZE} 字节的任务，通过 {@link ParallelEntryExecutor}
+ * 在多个线程中同时解压，按原始顺序输出解压后的数据。每个块的完整性校验（CRC32、CRC64或SHA-256）在解压时完成。
+ * </p>
+ * <p>
+ * 以下情况直接按顺序流式解压：
+ * <ul>
+ *   <li>只有一个块的文件（单线程压缩的默认输出）</li>
+ *   <li>存在解压后超过 {@link #MAX_BLOCK_SIZE} 字节的块，并行解压需要的内存过多</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 该输入流只能在一个线程中读取。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public class ParallelXzInputStream extends InputStream {
+
+    /**
+     * 每个并行任务负责的解压后数据的名义大小（字节）
+     */
+    static final long GROUP_SIZE = 4L * 1024 * 1024;
+
+    /**
+     * 允许并行解压的最大块大小（字节），同时也是单个任务合并后的最大大小
+     */
+    static final long MAX_BLOCK_SIZE = ParallelEntryExecutor.MAX_BUFFERED_ENTRY_SIZE * 4;
+
+    /**
+     * 解压器共享的数组缓存，避免每个任务重新分配字典
+     */
+    private static final ArrayCache ARRAY_CACHE = BasicArrayCache.getInstance();
+
+    private final ByteBuffer data;
+
+    /**
+     * 读取索引用的解压流，按顺序解压时也使用该流
+     */
+    private final SeekableXZInputStream index;
+
+    /**
+     * 并行解压的结果，按顺序解压时为null
+     */
+    private final ParallelEntryExecutor.OrderedResults<byte[]> groups;
+
+    /**
+     * 正在输出的解压数据
+     */
+    private byte[] output;
+
+    private int outputPosition;
+
+    private final byte[] singleByte = new byte[1];
+
+    private boolean closed;
+
+    /**
+     * 创建并行XZ解压输入流
+     *
+     * @param data XZ数据，从当前位置读取到上限，可以是映射到内存的文件；读取期间不能修改
+     * @param parallelism 并行度
+     * @param metrics 监控指标，可以为null
+     * @throws IOException 数据不是XZ格式或索引损坏时抛出
+     */
+    public ParallelXzInputStream(ByteBuffer data, int parallelism, UnzipMetrics metrics) throws IOException {
+        if (data == null) {
+            throw new IllegalArgumentException("XZ数据不能为空");
+        }
+        this.data = data.slice();
+        this.index = open(this.data);
+        this.groups = isParallelizable(index) ? ParallelEntryExecutor.open(parallelism, new GroupSource(), metrics) : null;
+    }
+
+    private static boolean isParallelizable(SeekableXZInputStream index) {
+        int blockCount = index.getBlockCount();
+        if (blockCount <= 1) {
+            return false;
+        }
+        for (int i = 0; i < blockCount; i++) {
+            if (index.getBlockSize(i) > MAX_BLOCK_SIZE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static SeekableXZInputStream open(ByteBuffer data) throws IOException {
+        return new SeekableXZInputStream(new ByteBufferSeekableInputStream(data), -1, true, ARRAY_CACHE);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int n;
+        do {
+            n = read(singleByte, 0, 1);
+        } while (n == 0);
+        return n == -1 ? -1 : singleByte[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("输入流已关闭");
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (groups == null) {
+            return index.read(buffer, offset, length);
+        }
+        while (output == null || outputPosition == output.length) {
+            output = nextGroup();
+            outputPosition = 0;
+            if (output == null) {
+                return -1;
+            }
+        }
+        int n = Math.min(length, output.length - outputPosition);
+        System.arraycopy(output, outputPosition, buffer, offset, n);
+        outputPosition += n;
+        return n;
+    }
+
+    private byte[] nextGroup() throws IOException {
+        try {
+            return groups.next();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("并行解压XZ数据失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (groups != null) {
+            groups.close();
+        }
+        output = null;
+        index.close();
+    }
+
+    /**
+     * 按索引把相邻的块合并为任务，在读取线程中调用
+     */
+    private final class GroupSource implements ParallelEntryExecutor.TaskSource<byte[]> {
+
+        private final int blockCount = index.getBlockCount();
+
+        private int nextBlock;
+
+        @Override
+        public Callable<byte[]> next() {
+            if (nextBlock >= blockCount) {
+                return null;
+            }
+            int first = nextBlock;
+            long size = 0;
+            do {
+                size += index.getBlockSize(nextBlock++);
+            } while (nextBlock < blockCount && size < GROUP_SIZE
+                && size + index.getBlockSize(nextBlock) <= MAX_BLOCK_SIZE);
+            long groupSize = size;
+            return () -> decode(first, groupSize);
+        }
+    }
+
+    /**
+     * 在工作线程中解压从指定块开始的若干个块
+     *
+     * @param firstBlock 第一个块的编号
+     * @param size 这些块解压后的总大小
+     * @return 解压后的数据
+     * @throws IOException 解压失败或校验失败时抛出
+     */
+    private byte[] decode(int firstBlock, long size) throws IOException {
+        byte[] content = new byte[(int) size];
+        try (SeekableXZInputStream in = open(data)) {
+            in.seekToBlock(firstBlock);
+            int length = 0;
+            while (length < content.length) {
+                int n = in.read(content, length, content.length - length);
+                if (n == -1) {
+                    throw new EOFException("XZ数据不完整");
+                }
+                length += n;
+            }
+        }
+        return content;
+    }
+}
@@ -0,0 +1,199 @@
+package com.yuxie.common.compress.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按声明大小预分配的字节数组输出流
+ * <p>
+ * 用于把条目内容收集为字节数组，代替从32字节开始成倍扩容的 {@link java.io.ByteArrayOutputStream}：
+ * <ul>
+ *   <li>声明大小已知且不超过预分配上限时，一次分配大小正好的数组；写满时 {@link #toByteArray()} 直接返回该数组，不再复制</li>
+ *   <li>声明大小未知、超过预分配上限或实际内容比声明的大时，按块增长：已写入的块不会被复制，
+ *       {@link #toByteArray()} 时才合并为一个数组</li>
+ * </ul>
+ * 预分配上限（通常为 {@code maxFileSize}）防止伪造的声明大小导致一次分配过多内存；
+ * 实际写入的大小由调用方（如 {@link BoundedEntryInputStream}）限制。
+ * </p>
+ * <p>
+ * 该输出流不是线程安全的。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public class SizedByteArrayOutputStream extends OutputStream {
+
+    /**
+     * 数组的最大长度
+     */
+    private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 大小未知时第一个块的大小
+     */
+    static final int INITIAL_CHUNK_SIZE = 8192;
+
+    /**
+     * 块的最大大小
+     */
+    static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * 已写满的块
+     */
+    private List<byte[]> fullChunks;
+
+    /**
+     * 正在写入的块
+     */
+    private byte[] current;
+
+    /**
+     * 正在写入的块中已写入的字节数
+     */
+    private int position;
+
+    /**
+     * 已写入的总字节数
+     */
+    private long size;
+
+    /**
+     * 创建输出流
+     *
+     * @param declaredSize 声明的大小，未知时为-1
+     * @param preallocationLimit 按声明大小预分配的上限，声明大小超过该值时按大小未知处理
+     */
+    public SizedByteArrayOutputStream(long declaredSize, long preallocationLimit) {
+        if (declaredSize >= 0 && declaredSize <= Math.min(preallocationLimit, MAX_ARRAY_SIZE)) {
+            current = declaredSize == 0 ? EMPTY : new byte[(int) declaredSize];
+        } else {
+            current = new byte[INITIAL_CHUNK_SIZE];
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (position == current.length) {
+            nextChunk();
+        }
+        current[position++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (position == current.length) {
+                nextChunk();
+            }
+            int n = Math.min(len, current.length - position);
+            System.arraycopy(b, off, current, position, n);
+            position += n;
+            size += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * 从输入流读取全部数据，直接读入内部数组，不经过中间缓冲区
+     *
+     * @param inputStream 输入流
+     * @return 读取的字节数
+     * @throws IOException 读取失败或数据超过数组的最大长度时抛出
+     */
+    public long readFrom(InputStream inputStream) throws IOException {
+        return readFrom(inputStream, Long.MAX_VALUE);
+    }
+
+    /**
+     * 从输入流读取数据，直到输入流结束或已读取 maxBytes 字节
+     *
+     * @param inputStream 输入流
+     * @param maxBytes 最多读取的字节数
+     * @return 读取的字节数，小于 maxBytes 时输入流已结束
+     * @throws IOException 读取失败或数据超过数组的最大长度时抛出
+     */
+    public long readFrom(InputStream inputStream, long maxBytes) throws IOException {
+        long start = size;
+        long read;
+        while ((read = size - start) < maxBytes) {
+            if (position == current.length) {
+                // 当前块已满时先读一个字节，正好读完时不需要分配新的块
+                int next = inputStream.read();
+                if (next == -1) {
+                    break;
+                }
+                write(next);
+                continue;
+            }
+            int n = inputStream.read(current, position, (int) Math.min(current.length - position, maxBytes - read));
+            if (n == -1) {
+                break;
+            }
+            position += n;
+            size += n;
+        }
+        return size - start;
+    }
+
+    /**
+     * 切换到下一个块，块大小随已写入的数据量增长
+     */
+    private void nextChunk() throws IOException {
+        if (size >= MAX_ARRAY_SIZE) {
+            throw new IOException("数据超过数组的最大长度");
+        }
+        if (fullChunks == null) {
+            fullChunks = new ArrayList<>();
+        }
+        if (current.length > 0) {
+            fullChunks.add(current);
+        }
+        long chunkSize = Math.min(Math.max(size, INITIAL_CHUNK_SIZE), MAX_CHUNK_SIZE);
+        current = new byte[(int) Math.min(chunkSize, MAX_ARRAY_SIZE - size)];
+        position = 0;
+    }
+
+    /**
+     * 获取已写入的字节数
+     *
+     * @return 已写入的字节数
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 获取写入的全部数据
+     * <p>
+     * 数据正好写满预分配的数组时直接返回该数组，之后不能再写入；其他情况复制为一个新数组。
+     * </p>
+     *
+     * @return 写入的数据
+     */
+    public byte[] toByteArray() {
+        if (fullChunks == null) {
+            return position == current.length ? current : Arrays.copyOf(current, position);
+        }
+        byte[] result = new byte[(int) size];
+        int offset = 0;
+        for (byte[] chunk : fullChunks) {
+            System.arraycopy(chunk, 0, result, offset, chunk.length);
+            offset += chunk.length;
+        }
+        System.arraycopy(current, 0, result, offset, position);
+        return result;
+    }
+}
@@ -0,0 +1,244 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.exception.UnzipErrorCode;
+import com.yuxie.common.compress.exception.UnzipException;
+
+/**
+ * 解压请求的截止时间
+ * <p>
+ * 解压过程通过协作的方式响应超时和取消：解压策略在处理每个条目之前、条目输入流在每次批量读取时调用
+ * {@link #check()}，截止时间已过或请求已被取消时抛出 {@link UnzipException}，解压循环随之结束并释放工作线程。
+ * 错误码如下：
+ * <ul>
+ *   <li>超过截止时间：{@link UnzipErrorCode#TIMEOUT_ERROR}</li>
+ *   <li>通过 {@link #cancel()} 取消：{@link UnzipErrorCode#INTERRUPTED_ERROR}</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 截止时间由 {@link #bind()} 绑定到执行解压的线程，当前线程没有截止时间时 {@link #check()} 不做任何事情。
+ * 在已有截止时间的线程上创建的截止时间以原来的截止时间为上级，上级到期或被取消时同样视为到期，
+ * 例如异步请求提交时创建的截止时间对其中的同步解压同样有效。
+ * 需要在其他线程中检查时（如7-Zip的提取线程），先在发起请求的线程上通过 {@link #current()} 取得截止时间再传递过去。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public final class UnzipDeadline {
+
+    /**
+     * 当前线程的截止时间
+     */
+    private static final ThreadLocal<UnzipDeadline> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 超时时间（毫秒）
+     */
+    private final long timeoutMillis;
+
+    /**
+     * 截止时间，与 {@link System#nanoTime()} 比较
+     */
+    private final long deadlineNanos;
+
+    /**
+     * 上级截止时间，可以为null
+     */
+    private final UnzipDeadline parent;
+
+    /**
+     * 是否已取消
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * 绑定之前当前线程上的截止时间，解除绑定后恢复
+     */
+    private UnzipDeadline outer;
+
+    /**
+     * 是否已绑定到线程
+     */
+    private boolean bound;
+
+    private UnzipDeadline(long timeoutMillis, UnzipDeadline parent) {
+        this.timeoutMillis = timeoutMillis;
+        this.deadlineNanos = System.nanoTime() + timeoutMillis * 1_000_000L;
+        this.parent = parent;
+    }
+
+    /**
+     * 创建从现在开始计时的截止时间，不绑定到线程
+     * <p>
+     * 当前线程已有截止时间时以它为上级。
+     * </p>
+     *
+     * @param timeoutMillis 超时时间（毫秒）
+     * @return 截止时间
+     * @throws IllegalArgumentException 当超时时间不为正数时抛出
+     */
+    public static UnzipDeadline after(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("超时时间必须为正数");
+        }
+        return new UnzipDeadline(timeoutMillis, CURRENT.get());
+    }
+
+    /**
+     * 创建从现在开始计时的截止时间并绑定到当前线程
+     *
+     * @param timeoutMillis 超时时间（毫秒）
+     * @return 截止时间，结束时调用 {@link #stop()}
+     * @throws IllegalArgumentException 当超时时间不为正数时抛出
+     */
+    public static UnzipDeadline start(long timeoutMillis) {
+        return after(timeoutMillis).bind();
+    }
+
+    /**
+     * 获取当前线程的截止时间
+     *
+     * @return 截止时间，当前线程没有截止时间时返回null
+     */
+    public static UnzipDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 检查当前线程的截止时间
+     *
+     * @throws UnzipException 当截止时间已过或请求已被取消时抛出
+     */
+    public static void check() {
+        UnzipDeadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.ensureNotExpired();
+        }
+    }
+
+    /**
+     * 绑定到当前线程
+     * <p>
+     * 只能绑定一次，必须在同一个线程上调用 {@link #stop()} 解除绑定。
+     * </p>
+     *
+     * @return 当前截止时间
+     * @throws IllegalStateException 当已经绑定过时抛出
+     */
+    public UnzipDeadline bind() {
+        if (bound) {
+            throw new IllegalStateException("截止时间已绑定");
+        }
+        bound = true;
+        outer = CURRENT.get();
+        CURRENT.set(this);
+        return this;
+    }
+
+    /**
+     * 解除与当前线程的绑定，恢复绑定之前的截止时间
+     * <p>
+     * 没有绑定或已经解除绑定时不做任何事情。
+     * </p>
+     */
+    public void stop() {
+        if (!bound || CURRENT.get() != this) {
+            return;
+        }
+        if (outer != null) {
+            CURRENT.set(outer);
+        } else {
+            CURRENT.remove();
+        }
+        outer = null;
+    }
+
+    /**
+     * 取消请求
+     * <p>
+     * 可以在任意线程上调用，解压线程在下一次检查时结束。
+     * </p>
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * 截止时间是否已过或请求是否已被取消，包括上级截止时间
+     *
+     * @return 已到期或已取消时返回true
+     */
+    public boolean isExpired() {
+        return expiredCause() != null;
+    }
+
+    /**
+     * 检查截止时间
+     *
+     * @throws UnzipException 当截止时间已过或请求已被取消时抛出
+     */
+    public void ensureNotExpired() {
+        UnzipDeadline expired = expiredCause();
+        if (expired != null) {
+            throw expired.newException(null);
+        }
+    }
+
+    /**
+     * 创建表示到期或取消的异常
+     * <p>
+     * 解压策略会把异常包装为其他错误码，解压服务在请求失败且截止时间已到期时用该方法还原错误码。
+     * </p>
+     *
+     * @param cause 原始异常，可以为null
+     * @return 到期或取消对应的异常；截止时间尚未到期时返回null
+     */
+    public UnzipException toException(Throwable cause) {
+        UnzipDeadline expired = expiredCause();
+        return expired != null ? expired.newException(cause) : null;
+    }
+
+    /**
+     * 获取剩余时间
+     *
+     * @return 剩余时间（纳秒），已到期时为0，不考虑上级截止时间
+     */
+    public long getRemainingNanos() {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * 获取超时时间
+     *
+     * @return 超时时间（毫秒）
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * 查找已到期的截止时间，先检查取消再检查时间
+     *
+     * @return 自身或已到期的上级截止时间，都未到期时返回null
+     */
+    private UnzipDeadline expiredCause() {
+        long now = System.nanoTime();
+        UnzipDeadline timedOut = null;
+        for (UnzipDeadline deadline = this; deadline != null; deadline = deadline.parent) {
+            if (deadline.cancelled) {
+                return deadline;
+            }
+            if (timedOut == null && now - deadline.deadlineNanos >= 0) {
+                timedOut = deadline;
+            }
+        }
+        return timedOut;
+    }
+
+    private UnzipException newException(Throwable cause) {
+        if (cancelled) {
+            return new UnzipException(UnzipErrorCode.INTERRUPTED_ERROR, "解压已取消", cause);
+        }
+        return new UnzipException(UnzipErrorCode.TIMEOUT_ERROR, "解压超时: 超过 " + timeoutMillis + " 毫秒", cause);
+    }
+}
@@ -79,6 +79,12 @@ public class UnzipUtils {
      */
     private static final double MEMORY_THRESHOLD = 0.8;
     
+    /**
+     * 提取条目内容时按声明大小预分配的上限
+     * 声明大小来自压缩包，超过该值时不预分配，防止伪造的大小导致一次分配过多内存
+     */
+    private static final int MAX_PREALLOCATED_SIZE = 64 * 1024 * 1024;
+    
     /**
      * 验证文件路径
      * <p>
@@ -316,7 +322,8 @@ public class UnzipUtils {
      * 从压缩文件中提取文件内容
      * <p>
      * 读取压缩文件条目对应的内容，并将其转换为字节数组。
-     * 使用8KB的缓冲区进行读取，以提高性能。
+     * 条目声明了大小时按声明大小一次分配（最多预分配 {@value #MAX_PREALLOCATED_SIZE} 字节），
+     * 数据直接读入结果数组，不经过中间缓冲区。
      * </p>
      *
      * @param archiveInputStream 压缩文件输入流
@@ -325,14 +332,8 @@ public class UnzipUtils {
      * @throws IOException 当提取失败时抛出异常
      */
     public static byte[] extractFile(ArchiveInputStream archiveInputStream, ArchiveEntry entry) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        byte[] buffer = new byte[8192];
-        int bytesRead;
-        
-        while ((bytesRead = archiveInputStream.read(buffer)) != -1) {
-            outputStream.write(buffer, 0, bytesRead);
-        }
-        
+        SizedByteArrayOutputStream outputStream = new SizedByteArrayOutputStream(entry.getSize(), MAX_PREALLOCATED_SIZE);
+        outputStream.readFrom(archiveInputStream);
         return outputStream.toByteArray();
     }
     
@@ -402,12 +403,14 @@ public class UnzipUtils {
             File tempFile = File.createTempFile("unzip_", extension, new File(tempDirectory));
             
             // 写入数据
+            byte[] buffer = BufferPool.shared().acquire(8192);
             try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                byte[] buffer = new byte[8192];
                 int bytesRead;
                 while ((bytesRead = inputStream.read(buffer)) != -1) {
                     fos.write(buffer, 0, bytesRead);
                 }
+            } finally {
+                BufferPool.shared().release(buffer);
             }
             
             return tempFile;
@@ -0,0 +1,67 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 虚拟线程支持
+ * <p>
+ * 项目以Java 8为基线编译，该类是基线版本：不支持虚拟线程，{@link UnzipConfig#isEnableVirtualThreads()}
+ * 开启时调用方继续使用平台线程。使用JDK 21构建时，多版本JAR的 {@code META-INF/versions/21} 中包含
+ * 同名的替代实现（源码位于 {@code src/main/java21}），在JDK 21及以上运行时自动生效。
+ * </p>
+ * <p>
+ * 两个版本的公共方法必须保持一致。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程
+     *
+     * @return 基线版本总是返回false
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * 是否按配置使用虚拟线程
+     *
+     * @param unzipConfig 解压配置
+     * @return 配置开启了虚拟线程并且当前运行环境支持时返回true
+     */
+    public static boolean isEnabled(UnzipConfig unzipConfig) {
+        return unzipConfig != null && unzipConfig.isEnableVirtualThreads() && isSupported();
+    }
+
+    /**
+     * 创建每个任务使用一个新虚拟线程的执行器
+     * <p>
+     * 基线版本不支持虚拟线程，改为每个任务使用一个新的平台守护线程，空闲的线程立即结束，
+     * 调用方不需要先检查 {@link #isSupported()}。
+     * </p>
+     *
+     * @param namePrefix 线程名称前缀，后面加上从1开始的编号
+     * @return 执行器
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,233 @@
+package com.yuxie.common.compress.util;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ZIP文件名编码检测器
+ * <p>
+ * 很多ZIP文件没有记录文件名编码，需要根据文件名的原始字节推断。该检测器只处理原始字节，不需要重复解析压缩包：
+ * <ul>
+ *   <li>设置了通用标志位第11位（UTF-8标志）或带有Unicode路径扩展字段的条目，文件名由Commons Compress直接解码，无需检测</li>
+ *   <li>纯ASCII文件名在所有候选编码下结果相同，无需检测</li>
+ *   <li>其余文件名用每个候选编码的严格解码器（遇到非法或无法映射的字节即失败）解码一遍：
+ *       能严格按UTF-8解码时直接采用UTF-8，否则按解码结果中字符的合理程度打分，选出得分最高的编码</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 使用方式：以 {@link #ARCHIVE_ENCODING}（ISO-8859-1，逐字节无损）打开压缩包，
+ * 再通过 {@link #decodeName(ZipArchiveEntry, Charset)} 用检测出的编码得到条目的真实名称。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public final class ZipCharsetDetector {
+
+    /**
+     * 打开压缩包时使用的编码，逐字节无损，可以从解码结果还原原始字节
+     */
+    public static final String ARCHIVE_ENCODING = "ISO-8859-1";
+
+    /**
+     * 默认编码，没有需要检测的文件名时使用
+     */
+    public static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
+
+    /**
+     * 候选编码，按优先级排序，得分相同时优先选择靠前的编码
+     */
+    private static final Charset[] CANDIDATES = availableCharsets(
+        "UTF-8",      // 现代ZIP文件的标准编码
+        "GBK",        // 中文Windows系统，兼容GB2312
+        "Big5",       // 繁体中文系统
+        "Shift_JIS",  // 日文系统
+        "EUC-KR",     // 韩文系统
+        "IBM437",     // ZIP默认编码，英文Windows系统
+        "ISO-8859-1", // 西欧语言
+        "ISO-8859-2", // 中欧语言
+        "ISO-8859-5"  // 西里尔字母
+    );
+
+    private ZipCharsetDetector() {
+    }
+
+    /**
+     * 检测一组文件名的编码
+     *
+     * @param rawNames 需要检测的文件名原始字节，其中纯ASCII的文件名会被忽略
+     * @return 检测出的编码，没有需要检测的文件名时返回 {@link #DEFAULT_CHARSET}
+     */
+    public static Charset detect(Iterable<byte[]> rawNames) {
+        CharsetDecoder[] decoders = new CharsetDecoder[CANDIDATES.length];
+        long[] scores = new long[CANDIDATES.length];
+        boolean[] rejected = new boolean[CANDIDATES.length];
+        for (int i = 0; i < CANDIDATES.length; i++) {
+            decoders[i] = CANDIDATES[i].newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+
+        boolean found = false;
+        for (byte[] rawName : rawNames) {
+            if (rawName == null || isAscii(rawName)) {
+                continue;
+            }
+            found = true;
+            for (int i = 0; i < CANDIDATES.length; i++) {
+                if (rejected[i]) {
+                    continue;
+                }
+                CharBuffer decoded = decodeStrictly(decoders[i], rawName);
+                if (decoded == null) {
+                    rejected[i] = true;
+                } else {
+                    scores[i] += score(decoded);
+                }
+            }
+        }
+        if (!found) {
+            return DEFAULT_CHARSET;
+        }
+        // 非ASCII字节恰好构成合法UTF-8序列的概率很低，能严格按UTF-8解码时直接采用
+        if (!rejected[0]) {
+            return CANDIDATES[0];
+        }
+
+        int best = -1;
+        for (int i = 0; i < CANDIDATES.length; i++) {
+            if (!rejected[i] && (best < 0 || scores[i] > scores[best])) {
+                best = i;
+            }
+        }
+        return best >= 0 ? CANDIDATES[best] : DEFAULT_CHARSET;
+    }
+
+    /**
+     * 检测单个文件名的编码
+     *
+     * @param rawName 文件名原始字节
+     * @return 检测出的编码
+     */
+    public static Charset detect(byte[] rawName) {
+        return detect(Collections.singletonList(rawName));
+    }
+
+    /**
+     * 条目名称是否需要检测编码
+     * <p>
+     * 名称来自UTF-8标志位或Unicode路径扩展字段、或者原始字节是纯ASCII时不需要检测。
+     * </p>
+     *
+     * @param entry ZIP条目
+     * @return 需要检测编码时返回true
+     */
+    public static boolean needsDetection(ZipArchiveEntry entry) {
+        return entry.getNameSource() == ZipArchiveEntry.NameSource.NAME
+            && entry.getRawName() != null && !isAscii(entry.getRawName());
+    }
+
+    /**
+     * 获取条目的真实名称
+     *
+     * @param entry 以 {@link #ARCHIVE_ENCODING} 打开的压缩包中的条目
+     * @param charset 检测出的编码
+     * @return 条目的真实名称
+     */
+    public static String decodeName(ZipArchiveEntry entry, Charset charset) {
+        if (!needsDetection(entry)) {
+            return entry.getName();
+        }
+        return new String(entry.getRawName(), charset);
+    }
+
+    /**
+     * 把真实名称编码为以 {@link #ARCHIVE_ENCODING} 打开压缩包时的条目名称，用于按名称查找条目
+     *
+     * @param name 真实名称
+     * @param charset 压缩包文件名的编码
+     * @return 压缩包中的条目名称
+     */
+    public static String toArchiveName(String name, Charset charset) {
+        return new String(name.getBytes(charset), StandardCharsets.ISO_8859_1);
+    }
+
+    private static CharBuffer decodeStrictly(CharsetDecoder decoder, byte[] bytes) {
+        try {
+            decoder.reset();
+            return decoder.decode(ByteBuffer.wrap(bytes));
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 按字符的合理程度打分
+     * <p>
+     * 文件名中常见的文字（中日韩文字、带重音的拉丁字母、西里尔字母等）加分，
+     * 控制字符、制表符、私有区字符等在文件名中几乎不会出现的字符扣分。
+     * 多字节编码用更少的字符表示相同的字节，因此中日韩文字的分值更高。
+     * </p>
+     */
+    private static int score(CharBuffer decoded) {
+        int score = 0;
+        for (int i = decoded.position(); i < decoded.limit(); i++) {
+            char c = decoded.get(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (isCjk(c)) {
+                score += 3;
+            } else if (c >= 0x00C0 && c <= 0x024F && c != 0x00D7 && c != 0x00F7) {
+                // 带重音的拉丁字母
+                score += 1;
+            } else if (c >= 0x0400 && c <= 0x04FF || c >= 0x0370 && c <= 0x03FF) {
+                // 西里尔字母、希腊字母
+                score += 1;
+            } else if (c >= 0x3000 && c <= 0x303F || c >= 0xFF00 && c <= 0xFFEF) {
+                // 中日韩标点、全角字符
+                score += 1;
+            } else {
+                // 控制字符、制表符、私有区字符及其他符号
+                score -= 3;
+            }
+        }
+        return score;
+    }
+
+    private static boolean isCjk(char c) {
+        return c >= 0x4E00 && c <= 0x9FFF    // 中日韩统一表意文字
+            || c >= 0x3400 && c <= 0x4DBF    // 扩展A
+            || c >= 0x3040 && c <= 0x30FF    // 平假名、片假名
+            || c >= 0xAC00 && c <= 0xD7AF;   // 韩文音节
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Charset[] availableCharsets(String... names) {
+        List<Charset> charsets = new ArrayList<>();
+        for (String name : names) {
+            if (Charset.isSupported(name)) {
+                charsets.add(Charset.forName(name));
+            }
+        }
+        return charsets.toArray(new Charset[0]);
+    }
+}
@@ -0,0 +1,51 @@
+package com.yuxie.common.compress.visitor;
+
+import com.yuxie.common.compress.model.FileInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 压缩包条目访问器
+ * <p>
+ * 流式解压接口：解压策略每解析出一个条目，就将条目的元数据和一个仅覆盖该条目内容的输入流交给访问器处理。
+ * 与返回 {@code Map<FileInfo, byte[]>} 的方法不同，访问器模式下条目内容不会被预先读入内存，
+ * 解压过程的内存占用只与缓冲区大小有关，与压缩包大小无关。
+ * </p>
+ * <p>
+ * 约定：
+ * <ul>
+ *   <li>传入的输入流只在本次回调期间有效，回调返回后策略会跳过该条目未读取的剩余内容</li>
+ *   <li>访问器无需关闭传入的输入流，关闭操作不会影响底层的压缩包流</li>
+ *   <li>{@link FileInfo#getSize()} 为压缩包中声明的大小，未知时为 -1</li>
+ *   <li>回调中抛出的异常会中止整个解压过程</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * strategy.unzip(inputStream, null, null, (fileInfo, entryStream) -&gt; {
+ *     try (OutputStream out = Files.newOutputStream(target.resolve(fileInfo.getPath()))) {
+ *         IOUtils.copy(entryStream, out);
+ *     }
+ * });
+ * </pre>
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see InMemoryEntryVisitor
+ * @see com.yuxie.common.compress.strategy.UnzipStrategy
+ */
+@FunctionalInterface
+public interface ArchiveEntryVisitor {
+
+    /**
+     * 访问一个条目
+     *
+     * @param fileInfo 条目的文件信息
+     * @param inputStream 条目内容的输入流，读取到条目末尾时返回-1
+     * @throws IOException 当处理条目内容时发生IO错误
+     */
+    void visitEntry(FileInfo fileInfo, InputStream inputStream) throws IOException;
+}
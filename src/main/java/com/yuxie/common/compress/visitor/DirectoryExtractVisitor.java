@@ -0,0 +1,172 @@
+package com.yuxie.common.compress.visitor;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.exception.UnzipErrorCode;
+import com.yuxie.common.compress.exception.UnzipException;
+import com.yuxie.common.compress.model.FileInfo;
+import com.yuxie.common.compress.monitor.UnzipPhase;
+import com.yuxie.common.compress.monitor.UnzipPhaseTimer;
+import com.yuxie.common.compress.util.AsyncFileWriter;
+import com.yuxie.common.compress.util.UnzipUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 解压到目录的访问器
+ * <p>
+ * 把每个条目的内容写入目标目录下对应的文件，收集结果只包含文件信息，{@link FileInfo#getSize()} 为实际写入的字节数。
+ * 文件通过 {@link AsyncFileWriter} 写入：较小的条目读入内存后交给写盘线程写入，较大的条目边解压边写入，
+ * 内存占用只与写盘队列容量和缓冲区大小有关，与压缩包和条目的大小无关。
+ * </p>
+ * <p>
+ * 全部条目访问完毕后必须调用 {@link #finish()} 等待写入完成，并在使用完毕后关闭访问器。
+ * </p>
+ * <p>
+ * 处理规则：
+ * <ul>
+ *   <li>条目路径经过 {@link UnzipUtils#validatePath(String, UnzipConfig)} 校验，规范化后必须位于目标目录内，否则视为路径遍历攻击</li>
+ *   <li>以 {@code /} 或 {@code \} 结尾的条目视为目录，只创建目录</li>
+ *   <li>每个父目录只创建一次，已存在的文件会被覆盖</li>
+ * </ul>
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see ArchiveEntryVisitor
+ * @see InMemoryEntryVisitor
+ */
+public class DirectoryExtractVisitor implements ArchiveEntryVisitor, AutoCloseable {
+
+    /**
+     * 解压配置
+     */
+    private final UnzipConfig unzipConfig;
+
+    /**
+     * 目标目录（绝对路径，已规范化）
+     */
+    private final Path targetDirectory;
+
+    /**
+     * 已创建（或确认存在）的目录
+     */
+    private final Set<Path> createdDirectories = new HashSet<>();
+
+    /**
+     * 已写入的条目的文件信息
+     */
+    private final List<FileInfo> result = new ArrayList<>();
+
+    /**
+     * 文件写入器
+     */
+    private final AsyncFileWriter writer;
+
+    /**
+     * 是否已成功等待全部文件写入完成
+     */
+    private boolean finished;
+
+    /**
+     * 构造函数
+     *
+     * @param unzipConfig 解压配置，不能为null
+     * @param targetDirectory 目标目录，不存在时自动创建，不能为null
+     * @throws IllegalArgumentException 当参数为null时抛出
+     */
+    public DirectoryExtractVisitor(UnzipConfig unzipConfig, Path targetDirectory) {
+        if (unzipConfig == null) {
+            throw new IllegalArgumentException("解压配置不能为空");
+        }
+        if (targetDirectory == null) {
+            throw new IllegalArgumentException("目标目录不能为空");
+        }
+        this.unzipConfig = unzipConfig;
+        this.targetDirectory = targetDirectory.toAbsolutePath().normalize();
+        this.writer = new AsyncFileWriter(unzipConfig);
+    }
+
+    @Override
+    public void visitEntry(FileInfo fileInfo, InputStream inputStream) throws IOException {
+        String entryPath = fileInfo.getPath();
+        Path target;
+        UnzipPhase previous = UnzipPhaseTimer.enter(UnzipPhase.VALIDATE);
+        try {
+            UnzipUtils.validatePath(entryPath, unzipConfig);
+            target = resolve(entryPath);
+        } finally {
+            UnzipPhaseTimer.exit(previous);
+        }
+
+        if (entryPath.endsWith("/") || entryPath.endsWith("\\")) {
+            createDirectories(target);
+            fileInfo.setSize(0);
+            result.add(fileInfo);
+            return;
+        }
+
+        createDirectories(target.getParent());
+        fileInfo.setSize(writer.write(target, inputStream, fileInfo.getSize()));
+        result.add(fileInfo);
+    }
+
+    /**
+     * 解析条目在目标目录下的路径
+     *
+     * @throws UnzipException 路径不在目标目录内时抛出
+     */
+    private Path resolve(String entryPath) {
+        String relative = entryPath.replace('\\', '/');
+        while (relative.startsWith("/")) {
+            relative = relative.substring(1);
+        }
+        Path target = targetDirectory.resolve(relative).normalize();
+        if (!target.startsWith(targetDirectory)) {
+            throw new UnzipException(UnzipErrorCode.SECURITY_ERROR, "检测到路径遍历攻击: " + entryPath);
+        }
+        return target;
+    }
+
+    private void createDirectories(Path directory) throws IOException {
+        if (directory != null && createdDirectories.add(directory)) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    /**
+     * 等待全部文件写入完成
+     * <p>
+     * 写入成功后再次调用直接返回结果，不会重复等待或刷盘。
+     * </p>
+     *
+     * @return 已写入的条目的文件信息，按访问顺序排列
+     * @throws UnzipException 有文件写入失败时抛出
+     */
+    public List<FileInfo> finish() throws UnzipException {
+        if (finished) {
+            return result;
+        }
+        try {
+            writer.finish();
+        } catch (IOException e) {
+            throw new UnzipException(UnzipErrorCode.IO_ERROR, "写入文件失败: " + e.getMessage(), e);
+        }
+        finished = true;
+        return result;
+    }
+
+    /**
+     * 等待已提交的写入结束，不检查写入结果
+     */
+    @Override
+    public void close() {
+        writer.close();
+    }
+}
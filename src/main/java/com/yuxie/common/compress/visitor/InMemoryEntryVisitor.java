@@ -0,0 +1,84 @@
+package com.yuxie.common.compress.visitor;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.model.FileInfo;
+import com.yuxie.common.compress.util.SizedByteArrayOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 内存收集访问器
+ * <p>
+ * 将每个条目的内容完整读入内存，收集为 {@code Map<FileInfo, byte[]>}。
+ * 解压策略中返回Map的方法都基于该访问器实现，结果按条目在压缩包中的顺序排列。
+ * </p>
+ * <p>
+ * 注意：收集完成后，结果中 {@link FileInfo#getSize()} 为实际读取的字节数，而非压缩包中声明的大小。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ * @see ArchiveEntryVisitor
+ */
+public class InMemoryEntryVisitor implements ArchiveEntryVisitor {
+
+    /**
+     * 解压配置
+     */
+    private final UnzipConfig unzipConfig;
+
+    /**
+     * 收集到的文件信息及其内容
+     */
+    private final Map<FileInfo, byte[]> result = new LinkedHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param unzipConfig 解压配置，不能为null
+     * @throws IllegalArgumentException 当unzipConfig为null时抛出
+     */
+    public InMemoryEntryVisitor(UnzipConfig unzipConfig) {
+        if (unzipConfig == null) {
+            throw new IllegalArgumentException("解压配置不能为空");
+        }
+        this.unzipConfig = unzipConfig;
+    }
+
+    @Override
+    public void visitEntry(FileInfo fileInfo, InputStream inputStream) throws IOException {
+        byte[] content = readContent(fileInfo.getSize(), inputStream);
+        fileInfo.setSize(content.length);
+        result.put(fileInfo, content);
+    }
+
+    /**
+     * 读取条目内容
+     * <p>
+     * 声明大小已知且不超过最大文件大小时，直接读入大小正好的数组，不需要扩容和最终复制；
+     * 声明大小未知时按块增长。实际内容与声明大小不符时按实际内容返回。
+     * </p>
+     *
+     * @param declaredSize 条目声明的大小，未知时为-1
+     * @param inputStream 条目内容的输入流
+     * @return 条目内容
+     * @throws IOException 读取失败时抛出
+     */
+    private byte[] readContent(long declaredSize, InputStream inputStream) throws IOException {
+        SizedByteArrayOutputStream outputStream = new SizedByteArrayOutputStream(declaredSize, unzipConfig.getMaxFileSize());
+        outputStream.readFrom(inputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * 获取收集结果
+     *
+     * @return 文件信息及其内容，按访问顺序排列
+     */
+    public Map<FileInfo, byte[]> getResult() {
+        return result;
+    }
+}
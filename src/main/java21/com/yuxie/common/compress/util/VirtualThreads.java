@@ -0,0 +1,54 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 虚拟线程支持（JDK 21版本）
+ * <p>
+ * 多版本JAR中 {@code META-INF/versions/21} 下的替代实现，在JDK 21及以上运行时代替基线版本，
+ * 直接使用 {@link Thread#ofVirtual()} 创建虚拟线程。
+ * </p>
+ * <p>
+ * 两个版本的公共方法必须保持一致。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程
+     *
+     * @return 总是返回true
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * 是否按配置使用虚拟线程
+     *
+     * @param unzipConfig 解压配置
+     * @return 配置开启了虚拟线程时返回true
+     */
+    public static boolean isEnabled(UnzipConfig unzipConfig) {
+        return unzipConfig != null && unzipConfig.isEnableVirtualThreads() && isSupported();
+    }
+
+    /**
+     * 创建每个任务使用一个新虚拟线程的执行器
+     *
+     * @param namePrefix 线程名称前缀，后面加上从1开始的编号
+     * @return 执行器
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 1).factory());
+    }
+}
@@ -0,0 +1,614 @@
+package com.yuxie.common.compress.corpus;
+
+import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.strategy.impl.SevenZipNativeInitializer;
+import net.sf.sevenzipjbinding.IOutCreateArchive7z;
+import net.sf.sevenzipjbinding.IOutCreateCallback;
+import net.sf.sevenzipjbinding.IOutItem7z;
+import net.sf.sevenzipjbinding.ISequentialInStream;
+import net.sf.sevenzipjbinding.SevenZip;
+import net.sf.sevenzipjbinding.SevenZipException;
+import net.sf.sevenzipjbinding.impl.OutItemFactory;
+import net.sf.sevenzipjbinding.impl.RandomAccessFileOutStream;
+import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
+import org.apache.commons.compress.archivers.sevenz.SevenZMethod;
+import org.apache.commons.compress.archivers.sevenz.SevenZMethodConfiguration;
+import org.apache.commons.compress.archivers.sevenz.SevenZOutputFile;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.lzma.LZMACompressorOutputStream;
+import org.apache.commons.compress.compressors.snappy.SnappyCompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.tukaani.xz.LZMA2Options;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Random;
+
+/**
+ * 可复现的测试压缩包生成器
+ * <p>
+ * 按 {@link CorpusSpec} 在指定目录中生成 {@link CompressionFormat} 中全部十种格式的压缩包，供基准测试和长时间压力测试使用，
+ * 不需要在仓库中保存二进制测试文件。生成规则：
+ * <ul>
+ *   <li>条目内容由随机种子和条目序号决定，同样的规格和种子每次生成完全相同的文件；条目时间固定为2024-01-01</li>
+ *   <li>条目内容边生成边写入，多GB的单个条目也不需要放到内存中</li>
+ *   <li>文件名由规格、种子和生成规则的版本决定，目标文件已存在时直接返回，不重复生成；生成过程中的文件不会出现在目标文件名下</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 各格式使用的写入方式：
+ * <ul>
+ *   <li>ZIP、TAR、非固实7Z、GZIP、BZIP2、XZ、LZMA、SNAPPY：commons-compress的输出流，SNAPPY为不带帧的原始格式</li>
+ *   <li>LZ4：commons-compress的LZ4块格式压缩太慢，由 {@link Lz4BlockOutputStream} 生成不带帧的LZ4块格式</li>
+ *   <li>固实7Z：commons-compress只能为每个条目单独压缩，固实压缩包由7-Zip-JBinding生成</li>
+ *   <li>RAR：没有可用的RAR压缩库，由 {@link RarStoreOutputStream} 以存储方式（不压缩）写出RAR 4.x格式</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * ArchiveCorpus corpus = ArchiveCorpus.inTempDirectory(42);
+ * Path zip = corpus.generate(CorpusSpec.tinyFiles(CompressionFormat.ZIP));
+ * byte[] gzip = corpus.generateBytes(CorpusSpec.multiMemberGzip());
+ * </pre>
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+public final class ArchiveCorpus {
+
+    /**
+     * 生成规则的版本，包含在文件名中，生成的内容发生变化时递增，使之前缓存的文件失效
+     */
+    static final int VERSION = 1;
+
+    /**
+     * 条目时间，2024-01-01T00:00:00Z
+     */
+    private static final long ENTRY_TIME = 1704067200000L;
+
+    /**
+     * 生成条目内容时每次写入的大小
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final String[] LEVELS = {"INFO", "INFO", "INFO", "INFO", "DEBUG", "WARN", "ERROR"};
+
+    private static final String[] LOGGERS = {
+        "c.y.order.OrderService", "c.y.user.UserService", "c.y.pay.PaymentGateway",
+        "c.y.stock.InventoryCache", "c.y.audit.AuditLog"
+    };
+
+    private static final String[] MESSAGES = {
+        "request completed", "cache miss, loading from database", "retrying remote call",
+        "user session refreshed", "order state changed"
+    };
+
+    private final long seed;
+
+    private final Path directory;
+
+    /**
+     * 创建生成器
+     *
+     * @param seed 随机种子
+     * @param directory 生成文件的目录，不存在时自动创建
+     * @throws IOException 目录创建失败时抛出
+     */
+    public ArchiveCorpus(long seed, Path directory) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("目录不能为空");
+        }
+        this.seed = seed;
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * 在新建的临时目录中生成文件
+     *
+     * @param seed 随机种子
+     * @return 生成器
+     * @throws IOException 目录创建失败时抛出
+     */
+    public static ArchiveCorpus inTempDirectory(long seed) throws IOException {
+        return new ArchiveCorpus(seed, Files.createTempDirectory("archive-corpus"));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 生成压缩包
+     *
+     * @param spec 压缩包规格
+     * @return 生成的文件，已存在时直接返回
+     * @throws IOException 生成失败时抛出
+     */
+    public Path generate(CorpusSpec spec) throws IOException {
+        validate(spec);
+        Path target = directory.resolve(spec.fileName(seed));
+        if (Files.exists(target)) {
+            return target;
+        }
+        Path temp = Files.createTempFile(directory, ".corpus-", ".tmp");
+        try {
+            write(spec, temp);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return target;
+    }
+
+    /**
+     * 生成压缩包并读入内存，适用于以字节数组为输入的基准测试
+     *
+     * @param spec 压缩包规格
+     * @return 压缩包内容
+     * @throws IOException 生成失败或文件超过2GB时抛出
+     */
+    public byte[] generateBytes(CorpusSpec spec) throws IOException {
+        return Files.readAllBytes(generate(spec));
+    }
+
+    /**
+     * 条目的路径，目录名由条目序号决定，同一层最多4个分支
+     * <p>
+     * 扩展名都在默认允许的文件类型中，默认配置下也能解压，不可压缩的内容同样使用 {@code .txt}。
+     * </p>
+     *
+     * @param spec 压缩包规格
+     * @param index 条目序号
+     * @return 使用 {@code /} 分隔的路径
+     */
+    static String entryName(CorpusSpec spec, int index) {
+        StringBuilder name = new StringBuilder();
+        for (int level = 0; level < spec.getDepth(); level++) {
+            name.append('d').append((index >>> Math.min(2 * level, 30)) & 3).append('/');
+        }
+        name.append("file-").append(index);
+        return name.append(spec.getContent() == CorpusSpec.Content.COMPRESSIBLE ? ".log" : ".txt").toString();
+    }
+
+    private static void validate(CorpusSpec spec) {
+        if (spec == null || spec.getFormat() == null || spec.getFormat() == CompressionFormat.UNKNOWN) {
+            throw new IllegalArgumentException("压缩格式不能为空或UNKNOWN");
+        }
+        if (spec.getEntryCount() < 1 || spec.getEntrySize() < 0 || spec.getDepth() < 0 || spec.getMembers() < 1) {
+            throw new IllegalArgumentException("无效的压缩包规格: " + spec);
+        }
+    }
+
+    private void write(CorpusSpec spec, Path file) throws IOException {
+        switch (spec.getFormat()) {
+            case ZIP:
+                writeZip(spec, file);
+                break;
+            case TAR:
+                try (OutputStream output = newOutputStream(file)) {
+                    writeTar(spec, output);
+                }
+                break;
+            case SEVEN_ZIP:
+                if (spec.isSolid()) {
+                    writeSolidSevenZip(spec, file);
+                } else {
+                    writeSevenZip(spec, file);
+                }
+                break;
+            case RAR:
+                writeRar(spec, file);
+                break;
+            default:
+                writeCompressed(spec, file);
+                break;
+        }
+    }
+
+    private void writeZip(CorpusSpec spec, Path file) throws IOException {
+        try (ZipArchiveOutputStream output = new ZipArchiveOutputStream(file.toFile())) {
+            output.setUseZip64(Zip64Mode.AsNeeded);
+            for (int i = 0; i < spec.getEntryCount(); i++) {
+                ZipArchiveEntry entry = new ZipArchiveEntry(entryName(spec, i));
+                entry.setSize(spec.getEntrySize());
+                entry.setTime(ENTRY_TIME);
+                output.putArchiveEntry(entry);
+                writeContent(spec, i, output);
+                output.closeArchiveEntry();
+            }
+        }
+    }
+
+    private void writeTar(CorpusSpec spec, OutputStream target) throws IOException {
+        TarArchiveOutputStream output = new TarArchiveOutputStream(CloseShieldOutputStream.wrap(target));
+        output.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+        output.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+        for (int i = 0; i < spec.getEntryCount(); i++) {
+            TarArchiveEntry entry = new TarArchiveEntry(entryName(spec, i));
+            entry.setSize(spec.getEntrySize());
+            entry.setModTime(ENTRY_TIME);
+            output.putArchiveEntry(entry);
+            writeContent(spec, i, output);
+            output.closeArchiveEntry();
+            if (target instanceof GzipMembersOutputStream) {
+                ((GzipMembersOutputStream) target).entryFinished();
+            }
+        }
+        output.close();
+    }
+
+    private void writeSevenZip(CorpusSpec spec, Path file) throws IOException {
+        try (SevenZOutputFile output = new SevenZOutputFile(file.toFile())) {
+            // 每个条目都会新建编码器，默认的8MB字典使大量小条目的生成非常慢
+            output.setContentMethods(Collections.singletonList(
+                new SevenZMethodConfiguration(SevenZMethod.LZMA2, new LZMA2Options(1))));
+            // SevenZOutputFile不是输出流，包装一层以复用条目内容的写入
+            OutputStream entryOutput = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    output.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    output.write(b, off, len);
+                }
+            };
+            for (int i = 0; i < spec.getEntryCount(); i++) {
+                SevenZArchiveEntry entry = new SevenZArchiveEntry();
+                entry.setName(entryName(spec, i));
+                entry.setLastModifiedDate(new Date(ENTRY_TIME));
+                output.putArchiveEntry(entry);
+                writeContent(spec, i, entryOutput);
+                output.closeArchiveEntry();
+            }
+        }
+    }
+
+    private void writeSolidSevenZip(CorpusSpec spec, Path file) throws IOException {
+        SevenZipNativeInitializer.ensureInitialized();
+        try (RandomAccessFile output = new RandomAccessFile(file.toFile(), "rw");
+             IOutCreateArchive7z archive = SevenZip.openOutArchive7z()) {
+            archive.setSolid(true);
+            // 单线程压缩，保证每次生成的文件相同
+            archive.setThreadCount(1);
+            archive.createArchive(new RandomAccessFileOutStream(output), spec.getEntryCount(),
+                new IOutCreateCallback<IOutItem7z>() {
+                    @Override
+                    public IOutItem7z getItemInformation(int index, OutItemFactory<IOutItem7z> factory) {
+                        IOutItem7z item = factory.createOutItem();
+                        item.setPropertyPath(entryName(spec, index));
+                        item.setDataSize(spec.getEntrySize());
+                        item.setPropertyLastModificationTime(new Date(ENTRY_TIME));
+                        return item;
+                    }
+
+                    @Override
+                    public ISequentialInStream getStream(int index) {
+                        return new ContentInStream(spec, index);
+                    }
+
+                    @Override
+                    public void setOperationResult(boolean operationResultOk) {
+                    }
+
+                    @Override
+                    public void setTotal(long total) {
+                    }
+
+                    @Override
+                    public void setCompleted(long complete) {
+                    }
+                });
+        }
+    }
+
+    private void writeRar(CorpusSpec spec, Path file) throws IOException {
+        try (RarStoreOutputStream output = new RarStoreOutputStream(file)) {
+            for (int i = 0; i < spec.getEntryCount(); i++) {
+                output.putEntry(entryName(spec, i), spec.getEntrySize());
+                writeContent(spec, i, output);
+                output.closeEntry();
+            }
+        }
+    }
+
+    private void writeCompressed(CorpusSpec spec, Path file) throws IOException {
+        if (spec.getFormat() == CompressionFormat.SNAPPY) {
+            writeSnappy(spec, file);
+            return;
+        }
+        try (OutputStream output = compressorOutputStream(spec, newOutputStream(file))) {
+            writePayload(spec, output);
+        }
+    }
+
+    /**
+     * 原始SNAPPY格式要在开头写入解压后的大小，TAR包的大小事先不知道，先把TAR包写入临时文件
+     */
+    private void writeSnappy(CorpusSpec spec, Path file) throws IOException {
+        if (!spec.isTarWrapped()) {
+            try (OutputStream output = new SnappyCompressorOutputStream(newOutputStream(file), spec.getEntrySize())) {
+                writeContent(spec, 0, output);
+            }
+            return;
+        }
+        Path tar = Files.createTempFile(directory, ".corpus-", ".tar");
+        try {
+            try (OutputStream output = newOutputStream(tar)) {
+                writeTar(spec, output);
+            }
+            try (InputStream input = Files.newInputStream(tar);
+                 OutputStream output = new SnappyCompressorOutputStream(newOutputStream(file), Files.size(tar))) {
+                byte[] buffer = new byte[CHUNK_SIZE];
+                int n;
+                while ((n = input.read(buffer)) != -1) {
+                    output.write(buffer, 0, n);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(tar);
+        }
+    }
+
+    private OutputStream compressorOutputStream(CorpusSpec spec, OutputStream output) throws IOException {
+        switch (spec.getFormat()) {
+            case GZIP:
+                if (spec.getMembers() > 1) {
+                    return new GzipMembersOutputStream(output, spec);
+                }
+                return new GzipCompressorOutputStream(output);
+            case BZIP2:
+                return new BZip2CompressorOutputStream(output);
+            case XZ:
+                return new XZCompressorOutputStream(output);
+            case LZMA:
+                return new LZMACompressorOutputStream(output);
+            case LZ4:
+                return new Lz4BlockOutputStream(output);
+            default:
+                throw new IllegalArgumentException("不支持的格式: " + spec.getFormat());
+        }
+    }
+
+    /**
+     * 写入纯压缩格式的未压缩内容：TAR包或单个条目的内容
+     */
+    private void writePayload(CorpusSpec spec, OutputStream output) throws IOException {
+        if (spec.isTarWrapped()) {
+            writeTar(spec, output);
+        } else {
+            writeContent(spec, 0, output);
+        }
+    }
+
+    private void writeContent(CorpusSpec spec, int index, OutputStream output) throws IOException {
+        EntryContent content = new EntryContent(spec, index);
+        byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, Math.max(spec.getEntrySize(), 1))];
+        int n;
+        while ((n = content.read(chunk, 0, chunk.length)) > 0) {
+            output.write(chunk, 0, n);
+        }
+    }
+
+    private static OutputStream newOutputStream(Path file) throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream(file), CHUNK_SIZE);
+    }
+
+    /**
+     * 单个条目的内容，按需生成
+     */
+    private final class EntryContent {
+
+        private final Random random;
+
+        private final boolean compressible;
+
+        private long remaining;
+
+        /**
+         * 已生成但尚未读取的日志行
+         */
+        private byte[] line = new byte[0];
+
+        private int linePosition;
+
+        private long millis;
+
+        EntryContent(CorpusSpec spec, int index) {
+            this.random = new Random(seed * 1000003L + index);
+            this.compressible = spec.getContent() == CorpusSpec.Content.COMPRESSIBLE;
+            this.remaining = spec.getEntrySize();
+        }
+
+        int read(byte[] b, int off, int len) {
+            int n = (int) Math.min(len, remaining);
+            if (n <= 0) {
+                return -1;
+            }
+            if (!compressible) {
+                if (off == 0 && n == b.length) {
+                    random.nextBytes(b);
+                } else {
+                    byte[] bytes = new byte[n];
+                    random.nextBytes(bytes);
+                    System.arraycopy(bytes, 0, b, off, n);
+                }
+            } else {
+                int filled = 0;
+                while (filled < n) {
+                    if (linePosition == line.length) {
+                        nextLine();
+                    }
+                    int count = Math.min(n - filled, line.length - linePosition);
+                    System.arraycopy(line, linePosition, b, off + filled, count);
+                    linePosition += count;
+                    filled += count;
+                }
+            }
+            remaining -= n;
+            return n;
+        }
+
+        private void nextLine() {
+            millis += random.nextInt(50);
+            long seconds = millis / 1000;
+            StringBuilder builder = new StringBuilder(128)
+                .append("2024-01-01 ")
+                .append(twoDigits(seconds / 3600 % 24)).append(':')
+                .append(twoDigits(seconds / 60 % 60)).append(':')
+                .append(twoDigits(seconds % 60)).append('.')
+                .append(Long.toString(millis % 1000 + 1000).substring(1))
+                .append(' ').append(LEVELS[random.nextInt(LEVELS.length)])
+                .append(" [worker-").append(random.nextInt(16)).append("] ")
+                .append(LOGGERS[random.nextInt(LOGGERS.length)]).append(" - ")
+                .append(MESSAGES[random.nextInt(MESSAGES.length)])
+                .append(", requestId=").append(random.nextInt(1000000))
+                .append(", cost=").append(random.nextInt(500)).append("ms\n");
+            line = builder.toString().getBytes(StandardCharsets.US_ASCII);
+            linePosition = 0;
+        }
+
+        private String twoDigits(long value) {
+            return value < 10 ? "0" + value : Long.toString(value);
+        }
+    }
+
+    /**
+     * 为7-Zip-JBinding提供条目内容
+     */
+    private final class ContentInStream implements ISequentialInStream {
+
+        private final EntryContent content;
+
+        ContentInStream(CorpusSpec spec, int index) {
+            this.content = new EntryContent(spec, index);
+        }
+
+        @Override
+        public int read(byte[] data) throws SevenZipException {
+            return Math.max(content.read(data, 0, data.length), 0);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * 由多个成员拼接而成的GZIP输出流
+     * <p>
+     * 直接压缩一个条目时按未压缩字节数平均分成指定数量的成员；压缩TAR包时按条目平均分配，
+     * 在条目边界处结束当前成员。
+     * </p>
+     */
+    private static final class GzipMembersOutputStream extends OutputStream {
+
+        private final OutputStream output;
+
+        /**
+         * 每个成员的未压缩字节数，按条目分配时为 {@link Long#MAX_VALUE}
+         */
+        private final long memberSize;
+
+        /**
+         * 每个成员的条目数，按字节数分配时为0
+         */
+        private final int entriesPerMember;
+
+        /**
+         * 剩余的条目数，最后一个条目与TAR结束块写入同一个成员
+         */
+        private int remainingEntries;
+
+        private GzipCompressorOutputStream member;
+
+        private long memberBytes;
+
+        private int memberEntries;
+
+        GzipMembersOutputStream(OutputStream output, CorpusSpec spec) {
+            this.output = output;
+            int members = spec.getMembers();
+            if (spec.isTarWrapped()) {
+                this.memberSize = Long.MAX_VALUE;
+                this.entriesPerMember = (spec.getEntryCount() + members - 1) / members;
+                this.remainingEntries = spec.getEntryCount();
+            } else {
+                this.memberSize = Math.max(1, (spec.getEntrySize() + members - 1) / members);
+                this.entriesPerMember = 0;
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (member == null) {
+                    member = new GzipCompressorOutputStream(CloseShieldOutputStream.wrap(output));
+                    memberBytes = 0;
+                }
+                int n = (int) Math.min(len, memberSize - memberBytes);
+                member.write(b, off, n);
+                memberBytes += n;
+                off += n;
+                len -= n;
+                if (memberBytes == memberSize) {
+                    finishMember();
+                }
+            }
+        }
+
+        /**
+         * TAR包中的一个条目写完
+         */
+        void entryFinished() throws IOException {
+            if (entriesPerMember > 0 && --remainingEntries > 0 && ++memberEntries == entriesPerMember) {
+                memberEntries = 0;
+                finishMember();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                finishMember();
+            } finally {
+                output.close();
+            }
+        }
+
+        private void finishMember() throws IOException {
+            if (member != null) {
+                member.close();
+                member = null;
+            }
+        }
+    }
+}
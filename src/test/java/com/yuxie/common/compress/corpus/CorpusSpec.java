@@ -0,0 +1,284 @@
+package com.yuxie.common.compress.corpus;
+
+import com.yuxie.common.compress.format.CompressionFormat;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 测试压缩包规格
+ * <p>
+ * 描述 {@link ArchiveCorpus} 生成的一个压缩包：格式、条目数量和大小、内容类型、目录深度等。
+ * 同样的规格和随机种子每次生成完全相同的文件。
+ * </p>
+ * <p>
+ * 纯压缩格式（GZIP、BZIP2、XZ、LZMA、SNAPPY、LZ4）只能包含一个数据流：
+ * 条目数量大于1或设置了 {@link #isTar()} 时，先把所有条目打成TAR包再压缩，否则直接压缩一个条目的内容。
+ * </p>
+ * <p>
+ * 常用场景可以直接使用静态方法创建，例如 {@link #tinyFiles(CompressionFormat)}、{@link #solidSevenZip()}。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+@Data
+@Builder
+public class CorpusSpec {
+
+    /**
+     * 单个大条目的默认大小（5GB），超过4GB以覆盖ZIP64、TAR大数字和RAR大文件头
+     */
+    public static final long HUGE_ENTRY_SIZE = 5L * 1024 * 1024 * 1024;
+
+    /**
+     * 条目内容类型
+     */
+    public enum Content {
+        /**
+         * 类似应用日志的文本，压缩率高
+         */
+        COMPRESSIBLE,
+
+        /**
+         * 随机字节，基本不可压缩
+         */
+        INCOMPRESSIBLE
+    }
+
+    /**
+     * 压缩格式，不能为 {@link CompressionFormat#UNKNOWN}
+     */
+    private CompressionFormat format;
+
+    /**
+     * 条目数量
+     */
+    @Builder.Default
+    private int entryCount = 1;
+
+    /**
+     * 每个条目的大小（字节）
+     */
+    @Builder.Default
+    private long entrySize = 64 * 1024;
+
+    /**
+     * 条目内容类型
+     */
+    @Builder.Default
+    private Content content = Content.COMPRESSIBLE;
+
+    /**
+     * 每个条目所在目录的层数，0表示条目位于根目录
+     */
+    private int depth;
+
+    /**
+     * 是否生成固实压缩包，只对7Z有效
+     */
+    private boolean solid;
+
+    /**
+     * GZIP成员数量，大于1时生成由多个成员拼接而成的GZIP文件，只对GZIP有效
+     */
+    @Builder.Default
+    private int members = 1;
+
+    /**
+     * 纯压缩格式是否先打成TAR包再压缩
+     */
+    private boolean tar;
+
+    /**
+     * 高压缩率的日志文本：16个4MB的条目
+     *
+     * @param format 压缩格式
+     * @return 压缩包规格
+     */
+    public static CorpusSpec compressibleLogs(CompressionFormat format) {
+        return CorpusSpec.builder()
+            .format(format)
+            .entryCount(16)
+            .entrySize(4 * 1024 * 1024)
+            .content(Content.COMPRESSIBLE)
+            .build();
+    }
+
+    /**
+     * 不可压缩的二进制数据：16个4MB的条目
+     *
+     * @param format 压缩格式
+     * @return 压缩包规格
+     */
+    public static CorpusSpec incompressibleBinary(CompressionFormat format) {
+        return CorpusSpec.builder()
+            .format(format)
+            .entryCount(16)
+            .entrySize(4 * 1024 * 1024)
+            .content(Content.INCOMPRESSIBLE)
+            .build();
+    }
+
+    /**
+     * 深层目录树：256个1KB的条目，每个条目位于64层目录下
+     *
+     * @param format 压缩格式
+     * @return 压缩包规格
+     */
+    public static CorpusSpec deepTree(CompressionFormat format) {
+        return CorpusSpec.builder()
+            .format(format)
+            .entryCount(256)
+            .entrySize(1024)
+            .depth(64)
+            .build();
+    }
+
+    /**
+     * 大量小文件：100000个100字节的条目
+     *
+     * @param format 压缩格式
+     * @return 压缩包规格
+     */
+    public static CorpusSpec tinyFiles(CompressionFormat format) {
+        return CorpusSpec.builder()
+            .format(format)
+            .entryCount(100000)
+            .entrySize(100)
+            .depth(2)
+            .build();
+    }
+
+    /**
+     * 单个大条目，大小为 {@link #HUGE_ENTRY_SIZE}
+     *
+     * @param format 压缩格式
+     * @return 压缩包规格
+     */
+    public static CorpusSpec hugeEntry(CompressionFormat format) {
+        return CorpusSpec.builder()
+            .format(format)
+            .entrySize(HUGE_ENTRY_SIZE)
+            .build();
+    }
+
+    /**
+     * 固实7Z压缩包：1000个4KB的条目位于同一个固实块中
+     *
+     * @return 压缩包规格
+     */
+    public static CorpusSpec solidSevenZip() {
+        return sevenZip(true);
+    }
+
+    /**
+     * 非固实7Z压缩包：1000个4KB的条目各自单独压缩
+     *
+     * @return 压缩包规格
+     */
+    public static CorpusSpec nonSolidSevenZip() {
+        return sevenZip(false);
+    }
+
+    /**
+     * 由16个成员拼接而成的64MB GZIP文件
+     *
+     * @return 压缩包规格
+     */
+    public static CorpusSpec multiMemberGzip() {
+        return CorpusSpec.builder()
+            .format(CompressionFormat.GZIP)
+            .entrySize(64 * 1024 * 1024)
+            .members(16)
+            .build();
+    }
+
+    private static CorpusSpec sevenZip(boolean solid) {
+        return CorpusSpec.builder()
+            .format(CompressionFormat.SEVEN_ZIP)
+            .entryCount(1000)
+            .entrySize(4096)
+            .solid(solid)
+            .build();
+    }
+
+    /**
+     * 纯压缩格式是否需要先打成TAR包
+     *
+     * @return 需要打成TAR包时返回true，归档格式总是返回false
+     */
+    boolean isTarWrapped() {
+        return !isArchive(format) && (tar || entryCount > 1);
+    }
+
+    /**
+     * 由规格、随机种子和生成规则的版本决定的文件名
+     *
+     * @param seed 随机种子
+     * @return 文件名
+     */
+    String fileName(long seed) {
+        StringBuilder name = new StringBuilder()
+            .append(format.name().toLowerCase())
+            .append('-').append(entryCount)
+            .append('x').append(entrySize)
+            .append('-').append(content.name().toLowerCase())
+            .append("-d").append(depth);
+        if (solid && format == CompressionFormat.SEVEN_ZIP) {
+            name.append("-solid");
+        }
+        if (members > 1 && format == CompressionFormat.GZIP) {
+            name.append("-m").append(members);
+        }
+        name.append("-s").append(seed).append("-v").append(ArchiveCorpus.VERSION);
+        if (isTarWrapped()) {
+            name.append(".tar");
+        }
+        return name.append(extension(format)).toString();
+    }
+
+    /**
+     * 是否为归档格式
+     *
+     * @param format 压缩格式
+     * @return ZIP、RAR、7Z、TAR返回true
+     */
+    static boolean isArchive(CompressionFormat format) {
+        switch (format) {
+            case ZIP:
+            case RAR:
+            case SEVEN_ZIP:
+            case TAR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static String extension(CompressionFormat format) {
+        switch (format) {
+            case ZIP:
+                return ".zip";
+            case RAR:
+                return ".rar";
+            case SEVEN_ZIP:
+                return ".7z";
+            case TAR:
+                return ".tar";
+            case GZIP:
+                return ".gz";
+            case BZIP2:
+                return ".bz2";
+            case XZ:
+                return ".xz";
+            case LZMA:
+                return ".lzma";
+            case SNAPPY:
+                return ".sz";
+            case LZ4:
+                return ".lz4";
+            default:
+                throw new IllegalArgumentException("不支持的格式: " + format);
+        }
+    }
+}
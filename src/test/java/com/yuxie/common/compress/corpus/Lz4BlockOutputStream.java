@@ -0,0 +1,185 @@
+package com.yuxie.common.compress.corpus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 不带帧的LZ4块格式输出流
+ * <p>
+ * commons-compress的 {@code BlockLZ4CompressorOutputStream} 压缩可压缩文本时每秒只有几百KB，
+ * 无法生成大文件。这里用单个哈希表做贪心匹配，输出与 {@code BlockLZ4CompressorInputStream} 兼容的LZ4块格式，
+ * 压缩率略低但速度与输入大小成线性关系。
+ * </p>
+ * <p>
+ * 输入缓存在一个滑动缓冲区中：保留最近64KB作为匹配窗口，加上尚未输出的字面量。
+ * 字面量要在遇到下一个匹配时才能输出，随机数据平均每64KB左右就会出现一次4字节的重复，缓冲区不够时自动扩容。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+final class Lz4BlockOutputStream extends OutputStream {
+
+    /**
+     * 匹配窗口大小，LZ4的偏移量最大为65535
+     */
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    private static final int MIN_MATCH = 4;
+
+    /**
+     * 最后5个字节必须是字面量
+     */
+    private static final int LAST_LITERALS = 5;
+
+    /**
+     * 最后一个匹配必须在距离结尾12字节之前开始
+     */
+    private static final int MATCH_FIND_LIMIT = 12;
+
+    private static final int HASH_BITS = 16;
+
+    private final OutputStream output;
+
+    /**
+     * 哈希值对应的最近位置加1，0表示没有记录
+     */
+    private final int[] table = new int[1 << HASH_BITS];
+
+    private byte[] buffer = new byte[WINDOW_SIZE + 256 * 1024];
+
+    /**
+     * 缓冲区中的数据长度
+     */
+    private int limit;
+
+    /**
+     * 尚未输出的字面量的起始位置
+     */
+    private int anchor;
+
+    /**
+     * 下一个查找匹配的位置
+     */
+    private int position;
+
+    private boolean closed;
+
+    Lz4BlockOutputStream(OutputStream output) {
+        this.output = output;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (limit == buffer.length) {
+                // 缓冲区满时才编码，输出与每次写入的长度无关
+                encode();
+                compact();
+            }
+            int n = Math.min(len, buffer.length - limit);
+            System.arraycopy(b, off, buffer, limit, n);
+            limit += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            encode();
+            writeLength(limit - anchor, 0);
+            output.write(buffer, anchor, limit - anchor);
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * 在已缓存的数据中查找匹配并输出序列，为后续数据保留 {@link #MATCH_FIND_LIMIT} 字节
+     */
+    private void encode() throws IOException {
+        int matchLimit = limit - LAST_LITERALS;
+        while (position <= limit - MATCH_FIND_LIMIT) {
+            int value = readInt(position);
+            int hash = (value * -1640531535) >>> (32 - HASH_BITS);
+            int candidate = table[hash] - 1;
+            table[hash] = position + 1;
+            if (candidate < 0 || position - candidate > 65535 || readInt(candidate) != value) {
+                position++;
+                continue;
+            }
+            int length = MIN_MATCH;
+            while (position + length < matchLimit && buffer[candidate + length] == buffer[position + length]) {
+                length++;
+            }
+            int literals = position - anchor;
+            writeLength(literals, length - MIN_MATCH);
+            output.write(buffer, anchor, literals);
+            int offset = position - candidate;
+            output.write(offset);
+            output.write(offset >>> 8);
+            if (length - MIN_MATCH >= 15) {
+                writeExtraLength(length - MIN_MATCH - 15);
+            }
+            position += length;
+            anchor = position;
+        }
+    }
+
+    /**
+     * 写入令牌和字面量长度的扩展字节
+     */
+    private void writeLength(int literals, int matchLength) throws IOException {
+        output.write((Math.min(literals, 15) << 4) | Math.min(matchLength, 15));
+        if (literals >= 15) {
+            writeExtraLength(literals - 15);
+        }
+    }
+
+    private void writeExtraLength(int length) throws IOException {
+        while (length >= 255) {
+            output.write(255);
+            length -= 255;
+        }
+        output.write(length);
+    }
+
+    /**
+     * 丢弃匹配窗口之前且已输出的数据，空间仍然不够时扩容
+     */
+    private void compact() {
+        int keepFrom = Math.max(0, Math.min(anchor, position - WINDOW_SIZE));
+        if (keepFrom > 0) {
+            System.arraycopy(buffer, keepFrom, buffer, 0, limit - keepFrom);
+            limit -= keepFrom;
+            anchor -= keepFrom;
+            position -= keepFrom;
+            for (int i = 0; i < table.length; i++) {
+                table[i] = Math.max(0, table[i] - keepFrom);
+            }
+        }
+        if (limit == buffer.length) {
+            byte[] expanded = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, expanded, 0, limit);
+            buffer = expanded;
+        }
+    }
+
+    private int readInt(int index) {
+        return (buffer[index] & 0xFF)
+            | (buffer[index + 1] & 0xFF) << 8
+            | (buffer[index + 2] & 0xFF) << 16
+            | (buffer[index + 3] & 0xFF) << 24;
+    }
+}
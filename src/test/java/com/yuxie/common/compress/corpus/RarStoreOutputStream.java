@@ -0,0 +1,221 @@
+package com.yuxie.common.compress.corpus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * 只存储不压缩的RAR 4.x归档输出流
+ * <p>
+ * commons-compress和7-Zip-JBinding都不能生成RAR文件，这里按RAR 4.x格式直接写出标记块、归档头、
+ * 使用存储方式（不压缩）的文件头和结束块，足以覆盖RAR的格式检测、条目遍历和内容读取。
+ * 文件头中的CRC在条目写完后回填，所以条目内容可以边生成边写入，不需要先放到内存中。
+ * </p>
+ * <p>
+ * 使用方式与commons-compress的归档输出流相同：{@link #putEntry(String, long)}、写入内容、{@link #closeEntry()}。
+ * 条目名称只支持ASCII字符。
+ * </p>
+ *
+ * @author yuxie
+ * @since 1.0.0
+ */
+final class RarStoreOutputStream extends OutputStream {
+
+    /**
+     * RAR 4.x标记块
+     */
+    private static final byte[] MARKER = {0x52, 0x61, 0x72, 0x21, 0x1A, 0x07, 0x00};
+
+    private static final int MAIN_HEAD = 0x73;
+
+    private static final int FILE_HEAD = 0x74;
+
+    private static final int END_HEAD = 0x7B;
+
+    /**
+     * 文件头总是带有数据区
+     */
+    private static final int LONG_BLOCK = 0x8000;
+
+    /**
+     * 文件头带有高32位大小字段，条目超过4GB时需要
+     */
+    private static final int LARGE_FILE = 0x0100;
+
+    private static final int HOST_UNIX = 3;
+
+    private static final int METHOD_STORE = 0x30;
+
+    private static final int UNPACK_VERSION = 20;
+
+    /**
+     * 普通文件权限 0100644
+     */
+    private static final int UNIX_FILE_ATTRIBUTES = 0x81A4;
+
+    /**
+     * 条目时间，DOS格式的2024-01-01 00:00:00
+     */
+    private static final int DOS_TIME = (((2024 - 1980) << 9) | (1 << 5) | 1) << 16;
+
+    private final RandomAccessFile file;
+
+    private final byte[] buffer = new byte[64 * 1024];
+
+    private final CRC32 crc = new CRC32();
+
+    private int buffered;
+
+    /**
+     * 当前条目文件头的位置，没有打开的条目时为-1
+     */
+    private long headerPosition = -1;
+
+    private byte[] header;
+
+    private long remaining;
+
+    RarStoreOutputStream(Path path) throws IOException {
+        this.file = new RandomAccessFile(path.toFile(), "rw");
+        file.setLength(0);
+        file.write(MARKER);
+        byte[] mainHeader = new byte[13];
+        mainHeader[2] = (byte) MAIN_HEAD;
+        putShort(mainHeader, 5, mainHeader.length);
+        putHeaderCrc(mainHeader);
+        file.write(mainHeader);
+    }
+
+    /**
+     * 开始写入一个条目
+     *
+     * @param name 条目名称，使用 {@code /} 分隔目录
+     * @param size 条目大小（字节），写入的内容必须正好是这么多
+     * @throws IOException 写入失败时抛出
+     */
+    void putEntry(String name, long size) throws IOException {
+        if (headerPosition >= 0) {
+            throw new IllegalStateException("上一个条目尚未结束");
+        }
+        byte[] nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+        boolean large = size > 0xFFFFFFFFL;
+        header = new byte[32 + (large ? 8 : 0) + nameBytes.length];
+        header[2] = (byte) FILE_HEAD;
+        putShort(header, 3, LONG_BLOCK | (large ? LARGE_FILE : 0));
+        putShort(header, 5, header.length);
+        putInt(header, 7, (int) size);
+        putInt(header, 11, (int) size);
+        header[15] = HOST_UNIX;
+        putInt(header, 20, DOS_TIME);
+        header[24] = UNPACK_VERSION;
+        header[25] = (byte) METHOD_STORE;
+        putShort(header, 26, nameBytes.length);
+        putInt(header, 28, UNIX_FILE_ATTRIBUTES);
+        int offset = 32;
+        if (large) {
+            putInt(header, 32, (int) (size >>> 32));
+            putInt(header, 36, (int) (size >>> 32));
+            offset = 40;
+        }
+        System.arraycopy(nameBytes, 0, header, offset, nameBytes.length);
+
+        headerPosition = file.getFilePointer();
+        // 先写入占位的文件头，条目结束后回填CRC
+        file.write(header);
+        crc.reset();
+        remaining = size;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (headerPosition < 0) {
+            throw new IllegalStateException("没有打开的条目");
+        }
+        if (len > remaining) {
+            throw new IOException("写入的内容超过条目大小");
+        }
+        crc.update(b, off, len);
+        remaining -= len;
+        while (len > 0) {
+            int n = Math.min(len, buffer.length - buffered);
+            System.arraycopy(b, off, buffer, buffered, n);
+            buffered += n;
+            off += n;
+            len -= n;
+            if (buffered == buffer.length) {
+                flushBuffer();
+            }
+        }
+    }
+
+    /**
+     * 结束当前条目，回填文件头中的CRC
+     *
+     * @throws IOException 写入失败或写入的内容少于条目大小时抛出
+     */
+    void closeEntry() throws IOException {
+        if (remaining != 0) {
+            throw new IOException("写入的内容少于条目大小");
+        }
+        flushBuffer();
+        long end = file.getFilePointer();
+        putInt(header, 16, (int) crc.getValue());
+        putHeaderCrc(header);
+        file.seek(headerPosition);
+        file.write(header);
+        file.seek(end);
+        headerPosition = -1;
+        header = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (headerPosition >= 0) {
+                closeEntry();
+            }
+            byte[] endHeader = new byte[7];
+            endHeader[2] = (byte) END_HEAD;
+            putShort(endHeader, 3, 0x4000);
+            putShort(endHeader, 5, endHeader.length);
+            putHeaderCrc(endHeader);
+            file.write(endHeader);
+        } finally {
+            file.close();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffered > 0) {
+            file.write(buffer, 0, buffered);
+            buffered = 0;
+        }
+    }
+
+    /**
+     * 头部CRC是从头部类型开始的所有字节的CRC32的低16位
+     */
+    private static void putHeaderCrc(byte[] header) {
+        CRC32 headerCrc = new CRC32();
+        headerCrc.update(header, 2, header.length - 2);
+        putShort(header, 0, (int) headerCrc.getValue());
+    }
+
+    private static void putShort(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >>> 8);
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        putShort(bytes, offset, value);
+        putShort(bytes, offset + 2, value >>> 16);
+    }
+}
@@ -0,0 +1,132 @@
+package com.yuxie.common.compress.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 直方图的百分位数与精确值的相对误差不超过 1/16，滑动窗口在时间片轮换后只保留最近的数据
+ */
+class WindowedHistogramTest {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    @Test
+    void testPercentilesWithinRelativeError() {
+        // 从几纳秒到几十分钟的长尾分布，覆盖各个数量级
+        Random random = new Random(7);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 28);
+        }
+        WindowedHistogram histogram = new WindowedHistogram(1, TimeUnit.HOURS, 4);
+        for (long value : values) {
+            histogram.record(value);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.getCount());
+        assertPercentiles(values, snapshot);
+    }
+
+    @Test
+    void testMergedSnapshotsMatchCombinedValues() {
+        Random random = new Random(11);
+        long[] first = randomValues(random, 5_000, 1_000_000);
+        long[] second = randomValues(random, 20_000, 50_000_000);
+
+        HistogramSnapshot merged = snapshot(first).merge(snapshot(second));
+        long[] combined = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, combined, first.length, second.length);
+        assertEquals(combined.length, merged.getCount());
+        assertPercentiles(combined, merged);
+    }
+
+    @Test
+    void testSlotRotationKeepsRecentBatches() throws InterruptedException {
+        // 窗口400毫秒，4个时间片；每一轮在新的时间片中记录一批数据，时间片被循环复用
+        int slotCount = 4;
+        long slotMillis = 100;
+        int batchSize = 2_000;
+        WindowedHistogram histogram = new WindowedHistogram(slotCount * slotMillis, TimeUnit.MILLISECONDS, slotCount);
+        Random random = new Random(13);
+        List<long[]> batches = new ArrayList<>();
+        for (int round = 0; round < slotCount * 3; round++) {
+            awaitNextSlot(TimeUnit.MILLISECONDS.toNanos(slotMillis));
+            // 每一轮的数值范围不同，过期的批次留在快照中会改变百分位数
+            long[] batch = randomValues(random, batchSize, 1_000L << round);
+            for (long value : batch) {
+                histogram.record(value);
+            }
+            batches.add(batch);
+
+            HistogramSnapshot snapshot = histogram.snapshot();
+            long count = snapshot.getCount();
+            assertEquals(0, count % batchSize, "时间片只能整体过期");
+            int recent = (int) (count / batchSize);
+            assertTrue(recent >= 1 && recent <= slotCount, "快照中的批次数: " + recent);
+            assertPercentiles(concat(batches.subList(batches.size() - recent, batches.size())), snapshot);
+        }
+
+        // 整个窗口内没有记录时快照为空
+        Thread.sleep(slotCount * slotMillis + 10);
+        assertEquals(0, histogram.snapshot().getCount());
+    }
+
+    /**
+     * 等到下一个时间片开始，使一批数据记录在同一个时间片中（时间片按 {@link System#nanoTime()} 划分）
+     */
+    private static void awaitNextSlot(long slotNanos) throws InterruptedException {
+        long next = (Math.floorDiv(System.nanoTime(), slotNanos) + 1) * slotNanos;
+        long remaining;
+        while ((remaining = next - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private static void assertPercentiles(long[] values, HistogramSnapshot snapshot) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertEquals(sorted[0], snapshot.getMin());
+        assertEquals(sorted[sorted.length - 1], snapshot.getMax());
+        for (double percentile : PERCENTILES) {
+            long exact = sorted[(int) Math.ceil(percentile / 100 * sorted.length) - 1];
+            long actual = snapshot.getValueAtPercentile(percentile);
+            // 返回所在桶的上界，只会偏大
+            assertTrue(actual >= exact && actual - exact <= exact / HistogramSnapshot.SUB_BUCKET_COUNT,
+                "p" + percentile + " 精确值: " + exact + ", 直方图: " + actual);
+        }
+    }
+
+    private static HistogramSnapshot snapshot(long[] values) {
+        WindowedHistogram histogram = new WindowedHistogram(1, TimeUnit.HOURS, 1);
+        for (long value : values) {
+            histogram.record(value);
+        }
+        return histogram.snapshot();
+    }
+
+    private static long[] randomValues(Random random, int count, long bound) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = 1 + (long) (random.nextDouble() * bound);
+        }
+        return values;
+    }
+
+    private static long[] concat(List<long[]> arrays) {
+        long[] result = new long[arrays.stream().mapToInt(array -> array.length).sum()];
+        int off = 0;
+        for (long[] array : arrays) {
+            System.arraycopy(array, 0, result, off, array.length);
+            off += array.length;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,194 @@
+package com.yuxie.common.compress.service;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.corpus.ArchiveCorpus;
+import com.yuxie.common.compress.corpus.CorpusSpec;
+import com.yuxie.common.compress.exception.UnzipErrorCode;
+import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.model.FileInfo;
+import com.yuxie.common.compress.model.UnzipBatchResult;
+import com.yuxie.common.compress.monitor.DefaultUnzipMetrics;
+import com.yuxie.common.compress.strategy.UnzipStrategy;
+import com.yuxie.common.compress.strategy.UnzipStrategyFactory;
+import com.yuxie.common.compress.strategy.impl.DefaultUnzipStrategyFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量解压的结果按输入顺序排列，与逐个解压的结果相同，单个压缩包失败不影响其他压缩包，
+ * 每种格式只获取一次解压策略
+ */
+class UnzipServiceBatchTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ArchiveCorpus corpus;
+
+    private UnzipService unzipService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        corpus = new ArchiveCorpus(7, tempDir);
+        unzipService = new UnzipService(UnzipConfig.builder().asyncThreads(4).build(), new DefaultUnzipMetrics());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        unzipService.close();
+    }
+
+    @Test
+    void testResultsInInputOrderWithFailuresIsolated() throws Exception {
+        // 大量小压缩包合并为任务，中间夹杂单独成组的大压缩包和无法解压的数据
+        List<byte[]> archives = new ArrayList<>();
+        List<Integer> failing = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            if (i % 37 == 5) {
+                failing.add(archives.size());
+                archives.add(("不是压缩包 " + i).getBytes(StandardCharsets.UTF_8));
+            } else if (i % 50 == 20) {
+                archives.add(archive(CompressionFormat.SEVEN_ZIP, 8, 64 * 1024));
+            } else if (i % 50 == 40) {
+                archives.add(archive(CompressionFormat.GZIP, 4, 128 * 1024));
+            } else {
+                archives.add(archive(CompressionFormat.ZIP, 1 + i % 5, 256 + i));
+            }
+        }
+
+        Map<Integer, UnzipBatchResult> reported = new ConcurrentHashMap<>();
+        List<UnzipBatchResult> results = unzipService.unzipBatch(archives, result -> {
+            assertNull(reported.put(result.getIndex(), result), "重复报告: " + result.getIndex());
+        }).get(60, TimeUnit.SECONDS);
+
+        assertEquals(archives.size(), results.size());
+        assertEquals(archives.size(), reported.size());
+        for (int i = 0; i < archives.size(); i++) {
+            UnzipBatchResult result = results.get(i);
+            assertEquals(i, result.getIndex());
+            assertSame(result, reported.get(i));
+            if (failing.contains(i)) {
+                assertFalse(result.isSuccess(), "压缩包: " + i);
+                assertNull(result.getFiles());
+                assertEquals(UnzipErrorCode.INVALID_FORMAT.getCode(), result.getError().getErrorCode());
+            } else {
+                assertTrue(result.isSuccess(), "压缩包: " + i + ", " + result.getError());
+                assertEquals(contents(unzipService.unzip(archives.get(i))), contents(result.getFiles()), "压缩包: " + i);
+            }
+        }
+    }
+
+    @Test
+    void testEmptyAndNullInputs() throws Exception {
+        assertTrue(unzipService.unzipBatch(Collections.emptyList()).get(10, TimeUnit.SECONDS).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> unzipService.unzipBatch(null));
+
+        // 集合中的null和空数组只影响对应的结果
+        byte[] zip = archive(CompressionFormat.ZIP, 2, 100);
+        List<UnzipBatchResult> results = unzipService.unzipBatch(Arrays.asList(null, zip, new byte[0], zip))
+            .get(10, TimeUnit.SECONDS);
+        assertEquals(4, results.size());
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(results.get(3).isSuccess());
+        assertEquals(2, results.get(3).getFiles().size());
+    }
+
+    @Test
+    void testStrategyResolvedOncePerFormat() throws Exception {
+        // 多种格式交错排列，每种格式只从工厂获取一次策略；无法识别的数据仍按单个解压报告错误
+        UnzipConfig config = UnzipConfig.builder().asyncThreads(4).enableConcurrentUnzip(true).concurrentThreads(4).build();
+        Map<CompressionFormat, AtomicInteger> lookups = new ConcurrentHashMap<>();
+        DefaultUnzipStrategyFactory factory = new DefaultUnzipStrategyFactory(config, new DefaultUnzipMetrics());
+        try (UnzipService service = new UnzipService(countingFactory(factory, lookups), config, new DefaultUnzipMetrics())) {
+            CompressionFormat[] formats = {CompressionFormat.ZIP, CompressionFormat.SEVEN_ZIP, CompressionFormat.GZIP};
+            List<byte[]> archives = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                archives.add(archive(formats[i % formats.length], 2 + i % 7, 512 + i));
+            }
+            archives.add(30, "不是压缩包".getBytes(StandardCharsets.UTF_8));
+            lookups.clear();
+
+            List<UnzipBatchResult> results = service.unzipBatch(archives).get(60, TimeUnit.SECONDS);
+            for (CompressionFormat format : formats) {
+                assertEquals(1, lookups.get(format).get(), format.toString());
+            }
+            for (int i = 0; i < archives.size(); i++) {
+                if (i == 30) {
+                    assertEquals(UnzipErrorCode.INVALID_FORMAT.getCode(), results.get(i).getError().getErrorCode());
+                } else {
+                    assertTrue(results.get(i).isSuccess(), "压缩包: " + i + ", " + results.get(i).getError());
+                    assertEquals(contents(service.unzip(archives.get(i))), contents(results.get(i).getFiles()), "压缩包: " + i);
+                }
+            }
+        } finally {
+            factory.close();
+        }
+    }
+
+    private byte[] archive(CompressionFormat format, int entryCount, int entrySize) throws IOException {
+        return corpus.generateBytes(CorpusSpec.builder()
+            .format(format)
+            .entryCount(entryCount)
+            .entrySize(entrySize)
+            .depth(1)
+            .build());
+    }
+
+    /**
+     * 统计各格式获取策略次数的策略工厂
+     */
+    private static UnzipStrategyFactory countingFactory(UnzipStrategyFactory delegate, Map<CompressionFormat, AtomicInteger> lookups) {
+        return new UnzipStrategyFactory() {
+            @Override
+            public void registerStrategy(CompressionFormat format, UnzipStrategy strategy) {
+                delegate.registerStrategy(format, strategy);
+            }
+
+            @Override
+            public UnzipStrategy getStrategy(CompressionFormat format) {
+                lookups.computeIfAbsent(format, f -> new AtomicInteger()).incrementAndGet();
+                return delegate.getStrategy(format);
+            }
+
+            @Override
+            public void removeStrategy(CompressionFormat format) {
+                delegate.removeStrategy(format);
+            }
+
+            @Override
+            public boolean supportsFormat(CompressionFormat format) {
+                return delegate.supportsFormat(format);
+            }
+        };
+    }
+
+    /**
+     * 按路径排列的条目内容，{@link FileInfo} 中的修改时间等字段不参与比较
+     */
+    private static Map<String, String> contents(Map<FileInfo, byte[]> files) {
+        Map<String, String> contents = new TreeMap<>();
+        for (Map.Entry<FileInfo, byte[]> entry : files.entrySet()) {
+            contents.put(entry.getKey().getPath(), Arrays.toString(entry.getValue()));
+        }
+        return contents;
+    }
+}
@@ -0,0 +1,104 @@
+package com.yuxie.common.compress.service;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.corpus.ArchiveCorpus;
+import com.yuxie.common.compress.corpus.CorpusSpec;
+import com.yuxie.common.compress.exception.UnzipErrorCode;
+import com.yuxie.common.compress.exception.UnzipException;
+import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.monitor.DefaultUnzipMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 超过 {@link UnzipConfig#getUnzipTimeout()} 的解压在各个格式的处理路径上都以 {@link UnzipErrorCode#TIMEOUT_ERROR} 失败
+ */
+class UnzipServiceDeadlineTest {
+
+    private static final long TIMEOUT_MILLIS = 300;
+
+    private static final int ENTRY_COUNT = 40;
+
+    /** 每个条目的处理时间，全部条目处理完远超过超时时间 */
+    private static final long VISIT_MILLIS = 50;
+
+    @TempDir
+    Path tempDir;
+
+    private ArchiveCorpus corpus;
+
+    private UnzipService unzipService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        corpus = new ArchiveCorpus(7, tempDir);
+        unzipService = new UnzipService(UnzipConfig.builder().unzipTimeout(TIMEOUT_MILLIS).build(), new DefaultUnzipMetrics());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        unzipService.close();
+    }
+
+    @Test
+    void testZipTimesOut() throws IOException {
+        assertTimesOut(CompressionFormat.ZIP);
+    }
+
+    @Test
+    void testTarGzTimesOut() throws IOException {
+        assertTimesOut(CompressionFormat.GZIP);
+    }
+
+    @Test
+    void testSevenZipTimesOut() throws IOException {
+        assertTimesOut(CompressionFormat.SEVEN_ZIP);
+    }
+
+    @Test
+    void testFastUnzipCompletes() throws IOException {
+        byte[] data = corpus.generateBytes(spec(CompressionFormat.ZIP));
+        assertEquals(ENTRY_COUNT, unzipService.unzip(data).size());
+    }
+
+    /**
+     * 访问器处理每个条目都很慢，解压必须在超时后不久结束，而不是处理完全部条目
+     */
+    private void assertTimesOut(CompressionFormat format) throws IOException {
+        byte[] data = corpus.generateBytes(spec(format));
+        AtomicInteger visited = new AtomicInteger();
+        long start = System.nanoTime();
+        UnzipException e = assertThrows(UnzipException.class, () -> unzipService.unzipWithVisitor(data, null, (fileInfo, in) -> {
+            visited.incrementAndGet();
+            try {
+                Thread.sleep(VISIT_MILLIS);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(UnzipErrorCode.TIMEOUT_ERROR.getCode(), e.getErrorCode(), format + ": " + e);
+        assertTrue(visited.get() < ENTRY_COUNT, format + " 访问的条目数: " + visited.get());
+        assertTrue(elapsedMillis < ENTRY_COUNT * VISIT_MILLIS, format + " 耗时: " + elapsedMillis);
+    }
+
+    private static CorpusSpec spec(CompressionFormat format) {
+        return CorpusSpec.builder()
+            .format(format)
+            .entryCount(ENTRY_COUNT)
+            .entrySize(4 * 1024)
+            .build();
+    }
+}
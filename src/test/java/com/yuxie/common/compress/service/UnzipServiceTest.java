@@ -2,6 +2,8 @@ package com.yuxie.common.compress.service;
 
 import com.yuxie.common.compress.callback.UnzipProgressCallback;
 import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.corpus.ArchiveCorpus;
+import com.yuxie.common.compress.corpus.CorpusSpec;
 import com.yuxie.common.compress.exception.UnzipErrorCode;
 import com.yuxie.common.compress.exception.UnzipException;
 import com.yuxie.common.compress.format.CompressionFormat;
@@ -243,4 +245,18 @@ class UnzipServiceTest {
         assertEquals(1, result.size());
         verify(mockStrategy).close();
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testSevenZipStrategyReusedAfterStreamUnzip(@TempDir Path tempDir) throws IOException {
+        // 工厂中的策略被所有请求共享，流式解压结束后不能关闭，之后的解压仍使用同一个策略
+        byte[] data = new ArchiveCorpus(7, tempDir).generateBytes(CorpusSpec.builder()
+                .format(CompressionFormat.SEVEN_ZIP)
+                .entryCount(5)
+                .entrySize(1024)
+                .build());
+
+        assertEquals(5, unzipService.unzip(new ByteArrayInputStream(data), null, null).size());
+        assertEquals(5, unzipService.unzip(data).size());
+        assertEquals(5, unzipService.unzip(new ByteArrayInputStream(data), null, null).size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.yuxie.common.compress.strategy.impl;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.corpus.ArchiveCorpus;
+import com.yuxie.common.compress.corpus.CorpusSpec;
+import com.yuxie.common.compress.format.CompressionFormat;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GZIP策略的各种输入方式在并行和顺序解压时结果一致
+ */
+class GzipUnzipStrategyTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path gzip;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        gzip = new ArchiveCorpus(7, tempDir).generate(CorpusSpec.builder()
+            .format(CompressionFormat.GZIP)
+            .entrySize(8 * 1024 * 1024)
+            .members(8)
+            .build());
+    }
+
+    @Test
+    void testFileChannelMatchesSerial() throws Exception {
+        byte[] expected = unzipFile(config(false));
+
+        // 并行解压时文件通道映射到内存
+        assertArrayEquals(expected, unzipFile(config(true)));
+    }
+
+    @Test
+    void testInMemoryChannelAndByteArrayMatchSerial() throws Exception {
+        byte[] data = Files.readAllBytes(gzip);
+        byte[] expected = unzipFile(config(false));
+
+        assertArrayEquals(expected, unzip(config(true), new SeekableInMemoryByteChannel(data)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new GzipUnzipStrategy(config(true)).unzip(data, null, null, (fileInfo, in) -> IOUtils.copy(in, output));
+        assertArrayEquals(expected, output.toByteArray());
+    }
+
+    private byte[] unzipFile(UnzipConfig config) throws Exception {
+        try (FileChannel channel = FileChannel.open(gzip, StandardOpenOption.READ)) {
+            return unzip(config, channel);
+        }
+    }
+
+    private static byte[] unzip(UnzipConfig config, SeekableByteChannel channel) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new GzipUnzipStrategy(config).unzip(channel, null, null, (fileInfo, in) -> IOUtils.copy(in, output));
+        return output.toByteArray();
+    }
+
+    private static UnzipConfig config(boolean parallel) {
+        return UnzipConfig.builder()
+            .enableConcurrentUnzip(parallel)
+            .concurrentThreads(4)
+            .enableFileTypeCheck(false)
+            .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.yuxie.common.compress.strategy.impl;
+
+import net.sf.sevenzipjbinding.ExtractAskMode;
+import net.sf.sevenzipjbinding.ExtractOperationResult;
+import net.sf.sevenzipjbinding.ISequentialOutStream;
+import net.sf.sevenzipjbinding.SevenZipException;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在普通线程中模拟7-Zip的提取线程，验证条目的交接顺序、失败传递和中止
+ */
+class SevenZipExtractCallbackTest {
+
+    private static final int PIPE_CAPACITY = 2;
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    @Test
+    void testItemsAreHandedOffInOrder() throws Exception {
+        // 小条目合并交接，大小未知和较大的条目通过管道交接
+        long[] sizes = {10, 0, SevenZipExtractCallback.SMALL_ITEM_SIZE, -1, 5, SevenZipExtractCallback.SMALL_ITEM_SIZE * 3, 7};
+        SevenZipExtractCallback callback = new SevenZipExtractCallback(sizes, null, PIPE_CAPACITY, null);
+        CompletableFuture<Void> extraction = extract(callback, sizes, -1);
+
+        for (int i = 0; i < sizes.length; i++) {
+            SevenZipExtractCallback.ItemStream item = callback.next();
+            assertNotNull(item, "条目: " + i);
+            assertEquals(i, item.getIndex());
+            assertArrayEquals(content(i, actualSize(sizes[i])), IOUtils.toByteArray(item.getInputStream()));
+            item.close();
+        }
+        assertNull(callback.next());
+        assertNull(callback.next());
+        extraction.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testFailureIsReportedAfterPreviousItems() throws Exception {
+        long[] sizes = {10, 20, 30};
+        for (int failAt = 0; failAt < sizes.length; failAt++) {
+            SevenZipExtractCallback callback = new SevenZipExtractCallback(sizes, null, PIPE_CAPACITY, null);
+            CompletableFuture<Void> extraction = extract(callback, sizes, failAt);
+
+            for (int i = 0; i < failAt; i++) {
+                assertEquals(i, callback.next().getIndex());
+            }
+            assertThrows(IOException.class, callback::next);
+            assertThrows(ExecutionException.class, () -> extraction.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testFailedLargeItemFailsItsStream() throws Exception {
+        long[] sizes = {-1};
+        SevenZipExtractCallback callback = new SevenZipExtractCallback(sizes, null, PIPE_CAPACITY, null);
+        CompletableFuture<Void> extraction = extract(callback, sizes, 0);
+
+        SevenZipExtractCallback.ItemStream item = callback.next();
+        assertThrows(IOException.class, () -> IOUtils.toByteArray(item.getInputStream()));
+        item.close();
+        extraction.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testAbortReleasesBlockedExtraction() throws Exception {
+        // 读取方处理完第一个条目后不再读取，提取线程在交接队列写满后阻塞，读取方中止后必须结束
+        long[] sizes = new long[64];
+        Arrays.fill(sizes, -1);
+        SevenZipExtractCallback callback = new SevenZipExtractCallback(sizes, null, PIPE_CAPACITY, null);
+        CompletableFuture<Void> extraction = extract(callback, sizes, -1);
+
+        SevenZipExtractCallback.ItemStream first = callback.next();
+        assertEquals(0, first.getIndex());
+        IOUtils.toByteArray(first.getInputStream());
+        first.close();
+        Thread.sleep(300);
+        assertFalse(extraction.isDone());
+
+        callback.abort();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> extraction.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof SevenZipException, String.valueOf(e.getCause()));
+    }
+
+    /**
+     * 按7-Zip的调用顺序在后台线程中依次输出条目，并在结束时调用 {@link SevenZipExtractCallback#finish(Throwable)}
+     *
+     * @param failAt 解压失败的条目索引，-1表示全部成功
+     */
+    private static CompletableFuture<Void> extract(SevenZipExtractCallback callback, long[] sizes, int failAt) {
+        CompletableFuture<Void> extraction = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            Throwable failure = null;
+            try {
+                for (int i = 0; i < sizes.length; i++) {
+                    ISequentialOutStream out = callback.getStream(i, ExtractAskMode.EXTRACT);
+                    byte[] content = content(i, actualSize(sizes[i]));
+                    for (int off = 0; off < content.length; off += CHUNK_SIZE) {
+                        out.write(Arrays.copyOfRange(content, off, Math.min(content.length, off + CHUNK_SIZE)));
+                    }
+                    callback.setOperationResult(i == failAt ? ExtractOperationResult.CRCERROR : ExtractOperationResult.OK);
+                }
+            } catch (Throwable t) {
+                failure = t;
+            }
+            callback.finish(failure);
+            if (failure != null) {
+                extraction.completeExceptionally(failure);
+            } else {
+                extraction.complete(null);
+            }
+        }, "sevenzip-extract-test");
+        thread.setDaemon(true);
+        thread.start();
+        return extraction;
+    }
+
+    private static int actualSize(long declaredSize) {
+        return declaredSize >= 0 ? (int) declaredSize : 100 * 1024;
+    }
+
+    private static byte[] content(int index, int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (index * 31 + i);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,103 @@
+package com.yuxie.common.compress.strategy.impl;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.corpus.ArchiveCorpus;
+import com.yuxie.common.compress.corpus.CorpusSpec;
+import com.yuxie.common.compress.exception.UnzipException;
+import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.strategy.UnzipStrategy;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 7Z策略通过后台提取线程交接条目，结果与ZIP相同，访问器失败时提取过程随之中止
+ */
+class SevenZipUnzipStrategyTest {
+
+    private static final int ENTRY_COUNT = 200;
+
+    @TempDir
+    Path tempDir;
+
+    private ArchiveCorpus corpus;
+
+    private SevenZipUnzipStrategy strategy;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        corpus = new ArchiveCorpus(7, tempDir);
+        strategy = new SevenZipUnzipStrategy(UnzipConfig.builder().concurrentThreads(2).build());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        strategy.close();
+    }
+
+    @Test
+    void testSolidAndNonSolidMatchZip() throws Exception {
+        Map<String, byte[]> expected = unzip(new ZipUnzipStrategy(UnzipConfig.builder().build()), spec(CompressionFormat.ZIP, false));
+        assertEquals(ENTRY_COUNT, expected.size());
+
+        for (boolean solid : new boolean[]{false, true}) {
+            Map<String, byte[]> actual = unzip(strategy, spec(CompressionFormat.SEVEN_ZIP, solid));
+            assertEquals(expected.keySet(), actual.keySet(), "固实: " + solid);
+            for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+                assertArrayEquals(entry.getValue(), actual.get(entry.getKey()), entry.getKey());
+            }
+        }
+    }
+
+    @Test
+    void testVisitorFailureAbortsExtraction() throws Exception {
+        Path archive = corpus.generate(spec(CompressionFormat.SEVEN_ZIP, true));
+        AtomicInteger visited = new AtomicInteger();
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            assertThrows(UnzipException.class, () -> strategy.unzip(channel, null, null, (fileInfo, in) -> {
+                if (visited.incrementAndGet() == 10) {
+                    throw new IOException("访问器失败");
+                }
+            }));
+        }
+        assertEquals(10, visited.get());
+
+        // 中止后提取线程已释放，同一策略可以继续解压
+        assertEquals(ENTRY_COUNT, unzip(strategy, spec(CompressionFormat.SEVEN_ZIP, true)).size());
+    }
+
+    private Map<String, byte[]> unzip(UnzipStrategy unzipStrategy, CorpusSpec spec) throws Exception {
+        Map<String, byte[]> entries = new TreeMap<>();
+        try (FileChannel channel = FileChannel.open(corpus.generate(spec), StandardOpenOption.READ)) {
+            unzipStrategy.unzip(channel, null, null, (fileInfo, in) -> {
+                byte[] content = IOUtils.toByteArray(in);
+                synchronized (entries) {
+                    entries.put(fileInfo.getPath(), content);
+                }
+            });
+        }
+        return entries;
+    }
+
+    private static CorpusSpec spec(CompressionFormat format, boolean solid) {
+        return CorpusSpec.builder()
+            .format(format)
+            .entryCount(ENTRY_COUNT)
+            .entrySize(48 * 1024)
+            .depth(2)
+            .solid(solid)
+            .build();
+    }
+}
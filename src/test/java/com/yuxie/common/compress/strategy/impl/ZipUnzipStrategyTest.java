@@ -0,0 +1,175 @@
+package com.yuxie.common.compress.strategy.impl;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.corpus.ArchiveCorpus;
+import com.yuxie.common.compress.corpus.CorpusSpec;
+import com.yuxie.common.compress.format.CompressionFormat;
+import com.yuxie.common.compress.util.ZipCharsetDetector;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ZIP策略对没有UTF-8标志位的条目名称检测编码，并在各种输入方式和并行解压时得到相同的结果
+ */
+class ZipUnzipStrategyTest {
+
+    private static final Charset GBK = Charset.forName("GBK");
+
+    private static final List<String> NAMES = Arrays.asList(
+        "readme.txt",
+        "中文目录/测试文件.txt",
+        "中文目录/压缩包说明.txt",
+        "报表/二〇二四年第一季度.txt");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testGbkNamesWithoutUtf8Flag() throws Exception {
+        byte[] zip = zip(GBK);
+
+        assertEquals(GBK, ZipCharsetDetector.detect("测试文件.txt".getBytes(GBK)));
+        assertNamesDecoded(zip);
+    }
+
+    @Test
+    void testUtf8NamesWithoutUtf8Flag() throws Exception {
+        byte[] zip = zip(StandardCharsets.UTF_8);
+
+        assertEquals(StandardCharsets.UTF_8, ZipCharsetDetector.detect("测试文件.txt".getBytes(StandardCharsets.UTF_8)));
+        assertNamesDecoded(zip);
+    }
+
+    @Test
+    void testAsciiNamesUseDefaultCharset() {
+        assertEquals(ZipCharsetDetector.DEFAULT_CHARSET,
+            ZipCharsetDetector.detect("plain/ascii-name.txt".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void testParallelEntriesMatchSerial() throws Exception {
+        byte[] zip = new ArchiveCorpus(7, tempDir).generateBytes(CorpusSpec.builder()
+            .format(CompressionFormat.ZIP)
+            .entryCount(64)
+            .entrySize(16 * 1024)
+            .depth(2)
+            .build());
+
+        Map<String, byte[]> serial = unzip(config(false), zip);
+        assertEquals(64, serial.size());
+        assertEntriesEqual(serial, unzip(config(true), zip));
+
+        // 文件通道上的并行解压由各工作线程按位置读取同一个通道
+        Path file = Files.write(tempDir.resolve("corpus.zip"), zip);
+        Map<String, byte[]> entries = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            new ZipUnzipStrategy(config(true)).unzip(channel, null, null, (fileInfo, in) -> {
+                byte[] content = IOUtils.toByteArray(in);
+                synchronized (entries) {
+                    entries.put(fileInfo.getPath(), content);
+                }
+            });
+        }
+        assertEntriesEqual(serial, entries);
+    }
+
+    private static void assertEntriesEqual(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), actual.get(entry.getKey()), entry.getKey());
+        }
+    }
+
+    /**
+     * 以字节数组、通道和流三种方式（前两种分别顺序和并行）解压，条目名称都必须还原为原始名称
+     */
+    private static void assertNamesDecoded(byte[] zip) throws Exception {
+        for (boolean parallel : new boolean[]{false, true}) {
+            assertEquals(NAMES, new ArrayList<>(unzip(config(parallel), zip).keySet()));
+
+            List<String> names = new ArrayList<>();
+            new ZipUnzipStrategy(config(parallel)).unzip(new SeekableInMemoryByteChannel(zip), null, null,
+                (fileInfo, in) -> names.add(fileInfo.getPath()));
+            assertEquals(NAMES, sorted(names));
+        }
+
+        List<String> names = new ArrayList<>();
+        new ZipUnzipStrategy(config(false)).unzip(new ByteArrayInputStream(zip), null, null,
+            (fileInfo, in) -> names.add(fileInfo.getPath()));
+        assertEquals(NAMES, names);
+    }
+
+    private static Map<String, byte[]> unzip(UnzipConfig config, byte[] zip) throws Exception {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        new ZipUnzipStrategy(config).unzip(zip, null, null, (fileInfo, in) -> {
+            byte[] content = IOUtils.toByteArray(in);
+            synchronized (entries) {
+                entries.put(fileInfo.getPath(), content);
+            }
+        });
+        Map<String, byte[]> ordered = new LinkedHashMap<>();
+        for (String name : sorted(new ArrayList<>(entries.keySet()))) {
+            ordered.put(name, entries.get(name));
+        }
+        return ordered;
+    }
+
+    /**
+     * 按写入顺序排列，并行解压时访问器的调用顺序不固定
+     */
+    private static List<String> sorted(List<String> names) {
+        names.sort((a, b) -> {
+            int i = NAMES.indexOf(a);
+            int j = NAMES.indexOf(b);
+            return i >= 0 && j >= 0 ? Integer.compare(i, j) : a.compareTo(b);
+        });
+        return names;
+    }
+
+    /**
+     * 以指定编码写入条目名称，不设置UTF-8标志位，也不写入Unicode路径扩展字段
+     */
+    private static byte[] zip(Charset charset) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(out)) {
+            zip.setEncoding(charset.name());
+            zip.setUseLanguageEncodingFlag(false);
+            zip.setCreateUnicodeExtraFields(ZipArchiveOutputStream.UnicodeExtraFieldPolicy.NEVER);
+            for (String name : NAMES) {
+                zip.putArchiveEntry(new ZipArchiveEntry(name));
+                zip.write(name.getBytes(StandardCharsets.UTF_8));
+                zip.closeArchiveEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static UnzipConfig config(boolean parallel) {
+        return UnzipConfig.builder()
+            .enableConcurrentUnzip(parallel)
+            .concurrentThreads(4)
+            .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.config.FsyncPolicy;
+import com.yuxie.common.compress.config.UnzipConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link AsyncFileWriter} 写入的文件内容与同步写入相同，同一路径多次写入时最后一次写入的内容保留下来
+ */
+class AsyncFileWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLastWriteWins() throws IOException {
+        // 队列很小、写盘线程较多，同一路径的多次写入混合经过写盘线程和提交线程
+        UnzipConfig config = UnzipConfig.builder()
+            .diskWriterThreads(4)
+            .diskWriteQueueCapacity(2)
+            .build();
+        int[] sizes = {100, AsyncFileWriter.MAX_QUEUED_FILE_SIZE + 1, 7, 0, 64 * 1024, AsyncFileWriter.MAX_QUEUED_FILE_SIZE};
+        Map<Path, byte[]> expected = new HashMap<>();
+        try (AsyncFileWriter writer = new AsyncFileWriter(config)) {
+            for (int round = 0; round < 20; round++) {
+                for (int file = 0; file < 8; file++) {
+                    Path target = tempDir.resolve("file-" + file);
+                    byte[] content = content(round * 8 + file, sizes[(round + file) % sizes.length]);
+                    // 最后一轮不声明大小，全部由写盘线程写入
+                    long declaredSize = round == 19 ? -1 : content.length;
+                    assertEquals(content.length, writer.write(target, new ByteArrayInputStream(content), declaredSize));
+                    expected.put(target, content);
+                }
+            }
+            writer.finish();
+        }
+        assertFiles(expected);
+    }
+
+    @Test
+    void testSynchronousAndPreallocatedWrites() throws IOException {
+        for (boolean async : new boolean[]{false, true}) {
+            UnzipConfig config = UnzipConfig.builder()
+                .enableAsyncDiskWrite(async)
+                .enableFilePreallocation(true)
+                .fsyncPolicy(FsyncPolicy.PER_FILE)
+                .build();
+            Map<Path, byte[]> expected = new HashMap<>();
+            try (AsyncFileWriter writer = new AsyncFileWriter(config)) {
+                // 声明的大小比实际大时预分配的部分被截掉，比实际小时超出的内容照常写入
+                long[] declaredSizes = {1024, 4096, 10, AsyncFileWriter.MAX_QUEUED_FILE_SIZE * 2L};
+                for (int i = 0; i < declaredSizes.length; i++) {
+                    Path target = tempDir.resolve(async + "-" + i);
+                    byte[] content = content(i, i == 2 ? AsyncFileWriter.MAX_QUEUED_FILE_SIZE + 100 : 1000);
+                    writer.write(target, new ByteArrayInputStream(content), declaredSizes[i]);
+                    expected.put(target, content);
+                }
+                writer.finish();
+            }
+            assertFiles(expected);
+        }
+    }
+
+    @Test
+    void testFailedWriteIsReported() throws IOException {
+        AsyncFileWriter writer = new AsyncFileWriter(UnzipConfig.builder().build());
+        writer.write(tempDir.resolve("missing").resolve("file"), new ByteArrayInputStream(content(0, 10)), 10);
+        assertThrows(IOException.class, writer::finish);
+        writer.close();
+        assertThrows(IllegalStateException.class, () -> writer.write(tempDir.resolve("file"), new ByteArrayInputStream(new byte[1]), 1));
+    }
+
+    private static void assertFiles(Map<Path, byte[]> expected) throws IOException {
+        for (Map.Entry<Path, byte[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), Files.readAllBytes(entry.getKey()), entry.getKey().toString());
+        }
+    }
+
+    private static byte[] content(int seed, int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (seed * 131 + i * 7);
+        }
+        return content;
+    }
+}
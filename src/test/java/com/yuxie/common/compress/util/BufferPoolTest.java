@@ -0,0 +1,107 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.config.UnzipConfig;
+import com.yuxie.common.compress.monitor.DefaultUnzipMetrics;
+import com.yuxie.common.compress.monitor.StripedUnzipMetrics;
+import com.yuxie.common.compress.monitor.UnzipMetrics;
+import com.yuxie.common.compress.monitor.UnzipMetricsSnapshot;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 缓冲区池自行统计命中次数，条目输入流和文件写入器借出的缓冲区都会计入监控快照
+ */
+class BufferPoolTest {
+
+    private static final byte[] CONTENT = new byte[100 * 1024];
+
+    /** 比读取时使用的数组大，读取经过复合输入流的缓冲区 */
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testHitsAndMisses() {
+        BufferPool pool = BufferPool.shared();
+        long hits = pool.getHitCount();
+        long misses = pool.getMissCount();
+
+        // 超过最大级别的请求直接分配
+        pool.acquire(BufferPool.MAX_BUFFER_SIZE + 1);
+        assertEquals(misses + 1, pool.getMissCount());
+
+        // 同一线程归还后再次借出命中线程本地缓存
+        byte[] buffer = pool.acquire(3000);
+        pool.release(buffer);
+        assertSame(buffer, pool.acquire(3000));
+        assertEquals(hits + 1, pool.getHitCount());
+        pool.release(buffer);
+    }
+
+    @Test
+    void testStreamAndWriterBuffersAreCounted() throws IOException {
+        BufferPool pool = BufferPool.shared();
+
+        long accesses = accesses(pool);
+        try (InputStream in = new CompressionCompositeInputStream(new ByteArrayInputStream(CONTENT), STREAM_BUFFER_SIZE)) {
+            IOUtils.toByteArray(in);
+        }
+        assertTrue(accesses(pool) > accesses, "复合输入流的读缓冲区");
+
+        accesses = accesses(pool);
+        BoundedEntryInputStream entry = new BoundedEntryInputStream(new ByteArrayInputStream(CONTENT),
+            "entry", CONTENT.length, -1, null, 1, 1);
+        entry.drain();
+        assertTrue(accesses(pool) > accesses, "条目输入流丢弃剩余内容的缓冲区");
+
+        accesses = accesses(pool);
+        try (AsyncFileWriter writer = new AsyncFileWriter(UnzipConfig.builder().enableAsyncDiskWrite(false).build())) {
+            writer.write(tempDir.resolve("file"), new ByteArrayInputStream(CONTENT), CONTENT.length);
+            writer.finish();
+        }
+        assertTrue(accesses(pool) > accesses, "文件写入器的复制缓冲区");
+        assertArrayEquals(CONTENT, Files.readAllBytes(tempDir.resolve("file")));
+    }
+
+    @Test
+    void testMetricsSnapshotIncludesPoolAccesses() throws IOException {
+        for (UnzipMetrics metrics : new UnzipMetrics[]{new DefaultUnzipMetrics(), new StripedUnzipMetrics()}) {
+            String name = metrics.getClass().getSimpleName();
+            try (InputStream in = new CompressionCompositeInputStream(new ByteArrayInputStream(CONTENT), STREAM_BUFFER_SIZE)) {
+                IOUtils.toByteArray(in);
+            }
+            // 借还同一大小的缓冲区，第二次一定命中
+            for (int i = 0; i < 2; i++) {
+                BufferPool.shared().release(BufferPool.shared().acquire(8192));
+            }
+            UnzipMetricsSnapshot snapshot = metrics.getSnapshot();
+            assertTrue(snapshot.getBufferPoolHits() >= 1, name + ": " + snapshot);
+            assertTrue(snapshot.getBufferPoolHits() + snapshot.getBufferPoolMisses() >= 3, name + ": " + snapshot);
+
+            // 通过接口报告的其他缓冲区池的借出同样计入
+            long hits = snapshot.getBufferPoolHits();
+            metrics.recordBufferPoolAccess(true);
+            assertTrue(metrics.getSnapshot().getBufferPoolHits() >= hits + 1, name);
+
+            // 重置后只统计之后的借出
+            metrics.reset();
+            assertEquals(0, metrics.getSnapshot().getBufferPoolHits(), name);
+            BufferPool.shared().release(BufferPool.shared().acquire(8192));
+            assertTrue(metrics.getSnapshot().getBufferPoolHits() >= 1, name);
+        }
+    }
+
+    private static long accesses(BufferPool pool) {
+        return pool.getHitCount() + pool.getMissCount();
+    }
+}
@@ -0,0 +1,137 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.corpus.ArchiveCorpus;
+import com.yuxie.common.compress.corpus.CorpusSpec;
+import com.yuxie.common.compress.format.CompressionFormat;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ParallelBzip2InputStream} 的输出必须与顺序解压逐字节一致
+ */
+class ParallelBzip2InputStreamTest {
+
+    private static final int PARALLELISM = 4;
+
+    @TempDir
+    Path tempDir;
+
+    private ArchiveCorpus corpus;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        corpus = new ArchiveCorpus(7, tempDir);
+    }
+
+    @Test
+    void testMultiBlockMatchesSerial() throws IOException {
+        // 超过三个900KB的块
+        assertParallelMatchesSerial(bzip2(3 * 1024 * 1024));
+    }
+
+    @Test
+    void testConcatenatedStreamsMatchSerial() throws IOException {
+        ByteArrayOutputStream streams = new ByteArrayOutputStream();
+        streams.write(bzip2(2 * 1024 * 1024));
+        streams.write(bzip2(100 * 1024));
+        streams.write(bzip2(1024 * 1024 + 17));
+
+        assertParallelMatchesSerial(streams.toByteArray());
+    }
+
+    @Test
+    void testCorruptBlockFailsLikeSerial() throws IOException {
+        byte[] corrupt = bzip2(3 * 1024 * 1024);
+        corrupt[corrupt.length / 2] ^= 0x55;
+
+        assertThrows(IOException.class, () -> serial(corrupt));
+        assertThrows(IOException.class, () -> parallel(ByteBuffer.wrap(corrupt)));
+    }
+
+    @Test
+    void testCorruptStreamCrcFailsLikeSerial() throws IOException {
+        byte[] corrupt = bzip2(2 * 1024 * 1024);
+        Bzip2BlockScanner scanner = new Bzip2BlockScanner(ByteBuffer.wrap(corrupt), corrupt.length);
+        long marker = scanner.findMarker(Bzip2BlockScanner.STREAM_HEADER_SIZE * 8);
+        while (!scanner.isEndOfStream()) {
+            marker = scanner.findMarker(marker + Bzip2BlockScanner.MAGIC_BITS);
+        }
+        // 翻转流尾部合并CRC中的一位
+        long bit = marker + Bzip2BlockScanner.MAGIC_BITS + 5;
+        corrupt[(int) (bit >>> 3)] ^= (byte) (0x80 >>> (int) (bit & 7));
+
+        assertThrows(IOException.class, () -> serial(corrupt));
+        assertThrows(IOException.class, () -> parallel(ByteBuffer.wrap(corrupt)));
+    }
+
+    @Test
+    void testFindMarkerAtEveryBitOffset() {
+        for (int shift = 0; shift < 8; shift++) {
+            for (long magic : new long[]{Bzip2BlockScanner.BLOCK_MAGIC, Bzip2BlockScanner.END_OF_STREAM_MAGIC}) {
+                byte[] data = new byte[32];
+                long startBit = 8 * 5 + shift;
+                for (int i = 0; i < Bzip2BlockScanner.MAGIC_BITS; i++) {
+                    if (((magic >>> (Bzip2BlockScanner.MAGIC_BITS - 1 - i)) & 1) != 0) {
+                        long bit = startBit + i;
+                        data[(int) (bit >>> 3)] |= (byte) (0x80 >>> (int) (bit & 7));
+                    }
+                }
+                Bzip2BlockScanner scanner = new Bzip2BlockScanner(ByteBuffer.wrap(data), data.length);
+
+                assertEquals(startBit, scanner.findMarker(0), "位偏移: " + shift);
+                assertEquals(magic == Bzip2BlockScanner.END_OF_STREAM_MAGIC, scanner.isEndOfStream());
+                assertEquals(magic >>> 16, scanner.readBits(startBit, 32));
+                assertEquals(-1, scanner.findMarker(startBit + 1));
+            }
+        }
+    }
+
+    @Test
+    void testRejectsNonBzip2Data() {
+        byte[] data = "BZx not bzip2".getBytes();
+        assertThrows(IOException.class, () -> parallel(ByteBuffer.wrap(data)));
+    }
+
+    /**
+     * 分别以堆内存和堆外内存（与映射到内存的文件一样）解压，结果都必须与顺序解压一致
+     */
+    private static void assertParallelMatchesSerial(byte[] bzip2) throws IOException {
+        byte[] expected = serial(bzip2);
+        assertArrayEquals(expected, parallel(ByteBuffer.wrap(bzip2)), "堆内存数据");
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bzip2.length);
+        direct.put(bzip2).flip();
+        assertArrayEquals(expected, parallel(direct), "堆外内存数据");
+    }
+
+    private static byte[] serial(byte[] bzip2) throws IOException {
+        try (InputStream in = new BZip2CompressorInputStream(new ByteArrayInputStream(bzip2), true)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private static byte[] parallel(ByteBuffer bzip2) throws IOException {
+        try (InputStream in = new ParallelBzip2InputStream(bzip2, PARALLELISM, null)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private byte[] bzip2(int size) throws IOException {
+        return corpus.generateBytes(CorpusSpec.builder()
+            .format(CompressionFormat.BZIP2)
+            .entrySize(size)
+            .build());
+    }
+}
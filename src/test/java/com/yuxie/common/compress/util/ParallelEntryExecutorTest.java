@@ -0,0 +1,97 @@
+package com.yuxie.common.compress.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 绑定线程池后任务在绑定的线程池中执行，结果仍按提交顺序交回调用线程，关闭绑定后恢复共享线程池
+ */
+class ParallelEntryExecutorTest {
+
+    private static final int TASK_COUNT = 50;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(3);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testBoundPoolFromWorkerThread() throws Exception {
+        // 调用方本身是绑定线程池的工作线程，任务压入它自己的队列
+        List<ForkJoinPool> taskPools = pool.submit(() -> {
+            try (ParallelEntryExecutor.Binding ignored = ParallelEntryExecutor.bind(pool)) {
+                return runTasks();
+            }
+        }).get(30, TimeUnit.SECONDS);
+        taskPools.forEach(taskPool -> assertSame(pool, taskPool));
+    }
+
+    @Test
+    void testBoundPoolFromOtherThread() throws Exception {
+        try (ParallelEntryExecutor.Binding ignored = ParallelEntryExecutor.bind(pool)) {
+            runTasks().forEach(taskPool -> assertSame(pool, taskPool));
+
+            // 嵌套绑定关闭后恢复外层的绑定
+            ForkJoinPool inner = new ForkJoinPool(2);
+            try (ParallelEntryExecutor.Binding nested = ParallelEntryExecutor.bind(inner)) {
+                runTasks().forEach(taskPool -> assertSame(inner, taskPool));
+            } finally {
+                inner.shutdown();
+            }
+            runTasks().forEach(taskPool -> assertSame(pool, taskPool));
+        }
+
+        // 解除绑定后使用按并行度共享的线程池
+        runTasks().forEach(taskPool -> {
+            assertNotNull(taskPool);
+            assertNotSame(pool, taskPool);
+        });
+        assertThrows(IllegalArgumentException.class, () -> ParallelEntryExecutor.bind(null));
+    }
+
+    /**
+     * 并行执行任务，检查结果顺序并返回各任务所在的线程池
+     */
+    private static List<ForkJoinPool> runTasks() throws Exception {
+        int[] next = new int[1];
+        List<Integer> order = new ArrayList<>();
+        List<ForkJoinPool> taskPools = new ArrayList<>();
+        ParallelEntryExecutor.execute(4, () -> {
+            if (next[0] == TASK_COUNT) {
+                return null;
+            }
+            int value = next[0]++;
+            return () -> {
+                // 让任务完成的顺序与提交顺序不同
+                Thread.sleep((TASK_COUNT - value) % 3);
+                return new Object[]{value, ForkJoinTask.getPool()};
+            };
+        }, result -> {
+            order.add((Integer) result[0]);
+            taskPools.add((ForkJoinPool) result[1]);
+        }, null);
+
+        assertEquals(TASK_COUNT, order.size());
+        for (int i = 0; i < TASK_COUNT; i++) {
+            assertEquals(i, order.get(i));
+        }
+        return taskPools;
+    }
+}
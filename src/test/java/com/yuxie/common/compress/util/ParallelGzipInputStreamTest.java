@@ -0,0 +1,210 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.corpus.ArchiveCorpus;
+import com.yuxie.common.compress.corpus.CorpusSpec;
+import com.yuxie.common.compress.format.CompressionFormat;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ParallelGzipInputStream} 的输出必须与顺序解压逐字节一致
+ */
+class ParallelGzipInputStreamTest {
+
+    private static final int PARALLELISM = 4;
+
+    /**
+     * 形似GZIP头部的字节序列：魔数、DEFLATE、无标志、修改时间、额外标志、操作系统
+     */
+    private static final byte[] FALSE_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    @TempDir
+    Path tempDir;
+
+    private ArchiveCorpus corpus;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        corpus = new ArchiveCorpus(7, tempDir);
+    }
+
+    @Test
+    void testMultiMemberMatchesSerial() throws IOException {
+        byte[] gzip = corpus.generateBytes(CorpusSpec.builder()
+            .format(CompressionFormat.GZIP)
+            .entrySize(8 * 1024 * 1024)
+            .members(16)
+            .build());
+
+        assertParallelMatchesSerial(gzip);
+    }
+
+    @Test
+    void testSingleMemberMatchesSerial() throws IOException {
+        byte[] gzip = corpus.generateBytes(CorpusSpec.builder()
+            .format(CompressionFormat.GZIP)
+            .entrySize(4 * 1024 * 1024)
+            .build());
+
+        assertParallelMatchesSerial(gzip);
+    }
+
+    @Test
+    void testBgzfMatchesSerial() throws IOException {
+        byte[] payload = payload(6 * 1024 * 1024);
+        ByteArrayOutputStream bgzf = new ByteArrayOutputStream();
+        for (int off = 0; off < payload.length; off += 65280) {
+            bgzf.write(bgzfBlock(payload, off, Math.min(65280, payload.length - off)));
+        }
+        // BGZF文件以一个空块结尾
+        bgzf.write(bgzfBlock(payload, 0, 0));
+
+        assertParallelMatchesSerial(bgzf.toByteArray());
+        assertArrayEquals(payload, parallel(ByteBuffer.wrap(bgzf.toByteArray())));
+    }
+
+    @Test
+    void testFalseHeaderInsideMemberMatchesSerial() throws IOException {
+        // 不压缩的成员中每隔一段出现形似GZIP头部的内容，推测的边界会落在成员内部
+        byte[] payload = payload(3 * 1024 * 1024);
+        for (int p = 1000; p + FALSE_HEADER.length < payload.length; p += 100 * 1000) {
+            System.arraycopy(FALSE_HEADER, 0, payload, p, FALSE_HEADER.length);
+        }
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        gzip.write(gzip(payload, Deflater.NO_COMPRESSION));
+        gzip.write(gzip(payload(1024 * 1024), Deflater.DEFAULT_COMPRESSION));
+
+        assertParallelMatchesSerial(gzip.toByteArray());
+    }
+
+    @Test
+    void testCorruptCrcFailsLikeSerial() throws IOException {
+        byte[] payload = payload(8 * 1024 * 1024);
+        List<Integer> memberEnds = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int off = 0; off < payload.length; off += 1024 * 1024) {
+            out.write(gzip(Arrays.copyOfRange(payload, off, off + 1024 * 1024), Deflater.DEFAULT_COMPRESSION));
+            memberEnds.add(out.size());
+        }
+        byte[] valid = out.toByteArray();
+        assertParallelMatchesSerial(valid);
+
+        // 分别破坏中间成员和最后一个成员的CRC
+        for (int member : new int[]{3, memberEnds.size() - 1}) {
+            byte[] corrupt = valid.clone();
+            corrupt[memberEnds.get(member) - 8] ^= 0x55;
+            assertThrows(IOException.class, () -> serial(corrupt));
+            assertThrows(IOException.class, () -> parallel(ByteBuffer.wrap(corrupt)));
+        }
+    }
+
+    @Test
+    void testTruncatedFailsLikeSerial() throws IOException {
+        byte[] gzip = corpus.generateBytes(CorpusSpec.builder()
+            .format(CompressionFormat.GZIP)
+            .entrySize(4 * 1024 * 1024)
+            .members(4)
+            .build());
+        byte[] truncated = Arrays.copyOf(gzip, gzip.length - 3);
+
+        assertThrows(IOException.class, () -> serial(truncated));
+        assertThrows(IOException.class, () -> parallel(ByteBuffer.wrap(truncated)));
+    }
+
+    @Test
+    void testIsMemberStartRejectsPlainText() {
+        byte[] text = "not a gzip member".getBytes(StandardCharsets.US_ASCII);
+        assertFalse(GzipMemberDecoder.isMemberStart(ByteBuffer.wrap(text), 0, text.length));
+        assertTrue(GzipMemberDecoder.isMemberStart(ByteBuffer.wrap(FALSE_HEADER), 0, FALSE_HEADER.length));
+    }
+
+    /**
+     * 分别以堆内存和堆外内存（与映射到内存的文件一样没有底层数组，解码器分段复制输入）解压，结果都必须与顺序解压一致
+     */
+    private static void assertParallelMatchesSerial(byte[] gzip) throws IOException {
+        byte[] expected = serial(gzip);
+        assertArrayEquals(expected, parallel(ByteBuffer.wrap(gzip)), "堆内存数据");
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(gzip.length);
+        direct.put(gzip).flip();
+        assertArrayEquals(expected, parallel(direct), "堆外内存数据");
+    }
+
+    private static byte[] serial(byte[] gzip) throws IOException {
+        try (InputStream in = new GzipCompressorInputStream(new ByteArrayInputStream(gzip), true)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private static byte[] parallel(ByteBuffer gzip) throws IOException {
+        try (InputStream in = new ParallelGzipInputStream(gzip, PARALLELISM, null)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private byte[] payload(int size) throws IOException {
+        byte[] gzip = corpus.generateBytes(CorpusSpec.builder()
+            .format(CompressionFormat.GZIP)
+            .entrySize(size)
+            .build());
+        return serial(gzip);
+    }
+
+    private static byte[] gzip(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 按BGZF格式压缩一个块：额外字段中的 {@code BC} 子字段记录块的总长度减一
+     */
+    private static byte[] bgzfBlock(byte[] data, int off, int len) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data, off, len);
+        deflater.finish();
+        byte[] compressed = new byte[len + 1024];
+        int n = 0;
+        while (!deflater.finished()) {
+            n += deflater.deflate(compressed, n, compressed.length - n);
+        }
+        deflater.end();
+        CRC32 crc = new CRC32();
+        crc.update(data, off, len);
+
+        int blockSize = 18 + n + 8;
+        ByteBuffer block = ByteBuffer.allocate(blockSize).order(ByteOrder.LITTLE_ENDIAN);
+        block.put(new byte[]{0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0});
+        block.putShort((short) (blockSize - 1));
+        block.put(compressed, 0, n);
+        block.putInt((int) crc.getValue());
+        block.putInt(len);
+        return block.array();
+    }
+}
@@ -0,0 +1,141 @@
+package com.yuxie.common.compress.util;
+
+import com.yuxie.common.compress.corpus.ArchiveCorpus;
+import com.yuxie.common.compress.corpus.CorpusSpec;
+import com.yuxie.common.compress.format.CompressionFormat;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.SeekableXZInputStream;
+import org.tukaani.xz.XZOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ParallelXzInputStream} 的输出必须与顺序解压逐字节一致
+ */
+class ParallelXzInputStreamTest {
+
+    private static final int PARALLELISM = 4;
+
+    @TempDir
+    Path tempDir;
+
+    private ArchiveCorpus corpus;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        corpus = new ArchiveCorpus(7, tempDir);
+    }
+
+    @Test
+    void testMultiBlockMatchesSerial() throws IOException {
+        byte[] payload = payload(6 * 1024 * 1024);
+        byte[] xz = xz(payload, new int[]{512 * 1024});
+
+        assertEquals(12, blockCount(xz));
+        assertParallelMatchesSerial(xz);
+        assertArrayEquals(payload, parallel(ByteBuffer.wrap(xz)));
+    }
+
+    @Test
+    void testUnevenBlocksAreGroupedInOrder() throws IOException {
+        // 大小不一的块：小块合并为一个任务，较大的块单独成为任务
+        byte[] payload = payload(9 * 1024 * 1024);
+        byte[] xz = xz(payload, new int[]{7 * 1024, 3 * 1024 * 1024, 100, 600 * 1024, 4 * 1024 * 1024});
+
+        assertTrue(blockCount(xz) > 5);
+        assertParallelMatchesSerial(xz);
+    }
+
+    @Test
+    void testSingleBlockMatchesSerial() throws IOException {
+        byte[] xz = corpus.generateBytes(CorpusSpec.builder()
+            .format(CompressionFormat.XZ)
+            .entrySize(1024 * 1024)
+            .build());
+
+        assertEquals(1, blockCount(xz));
+        assertParallelMatchesSerial(xz);
+    }
+
+    @Test
+    void testCorruptBlockFailsLikeSerial() throws IOException {
+        byte[] corrupt = xz(payload(3 * 1024 * 1024), new int[]{512 * 1024});
+        corrupt[corrupt.length / 2] ^= 0x55;
+
+        assertThrows(IOException.class, () -> serial(corrupt));
+        assertThrows(IOException.class, () -> parallel(ByteBuffer.wrap(corrupt)));
+    }
+
+    /**
+     * 分别以堆内存和堆外内存（与映射到内存的文件一样）解压，结果都必须与顺序解压一致
+     */
+    private static void assertParallelMatchesSerial(byte[] xz) throws IOException {
+        byte[] expected = serial(xz);
+        assertArrayEquals(expected, parallel(ByteBuffer.wrap(xz)), "堆内存数据");
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(xz.length);
+        direct.put(xz).flip();
+        assertArrayEquals(expected, parallel(direct), "堆外内存数据");
+    }
+
+    private static byte[] serial(byte[] xz) throws IOException {
+        try (InputStream in = new XZCompressorInputStream(new ByteArrayInputStream(xz), true)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private static byte[] parallel(ByteBuffer xz) throws IOException {
+        try (InputStream in = new ParallelXzInputStream(xz, PARALLELISM, null)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private static int blockCount(byte[] xz) throws IOException {
+        try (SeekableXZInputStream in = new SeekableXZInputStream(new ByteBufferSeekableInputStream(ByteBuffer.wrap(xz)))) {
+            return in.getBlockCount();
+        }
+    }
+
+    /**
+     * 测试数据的内容，由生成较快的GZIP压缩包解压得到
+     */
+    private byte[] payload(int size) throws IOException {
+        byte[] gzip = corpus.generateBytes(CorpusSpec.builder()
+            .format(CompressionFormat.GZIP)
+            .entrySize(size)
+            .build());
+        try (InputStream in = new GzipCompressorInputStream(new ByteArrayInputStream(gzip))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    /**
+     * 按给定的块大小循环划分数据，每个块单独压缩，与多线程压缩的输出结构相同
+     */
+    private static byte[] xz(byte[] payload, int[] blockSizes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XZOutputStream xz = new XZOutputStream(out, new LZMA2Options(1))) {
+            int off = 0;
+            for (int i = 0; off < payload.length; i++) {
+                int n = Math.min(blockSizes[i % blockSizes.length], payload.length - off);
+                xz.write(payload, off, n);
+                xz.endBlock();
+                off += n;
+            }
+        }
+        return out.toByteArray();
+    }
+}